@@ -0,0 +1,214 @@
+package Cliente;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+import eventos.TipoEvento;
+
+/**
+ * Contador de ingresos segmentado por {@link eventos.TipoEvento}, con un
+ * {@link LongAdder} por tipo: las ventas concurrentes no compiten por un único campo ni
+ * toman candados. Los montos se guardan en centavos para que la suma sea exacta.
+ * <p>
+ * {@link #instantanea()} es una lectura versionada: {@link #restaurar} y {@link #reiniciar}
+ * reemplazan todas las celdas con la versión en un valor impar, y la lectura se repite si
+ * la versión cambió mientras sumaba, así que nunca mezcla valores anteriores y
+ * restaurados. Cada abono toca una sola celda y queda contado completo o no contado.
+ */
+public final class AcumuladorIngresos {
+    private static final int TIPOS = TipoEvento.values().length;
+    /** Lecturas optimistas antes de esperar a que termine el reemplazo en curso. */
+    private static final int REINTENTOS = 64;
+
+    private final LongAdder[] centavosPorTipo = new LongAdder[TIPOS];
+    private volatile long baseCentavos;
+    /** Impar mientras se reemplazan las celdas; solo cambia con {@link #reemplazo} tomado. */
+    private volatile long version;
+    private final ReentrantLock reemplazo = new ReentrantLock();
+
+    /**
+     * Crea un acumulador con un valor base (ingresos previos sin clasificar).
+     *
+     * @param base ingresos iniciales (no negativos).
+     * @throws IllegalArgumentException si {@code base} es negativa.
+     */
+    public AcumuladorIngresos(double base) {
+        for (int t = 0; t < TIPOS; t++) {
+            centavosPorTipo[t] = new LongAdder();
+        }
+        this.baseCentavos = aCentavos(validar(base));
+    }
+
+    /**
+     * Acredita un ingreso asociado a un tipo de evento.
+     *
+     * @param tipo  tipo de evento que originó el ingreso (obligatorio).
+     * @param monto valor a acreditar (debe ser {@code >= 0}).
+     * @throws NullPointerException     si {@code tipo} es {@code null}.
+     * @throws IllegalArgumentException si {@code monto} es negativo.
+     */
+    public void registrar(TipoEvento tipo, double monto) {
+        Objects.requireNonNull(tipo, "El tipo de evento es obligatorio");
+        abonar(tipo, aCentavos(validar(monto)));
+    }
+
+    /**
+     * Suma al tipo de evento una diferencia que puede ser negativa: revierte o corrige un
+     * {@link #registrar} anterior (p. ej. al retirar un tiquete o cambiar su precio).
+     *
+     * @param tipo       tipo de evento del ingreso (obligatorio).
+     * @param diferencia monto a sumar o, si es negativo, a descontar.
+     * @throws NullPointerException si {@code tipo} es {@code null}.
+     */
+    public void ajustar(TipoEvento tipo, double diferencia) {
+        Objects.requireNonNull(tipo, "El tipo de evento es obligatorio");
+        abonar(tipo, aCentavos(diferencia));
+    }
+
+    /**
+     * Como {@link #ajustar}, con la diferencia ya en centavos; lo usa {@link TableroGanancias}.
+     */
+    void ajustarCentavos(TipoEvento tipo, long centavos) {
+        Objects.requireNonNull(tipo, "El tipo de evento es obligatorio");
+        abonar(tipo, centavos);
+    }
+
+    private void abonar(TipoEvento tipo, long centavos) {
+        centavosPorTipo[tipo.ordinal()].add(centavos);
+    }
+
+    /**
+     * Retorna un corte de los ingresos acumulados que no mezcla valores de antes y después
+     * de un {@link #restaurar} o {@link #reiniciar}.
+     *
+     * @return instantánea inmutable con el total y el detalle por tipo de evento.
+     */
+    public Instantanea instantanea() {
+        for (int intento = 0; intento < REINTENTOS; intento++) {
+            long antes = version;
+            if ((antes & 1) == 0) {
+                Instantanea corte = leer();
+                if (version == antes) {
+                    return corte;
+                }
+            }
+            Thread.onSpinWait();
+        }
+        reemplazo.lock();
+        try {
+            return leer();
+        } finally {
+            reemplazo.unlock();
+        }
+    }
+
+    private Instantanea leer() {
+        long[] porTipo = new long[TIPOS];
+        for (int t = 0; t < TIPOS; t++) {
+            porTipo[t] = centavosPorTipo[t].sum();
+        }
+        return new Instantanea(baseCentavos, porTipo);
+    }
+
+    /**
+     * Descarta el detalle acumulado y fija un nuevo valor base.
+     *
+     * @param base nuevo valor base (no negativo).
+     * @throws IllegalArgumentException si {@code base} es negativa.
+     */
+    public void reiniciar(double base) {
+        reemplazar(aCentavos(validar(base)), new long[TIPOS]);
+    }
+
+    /**
+     * Restaura el acumulador a partir de un total y su detalle por tipo (usado en persistencia).
+     * <p>
+     * La diferencia entre el total y la suma del detalle queda como base sin clasificar. Una
+     * {@link #instantanea()} concurrente ve los valores anteriores o los restaurados, nunca
+     * una mezcla.
+     *
+     * @param total   ingresos totales persistidos.
+     * @param porTipo detalle por tipo de evento (puede ser {@code null}).
+     * @throws IllegalArgumentException si algún monto del detalle es negativo.
+     */
+    public void restaurar(double total, Map<TipoEvento, Double> porTipo) {
+        long[] centavos = new long[TIPOS];
+        long clasificado = 0;
+        if (porTipo != null) {
+            for (Map.Entry<TipoEvento, Double> entrada : porTipo.entrySet()) {
+                long monto = aCentavos(validar(entrada.getValue()));
+                centavos[Objects.requireNonNull(entrada.getKey(), "El tipo de evento es obligatorio").ordinal()] += monto;
+                clasificado += monto;
+            }
+        }
+        reemplazar(Math.max(0L, aCentavos(total) - clasificado), centavos);
+    }
+
+    private void reemplazar(long base, long[] centavos) {
+        reemplazo.lock();
+        try {
+            version++;
+            for (int t = 0; t < TIPOS; t++) {
+                centavosPorTipo[t].reset();
+                centavosPorTipo[t].add(centavos[t]);
+            }
+            baseCentavos = base;
+            version++;
+        } finally {
+            reemplazo.unlock();
+        }
+    }
+
+    private static double validar(double monto) {
+        if (monto < 0) {
+            throw new IllegalArgumentException("El monto no puede ser negativo");
+        }
+        return monto;
+    }
+
+    private static long aCentavos(double monto) {
+        return Math.round(monto * 100.0);
+    }
+
+    /**
+     * Corte inmutable de un {@link AcumuladorIngresos}.
+     */
+    public static final class Instantanea {
+        private final double total;
+        private final double sinClasificar;
+        private final Map<TipoEvento, Double> porTipo;
+
+        private Instantanea(long baseCentavos, long[] centavosPorTipo) {
+            EnumMap<TipoEvento, Double> detalle = new EnumMap<>(TipoEvento.class);
+            long suma = baseCentavos;
+            for (TipoEvento tipo : TipoEvento.values()) {
+                long valor = centavosPorTipo[tipo.ordinal()];
+                detalle.put(tipo, valor / 100.0);
+                suma += valor;
+            }
+            this.total = suma / 100.0;
+            this.sinClasificar = baseCentavos / 100.0;
+            this.porTipo = Collections.unmodifiableMap(detalle);
+        }
+
+        public double getTotal() {
+            return total;
+        }
+
+        public double getSinClasificar() {
+            return sinClasificar;
+        }
+
+        public double getPorTipo(TipoEvento tipo) {
+            return porTipo.getOrDefault(tipo, 0.0);
+        }
+
+        public Map<TipoEvento, Double> getPorTipo() {
+            return porTipo;
+        }
+    }
+}
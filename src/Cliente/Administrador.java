@@ -1,10 +1,12 @@
 package Cliente;
 
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.EnumMap;
-import java.util.List;
+import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 
 import eventos.Evento;
 import eventos.TipoEvento;
@@ -25,8 +27,9 @@ import tiquetes.Tiquete;
  */
 public class Administrador extends Usuario {
     private  String idAdministrador;
-    private double ganancias;
-    private final List<Venue> venuesAprobados;
+    /** Libro único de las ganancias de la tiquetera; las consultas de ganancias lo leen. */
+    private final TableroGanancias tablero;
+    private final Set<Venue> venuesAprobados;
     private final Map<TipoEvento, Double> cargosServicio;
     private double cargoEmision;
 
@@ -47,12 +50,12 @@ public class Administrador extends Usuario {
             String password, String nombre, double saldo) {
         super(login, password, nombre, saldo);
         this.idAdministrador = Objects.requireNonNull(idAdministrador, "El identificador del administrador es obligatorio");
-        this.venuesAprobados = new ArrayList<>();
+        this.venuesAprobados = new LinkedHashSet<>();
         if (venuesAprobados != null) {
             this.venuesAprobados.addAll(venuesAprobados);
         }
         this.cargosServicio = new EnumMap<>(TipoEvento.class);
-        this.ganancias = ganancias;
+        this.tablero = new TableroGanancias(ganancias);
     }
 
     public String getidAdministrador() {
@@ -71,6 +74,16 @@ public class Administrador extends Usuario {
         return new ArrayList<>(venuesAprobados);
     }
 
+    /**
+     * Verifica si el venue está aprobado, en tiempo constante.
+     *
+     * @param venue venue a consultar.
+     * @return {@code true} si el administrador aprobó el venue.
+     */
+    public boolean tieneVenueAprobado(Venue venue) {
+        return venue != null && venuesAprobados.contains(venue);
+    }
+
     public void setVenuesAprobados(ArrayList<Venue> venuesAprobados) {
         this.venuesAprobados.clear();
         if (venuesAprobados != null) {
@@ -79,14 +92,57 @@ public class Administrador extends Usuario {
     }
 
     public double getGanancias() {
-        return ganancias;
+        return tablero.getIngresos();
     }
 
     public void setGanancias(double ganancias) {
         if (ganancias < 0) {
             throw new IllegalArgumentException("Las ganancias no pueden ser negativas");
         }
-        this.ganancias = ganancias;
+        tablero.restaurarGanancias(ganancias, null);
+    }
+
+    /**
+     * Acredita a la tiquetera, en el día de hoy, un ingreso originado en un evento del tipo
+     * indicado que no sale de los cargos de un tiquete (esos los acreditan los eventos).
+     * <p>
+     * Puede invocarse concurrentemente desde varias ventas sin contención sobre un único contador.
+     *
+     * @param tipoEvento tipo del evento que generó el ingreso (obligatorio).
+     * @param monto      monto a acreditar (debe ser {@code >= 0}).
+     * @throws NullPointerException     si {@code tipoEvento} es {@code null}.
+     * @throws IllegalArgumentException si {@code monto} es negativo.
+     */
+    public void registrarGanancia(TipoEvento tipoEvento, double monto) {
+        tablero.registrarGanancia(tipoEvento, LocalDate.now(), monto);
+    }
+
+    /**
+     * Retorna un corte consistente de las ganancias, con su detalle por tipo de evento.
+     *
+     * @return instantánea inmutable de las ganancias.
+     */
+    public AcumuladorIngresos.Instantanea getGananciasPorTipo() {
+        return tablero.getGananciasPorTipo();
+    }
+
+    /**
+     * Retorna el tablero de ganancias que alimentan los eventos y el marketplace.
+     *
+     * @return tablero de ganancias del administrador.
+     */
+    public TableroGanancias getTablero() {
+        return tablero;
+    }
+
+    /**
+     * Restaura las ganancias persistidas (total y detalle por tipo de evento).
+     *
+     * @param total   ganancias totales.
+     * @param porTipo detalle por tipo de evento (puede ser {@code null}).
+     */
+    public void restaurarGanancias(double total, Map<TipoEvento, Double> porTipo) {
+        tablero.restaurarGanancias(total, porTipo);
     }
     /**
      * Aprueba un {@link eventos.Venue} propuesto.
@@ -102,9 +158,7 @@ public class Administrador extends Usuario {
         if (!decision) {
             return;
         }
-        if (!venuesAprobados.contains(venue)) {
-            venuesAprobados.add(Objects.requireNonNull(venue, "El venue es obligatorio"));
-        }
+        venuesAprobados.add(Objects.requireNonNull(venue, "El venue es obligatorio"));
     }
     
     /**
@@ -159,10 +213,39 @@ public class Administrador extends Usuario {
      * @throws SecurityException si las credenciales son inválidas.
      */
     public double verReporteGanancias(String login, String password) {
+        return verReporteGananciasPorTipo(login, password).getTotal();
+    }
+
+    /**
+     * Retorna el detalle de ganancias por tipo de evento, previa autenticación.
+     * <p>
+     * El total y el detalle provienen del mismo corte, por lo que siempre son coherentes entre sí.
+     *
+     * @param login    login del administrador que consulta.
+     * @param password password del administrador que consulta.
+     * @return instantánea de las ganancias de la tiquetera.
+     * @throws SecurityException si las credenciales son inválidas.
+     */
+    public AcumuladorIngresos.Instantanea verReporteGananciasPorTipo(String login, String password) {
+        if (!autenticar(login, password)) {
+            throw new SecurityException("Credenciales inválidas");
+        }
+        return tablero.getGananciasPorTipo();
+    }
+    /**
+     * Retorna el tablero de ganancias (por tipo de evento, día, venue, cargos y reventa),
+     * previa autenticación. Sus consultas no recorren tiquetes ni el log.
+     *
+     * @param login    login del administrador que consulta.
+     * @param password password del administrador que consulta.
+     * @return tablero de ganancias de la tiquetera.
+     * @throws SecurityException si las credenciales son inválidas.
+     */
+    public TableroGanancias verTableroGanancias(String login, String password) {
         if (!autenticar(login, password)) {
             throw new SecurityException("Credenciales inválidas");
         }
-        return ganancias;
+        return tablero;
     }
     /**
      * Emite la decisión administrativa sobre una solicitud de reembolso por calamidad.
@@ -184,4 +267,4 @@ public class Administrador extends Usuario {
     public double getCargoEmision() {
         return cargoEmision;
     }
-}
\ No newline at end of file
+}
\ No newline at end of file
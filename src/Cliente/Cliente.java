@@ -1,7 +1,13 @@
 package Cliente;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
 import eventos.Evento;
@@ -23,7 +29,15 @@ import tiquetes.Tiquete;
  */
 public class Cliente extends Usuario {
     private final String idCliente;
-    private final List<Tiquete> tiquetes;
+    /**
+     * Tiquetes del cliente por id, en orden de llegada.
+     */
+    private final Map<Integer, Tiquete> tiquetes;
+    /** Marca de orden de llegada de cada tiquete, por id, para reordenar al restaurar. */
+    private final Map<Integer, Long> ordenPorId;
+    private final Collection<Tiquete> vistaTiquetes;
+    private long siguienteOrden;
+    private int versionTiquetes;
 
     
     /**
@@ -39,7 +53,9 @@ public class Cliente extends Usuario {
     public Cliente(String login, String password, String nombre, double saldo, String idCliente) {
         super(login, password, nombre, saldo);
         this.idCliente = Objects.requireNonNull(idCliente, "El identificador del cliente es obligatorio");
-        this.tiquetes = new ArrayList<>();
+        this.tiquetes = new LinkedHashMap<>();
+        this.ordenPorId = new HashMap<>();
+        this.vistaTiquetes = Collections.unmodifiableCollection(tiquetes.values());
     }
 
     public String getIdCliente() {
@@ -50,28 +66,106 @@ public class Cliente extends Usuario {
         throw new UnsupportedOperationException("El identificador del cliente es inmutable");
     }
 
+    /**
+     * @return copia modificable de los tiquetes del cliente, en orden de llegada.
+     */
     public ArrayList<Tiquete> getTiquetes() {
-        return new ArrayList<>(tiquetes);
+        return new ArrayList<>(tiquetes.values());
     }
 
-    public List<Tiquete> verTiquetes() {
-        return new ArrayList<>(tiquetes);
+    /**
+     * Vista de solo lectura de los tiquetes del cliente, en orden de llegada.
+     * <p>
+     * No copia: refleja los cambios posteriores de la colección. Quien necesite una foto
+     * estable debe copiarla (o usar {@link #getTiquetes()}).
+     */
+    public Collection<Tiquete> verTiquetes() {
+        return vistaTiquetes;
     }
 
     public void setTiquetes(ArrayList<Tiquete> tiquetesNuevos) {
         this.tiquetes.clear();
+        this.ordenPorId.clear();
         if (tiquetesNuevos != null) {
-            this.tiquetes.addAll(tiquetesNuevos);
+            for (Tiquete tiquete : tiquetesNuevos) {
+                poner(tiquete);
+            }
         }
+        versionTiquetes++;
     }
+
     /**
-     * Agrega un {@link tiquetes.Tiquete} a la colección del cliente.
+     * Contador que aumenta cada vez que cambia la colección de tiquetes del cliente.
+     * <p>
+     * Permite a las vistas de solo lectura reutilizar la copia anterior cuando no hubo cambios.
+     *
+     * @return versión actual de la colección de tiquetes.
+     */
+    public int getVersionTiquetes() {
+        return versionTiquetes;
+    }
+    /**
+     * Agrega un {@link tiquetes.Tiquete} a la colección del cliente. Si ya había un
+     * tiquete con el mismo id, se reemplaza.
      *
      * @param tiquete tiquete a agregar (obligatorio).
      * @throws NullPointerException si {@code tiquete} es {@code null}.
      */
     public void agregarTiquete(Tiquete tiquete) {
-        tiquetes.add(Objects.requireNonNull(tiquete, "El tiquete es obligatorio"));
+        Objects.requireNonNull(tiquete, "El tiquete es obligatorio");
+        poner(tiquete);
+        versionTiquetes++;
+    }
+
+    /**
+     * Devuelve un tiquete retirado con {@link #retirarTiquete(Tiquete)} a la posición que
+     * ocupaba en el orden de llegada (p. ej. al deshacer una transferencia). Reordena la
+     * colección, así que cuesta O(n log n); agregar y retirar siguen siendo O(1).
+     *
+     * @param tiquete tiquete a devolver (obligatorio).
+     * @param orden   marca de orden retornada al retirarlo.
+     * @throws NullPointerException si {@code tiquete} es {@code null}.
+     */
+    public void restaurarTiquete(Tiquete tiquete, long orden) {
+        Objects.requireNonNull(tiquete, "El tiquete es obligatorio");
+        tiquetes.put(tiquete.getIdTiquete(), tiquete);
+        ordenPorId.put(tiquete.getIdTiquete(), orden);
+        List<Tiquete> ordenados = new ArrayList<>(tiquetes.values());
+        ordenados.sort(Comparator.comparingLong(t -> ordenPorId.get(t.getIdTiquete())));
+        tiquetes.clear();
+        for (Tiquete t : ordenados) {
+            tiquetes.put(t.getIdTiquete(), t);
+        }
+        versionTiquetes++;
+    }
+
+    /**
+     * Elimina el tiquete de la colección y retorna su marca de orden de llegada.
+     *
+     * @param tiquete tiquete a eliminar.
+     * @return la marca para {@link #restaurarTiquete(Tiquete, long)}, o {@code -1} si el
+     *         tiquete no estaba en la colección.
+     */
+    public long retirarTiquete(Tiquete tiquete) {
+        if (tiquete == null) {
+            return -1;
+        }
+        if (!tiquete.equals(tiquetes.get(tiquete.getIdTiquete()))) {
+            return -1;
+        }
+        tiquetes.remove(tiquete.getIdTiquete());
+        versionTiquetes++;
+        return ordenPorId.remove(tiquete.getIdTiquete());
+    }
+
+    /**
+     * Pone el tiquete; si ya había uno con el mismo id conserva su posición, si no lo
+     * deja de último.
+     */
+    private void poner(Tiquete tiquete) {
+        if (tiquetes.put(tiquete.getIdTiquete(), tiquete) == null) {
+            ordenPorId.put(tiquete.getIdTiquete(), siguienteOrden++);
+        }
     }
     
     /**
@@ -82,7 +176,7 @@ public class Cliente extends Usuario {
      *         {@code false} en caso contrario.
      */
     public boolean eliminarTiquete(Tiquete tiquete) {
-        return tiquetes.remove(tiquete);
+        return retirarTiquete(tiquete) >= 0;
     }
     /**
      * Transfiere un tiquete identificado por {@code idTiquete} desde este cliente (emisor)
@@ -113,31 +207,20 @@ public class Cliente extends Usuario {
         if (!this.getPassword().equals(password)) {
             return false;
         }
-        Tiquete tiqueteATransferir = null;
-        for (Tiquete t : tiquetes) {
-            if (t.getIdTiquete() == idTiquete) {
-                tiqueteATransferir = t;
-                break;
-            }
-        }
+        Tiquete tiqueteATransferir = tiquetes.get(idTiquete);
         if (tiqueteATransferir == null) {
             return false;
         }
         if (tiqueteATransferir.isImpreso()) {
             throw new IllegalStateException("El tiquete ya fue impreso y no puede transferirse");
         }
-        tiquetes.remove(tiqueteATransferir);
+        eliminarTiquete(tiqueteATransferir);
         receptor.agregarTiquete(tiqueteATransferir);
         tiqueteATransferir.setCliente(receptor);
         return true;
     }
 
     public boolean poseeTiquete(int idTiquete) {
-        for (Tiquete t : tiquetes) {
-            if (t.getIdTiquete() == idTiquete) {
-                return true;
-            }
-        }
-        return false;
+        return tiquetes.containsKey(idTiquete);
     }
-}
\ No newline at end of file
+}
\ No newline at end of file
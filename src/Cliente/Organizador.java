@@ -4,6 +4,7 @@ import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
 import eventos.Evento;
@@ -29,7 +30,7 @@ import tiquetes.Transaccion;
  */
 public class Organizador extends Usuario {
     private final String idOrganizador;
-    private double finanzas;
+    private final AcumuladorIngresos finanzas;
     private final List<Evento> eventos;
     private final List<Tiquete> cortesias = new ArrayList<>();
     
@@ -53,7 +54,7 @@ public class Organizador extends Usuario {
 			double finanzasIniciales, Evento[] eventosIniciales) {
 		super(login, password, nombre, saldo);
 		this.idOrganizador = Objects.requireNonNull(idOrganizador, "El identificador del organizador es obligatorio");
-		this.finanzas = finanzasIniciales;
+		this.finanzas = new AcumuladorIngresos(finanzasIniciales);
 		this.eventos = new ArrayList<>();
 		if (eventosIniciales != null) {
 			for (Evento e : eventosIniciales) {
@@ -82,14 +83,55 @@ public class Organizador extends Usuario {
     }
 
     public double getFinanzas() {
-        return finanzas;
+        return finanzas.instantanea().getTotal();
     }
 
     public void setFinanzas(double finanzas) {
         if (finanzas < 0) {
             throw new IllegalArgumentException("Las finanzas no pueden ser negativas");
         }
-        this.finanzas = finanzas;
+        this.finanzas.reiniciar(finanzas);
+    }
+
+    /**
+     * Acredita al organizador un ingreso por ventas de un evento del tipo indicado.
+     *
+     * @param tipoEvento tipo del evento vendido (obligatorio).
+     * @param monto      monto a acreditar (debe ser {@code >= 0}).
+     * @throws NullPointerException     si {@code tipoEvento} es {@code null}.
+     * @throws IllegalArgumentException si {@code monto} es negativo.
+     */
+    public void registrarIngreso(TipoEvento tipoEvento, double monto) {
+        finanzas.registrar(tipoEvento, monto);
+    }
+
+    /**
+     * Corrige los ingresos de un tipo de evento con una diferencia que puede ser negativa
+     * (p. ej. al retirar un tiquete o al cambiar su precio).
+     *
+     * @throws NullPointerException si {@code tipoEvento} es {@code null}.
+     */
+    public void ajustarIngreso(TipoEvento tipoEvento, double diferencia) {
+        finanzas.ajustar(tipoEvento, diferencia);
+    }
+
+    /**
+     * Retorna un corte consistente de las finanzas, con su detalle por tipo de evento.
+     *
+     * @return instantánea inmutable de las finanzas.
+     */
+    public AcumuladorIngresos.Instantanea getFinanzasPorTipo() {
+        return finanzas.instantanea();
+    }
+
+    /**
+     * Restaura las finanzas persistidas (total y detalle por tipo de evento).
+     *
+     * @param total   finanzas totales.
+     * @param porTipo detalle por tipo de evento (puede ser {@code null}).
+     */
+    public void restaurarFinanzas(double total, Map<TipoEvento, Double> porTipo) {
+        finanzas.restaurar(total, porTipo);
     }
 
     public String getIdOrganizador() {
@@ -140,7 +182,7 @@ public class Organizador extends Usuario {
         Objects.requireNonNull(venue, "El venue es obligatorio");
         Objects.requireNonNull(fecha, "La fecha es obligatoria");
         Objects.requireNonNull(hora, "La hora es obligatoria");
-        if (!administrador.getVenuesAprobados().contains(venue)) {
+        if (!administrador.tieneVenueAprobado(venue)) {
             throw new IllegalArgumentException("El venue no ha sido aprobado por el administrador");
         }
         if (venue.tieneEventoEnFecha(fecha)) {
@@ -245,10 +287,22 @@ public class Organizador extends Usuario {
      * @throws SecurityException si las credenciales son inválidas.
      */
     public double consultarFinanzas(String login, String password) {
+        return consultarFinanzasPorTipo(login, password).getTotal();
+    }
+
+    /**
+     * Retorna el detalle de finanzas por tipo de evento, previa autenticación.
+     *
+     * @param login    login del organizador que consulta.
+     * @param password password del organizador que consulta.
+     * @return instantánea de las finanzas del organizador.
+     * @throws SecurityException si las credenciales son inválidas.
+     */
+    public AcumuladorIngresos.Instantanea consultarFinanzasPorTipo(String login, String password) {
         if (!autenticar(login, password)) {
             throw new SecurityException("Credenciales inválidas");
         }
-        return finanzas;
+        return finanzas.instantanea();
     }
     /**
      * Registra un evento en el arreglo interno de eventos del organizador.
@@ -263,4 +317,4 @@ public class Organizador extends Usuario {
             eventos.add(e);
         }
     }
-}
\ No newline at end of file
+}
\ No newline at end of file
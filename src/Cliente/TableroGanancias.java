@@ -0,0 +1,365 @@
+package Cliente;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import eventos.TipoEvento;
+import eventos.Venue;
+
+/**
+ * Libro de ganancias de la tiquetera: el único registro de lo que gana, con agregados que se
+ * mantienen al vuelo para que los reportes financieros no recorran tiquetes ni el log.
+ * <p>
+ * Cada venta de un tiquete acredita sus cargos de servicio y de emisión (lo que gana la
+ * tiquetera) por tipo de evento, por venue y por el día en que ocurre; retirarlo los
+ * descuenta del día en que se retira. El detalle por tipo es un {@link AcumuladorIngresos},
+ * que también lleva las ganancias previas sin clasificar; {@link Administrador#getGanancias()}
+ * lo consulta. Cada venta del marketplace suma al volumen de reventa del día en que se
+ * concreta y al de los tipos de evento de sus tiquetes.
+ * <p>
+ * Las ganancias, los días y la reventa son el libro de ingresos: solo las ventas los
+ * mueven, y se guardan con el estado y se restauran al cargarlo. Los cargos, la cantidad
+ * de tiquetes y los ingresos por venue describen los tiquetes emitidos: los eventos los
+ * cuentan también al registrar los tiquetes guardados ({@link #contarTiquete}), sin tocar
+ * el libro.
+ * <p>
+ * Cada consulta es O(1) (salvo las que copian un detalle completo) y puede hacerse desde
+ * cualquier hilo mientras se registran ventas; salvo {@link #getGananciasPorTipo()}, dos
+ * consultas distintas no forman un corte consistente. Los montos se guardan en centavos
+ * para que la suma sea exacta.
+ */
+public final class TableroGanancias {
+    private final AcumuladorIngresos ganancias;
+    private final Map<LocalDate, LongAdder> porDia = new ConcurrentHashMap<>();
+    private final Map<Venue, LongAdder> porVenue = new ConcurrentHashMap<>();
+    private final LongAdder cargosServicio = new LongAdder();
+    private final LongAdder cargosEmision = new LongAdder();
+    private final LongAdder ventas = new LongAdder();
+    private final Map<LocalDate, LongAdder> reventaPorDia = new ConcurrentHashMap<>();
+    private final LongAdder volumenReventa = new LongAdder();
+    private final AcumuladorIngresos reventaPorTipo = new AcumuladorIngresos(0.0);
+    private final LongAdder reventas = new LongAdder();
+
+    public TableroGanancias() {
+        this(0.0);
+    }
+
+    /**
+     * @param ganancias ganancias previas sin clasificar (no negativas).
+     * @throws IllegalArgumentException si {@code ganancias} es negativa.
+     */
+    public TableroGanancias(double ganancias) {
+        this.ganancias = new AcumuladorIngresos(ganancias);
+    }
+
+    /**
+     * Acredita la emisión de un tiquete.
+     *
+     * @param tipo          tipo del evento (obligatorio).
+     * @param venue         venue del evento (puede ser {@code null}).
+     * @param dia           día de la venta (obligatorio).
+     * @param cargoServicio cargo de servicio del tiquete (no negativo).
+     * @param cargoEmision  cargo de emisión del tiquete (no negativo).
+     * @throws NullPointerException     si {@code tipo} o {@code dia} son {@code null}.
+     * @throws IllegalArgumentException si algún cargo es negativo.
+     */
+    public void registrarVenta(TipoEvento tipo, Venue venue, LocalDate dia, double cargoServicio, double cargoEmision) {
+        Objects.requireNonNull(dia, "El día es obligatorio");
+        acumular(tipo, venue, dia, validar(cargoServicio), validar(cargoEmision), 1);
+    }
+
+    /**
+     * Revierte un {@link #registrarVenta} con los mismos cargos (p. ej. al retirar el
+     * tiquete); {@code dia} es el día en que se retira.
+     */
+    public void anularVenta(TipoEvento tipo, Venue venue, LocalDate dia, double cargoServicio, double cargoEmision) {
+        Objects.requireNonNull(dia, "El día es obligatorio");
+        acumular(tipo, venue, dia, -validar(cargoServicio), -validar(cargoEmision), -1);
+    }
+
+    /**
+     * Cuenta un tiquete ya vendido (p. ej. al cargar los datos guardados) en los cargos, la
+     * cantidad de tiquetes y los ingresos del venue, sin acreditar ganancias: ya están en el
+     * libro de ingresos.
+     *
+     * @param venue         venue del evento (puede ser {@code null}).
+     * @param cargoServicio cargo de servicio del tiquete (no negativo).
+     * @param cargoEmision  cargo de emisión del tiquete (no negativo).
+     * @throws IllegalArgumentException si algún cargo es negativo.
+     */
+    public void contarTiquete(Venue venue, double cargoServicio, double cargoEmision) {
+        contar(venue, aCentavos(validar(cargoServicio)), aCentavos(validar(cargoEmision)), 1);
+    }
+
+    /**
+     * Revierte un {@link #contarTiquete} con los mismos datos, sin descontar ganancias.
+     */
+    public void descontarTiquete(Venue venue, double cargoServicio, double cargoEmision) {
+        contar(venue, -aCentavos(validar(cargoServicio)), -aCentavos(validar(cargoEmision)), -1);
+    }
+
+    /**
+     * Acredita de una vez {@code cantidad} tiquetes cuyos cargos suman los montos dados, sin
+     * tocar los ingresos por día; lo usan los eventos para reclasificar sus ventas (por tipo,
+     * venue o administrador) sin recorrer sus tiquetes. Las ventas ya ocurrieron, así que sus
+     * días quedan en el tablero donde se registraron.
+     *
+     * @throws IllegalArgumentException si la cantidad o algún monto es negativo.
+     */
+    public void registrarVentas(TipoEvento tipo, Venue venue, long cantidad, double cargosServicio,
+            double cargosEmision) {
+        acumular(tipo, venue, null, validar(cargosServicio), validar(cargosEmision), validar(cantidad));
+    }
+
+    /**
+     * Revierte un {@link #registrarVentas} con los mismos datos.
+     */
+    public void anularVentas(TipoEvento tipo, Venue venue, long cantidad, double cargosServicio,
+            double cargosEmision) {
+        acumular(tipo, venue, null, -validar(cargosServicio), -validar(cargosEmision), -validar(cantidad));
+    }
+
+    /**
+     * Refleja el cambio de los cargos de un tiquete ya acreditado en el día en que cambian;
+     * las diferencias pueden ser negativas.
+     */
+    public void ajustarCargos(TipoEvento tipo, Venue venue, LocalDate dia, double diferenciaServicio,
+            double diferenciaEmision) {
+        Objects.requireNonNull(dia, "El día es obligatorio");
+        acumular(tipo, venue, dia, diferenciaServicio, diferenciaEmision, 0);
+    }
+
+    /**
+     * Acredita una ganancia que no sale de un tiquete (ni de sus cargos) en su tipo de evento
+     * y en el día dado.
+     *
+     * @throws NullPointerException     si {@code tipo} o {@code dia} son {@code null}.
+     * @throws IllegalArgumentException si {@code monto} es negativo.
+     */
+    public void registrarGanancia(TipoEvento tipo, LocalDate dia, double monto) {
+        Objects.requireNonNull(dia, "El día es obligatorio");
+        long centavos = aCentavos(validar(monto));
+        ganancias.ajustarCentavos(tipo, centavos);
+        porDia.computeIfAbsent(dia, d -> new LongAdder()).add(centavos);
+    }
+
+    /**
+     * Suma una venta del marketplace al volumen de reventa.
+     *
+     * @param dia    día en que se concretó la venta (obligatorio).
+     * @param montos monto pagado por el comprador, repartido por tipo de evento (montos no negativos).
+     * @throws IllegalArgumentException si algún monto es negativo.
+     */
+    public void registrarReventa(LocalDate dia, Map<TipoEvento, Double> montos) {
+        Objects.requireNonNull(dia, "El día es obligatorio");
+        long centavos = 0;
+        for (Map.Entry<TipoEvento, Double> monto : montos.entrySet()) {
+            reventaPorTipo.registrar(monto.getKey(), monto.getValue());
+            centavos += aCentavos(monto.getValue());
+        }
+        acumularReventa(dia, centavos, 1);
+    }
+
+    /**
+     * Revierte un {@link #registrarReventa} (p. ej. al deshacer una transacción fallida).
+     */
+    public void anularReventa(LocalDate dia, Map<TipoEvento, Double> montos) {
+        Objects.requireNonNull(dia, "El día es obligatorio");
+        long centavos = 0;
+        for (Map.Entry<TipoEvento, Double> monto : montos.entrySet()) {
+            reventaPorTipo.ajustar(monto.getKey(), -validar(monto.getValue()));
+            centavos += aCentavos(monto.getValue());
+        }
+        acumularReventa(dia, -centavos, -1);
+    }
+
+    /**
+     * @return ganancias totales: cargos de las ventas de tiquetes, otras ganancias
+     *         registradas y ganancias previas sin clasificar.
+     */
+    public double getIngresos() {
+        return ganancias.instantanea().getTotal();
+    }
+
+    public double getIngresos(TipoEvento tipo) {
+        return ganancias.instantanea().getPorTipo(tipo);
+    }
+
+    /**
+     * @return corte consistente de las ganancias, con su detalle por tipo de evento.
+     */
+    public AcumuladorIngresos.Instantanea getGananciasPorTipo() {
+        return ganancias.instantanea();
+    }
+
+    public double getIngresosDelDia(LocalDate dia) {
+        return suma(porDia, dia);
+    }
+
+    public double getIngresosDelVenue(Venue venue) {
+        return suma(porVenue, venue);
+    }
+
+    public double getCargosServicio() {
+        return cargosServicio.sum() / 100.0;
+    }
+
+    public double getCargosEmision() {
+        return cargosEmision.sum() / 100.0;
+    }
+
+    /**
+     * @return tiquetes emitidos contados en el tablero.
+     */
+    public long getVentas() {
+        return ventas.sum();
+    }
+
+    public double getVolumenReventa() {
+        return volumenReventa.sum() / 100.0;
+    }
+
+    public double getVolumenReventaDelDia(LocalDate dia) {
+        return suma(reventaPorDia, dia);
+    }
+
+    /**
+     * @return corte consistente del volumen de reventa por tipo de evento.
+     */
+    public AcumuladorIngresos.Instantanea getVolumenReventaPorTipo() {
+        return reventaPorTipo.instantanea();
+    }
+
+    /**
+     * @return ventas concretadas en el marketplace.
+     */
+    public long getReventas() {
+        return reventas.sum();
+    }
+
+    /**
+     * @return copia de los ingresos por día, en orden cronológico.
+     */
+    public SortedMap<LocalDate, Double> getIngresosPorDia() {
+        SortedMap<LocalDate, Double> copia = new TreeMap<>();
+        porDia.forEach((dia, centavos) -> copia.put(dia, centavos.sum() / 100.0));
+        return Collections.unmodifiableSortedMap(copia);
+    }
+
+    /**
+     * @return copia de los ingresos por venue.
+     */
+    public Map<Venue, Double> getIngresosPorVenue() {
+        Map<Venue, Double> copia = new HashMap<>();
+        porVenue.forEach((venue, centavos) -> copia.put(venue, centavos.sum() / 100.0));
+        return Collections.unmodifiableMap(copia);
+    }
+
+    /**
+     * @return copia del volumen de reventa por día, en orden cronológico.
+     */
+    public SortedMap<LocalDate, Double> getVolumenReventaPorDia() {
+        SortedMap<LocalDate, Double> copia = new TreeMap<>();
+        reventaPorDia.forEach((dia, centavos) -> copia.put(dia, centavos.sum() / 100.0));
+        return Collections.unmodifiableSortedMap(copia);
+    }
+
+    /**
+     * Reemplaza las ganancias (total y detalle por tipo de evento) por las guardadas; lo que
+     * no alcance a cubrir el detalle queda sin clasificar. {@code porTipo} puede ser {@code null}.
+     *
+     * @throws IllegalArgumentException si algún monto es negativo.
+     */
+    public void restaurarGanancias(double total, Map<TipoEvento, Double> porTipo) {
+        ganancias.restaurar(total, porTipo);
+    }
+
+    /**
+     * Reemplaza los ingresos y el volumen de reventa por día por los guardados.
+     */
+    public void restaurarDias(Map<LocalDate, Double> ingresos, Map<LocalDate, Double> reventa) {
+        reemplazar(porDia, ingresos);
+        reemplazar(reventaPorDia, reventa);
+    }
+
+    /**
+     * Reemplaza el volumen de reventa (por tipo de evento) y la cantidad de reventas por los
+     * guardados.
+     */
+    public void restaurarReventa(Map<TipoEvento, Double> porTipo, long reventas) {
+        reventaPorTipo.restaurar(0.0, porTipo);
+        long centavos = 0;
+        for (double monto : porTipo.values()) {
+            centavos += aCentavos(monto);
+        }
+        reemplazar(volumenReventa, centavos);
+        reemplazar(this.reventas, reventas);
+    }
+
+    private static <K> void reemplazar(Map<K, LongAdder> destino, Map<K, Double> montos) {
+        destino.clear();
+        montos.forEach((clave, monto) -> destino.computeIfAbsent(clave, c -> new LongAdder()).add(aCentavos(monto)));
+    }
+
+    private static void reemplazar(LongAdder destino, long valor) {
+        destino.reset();
+        destino.add(valor);
+    }
+
+    private void acumular(TipoEvento tipo, Venue venue, LocalDate dia, double servicio, double emision, long cantidad) {
+        Objects.requireNonNull(tipo, "El tipo de evento es obligatorio");
+        long centavosServicio = aCentavos(servicio);
+        long centavosEmision = aCentavos(emision);
+        long total = centavosServicio + centavosEmision;
+        contar(venue, centavosServicio, centavosEmision, cantidad);
+        ganancias.ajustarCentavos(tipo, total);
+        if (dia != null) {
+            porDia.computeIfAbsent(dia, d -> new LongAdder()).add(total);
+        }
+    }
+
+    private void contar(Venue venue, long centavosServicio, long centavosEmision, long cantidad) {
+        cargosServicio.add(centavosServicio);
+        cargosEmision.add(centavosEmision);
+        ventas.add(cantidad);
+        if (venue != null) {
+            porVenue.computeIfAbsent(venue, v -> new LongAdder()).add(centavosServicio + centavosEmision);
+        }
+    }
+
+    private void acumularReventa(LocalDate dia, long centavos, int cantidad) {
+        volumenReventa.add(centavos);
+        reventas.add(cantidad);
+        reventaPorDia.computeIfAbsent(dia, d -> new LongAdder()).add(centavos);
+    }
+
+    private static <K> double suma(Map<K, LongAdder> mapa, K clave) {
+        LongAdder centavos = mapa.get(clave);
+        return centavos == null ? 0.0 : centavos.sum() / 100.0;
+    }
+
+    private static double validar(double monto) {
+        if (monto < 0) {
+            throw new IllegalArgumentException("El monto no puede ser negativo");
+        }
+        return monto;
+    }
+
+    private static long validar(long cantidad) {
+        if (cantidad < 0) {
+            throw new IllegalArgumentException("La cantidad no puede ser negativa");
+        }
+        return cantidad;
+    }
+
+    private static long aCentavos(double monto) {
+        return Math.round(monto * 100.0);
+    }
+}
@@ -0,0 +1,129 @@
+package Tests;
+
+import Cliente.AcumuladorIngresos;
+import Cliente.Administrador;
+import Cliente.Cliente;
+import Cliente.Organizador;
+import eventos.Evento;
+import eventos.TipoEvento;
+import eventos.Venue;
+import org.junit.jupiter.api.Test;
+import tiquetes.TiqueteBasico;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias de {@link AcumuladorIngresos} y de su uso desde {@link Administrador}.
+ */
+class acumuladorIngresosTest {
+
+    @Test
+    void instantaneaSumaBaseYDetallePorTipo() {
+        AcumuladorIngresos acumulador = new AcumuladorIngresos(1_000.0);
+
+        acumulador.registrar(TipoEvento.CONCIERTO, 250.5);
+        acumulador.registrar(TipoEvento.DEPORTIVO, 100.0);
+        acumulador.registrar(TipoEvento.CONCIERTO, 49.5);
+
+        AcumuladorIngresos.Instantanea corte = acumulador.instantanea();
+        assertEquals(1_400.0, corte.getTotal(), 1e-9);
+        assertEquals(1_000.0, corte.getSinClasificar(), 1e-9);
+        assertEquals(300.0, corte.getPorTipo(TipoEvento.CONCIERTO), 1e-9);
+        assertEquals(0.0, corte.getPorTipo(TipoEvento.CULTURAL), 1e-9);
+        assertThrows(IllegalArgumentException.class, () -> acumulador.registrar(TipoEvento.CULTURAL, -1.0));
+    }
+
+    @Test
+    void registroConcurrenteNoPierdeAbonos() throws InterruptedException {
+        AcumuladorIngresos acumulador = new AcumuladorIngresos(0.0);
+        List<Thread> hilos = new ArrayList<>();
+        for (int h = 0; h < 8; h++) {
+            TipoEvento tipo = TipoEvento.values()[h % TipoEvento.values().length];
+            hilos.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    acumulador.registrar(tipo, 1.25);
+                }
+            }));
+        }
+        for (Thread hilo : hilos) {
+            hilo.join();
+        }
+
+        assertEquals(8 * 10_000 * 1.25, acumulador.instantanea().getTotal(), 1e-6);
+    }
+
+    @Test
+    void administradorRestauraYReportaGanancias() {
+        Administrador admin = new Administrador(0.0, "ADM300", new ArrayList<>(),
+                "admin", "admin", "Administrador", 0.0);
+        Map<TipoEvento, Double> porTipo = new EnumMap<>(TipoEvento.class);
+        porTipo.put(TipoEvento.CULTURAL, 40.0);
+
+        admin.restaurarGanancias(100.0, porTipo);
+        admin.registrarGanancia(TipoEvento.CULTURAL, 10.0);
+
+        assertEquals(110.0, admin.verReporteGanancias("admin", "admin"), 1e-9);
+        assertEquals(50.0, admin.verReporteGananciasPorTipo("admin", "admin").getPorTipo(TipoEvento.CULTURAL), 1e-9);
+        assertThrows(SecurityException.class, () -> admin.verReporteGanancias("admin", "otra"));
+    }
+
+    @Test
+    void restaurarEsAtomicoFrenteALasInstantaneas() throws InterruptedException {
+        AcumuladorIngresos acumulador = new AcumuladorIngresos(0.0);
+        Map<TipoEvento, Double> cultural = Map.of(TipoEvento.CULTURAL, 100.0);
+        Map<TipoEvento, Double> deportivo = Map.of(TipoEvento.DEPORTIVO, 200.0);
+        acumulador.restaurar(100.0, cultural);
+        Thread escritor = Thread.ofPlatform().start(() -> {
+            for (int i = 0; i < 20_000; i++) {
+                if (i % 2 == 0) {
+                    acumulador.restaurar(200.0, deportivo);
+                } else {
+                    acumulador.restaurar(100.0, cultural);
+                }
+            }
+        });
+        while (escritor.isAlive()) {
+            AcumuladorIngresos.Instantanea corte = acumulador.instantanea();
+            double total = corte.getTotal();
+            assertTrue(total == 100.0 || total == 200.0, "total mezclado: " + total);
+            assertEquals(total, corte.getPorTipo(total == 100.0 ? TipoEvento.CULTURAL : TipoEvento.DEPORTIVO), 1e-9);
+            assertEquals(0.0, corte.getSinClasificar(), 1e-9);
+        }
+        escritor.join();
+    }
+
+    @Test
+    void lasVentasDeLosEventosAcreditanAlAdministradorYAlOrganizador() {
+        Administrador admin = new Administrador(0.0, "ADM300", new ArrayList<>(),
+                "admin", "admin", "Administrador", 0.0);
+        Organizador organizador = new Organizador("org", "org", "Org", 0.0, "ORG-1", null);
+        Cliente ana = new Cliente("ana", "pass", "Ana", 0.0, "CLI-1");
+        Venue venue = new Venue("VEN-1", "Teatro", "Bogotá", 100, new ArrayList<>());
+        Evento evento = new Evento(admin, "EVT-1", "Obra", LocalDate.now().plusDays(10), LocalTime.NOON,
+                "PROGRAMADO", TipoEvento.CULTURAL, venue, null, organizador, new ArrayList<>());
+        TiqueteBasico primero = new TiqueteBasico(ana, 1, 50_000.0, 4_000.0, 1_000.0, "EMITIDO", null, evento, null, false);
+        TiqueteBasico segundo = new TiqueteBasico(ana, 2, 80_000.0, 6_000.0, 1_000.0, "EMITIDO", null, evento, null, false);
+
+        evento.venderTiquete(primero);
+        evento.venderTiquete(segundo);
+        primero.setPrecio(60_000.0);
+        segundo.setCargoServicio(5_000.0);
+        assertEquals(11_000.0, admin.getGananciasPorTipo().getPorTipo(TipoEvento.CULTURAL), 1e-9);
+        assertEquals(140_000.0, organizador.getFinanzasPorTipo().getPorTipo(TipoEvento.CULTURAL), 1e-9);
+
+        evento.quitarTiquete(segundo);
+        evento.setTipoEvento(TipoEvento.CONCIERTO);
+        assertEquals(5_000.0, admin.getGanancias(), 1e-9);
+        assertEquals(5_000.0, admin.getGananciasPorTipo().getPorTipo(TipoEvento.CONCIERTO), 1e-9);
+        assertEquals(0.0, admin.getGananciasPorTipo().getPorTipo(TipoEvento.CULTURAL), 1e-9);
+        assertEquals(60_000.0, organizador.getFinanzasPorTipo().getPorTipo(TipoEvento.CONCIERTO), 1e-9);
+        assertEquals(60_000.0, organizador.getFinanzas(), 1e-9);
+    }
+}
@@ -0,0 +1,184 @@
+package Tests;
+
+import Cliente.Administrador;
+import Cliente.Cliente;
+import eventos.Evento;
+import eventos.Localidad;
+import eventos.TipoEvento;
+import eventos.Venue;
+import manager.BoletaMasterState;
+import manager.MarketplaceService;
+import marketPlace.OfertaMarketPlace;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import tiquetes.AlmacenTiquetes;
+import tiquetes.Tiquete;
+import tiquetes.TiqueteBasico;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias del almacén columnar {@link AlmacenTiquetes} y sus vistas.
+ */
+class almacenTiquetesTest {
+
+    private Cliente ana;
+    private Cliente beto;
+    private Localidad general;
+    private Localidad palco;
+    private AlmacenTiquetes almacen;
+
+    @BeforeEach
+    void setUp() {
+        Administrador admin = new Administrador(0.0, "ADM-1", new ArrayList<>(), "admin", "secret", "Admin", 0.0);
+        Venue venue = new Venue("VEN-1", "Estadio", "Bogotá", 50_000, new ArrayList<>());
+        admin.aprobarVenue(venue, true);
+        Evento evento = new Evento(admin, "EVT-1", "Final", LocalDate.now().plusDays(30), LocalTime.of(18, 0),
+                "PROGRAMADO", TipoEvento.DEPORTIVO, venue, null, null, new ArrayList<>());
+        ana = new Cliente("ana", "pass", "Ana", 500_000.0, "CLI-1");
+        beto = new Cliente("beto", "pass", "Beto", 500_000.0, "CLI-2");
+        general = new Localidad(null, new ArrayList<>(), "General", 50_000.0, false, 0);
+        palco = new Localidad(null, new ArrayList<>(), "Palco", 200_000.0, true, 100);
+        almacen = new AlmacenTiquetes(evento, 4);
+        for (int i = 0; i < 100; i++) {
+            boolean esPalco = i % 10 == 0;
+            almacen.agregar(i % 2 == 0 ? ana : beto, 1_000 + i, esPalco ? 200_000.0 : 50_000.0, 5_000.0, 1_000.0,
+                    "EMITIDO", esPalco ? palco : general, esPalco ? i / 10 + 1 : null, esPalco);
+        }
+    }
+
+    @Test
+    void lasVistasLeenYEscribenSobreLasColumnas() {
+        TiqueteBasico vista = (TiqueteBasico) almacen.buscar(1_010);
+        LocalDateTime impresion = LocalDateTime.of(2030, 5, 1, 18, 30, 15);
+
+        vista.setCliente(beto);
+        vista.setEstado("TRANSFERIDO");
+        vista.marcarImpreso();
+        vista.setFechaImpresion(impresion);
+
+        Tiquete otra = almacen.buscar(1_010);
+        assertEquals(vista, otra);
+        assertEquals(beto, otra.getCliente());
+        assertEquals("TRANSFERIDO", otra.getEstado());
+        assertTrue(otra.isImpreso());
+        assertEquals(impresion, otra.getFechaImpresion());
+        assertEquals(palco, otra.getLocalidad());
+        assertEquals(2, ((TiqueteBasico) otra).getNumeroAsiento());
+        assertEquals(206_000.0, otra.calcularValorTotal());
+        assertNull(almacen.buscar(5));
+        assertThrows(IllegalArgumentException.class,
+                () -> almacen.agregar(ana, 1_000, 1.0, 0, 0, "EMITIDO", general, null, false));
+    }
+
+    @Test
+    void idsNoConsecutivosSeIndexan() {
+        almacen.agregar(beto, 7, 50_000.0, 5_000.0, 1_000.0, "EMITIDO", general, null, false);
+        for (int i = 0; i < 1_000; i++) {
+            almacen.agregar(ana, 90_000 - i * 3, 50_000.0, 5_000.0, 1_000.0, "EMITIDO", general, null, false);
+        }
+
+        assertEquals(beto, almacen.buscar(7).getCliente());
+        assertEquals(1_099, almacen.buscar(1_099).getIdTiquete());
+        assertEquals(90_000 - 999 * 3, almacen.buscar(90_000 - 999 * 3).getIdTiquete());
+        assertNull(almacen.buscar(1_100));
+        assertThrows(IllegalArgumentException.class,
+                () -> almacen.agregar(ana, 7, 1.0, 0, 0, "EMITIDO", general, null, false));
+    }
+
+    @Test
+    void recorridosAgreganSobreTodasLasFilas() {
+        almacen.ver(0).marcarImpreso();
+        almacen.ver(1).setEstado("CANCELADO");
+
+        assertEquals(100, almacen.getTamano());
+        assertEquals(1, almacen.contarImpresos());
+        assertEquals(99, almacen.contarPorEstado("EMITIDO"));
+        assertEquals(10 * 206_000.0 + 90 * 56_000.0, almacen.sumarValorTotal());
+        assertEquals(Map.of(palco, 10, general, 90), almacen.contarPorLocalidad());
+        assertEquals(50, almacen.tiquetesDe(ana).size());
+    }
+
+    @Test
+    void losTiquetesDelAlmacenCuentanEnElInventarioDelEvento() {
+        Evento evento = almacen.getEvento();
+        almacen.ver(0).setImpreso(true);
+        almacen.ver(0).setImpreso(true);
+        almacen.ver(1).setImpreso(true);
+        almacen.ver(1).setImpreso(false);
+
+        assertEquals(100, evento.getVendidos());
+        assertEquals(1, evento.getInventario().getImpresos());
+        assertEquals(49_900, evento.getRestantes());
+    }
+
+    @Test
+    void fueraDeHeapSeComportaIgualQueEnHeap() {
+        AlmacenTiquetes directo = AlmacenTiquetes.fueraDeHeap(almacen.getEvento(), 4);
+        for (int fila = 0; fila < almacen.getTamano(); fila++) {
+            TiqueteBasico tiquete = (TiqueteBasico) almacen.ver(fila);
+            directo.agregar(tiquete.getCliente(), tiquete.getIdTiquete(), tiquete.getPrecio(),
+                    tiquete.getCargoServicio(), tiquete.getCargoEmision(), tiquete.getEstado(),
+                    tiquete.getLocalidad(), tiquete.getNumeroAsiento(), tiquete.isLocalidadNumerada());
+        }
+        directo.agregar(ana, 7, 50_000.0, 5_000.0, 1_000.0, "EMITIDO", general, null, false);
+        directo.buscar(1_020).marcarImpreso();
+
+        assertEquals(101, directo.getTamano());
+        assertEquals(1, directo.contarImpresos());
+        assertEquals(almacen.sumarValorTotal() + 56_000.0, directo.sumarValorTotal());
+        assertEquals(3, ((TiqueteBasico) directo.buscar(1_020)).getNumeroAsiento());
+        assertEquals(ana, directo.buscar(7).getCliente());
+    }
+
+    @Test
+    void elAlmacenEnArchivoSobreviveAReabrirlo(@TempDir Path carpeta) {
+        Path archivo = carpeta.resolve("final.tiq");
+        Evento evento = almacen.getEvento();
+        evento.getVenue().setLocalidades(new ArrayList<>(List.of(general, palco)));
+        AlmacenTiquetes persistente = AlmacenTiquetes.enArchivo(evento, archivo, 4);
+        for (int i = 0; i < 40; i++) {
+            persistente.agregar(i % 2 == 0 ? ana : beto, 5_000 - i, 50_000.0, 5_000.0, 1_000.0, "EMITIDO",
+                    i < 4 ? palco : general, i < 4 ? i + 1 : null, i < 4);
+        }
+        LocalDateTime impresion = LocalDateTime.of(2030, 5, 1, 18, 30);
+        persistente.buscar(4_999).setFechaImpresion(impresion);
+        persistente.buscar(4_990).setEstado("TRANSFERIDO");
+        persistente.sincronizar();
+        persistente.agregar(ana, 1, 1.0, 0, 0, "EMITIDO", general, null, false);
+
+        AlmacenTiquetes reabierto = AlmacenTiquetes.abrir(archivo, evento,
+                Map.of(ana.getLogin(), ana, beto.getLogin(), beto));
+
+        assertEquals(40, reabierto.getTamano());
+        assertNull(reabierto.buscar(1));
+        assertEquals(beto, reabierto.buscar(4_999).getCliente());
+        assertEquals(impresion, reabierto.buscar(4_999).getFechaImpresion());
+        assertEquals("TRANSFERIDO", reabierto.buscar(4_990).getEstado());
+        assertEquals(Map.of(palco, 4, general, 36), reabierto.contarPorLocalidad());
+        assertEquals(3, ((TiqueteBasico) reabierto.buscar(4_998)).getNumeroAsiento());
+        assertThrows(IllegalStateException.class, () -> AlmacenTiquetes.abrir(archivo, evento, Map.of()));
+    }
+
+    @Test
+    void elMarketplaceEncuentraTiquetesDelAlmacen() {
+        BoletaMasterState state = new BoletaMasterState();
+        state.getClientesPorLogin().put(ana.getLogin(), ana);
+        state.agregarAlmacen(almacen);
+        MarketplaceService service = new MarketplaceService(state);
+
+        OfertaMarketPlace oferta = service.publicarOferta(ana, List.of(1_002, 1_004), 100_000.0);
+
+        assertEquals(List.of(almacen.buscar(1_002), almacen.buscar(1_004)), oferta.getTiquetes());
+        assertThrows(IllegalArgumentException.class, () -> service.publicarOferta(ana, List.of(1_001), 10.0));
+    }
+}
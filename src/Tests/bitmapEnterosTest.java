@@ -0,0 +1,93 @@
+package Tests;
+
+import Cliente.Administrador;
+import Cliente.Cliente;
+import eventos.Evento;
+import eventos.Localidad;
+import eventos.TipoEvento;
+import eventos.Venue;
+import manager.BitmapEnteros;
+import manager.BoletaMasterState;
+import org.junit.jupiter.api.Test;
+import tiquetes.TiqueteBasico;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias del conjunto comprimido {@link BitmapEnteros}.
+ */
+class bitmapEnterosTest {
+
+    @Test
+    void seComportaComoTreeSetConAltasYBajas() {
+        BitmapEnteros conjunto = new BitmapEnteros();
+        Set<Integer> esperado = new TreeSet<>();
+        Random random = new Random(5);
+        for (int i = 0; i < 200_000; i++) {
+            // Mezcla de zonas dispersas, densas (arreglo → mapa) y consecutivas (corridas).
+            int valor = switch (i % 3) {
+                case 0 -> random.nextInt(1_000_000);
+                case 1 -> 70_000 + random.nextInt(8_000);
+                default -> 300_000 + i / 3;
+            };
+            if (random.nextInt(4) == 0) {
+                assertEquals(esperado.remove(valor), conjunto.remove(valor));
+            } else {
+                assertEquals(esperado.add(valor), conjunto.add(valor));
+            }
+        }
+
+        assertEquals(esperado.size(), conjunto.size());
+        assertEquals(new ArrayList<>(esperado), new ArrayList<>(conjunto));
+        conjunto.optimizar();
+        assertEquals(esperado, conjunto);
+        assertFalse(conjunto.contains(-1));
+    }
+
+    @Test
+    void operacionesEnBloque() {
+        BitmapEnteros evento = BitmapEnteros.rango(401, 200_401);
+        BitmapEnteros deluxe = new BitmapEnteros();
+        for (int id = 0; id < 300_000; id += 1_000) {
+            deluxe.add(id);
+        }
+        deluxe.agregarRango(150_000, 150_500);
+
+        BitmapEnteros deluxeDelEvento = evento.y(deluxe);
+        assertEquals(200 + 500 - 1, deluxeDelEvento.size());
+        assertTrue(deluxeDelEvento.contains(150_499));
+        assertFalse(deluxeDelEvento.contains(250_000));
+        assertEquals(200_000 - 699, evento.menos(deluxe).size());
+        assertEquals(200_000 + 100, evento.o(deluxe).size());
+        assertEquals(200_000, BitmapEnteros.rango(-100_000, 100_000).size());
+        assertThrows(IllegalArgumentException.class, () -> BitmapEnteros.rango(5, 4));
+    }
+
+    @Test
+    void elEstadoDaLosTiquetesDeluxeDeUnEvento() {
+        Administrador admin = new Administrador(0.0, "ADM-1", new ArrayList<>(), "admin", "secret", "Admin", 0.0);
+        Venue venue = new Venue("VEN-1", "Estadio", "Bogotá", 1_000, new ArrayList<>());
+        admin.aprobarVenue(venue, true);
+        Evento evento = new Evento(admin, "EVT-1", "Final", LocalDate.now().plusDays(30), LocalTime.of(18, 0),
+                "PROGRAMADO", TipoEvento.DEPORTIVO, venue, null, null, new ArrayList<>());
+        Cliente cliente = new Cliente("ana", "pass", "Ana", 0.0, "CLI-1");
+        Localidad general = new Localidad(null, new ArrayList<>(), "General", 50_000.0, false, 0);
+        for (int id = 401; id < 411; id++) {
+            evento.registrarTiquete(new TiqueteBasico(cliente, id, 50_000.0, 0, 0, "EMITIDO", general, evento,
+                    null, false));
+        }
+        BoletaMasterState state = new BoletaMasterState();
+        state.getTiquetesDeluxe().addAll(List.of(7, 402, 405, 900));
+
+        assertEquals(List.of(402, 405), new ArrayList<>(state.tiquetesDeluxeDe(evento)));
+        assertEquals(BitmapEnteros.rango(401, 411), state.idsDe(evento));
+    }
+}
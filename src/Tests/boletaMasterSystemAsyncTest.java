@@ -0,0 +1,137 @@
+package Tests;
+
+import Cliente.Cliente;
+import manager.BoletaMasterSystem;
+import manager.BoletaMasterSystemAsync;
+import manager.VistaTiquete;
+import marketPlace.ContraOferta;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import tiquetes.Tiquete;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas de {@link BoletaMasterSystemAsync} sobre una copia de los datos iniciales:
+ * completado de los futuros, propagación de excepciones y límite de concurrencia.
+ */
+class boletaMasterSystemAsyncTest {
+
+    private Path tempDir;
+    private BoletaMasterSystem sistema;
+    private BoletaMasterSystemAsync async;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        tempDir = Files.createTempDirectory("async-test");
+        for (String archivo : List.of("usuarios.json", "eventos.json", "tiquetes.json", "paquetes.json",
+                "marketplace_ofertas.json", "marketplace_log.json")) {
+            Files.copy(Path.of("data").resolve(archivo), tempDir.resolve(archivo), StandardCopyOption.REPLACE_EXISTING);
+        }
+        sistema = new BoletaMasterSystem(
+                tempDir.resolve("usuarios.json"),
+                tempDir.resolve("eventos.json"),
+                tempDir.resolve("tiquetes.json"),
+                tempDir.resolve("paquetes.json"),
+                tempDir.resolve("marketplace_ofertas.json"),
+                tempDir.resolve("marketplace_log.json"));
+        sistema.cargarDatos();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (async != null) {
+            async.close();
+        }
+        Files.walk(tempDir)
+                .sorted(Comparator.reverseOrder())
+                .forEach(path -> {
+                    try {
+                        Files.deleteIfExists(path);
+                    } catch (IOException e) {
+                        throw new RuntimeException(e);
+                    }
+                });
+    }
+
+    @Test
+    void lasOperacionesCompletanSusFuturos() throws Exception {
+        async = new BoletaMasterSystemAsync(sistema);
+        Cliente comprador = sistema.autenticarCliente("cli01", "cli01").orElseThrow();
+
+        ContraOferta contra = async.crearContraoferta(comprador, "OFER-101", 1_000.0).get(5, TimeUnit.SECONDS);
+
+        assertEquals(comprador, contra.getComprador());
+        assertTrue(async.buscarOferta("OFER-101").get(5, TimeUnit.SECONDS).orElseThrow()
+                .buscarContraoferta(contra.getId()).isPresent());
+        assertEquals(sistema.obtenerOfertasActivas(), async.obtenerOfertasActivas().get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void lasExcepcionesLleganPorElFuturo() {
+        async = new BoletaMasterSystemAsync(sistema);
+        Cliente vendedor = sistema.autenticarCliente("cli02", "cli02").orElseThrow();
+
+        CompletableFuture<ContraOferta> propia = async.crearContraoferta(vendedor, "OFER-101", 1_000.0);
+        CompletableFuture<Void> inexistente = async.comprarOferta(vendedor, "NO-EXISTE");
+
+        ExecutionException error = assertThrows(ExecutionException.class, () -> propia.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalArgumentException.class, error.getCause());
+        assertTrue(inexistente.handle((valor, e) -> e).join() instanceof RuntimeException);
+        assertEquals(BoletaMasterSystemAsync.MAX_ESCRITURAS_POR_DEFECTO, async.escriturasDisponibles());
+    }
+
+    @Test
+    void noSuperaElLimiteDeConsultasEnCurso() throws Exception {
+        async = new BoletaMasterSystemAsync(sistema, 1, 2);
+        CountDownLatch liberar = new CountDownLatch(1);
+        AtomicInteger enCurso = new AtomicInteger();
+        AtomicInteger maximo = new AtomicInteger();
+        Cliente lento = new Cliente("lento", "pass", "Lento", 0.0, "CLI-LENTO") {
+            @Override
+            public Collection<Tiquete> verTiquetes() {
+                maximo.accumulateAndGet(enCurso.incrementAndGet(), Math::max);
+                try {
+                    liberar.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    enCurso.decrementAndGet();
+                }
+                return super.verTiquetes();
+            }
+        };
+
+        List<CompletableFuture<List<VistaTiquete>>> consultas = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            consultas.add(async.obtenerTiquetesCliente(lento));
+        }
+        while (enCurso.get() < 2) {
+            Thread.onSpinWait();
+        }
+        Thread.sleep(50);
+        assertEquals(2, enCurso.get());
+        assertEquals(0, async.consultasDisponibles());
+        assertEquals(1, async.escriturasDisponibles());
+
+        liberar.countDown();
+        CompletableFuture.allOf(consultas.toArray(CompletableFuture<?>[]::new)).get(5, TimeUnit.SECONDS);
+        assertEquals(2, maximo.get());
+        assertEquals(2, async.consultasDisponibles());
+    }
+}
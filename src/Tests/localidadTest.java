@@ -0,0 +1,194 @@
+package Tests;
+
+import Cliente.Administrador;
+import Cliente.Cliente;
+import eventos.DistribucionAsientos;
+import eventos.Evento;
+import eventos.Localidad;
+import eventos.TipoEvento;
+import eventos.Venue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import tiquetes.TiqueteBasico;
+import tiquetes.TiqueteMultiple;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias del mapa de asientos de una {@link Localidad} numerada.
+ */
+class localidadTest {
+
+    private Cliente cliente;
+    private Evento evento;
+    private Localidad localidad;
+
+    @BeforeEach
+    void setUp() {
+        Administrador admin = new Administrador(0.0, "ADM-1", new ArrayList<>(), "admin", "secret", "Admin", 0.0);
+        Venue venue = new Venue("VEN-1", "Teatro", "Bogotá", 100, new ArrayList<>());
+        admin.aprobarVenue(venue, true);
+        evento = new Evento(admin, "EVT-1", "Obra", LocalDate.now().plusDays(10), LocalTime.of(19, 0),
+                "PROGRAMADO", TipoEvento.CULTURAL, venue, null, null, new ArrayList<>());
+        cliente = new Cliente("cli", "pass", "Cliente", 0.0, "CLI-1");
+        localidad = new Localidad(null, new ArrayList<>(), "Platea", 80_000.0, true, 100);
+    }
+
+    private TiqueteBasico tiquete(int id, Integer asiento) {
+        return new TiqueteBasico(cliente, id, 80_000.0, 0.0, 0.0, "EMITIDO", localidad, evento, asiento, true);
+    }
+
+    @Test
+    void emitirYCancelarActualizanLosAsientosDisponibles() {
+        TiqueteBasico primero = tiquete(1, 7);
+        localidad.agregarTiquete(primero);
+        localidad.agregarTiquete(tiquete(2, 8));
+
+        assertEquals(98, localidad.getAsientosDisponibles());
+        assertFalse(localidad.asientoDisponible(7));
+        assertTrue(localidad.asientoDisponible(9));
+        assertFalse(localidad.asientoDisponible(101));
+
+        assertTrue(localidad.quitarTiquete(primero));
+        assertTrue(localidad.asientoDisponible(7));
+        assertEquals(99, localidad.getAsientosDisponibles());
+        assertFalse(localidad.quitarTiquete(primero));
+    }
+
+    @Test
+    void reasignarAsientoMueveLaOcupacion() {
+        TiqueteBasico primero = tiquete(1, 1);
+        TiqueteBasico segundo = tiquete(2, 2);
+        localidad.agregarTiquete(primero);
+        localidad.agregarTiquete(segundo);
+
+        primero.asignarAsiento(50);
+
+        assertTrue(localidad.asientoDisponible(1));
+        assertFalse(localidad.asientoDisponible(50));
+        assertThrows(IllegalStateException.class, () -> segundo.asignarAsiento(50));
+        assertEquals(2, segundo.getNumeroAsiento());
+        assertEquals(98, localidad.getAsientosDisponibles());
+    }
+
+    @Test
+    void reasignarAUnAsientoInexistenteConservaElAnterior() {
+        TiqueteBasico primero = tiquete(1, 1);
+        localidad.agregarTiquete(primero);
+
+        assertThrows(IllegalArgumentException.class, () -> primero.asignarAsiento(101));
+
+        assertEquals(1, primero.getNumeroAsiento());
+        assertFalse(localidad.asientoDisponible(1));
+        assertEquals(99, localidad.getAsientosDisponibles());
+    }
+
+    @Test
+    void unAsientoCompartidoSigueOcupadoMientrasQuedeUnTiquete() {
+        TiqueteBasico primero = tiquete(1, 5);
+        TiqueteBasico duplicado = tiquete(2, 5);
+        localidad.agregarTiquete(primero);
+        localidad.agregarTiquete(duplicado);
+
+        assertTrue(localidad.quitarTiquete(primero));
+        localidad.liberarAsientos(List.of(5));
+        assertFalse(localidad.asientoDisponible(5));
+
+        duplicado.asignarAsiento(6);
+        assertTrue(localidad.asientoDisponible(5));
+        assertFalse(localidad.asientoDisponible(6));
+    }
+
+    @Test
+    void reducirLaCapacidadDescartaLosAsientosSobrantes() {
+        localidad.agregarTiquete(tiquete(1, 3));
+        localidad.agregarTiquete(tiquete(2, 90));
+
+        localidad.setNumeroAsientos(64);
+
+        assertEquals(63, localidad.getAsientosDisponibles());
+        assertFalse(localidad.asientoDisponible(3));
+    }
+
+    @Test
+    void reservaElBloqueMasCentradoDeLaPrimeraFilaQueLoAdmite() {
+        localidad.setDistribucion(DistribucionAsientos.uniforme(100, 10));
+        for (int asiento = 3; asiento <= 8; asiento += 2) {
+            localidad.agregarTiquete(tiquete(asiento, asiento));
+        }
+
+        assertEquals(List.of(14, 15, 16, 17), localidad.reservarBloque(4));
+        assertEquals(List.of(24, 25, 26, 27), localidad.reservarBloque(4));
+        assertEquals(List.of(8, 9), localidad.reservarBloque(2));
+        assertEquals(List.of(), localidad.reservarBloque(11));
+
+        TiqueteMultiple grupo = new TiqueteMultiple(3, 240_000.0);
+        assertEquals(List.of(11, 12, 13), grupo.reservarAsientos(localidad));
+        assertThrows(IllegalStateException.class, () -> grupo.reservarAsientos(localidad));
+        int disponibles = localidad.getAsientosDisponibles();
+        grupo.liberarAsientos();
+        assertEquals(disponibles + 3, localidad.getAsientosDisponibles());
+    }
+
+    @Test
+    void reservasConcurrentesNoSeSolapan() throws InterruptedException {
+        localidad.setDistribucion(DistribucionAsientos.uniforme(100, 10));
+        ConcurrentLinkedQueue<List<Integer>> bloques = new ConcurrentLinkedQueue<>();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 40; i++) {
+            pool.submit(() -> bloques.add(localidad.reservarBloque(3)));
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+
+        Set<Integer> vistos = new HashSet<>();
+        int reservados = 0;
+        for (List<Integer> bloque : bloques) {
+            for (Integer asiento : bloque) {
+                assertTrue(vistos.add(asiento), "Asiento repetido: " + asiento);
+            }
+            reservados += bloque.isEmpty() ? 0 : 1;
+        }
+        assertEquals(30, reservados);
+        assertEquals(10, localidad.getAsientosDisponibles());
+    }
+
+    @Test
+    void inventarioSigueEmisionImpresionYBajas() {
+        TiqueteBasico primero = tiquete(1, 1);
+        TiqueteBasico segundo = tiquete(2, 2);
+        localidad.agregarTiquete(primero);
+        localidad.agregarTiquete(segundo);
+        localidad.agregarTiquete(segundo);
+        evento.registrarTiquete(primero);
+        evento.registrarTiquete(segundo);
+
+        primero.marcarImpreso();
+        primero.marcarImpreso();
+
+        assertEquals(2, localidad.getInventario().getEmitidos());
+        assertEquals(1, localidad.getInventario().getImpresos());
+        assertEquals(98, localidad.getRestantes());
+        assertEquals(2, evento.getVendidos());
+        assertEquals(1, evento.getInventario().getImpresos());
+        assertEquals(2, evento.verTiquetes().size());
+
+        evento.quitarTiquete(primero);
+        localidad.quitarTiquete(primero);
+
+        assertEquals(0, evento.getInventario().getImpresos());
+        assertEquals(1, localidad.getInventario().getEmitidos());
+        assertEquals(99, evento.getRestantes());
+    }
+}
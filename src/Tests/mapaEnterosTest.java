@@ -0,0 +1,61 @@
+package Tests;
+
+import manager.ConjuntoEnteros;
+import manager.MapaEnteros;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias de los índices por id de tiquete {@link MapaEnteros} y {@link ConjuntoEnteros}.
+ */
+class mapaEnterosTest {
+
+    @Test
+    void mapaSeComportaComoHashMapConAltasYBajas() {
+        MapaEnteros<String> mapa = new MapaEnteros<>();
+        Map<Integer, String> esperado = new HashMap<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 50_000; i++) {
+            int clave = random.nextInt(2_000) - 1_000;
+            if (random.nextInt(3) == 0) {
+                assertEquals(esperado.remove(clave), mapa.remove(clave));
+            } else {
+                assertEquals(esperado.put(clave, "v" + i), mapa.put(clave, "v" + i));
+            }
+        }
+
+        assertEquals(esperado, mapa);
+        for (int clave = -1_000; clave < 1_000; clave++) {
+            assertEquals(esperado.get(clave), mapa.get(clave));
+        }
+        assertNull(mapa.get("1"));
+        assertThrows(NullPointerException.class, () -> mapa.put(1, null));
+    }
+
+    @Test
+    void conjuntoSeComportaComoHashSetConAltasYBajas() {
+        ConjuntoEnteros conjunto = new ConjuntoEnteros();
+        Set<Integer> esperado = new HashSet<>();
+        Random random = new Random(11);
+        for (int i = 0; i < 50_000; i++) {
+            int clave = random.nextInt(3_000);
+            if (random.nextBoolean()) {
+                assertEquals(esperado.remove(clave), conjunto.remove(clave));
+            } else {
+                assertEquals(esperado.add(clave), conjunto.add(clave));
+            }
+        }
+
+        assertEquals(esperado, conjunto);
+        conjunto.clear();
+        assertTrue(conjunto.isEmpty());
+        assertFalse(conjunto.contains(esperado.iterator().next().intValue()));
+    }
+}
@@ -1,14 +1,25 @@
 package Tests;
 
 import Cliente.Cliente;
+import eventos.Evento;
+import eventos.TipoEvento;
 import log.EntradaLog;
 import manager.BoletaMasterSystem;
+import manager.ConsultaEventos;
+import manager.LimitadorTasa;
+import manager.LimiteExcedidoException;
+import manager.OperacionMarketplace;
+import manager.VistaContraoferta;
+import manager.VistaEvento;
+import manager.VistaOferta;
 import marketPlace.ContraOferta;
 import marketPlace.EstadoContraOferta;
 import marketPlace.EstadoOferta;
 import marketPlace.OfertaMarketPlace;
+import tiquetes.AlmacenTiquetes;
 
 import Cliente.Administrador;
+import Cliente.TableroGanancias;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -18,11 +29,15 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -99,7 +114,7 @@ public class marketPlaceTest {
 
     @Test
     void crearYAceptarContraofertaActualizacion() {
-        OfertaMarketPlace oferta = sistema.buscarOferta("OFER-100").orElseThrow();
+        VistaOferta oferta = sistema.buscarOferta("OFER-100").orElseThrow();
         Cliente comprador = sistema.autenticarCliente("cli03", "cli03").orElseThrow();
         double saldoVendedorInicial = vendedorPrincipal.getSaldo();
         double saldoCompradorInicial = comprador.getSaldo();
@@ -111,7 +126,7 @@ public class marketPlaceTest {
 
         sistema.aceptarContraoferta(vendedorPrincipal, oferta.getId(), contra.getId());
 
-        assertEquals(EstadoOferta.VENDIDA, oferta.getEstado());
+        assertEquals(EstadoOferta.VENDIDA, sistema.buscarOferta(oferta.getId()).orElseThrow().getEstado());
         assertEquals(EstadoContraOferta.ACEPTADA, contra.getEstado());
         assertEquals(saldoVendedorInicial + 150000.0, vendedorPrincipal.getSaldo(), 0.01);
         assertEquals(saldoCompradorInicial - 150000.0, comprador.getSaldo(), 0.01);
@@ -127,13 +142,13 @@ public class marketPlaceTest {
 
     @Test
     void cancelarOfertaPorVendedorCambiarEstadoTiquete() {
-        OfertaMarketPlace oferta = sistema.buscarOferta("OFER-101").orElseThrow();
+        VistaOferta oferta = sistema.buscarOferta("OFER-101").orElseThrow();
         Cliente vendedor = sistema.autenticarCliente("cli02", "cli02").orElseThrow();
         int logPrevio = sistema.getLogSistema().getEntradas().size();
 
         sistema.cancelarOfertaPorVendedor(vendedor, oferta.getId());
 
-        assertEquals(EstadoOferta.CANCELADA_VENDEDOR, oferta.getEstado());
+        assertEquals(EstadoOferta.CANCELADA_VENDEDOR, sistema.buscarOferta(oferta.getId()).orElseThrow().getEstado());
         assertEquals(logPrevio + 1, sistema.getLogSistema().getEntradas().size());
         EntradaLog ultima = sistema.getLogSistema().getEntradas().get(logPrevio);
         assertEquals("OFERTA", ultima.getTipo());
@@ -144,16 +159,17 @@ public class marketPlaceTest {
 
     @Test
     void comprarOfertaDirectaTransSaldo() {
-        OfertaMarketPlace oferta = sistema.buscarOferta("OFER-101").orElseThrow();
+        VistaOferta oferta = sistema.buscarOferta("OFER-101").orElseThrow();
+        Cliente vendedor = sistema.autenticarCliente("cli02", "cli02").orElseThrow();
         Cliente comprador = sistema.autenticarCliente("cli04", "cli04").orElseThrow();
-        double saldoVendedorInicial = oferta.getVendedor().getSaldo();
+        double saldoVendedorInicial = vendedor.getSaldo();
         double saldoCompradorInicial = comprador.getSaldo();
         int logPrevio = sistema.getLogSistema().getEntradas().size();
 
         sistema.comprarOferta(comprador, oferta.getId());
 
-        assertEquals(EstadoOferta.VENDIDA, oferta.getEstado());
-        assertEquals(saldoVendedorInicial + oferta.getPrecioInicial(), oferta.getVendedor().getSaldo(), 0.01);
+        assertEquals(EstadoOferta.VENDIDA, sistema.buscarOferta(oferta.getId()).orElseThrow().getEstado());
+        assertEquals(saldoVendedorInicial + oferta.getPrecioInicial(), vendedor.getSaldo(), 0.01);
         assertEquals(saldoCompradorInicial - oferta.getPrecioInicial(), comprador.getSaldo(), 0.01);
         assertTrue(comprador.poseeTiquete(102));
         assertTrue(comprador.poseeTiquete(201));
@@ -165,7 +181,7 @@ public class marketPlaceTest {
 
     @Test
     void obtenerOfertasActivas() {
-        List<OfertaMarketPlace> activas = sistema.obtenerOfertasActivas();
+        List<VistaOferta> activas = sistema.obtenerOfertasActivas();
 
         assertFalse(activas.isEmpty(), "Debe haber ofertas activas de ejemplo");
         assertTrue(activas.stream().allMatch(o -> o.getEstado() == EstadoOferta.ACTIVA));
@@ -187,7 +203,7 @@ public class marketPlaceTest {
 
     @Test
     void excepcionContraOfertaSinSaldo() {
-        OfertaMarketPlace oferta = sistema.buscarOferta("OFER-101").orElseThrow();
+        VistaOferta oferta = sistema.buscarOferta("OFER-101").orElseThrow();
         Cliente comprador = sistema.autenticarCliente("cli03", "cli03").orElseThrow();
 
         IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
@@ -199,12 +215,13 @@ public class marketPlaceTest {
 
     @Test
     void rechazarContraofertaActualizarEstado() {
-        OfertaMarketPlace oferta = sistema.buscarOferta("OFER-100").orElseThrow();
+        VistaOferta oferta = sistema.buscarOferta("OFER-100").orElseThrow();
         int logPrevio = sistema.getLogSistema().getEntradas().size();
 
         sistema.rechazarContraoferta(vendedorPrincipal, oferta.getId(), "CO-200");
 
-        ContraOferta contra = oferta.buscarContraoferta("CO-200").orElseThrow();
+        VistaContraoferta contra = sistema.buscarOferta(oferta.getId()).orElseThrow()
+                .buscarContraoferta("CO-200").orElseThrow();
         assertEquals(EstadoContraOferta.RECHAZADA, contra.getEstado());
         EntradaLog entrada = sistema.getLogSistema().getEntradas().get(logPrevio);
         assertEquals("CONTRAOFERTA", entrada.getTipo());
@@ -213,10 +230,10 @@ public class marketPlaceTest {
 
     @Test
     void contraofertasPendientesVendedor() {
-        Map<OfertaMarketPlace, List<ContraOferta>> pendientes = sistema.contraofertasPendientes(vendedorPrincipal);
+        Map<VistaOferta, List<VistaContraoferta>> pendientes = sistema.contraofertasPendientes(vendedorPrincipal);
 
         assertEquals(1, pendientes.size());
-        Map.Entry<OfertaMarketPlace, List<ContraOferta>> entry = pendientes.entrySet().iterator().next();
+        Map.Entry<VistaOferta, List<VistaContraoferta>> entry = pendientes.entrySet().iterator().next();
         assertEquals("OFER-100", entry.getKey().getId());
         assertTrue(entry.getValue().stream().allMatch(c -> c.getEstado() == EstadoContraOferta.PENDIENTE));
     }
@@ -225,15 +242,15 @@ public class marketPlaceTest {
     void obtenerOfertasPorVendedor() {
         Cliente vendedorSecundario = sistema.autenticarCliente("cli02", "cli02").orElseThrow();
 
-        List<OfertaMarketPlace> ofertasVendedor = sistema.obtenerOfertasPorVendedor(vendedorSecundario);
+        List<VistaOferta> ofertasVendedor = sistema.obtenerOfertasPorVendedor(vendedorSecundario);
 
         assertFalse(ofertasVendedor.isEmpty());
-        assertTrue(ofertasVendedor.stream().allMatch(o -> o.getVendedor().equals(vendedorSecundario)));
+        assertTrue(ofertasVendedor.stream().allMatch(o -> o.perteneceAlVendedor(vendedorSecundario)));
     }
 
     @Test
     void excepcionComprarOfertaSaldoInsuficiente() {
-        OfertaMarketPlace oferta = sistema.buscarOferta("OFER-101").orElseThrow();
+        VistaOferta oferta = sistema.buscarOferta("OFER-101").orElseThrow();
         Cliente comprador = sistema.autenticarCliente("cli03", "cli03").orElseThrow();
         double saldoInicial = comprador.getSaldo();
 
@@ -243,15 +260,233 @@ public class marketPlaceTest {
         assertEquals(EstadoOferta.ACTIVA, oferta.getEstado());
     }
 
+    @Test
+    void consultasLeenInstantaneaConsistente() {
+        List<VistaOferta> activasAntes = sistema.obtenerOfertasActivas();
+        assertTrue(activasAntes.stream().anyMatch(o -> o.getId().equals("OFER-100")));
+
+        sistema.cancelarOfertaPorAdministrador(sistema.getAdministrador(), "OFER-100");
+
+        assertTrue(activasAntes.stream().anyMatch(o -> o.getId().equals("OFER-100")));
+        assertTrue(sistema.obtenerOfertasActivas().stream().noneMatch(o -> o.getId().equals("OFER-100")));
+        assertThrows(UnsupportedOperationException.class, () -> activasAntes.remove(0));
+        assertThrows(UnsupportedOperationException.class,
+                () -> sistema.obtenerTiquetesCliente(vendedorPrincipal).clear());
+    }
+
+    @Test
+    void busquedaIgnoraTildesYSigueLasOfertas() {
+        assertEquals("EV002", sistema.buscarEventos("MEDELLIN", 5).get(0).getIdEvento());
+        assertEquals("EV003", sistema.buscarEventos("teat sol", 5).get(0).getIdEvento());
+        assertTrue(sistema.buscarEventos("teatro inexistente", 5).isEmpty());
+
+        assertEquals("OFER-100", sistema.buscarOfertas("ofer 100", 5).get(0).getId());
+        sistema.cancelarOfertaPorAdministrador(sistema.getAdministrador(), "OFER-100");
+        assertTrue(sistema.buscarOfertas("ofer 100", 5).stream().noneMatch(o -> o.getId().equals("OFER-100")));
+    }
+
+    @Test
+    void consultaDeEventosCombinaFiltros() {
+        assertEquals(List.of("EV003", "EV002"), ids(sistema.consultarEventos(new ConsultaEventos().tipo(TipoEvento.CULTURAL))));
+        assertEquals(List.of("EV002", "EV004"), ids(sistema.consultarEventos(new ConsultaEventos().organizador("org02"))));
+        assertEquals(List.of("EV002"), ids(sistema.consultarEventos(new ConsultaEventos().precioEntre(60_000, 70_000))));
+        ConsultaEventos finDeAnio = new ConsultaEventos()
+                .entre(LocalDate.of(2025, 11, 1), LocalDate.of(2025, 12, 31)).estado("programado");
+        assertEquals(List.of("EV004", "EV001"), ids(sistema.consultarEventos(finDeAnio)));
+
+        String deportivoId = sistema.consultarEventos(new ConsultaEventos().tipo(TipoEvento.DEPORTIVO)).get(0).getIdEvento();
+        sistema.cambiarEstadoEvento(deportivoId, "CANCELADO");
+
+        assertEquals(List.of("EV001"), ids(sistema.consultarEventos(finDeAnio)));
+        assertEquals(List.of("EV004"), ids(sistema.consultarEventos(new ConsultaEventos().estado("cancelado"))));
+        assertEquals("CANCELADO", sistema.buscarEventoPorId(deportivoId).orElseThrow().getEstado());
+        assertEquals("CANCELADO", reiniciar().buscarEventoPorId(deportivoId).orElseThrow().getEstado());
+        assertThrows(IllegalArgumentException.class, () -> sistema.cambiarEstadoEvento("NO-EXISTE", "CANCELADO"));
+    }
+
+    private static List<String> ids(List<VistaEvento> eventos) {
+        return eventos.stream().map(VistaEvento::getIdEvento).toList();
+    }
+
+    @Test
+    void losAlmacenesSobrevivenAlReinicio() {
+        VistaEvento vista = sistema.obtenerEventos().get(0);
+        String organizador = vista.getLoginOrganizador();
+        Evento evento = sistema.autenticarOrganizador(organizador, organizador).orElseThrow().getEventos().stream()
+                .filter(e -> e.getIdEvento().equals(vista.getIdEvento())).findFirst().orElseThrow();
+        int vendidos = evento.getVendidos();
+        AlmacenTiquetes almacen = new AlmacenTiquetes(evento, 4);
+        for (int i = 0; i < 3; i++) {
+            almacen.agregar(vendedorPrincipal, 900_000 + i, 50_000.0, 2_000.0, 500.0, "EMITIDO", null, null, false);
+        }
+        almacen.ver(1).setImpreso(true);
+        sistema.registrarAlmacen(almacen);
+
+        BoletaMasterSystem reiniciado = reiniciar();
+        VistaEvento recargado = reiniciado.obtenerEventos().stream()
+                .filter(e -> e.getIdEvento().equals(evento.getIdEvento())).findFirst().orElseThrow();
+        assertEquals(vendidos + 3, recargado.getVendidos());
+
+        reiniciado.guardarDatos();
+        VistaEvento otraVez = reiniciar().obtenerEventos().stream()
+                .filter(e -> e.getIdEvento().equals(evento.getIdEvento())).findFirst().orElseThrow();
+        assertEquals(vendidos + 3, otraVez.getVendidos());
+        assertThrows(IllegalArgumentException.class, () -> sistema.registrarAlmacen(almacen));
+    }
+
+    private BoletaMasterSystem reiniciar() {
+        BoletaMasterSystem reiniciado = new BoletaMasterSystem(
+                tempDir.resolve("usuarios.json"),
+                tempDir.resolve("eventos.json"),
+                tempDir.resolve("tiquetes.json"),
+                tempDir.resolve("paquetes.json"),
+                tempDir.resolve("marketplace_ofertas.json"),
+                tempDir.resolve("marketplace_log.json"));
+        reiniciado.cargarDatos();
+        return reiniciado;
+    }
+
+    @Test
+    void elTableroConservaLosDiasDeLasVentasAlReiniciar() {
+        Cliente comprador = sistema.autenticarCliente("cli04", "cli04").orElseThrow();
+        sistema.comprarOferta(comprador, "OFER-101");
+        TableroGanancias tablero = sistema.getAdministrador().getTablero();
+        Map<LocalDate, Double> ingresosPorDia = tablero.getIngresosPorDia();
+        double ganancias = sistema.getAdministrador().getGanancias();
+
+        BoletaMasterSystem reiniciado = reiniciar();
+        TableroGanancias recargado = reiniciado.getAdministrador().getTablero();
+
+        assertEquals(ingresosPorDia, recargado.getIngresosPorDia());
+        assertEquals(ganancias, reiniciado.getAdministrador().getGanancias(), 0.001);
+        assertEquals(tablero.getVentas(), recargado.getVentas());
+        assertEquals(1, recargado.getReventas());
+        assertEquals(tablero.getVolumenReventaPorDia(), recargado.getVolumenReventaPorDia());
+        assertEquals(tablero.getVolumenReventaPorTipo().getPorTipo(), recargado.getVolumenReventaPorTipo().getPorTipo());
+
+        reiniciado.guardarDatos();
+        assertEquals(1, reiniciar().getAdministrador().getTablero().getReventas());
+    }
+
+    @Test
+    void claveIdempotenteSobreviveReinicio() {
+        ContraOferta original = sistema.crearContraoferta(vendedorPrincipal, "OFER-101", 1_000.0, "reintento-1");
+
+        BoletaMasterSystem reiniciado = new BoletaMasterSystem(
+                tempDir.resolve("usuarios.json"),
+                tempDir.resolve("eventos.json"),
+                tempDir.resolve("tiquetes.json"),
+                tempDir.resolve("paquetes.json"),
+                tempDir.resolve("marketplace_ofertas.json"),
+                tempDir.resolve("marketplace_log.json"));
+        reiniciado.cargarDatos();
+        Cliente comprador = reiniciado.autenticarCliente("cli01", "cli01").orElseThrow();
+        int contraofertas = reiniciado.buscarOferta("OFER-101").orElseThrow().getContraofertas().size();
+
+        ContraOferta reintento = reiniciado.crearContraoferta(comprador, "OFER-101", 1_000.0, "reintento-1");
+
+        assertEquals(original.getId(), reintento.getId());
+        assertEquals(contraofertas, reiniciado.buscarOferta("OFER-101").orElseThrow().getContraofertas().size());
+    }
+
+    @Test
+    void limitadorRechazaExcesoDeContraofertas() {
+        sistema.getLimitador().configurar(OperacionMarketplace.CREAR_CONTRAOFERTA, 1, 0.001);
+
+        sistema.crearContraoferta(vendedorPrincipal, "OFER-101", 1_000.0);
+        LimiteExcedidoException rechazo = assertThrows(LimiteExcedidoException.class,
+                () -> sistema.crearContraoferta(vendedorPrincipal, "OFER-101", 1_000.0));
+        assertEquals(OperacionMarketplace.CREAR_CONTRAOFERTA, rechazo.getOperacion());
+        assertEquals("cli01", rechazo.getLogin());
+        assertTrue(rechazo.getReintentarEn().toSeconds() > 0);
+
+        assertEquals(1, sistema.getLimitador().getAdmitidas(OperacionMarketplace.CREAR_CONTRAOFERTA));
+        assertEquals(1, sistema.getLimitador().getRechazadas(OperacionMarketplace.CREAR_CONTRAOFERTA));
+        assertEquals(1L, sistema.getLimitador().getRechazosPorCliente().get("cli01"));
+    }
+
+    @Test
+    void limitadorDescartaLasCubetasDeClientesInactivos() throws InterruptedException {
+        LimitadorTasa limitador = new LimitadorTasa();
+        limitador.configurar(OperacionMarketplace.PUBLICAR_OFERTA, 1, 1_000.0);
+        limitador.admitir(OperacionMarketplace.PUBLICAR_OFERTA, "inactivo");
+        assertEquals(1, limitador.getCubetasActivas());
+
+        Thread.sleep(1_100);
+        limitador.admitir(OperacionMarketplace.PUBLICAR_OFERTA, "activo");
+
+        assertEquals(1, limitador.getCubetasActivas());
+        assertEquals(2, limitador.getAdmitidas(OperacionMarketplace.PUBLICAR_OFERTA));
+    }
+
+    @Test
+    void reintentoIdempotenteNoConsumeFichasDelLimitador() {
+        sistema.getLimitador().configurar(OperacionMarketplace.CREAR_CONTRAOFERTA, 1, 0.001);
+
+        ContraOferta original = sistema.crearContraoferta(vendedorPrincipal, "OFER-101", 1_000.0, "reintento-1");
+        ContraOferta reintento = sistema.crearContraoferta(vendedorPrincipal, "OFER-101", 1_000.0, "reintento-1");
+
+        assertEquals(original.getId(), reintento.getId());
+        assertEquals(1, sistema.getLimitador().getAdmitidas(OperacionMarketplace.CREAR_CONTRAOFERTA));
+        assertEquals(0, sistema.getLimitador().getRechazadas(OperacionMarketplace.CREAR_CONTRAOFERTA));
+        assertThrows(LimiteExcedidoException.class,
+                () -> sistema.crearContraoferta(vendedorPrincipal, "OFER-101", 1_000.0, "reintento-2"));
+    }
+
+    @Test
+    void escritorUnicoAplicaEnOrdenAunqueSeDesactiveEnMedio() throws Exception {
+        List<String> compradores = List.of("cli01", "cli03", "cli04", "cli05");
+        int porComprador = 25;
+        int iniciales = sistema.buscarOferta("OFER-101").orElseThrow().getContraofertas().size();
+        sistema.activarEscritorUnico(4, 3);
+        CountDownLatch salida = new CountDownLatch(1);
+        List<Thread> hilos = new ArrayList<>();
+        List<Throwable> fallos = Collections.synchronizedList(new ArrayList<>());
+        for (String login : compradores) {
+            Cliente comprador = sistema.autenticarCliente(login, login).orElseThrow();
+            hilos.add(Thread.ofPlatform().start(() -> {
+                try {
+                    salida.await();
+                    for (int monto = 1; monto <= porComprador; monto++) {
+                        sistema.crearContraoferta(comprador, "OFER-101", monto);
+                    }
+                } catch (Throwable e) {
+                    fallos.add(e);
+                }
+            }));
+        }
+        salida.countDown();
+        Thread.sleep(5);
+        sistema.desactivarEscritorUnico();
+        for (Thread hilo : hilos) {
+            hilo.join();
+        }
+
+        assertEquals(List.of(), fallos);
+        assertFalse(sistema.isEscritorUnicoActivo());
+        List<VistaContraoferta> contraofertas = sistema.buscarOferta("OFER-101").orElseThrow().getContraofertas();
+        assertEquals(iniciales + compradores.size() * porComprador, contraofertas.size());
+        for (String login : compradores) {
+            List<Double> montos = contraofertas.subList(iniciales, contraofertas.size()).stream()
+                    .filter(c -> c.getLoginComprador().equals(login))
+                    .map(VistaContraoferta::getMonto)
+                    .toList();
+            assertEquals(porComprador, montos.size());
+            for (int i = 0; i < montos.size(); i++) {
+                assertEquals(i + 1, montos.get(i), 0.001);
+            }
+        }
+    }
+
     @Test
     void cancelarOfertaPorAdministrador() {
         Administrador admin = sistema.getAdministrador();
-        OfertaMarketPlace oferta = sistema.buscarOferta("OFER-100").orElseThrow();
+        VistaOferta oferta = sistema.buscarOferta("OFER-100").orElseThrow();
         int logPrevio = sistema.getLogSistema().getEntradas().size();
 
         sistema.cancelarOfertaPorAdministrador(admin, oferta.getId());
 
-        assertEquals(EstadoOferta.CANCELADA_ADMIN, oferta.getEstado());
+        assertEquals(EstadoOferta.CANCELADA_ADMIN, sistema.buscarOferta(oferta.getId()).orElseThrow().getEstado());
         EntradaLog entrada = sistema.getLogSistema().getEntradas().get(logPrevio);
         assertEquals("OFERTA", entrada.getTipo());
         assertTrue(entrada.getDescripcion().contains("eliminó"));
@@ -8,17 +8,26 @@ import eventos.TipoEvento;
 import eventos.Venue;
 import manager.BoletaMasterState;
 import manager.MarketplaceService;
+import manager.OrdenOfertas;
+import manager.PaginaOfertas;
+import manager.VistaContraoferta;
+import manager.VistaOferta;
 import marketPlace.ContraOferta;
 import marketPlace.EstadoOferta;
 import marketPlace.OfertaMarketPlace;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import tiquetes.Tiquete;
 import tiquetes.TiqueteBasico;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -83,6 +92,21 @@ class marketPlaceUnitTest {
         assertTrue(ex.getMessage().contains("ya está incluido"));
     }
 
+    @Test
+    void inventarioCuentaTiquetesEnReventa() {
+        Localidad localidad = tiqueteVendedor.getLocalidad();
+        localidad.agregarTiquete(tiqueteVendedor);
+        tiqueteVendedor.getEvento().registrarTiquete(tiqueteVendedor);
+
+        OfertaMarketPlace oferta = service.publicarOferta(vendedor, List.of(tiqueteVendedor.getIdTiquete()), 120_000.0);
+        assertEquals(1, localidad.getInventario().getEnReventa());
+        assertEquals(1, tiqueteVendedor.getEvento().getInventario().getEnReventa());
+
+        service.cancelarOfertaPorVendedor(vendedor, oferta.getId());
+        assertEquals(0, localidad.getInventario().getEnReventa());
+        assertEquals(0, tiqueteVendedor.getEvento().getInventario().getEnReventa());
+    }
+
     @Test
     void excepcionContraOfertaPropioVendedor() {
         OfertaMarketPlace oferta = service.publicarOferta(vendedor, List.of(tiqueteVendedor.getIdTiquete()), 110_000.0);
@@ -107,5 +131,209 @@ class marketPlaceUnitTest {
         assertEquals(saldoCompradorInicial - 100_000.0, comprador.getSaldo(), 0.01);
         assertEquals(comprador, tiqueteVendedor.getCliente());
         assertFalse(state.getTiqueteEnOferta().containsKey(tiqueteVendedor.getIdTiquete()));
+        assertFalse(state.getTiquetesEnOferta().contains(tiqueteVendedor.getIdTiquete()));
+        assertEquals(100_000.0, state.getAdministrador().getTablero().getVolumenReventa(), 0.01);
+        assertEquals(100_000.0, state.getAdministrador().getTablero().getVolumenReventaPorTipo()
+                .getPorTipo(tiqueteVendedor.getEvento().getTipoEvento()), 0.01);
+        assertEquals(1, state.getAdministrador().getTablero().getReventas());
+    }
+
+    @Test
+    void transaccionFallidaRevierteTodosLosEfectos() {
+        OfertaMarketPlace oferta = service.publicarOferta(vendedor, List.of(tiqueteVendedor.getIdTiquete()), 110_000.0);
+        double saldoVendedorInicial = vendedor.getSaldo();
+        double saldoCompradorInicial = comprador.getSaldo();
+        int logInicial = state.getLogSistema().tamano();
+
+        assertThrows(IllegalStateException.class, () -> service.enTransaccion(() -> {
+            service.comprarOferta(comprador, oferta.getId());
+            return null;
+        }, () -> {
+            throw new IllegalStateException("Fallo de escritura");
+        }));
+
+        assertEquals(EstadoOferta.ACTIVA, oferta.getEstado());
+        assertEquals(saldoVendedorInicial, vendedor.getSaldo(), 0.01);
+        assertEquals(saldoCompradorInicial, comprador.getSaldo(), 0.01);
+        assertEquals(vendedor, tiqueteVendedor.getCliente());
+        assertTrue(vendedor.poseeTiquete(tiqueteVendedor.getIdTiquete()));
+        assertFalse(comprador.poseeTiquete(tiqueteVendedor.getIdTiquete()));
+        assertEquals(oferta.getId(), state.getTiqueteEnOferta().get(tiqueteVendedor.getIdTiquete()));
+        assertTrue(state.getTiquetesEnOferta().contains(tiqueteVendedor.getIdTiquete()));
+        assertEquals(0.0, state.getAdministrador().getTablero().getVolumenReventa(), 0.01);
+        assertEquals(0.0, state.getAdministrador().getTablero().getVolumenReventaPorTipo().getTotal(), 0.01);
+        assertEquals(logInicial, state.getLogSistema().tamano());
+        assertEquals(List.of(oferta.getId()), ids(service.obtenerOfertasActivas()));
+    }
+
+    @Test
+    void deshacerTransferenciaDevuelveElTiqueteASuPosicion() {
+        TiqueteBasico segundo = new TiqueteBasico(vendedor, 9202, 90_000.0, 5_000.0, 1_000.0,
+                "EMITIDO", tiqueteVendedor.getLocalidad(), tiqueteVendedor.getEvento(), 13, true);
+        vendedor.agregarTiquete(segundo);
+        state.getTiquetesPorId().put(segundo.getIdTiquete(), segundo);
+        OfertaMarketPlace oferta = service.publicarOferta(vendedor, List.of(tiqueteVendedor.getIdTiquete()), 110_000.0);
+
+        assertThrows(IllegalStateException.class, () -> service.enTransaccion(() -> {
+            service.comprarOferta(comprador, oferta.getId());
+            return null;
+        }, () -> {
+            throw new IllegalStateException("Fallo de escritura");
+        }));
+
+        assertEquals(List.of(tiqueteVendedor, segundo), vendedor.getTiquetes());
+    }
+
+    @Test
+    void unaTransaccionAbiertaBloqueaLasOperacionesDeOtrosHilos() throws Exception {
+        OfertaMarketPlace oferta = service.publicarOferta(vendedor, List.of(tiqueteVendedor.getIdTiquete()), 110_000.0);
+        CountDownLatch dentro = new CountDownLatch(1);
+        CountDownLatch soltar = new CountDownLatch(1);
+        Thread abierta = Thread.ofPlatform().start(() -> service.enTransaccion(() -> {
+            dentro.countDown();
+            try {
+                soltar.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return null;
+        }, () -> { }));
+        dentro.await();
+        Thread ajena = Thread.ofPlatform().start(() -> service.cancelarOfertaPorVendedor(vendedor, oferta.getId()));
+        ajena.join(200);
+
+        assertTrue(ajena.isAlive());
+        assertEquals(EstadoOferta.ACTIVA, oferta.getEstado());
+        soltar.countDown();
+        abierta.join();
+        ajena.join();
+        assertEquals(EstadoOferta.CANCELADA_VENDEDOR, oferta.getEstado());
+    }
+
+    @Test
+    void ofertasActivasSiguenLasTransiciones() {
+        OfertaMarketPlace oferta = service.publicarOferta(vendedor, List.of(tiqueteVendedor.getIdTiquete()), 110_000.0);
+        List<VistaOferta> activas = service.obtenerOfertasActivas();
+
+        assertEquals(List.of(oferta.getId()), ids(activas));
+
+        service.cancelarOfertaPorVendedor(vendedor, oferta.getId());
+
+        assertTrue(service.obtenerOfertasActivas().isEmpty());
+        assertEquals(List.of(oferta.getId()), ids(activas));
+        assertThrows(UnsupportedOperationException.class, () -> activas.add(activas.get(0)));
+    }
+
+    @Test
+    void reintentoConClaveIdempotenteNoDuplica() {
+        OfertaMarketPlace oferta = service.publicarOferta(vendedor, List.of(tiqueteVendedor.getIdTiquete()), 110_000.0);
+
+        ContraOferta primera = service.crearContraoferta(comprador, oferta.getId(), 100_000.0, "clave-1");
+        ContraOferta reintento = service.crearContraoferta(comprador, oferta.getId(), 100_000.0, "clave-1");
+
+        assertSame(primera, reintento);
+        assertEquals(1, oferta.getContraofertas().size());
+        assertThrows(IllegalArgumentException.class,
+                () -> service.crearContraoferta(comprador, oferta.getId(), 90_000.0, "clave-1"));
+
+        service.comprarOferta(comprador, oferta.getId(), "compra-1");
+        double saldoComprador = comprador.getSaldo();
+        service.comprarOferta(comprador, oferta.getId(), "compra-1");
+
+        assertEquals(saldoComprador, comprador.getSaldo(), 0.01);
+        assertThrows(IllegalStateException.class, () -> service.comprarOferta(comprador, oferta.getId(), "compra-2"));
+    }
+
+    @Test
+    void indicesPorVendedorSiguenLasContraofertas() {
+        OfertaMarketPlace oferta = service.publicarOferta(vendedor, List.of(tiqueteVendedor.getIdTiquete()), 110_000.0);
+        ContraOferta baja = service.crearContraoferta(comprador, oferta.getId(), 80_000.0);
+        ContraOferta alta = service.crearContraoferta(comprador, oferta.getId(), 95_000.0);
+
+        assertEquals(List.of(oferta.getId()), ids(service.obtenerOfertasPorVendedor(vendedor)));
+        assertTrue(service.obtenerOfertasPorVendedor(comprador).isEmpty());
+        assertEquals(Map.of(oferta.getId(), List.of(baja.getId(), alta.getId())), pendientes(vendedor));
+
+        service.rechazarContraoferta(vendedor, oferta.getId(), baja.getId());
+        assertEquals(Map.of(oferta.getId(), List.of(alta.getId())), pendientes(vendedor));
+
+        service.aceptarContraoferta(vendedor, oferta.getId(), alta.getId());
+        assertTrue(service.contraofertasPendientes(vendedor).isEmpty());
+    }
+
+    @Test
+    void libroDeOrdenesOrdenaPorPrecioPorTiquete() {
+        TiqueteBasico segundo = new TiqueteBasico(vendedor, 9202, 90_000.0, 5_000.0, 1_000.0,
+                "EMITIDO", tiqueteVendedor.getLocalidad(), tiqueteVendedor.getEvento(), 13, true);
+        vendedor.agregarTiquete(segundo);
+        state.getTiquetesPorId().put(segundo.getIdTiquete(), segundo);
+        String eventoId = tiqueteVendedor.getEvento().getIdEvento();
+
+        OfertaMarketPlace cara = service.publicarOferta(vendedor, List.of(tiqueteVendedor.getIdTiquete()), 120_000.0);
+        OfertaMarketPlace barata = service.publicarOferta(vendedor, List.of(segundo.getIdTiquete()), 95_000.0);
+
+        assertEquals(barata.getId(), service.mejorOfertaEvento(eventoId, null).orElseThrow().getId());
+        assertEquals(List.of(barata.getId(), cara.getId()), ids(service.mejoresOfertasEvento(eventoId, "General", 5)));
+        assertEquals(List.of(barata.getId()), ids(service.ofertasEventoEnRango(eventoId, null, 90_000.0, 100_000.0)));
+        assertTrue(service.mejoresOfertasEvento(eventoId, "VIP", 5).isEmpty());
+
+        service.comprarOferta(comprador, barata.getId());
+        assertEquals(cara.getId(), service.mejorOfertaEvento(eventoId, "General").orElseThrow().getId());
+
+        service.cancelarOfertaPorVendedor(vendedor, cara.getId());
+        assertTrue(service.mejorOfertaEvento(eventoId, null).isEmpty());
+    }
+
+    @Test
+    void paginacionConCursorEsEstable() {
+        List<OfertaMarketPlace> publicadas = new ArrayList<>();
+        double[] precios = {150_000.0, 90_000.0, 120_000.0};
+        for (int i = 0; i < precios.length; i++) {
+            TiqueteBasico tiquete = new TiqueteBasico(vendedor, 9300 + i, 90_000.0, 5_000.0, 1_000.0,
+                    "EMITIDO", tiqueteVendedor.getLocalidad(), tiqueteVendedor.getEvento(), 20 + i, true);
+            vendedor.agregarTiquete(tiquete);
+            state.getTiquetesPorId().put(tiquete.getIdTiquete(), tiquete);
+            publicadas.add(service.publicarOferta(vendedor, List.of(tiquete.getIdTiquete()), precios[i]));
+        }
+
+        PaginaOfertas<VistaOferta> primera = service.paginarOfertasActivas(OrdenOfertas.PRECIO, null, 2);
+        assertEquals(List.of(publicadas.get(1).getId(), publicadas.get(2).getId()), ids(primera.getOfertas()));
+        assertTrue(primera.tieneSiguiente());
+
+        service.cancelarOfertaPorVendedor(vendedor, publicadas.get(2).getId());
+        PaginaOfertas<VistaOferta> segunda = service.paginarOfertasActivas(OrdenOfertas.PRECIO, primera.getSiguienteCursor(), 2);
+        assertEquals(List.of(publicadas.get(0).getId()), ids(segunda.getOfertas()));
+        assertFalse(segunda.tieneSiguiente());
+
+        assertEquals(3, service.paginarOfertasPorVendedor(vendedor, OrdenOfertas.FECHA_EVENTO, null, 10).getOfertas().size());
+        assertTrue(ids(service.paginarTodasLasOfertas(OrdenOfertas.FECHA_CREACION, null, 10).getOfertas())
+                .containsAll(publicadas.stream().map(OfertaMarketPlace::getId).toList()));
+        assertThrows(IllegalArgumentException.class,
+                () -> service.paginarOfertasActivas(OrdenOfertas.FECHA_CREACION, primera.getSiguienteCursor(), 2));
+        assertThrows(IllegalArgumentException.class,
+                () -> service.paginarOfertasActivas(OrdenOfertas.PRECIO, null, 0));
+        assertEquals(2, service.paginarOfertasActivas(OrdenOfertas.PRECIO, null, Integer.MAX_VALUE).getOfertas().size());
+    }
+
+    @Test
+    void tiquetesDelClienteSeIndexanPorId() {
+        Collection<Tiquete> vista = vendedor.verTiquetes();
+        assertThrows(UnsupportedOperationException.class, vista::clear);
+        assertTrue(vendedor.transferirTiquete(comprador, tiqueteVendedor.getIdTiquete(), "pass"));
+
+        assertTrue(vista.isEmpty());
+        assertFalse(vendedor.poseeTiquete(tiqueteVendedor.getIdTiquete()));
+        assertTrue(comprador.poseeTiquete(tiqueteVendedor.getIdTiquete()));
+        assertFalse(vendedor.eliminarTiquete(tiqueteVendedor));
+        assertEquals(List.of(tiqueteVendedor), comprador.getTiquetes());
+    }
+
+    private static List<String> ids(Collection<VistaOferta> ofertas) {
+        return ofertas.stream().map(VistaOferta::getId).toList();
+    }
+
+    private Map<String, List<String>> pendientes(Cliente vendedor) {
+        return service.contraofertasPendientes(vendedor).entrySet().stream().collect(Collectors.toMap(
+                e -> e.getKey().getId(), e -> e.getValue().stream().map(VistaContraoferta::getId).toList()));
     }
 }
@@ -0,0 +1,143 @@
+package Tests;
+
+import Cliente.Administrador;
+import Cliente.Cliente;
+import Cliente.Organizador;
+import eventos.Evento;
+import eventos.Localidad;
+import eventos.TipoEvento;
+import eventos.Venue;
+import manager.BoletaMasterState;
+import manager.MotorReportesFinanzas;
+import manager.ReporteFinanzas;
+import org.junit.jupiter.api.Test;
+import tiquetes.AlmacenTiquetes;
+import tiquetes.TiqueteBasico;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias de {@link MotorReportesFinanzas}.
+ */
+class motorReportesFinanzasTest {
+
+    private final Administrador admin = new Administrador(0.0, "ADM-1", new ArrayList<>(), "admin", "secret", "Admin", 0.0);
+    private final Organizador organizador = new Organizador("org", "pass", "Org", 0.0, "ORG-1", null);
+    private final Cliente ana = new Cliente("ana", "pass", "Ana", 0.0, "CLI-1");
+    private final Localidad general = new Localidad(null, new ArrayList<>(), "General", 50_000.0, false, 0);
+    private final Localidad palco = new Localidad(null, new ArrayList<>(), "Palco", 200_000.0, true, 0);
+    private final BoletaMasterState state = new BoletaMasterState();
+
+    private Evento crearEvento(String id) {
+        Venue venue = new Venue("VEN-" + id, "Estadio", "Bogotá", 100_000, new ArrayList<>());
+        Evento evento = new Evento(admin, id, "Evento " + id, LocalDate.now().plusDays(30), LocalTime.of(18, 0),
+                "PROGRAMADO", TipoEvento.DEPORTIVO, venue, null, organizador, new ArrayList<>());
+        organizador.registrarEvento(evento);
+        return evento;
+    }
+
+    private TiqueteBasico tiquete(Evento evento, int id, double precio, Localidad localidad) {
+        return new TiqueteBasico(ana, id, precio, 5_000.0, 1_000.0, "EMITIDO", localidad, evento, null, false);
+    }
+
+    @Test
+    void sumaPorEventoYLocalidadLosTiquetesDelEventoYDeSusAlmacenes() {
+        Evento partido = crearEvento("EVT-1");
+        Evento clasico = crearEvento("EVT-2");
+        partido.registrarTiquete(tiquete(partido, 1, 50_000.0, general));
+        partido.registrarTiquete(tiquete(partido, 2, 200_000.0, palco));
+        partido.registrarTiquete(tiquete(partido, 3, 0.0, general));
+        AlmacenTiquetes almacen = new AlmacenTiquetes(partido, 4);
+        almacen.agregar(ana, 100, 50_000.0, 2_000.0, 500.0, "EMITIDO", general, null, false);
+        almacen.agregar(ana, 101, 200_000.0, 2_000.0, 500.0, "EMITIDO", palco, 1, true);
+        state.agregarAlmacen(almacen);
+
+        ReporteFinanzas reporte = new MotorReportesFinanzas(state).generar(organizador);
+
+        assertEquals(List.of(partido, clasico), reporte.getEventos().stream().map(ReporteFinanzas.ResumenEvento::getEvento).toList());
+        assertEquals(5, reporte.getTiquetes());
+        assertEquals(500_000.0, reporte.getIngresos(), 0.001);
+        ReporteFinanzas.ResumenEvento resumen = reporte.getEvento(partido);
+        assertEquals(List.of(general, palco), List.copyOf(resumen.getPorLocalidad().keySet()));
+        assertEquals(3, resumen.getPorLocalidad().get(general).getTiquetes());
+        assertEquals(100_000.0, resumen.getPorLocalidad().get(general).getIngresos(), 0.001);
+        assertEquals(2, resumen.getPorLocalidad().get(palco).getTiquetes());
+        assertEquals(400_000.0, resumen.getPorLocalidad().get(palco).getIngresos(), 0.001);
+        assertEquals(0, reporte.getEvento(clasico).getTiquetes());
+        assertTrue(reporte.getEvento(clasico).getPorLocalidad().isEmpty());
+    }
+
+    @Test
+    void soloRecalculaLosEventosQueCambiaron() {
+        Evento partido = crearEvento("EVT-1");
+        Evento clasico = crearEvento("EVT-2");
+        TiqueteBasico primero = tiquete(partido, 1, 50_000.0, general);
+        partido.registrarTiquete(primero);
+        clasico.registrarTiquete(tiquete(clasico, 2, 50_000.0, general));
+        AlmacenTiquetes almacen = new AlmacenTiquetes(clasico, 4);
+        almacen.agregar(ana, 100, 50_000.0, 2_000.0, 500.0, "EMITIDO", general, null, false);
+        state.agregarAlmacen(almacen);
+        MotorReportesFinanzas motor = new MotorReportesFinanzas(state);
+
+        ReporteFinanzas inicial = motor.generar(organizador);
+        assertEquals(2, inicial.getEventosRecalculados());
+
+        ReporteFinanzas igual = motor.generar(organizador);
+        assertEquals(0, igual.getEventosRecalculados());
+        assertSame(inicial.getEvento(partido), igual.getEvento(partido));
+
+        primero.setLocalidad(palco);
+        primero.setPrecio(200_000.0);
+        ReporteFinanzas cambioTiquete = motor.generar(organizador);
+        assertEquals(1, cambioTiquete.getEventosRecalculados());
+        assertSame(igual.getEvento(clasico), cambioTiquete.getEvento(clasico));
+        assertEquals(200_000.0, cambioTiquete.getEvento(partido).getPorLocalidad().get(palco).getIngresos(), 0.001);
+        assertFalse(cambioTiquete.getEvento(partido).getPorLocalidad().containsKey(general));
+
+        almacen.ver(0).setPrecio(80_000.0);
+        almacen.agregar(ana, 101, 50_000.0, 2_000.0, 500.0, "EMITIDO", general, null, false);
+        ReporteFinanzas cambioAlmacen = motor.generar(organizador);
+        assertEquals(1, cambioAlmacen.getEventosRecalculados());
+        assertEquals(3, cambioAlmacen.getEvento(clasico).getTiquetes());
+        assertEquals(180_000.0, cambioAlmacen.getEvento(clasico).getIngresos(), 0.001);
+
+        partido.quitarTiquete(primero);
+        Evento nuevo = crearEvento("EVT-3");
+        ReporteFinanzas conNuevo = motor.generar(organizador);
+        assertEquals(2, conNuevo.getEventosRecalculados());
+        assertEquals(0, conNuevo.getEvento(partido).getTiquetes());
+        assertNotNull(conNuevo.getEvento(nuevo));
+        assertEquals(3, conNuevo.getTiquetes());
+    }
+
+    @Test
+    void losEventosGrandesSeParticionanSinPerderTiquetes() {
+        Evento evento = crearEvento("EVT-1");
+        int tiquetes = 50_000;
+        long centavos = 0;
+        for (int i = 0; i < tiquetes; i++) {
+            double precio = 1_000.0 + (i % 7) * 0.25;
+            evento.registrarTiquete(tiquete(evento, i, precio, i % 3 == 0 ? palco : general));
+            centavos += Math.round(precio * 100.0);
+        }
+        AlmacenTiquetes almacen = new AlmacenTiquetes(evento, tiquetes);
+        for (int i = 0; i < tiquetes; i++) {
+            almacen.agregar(ana, tiquetes + i, 2_000.0, 0.0, 0.0, "EMITIDO", i % 2 == 0 ? general : null, null, false);
+        }
+        state.agregarAlmacen(almacen);
+
+        ReporteFinanzas.ResumenEvento resumen = new MotorReportesFinanzas(state).generar(organizador).getEvento(evento);
+
+        assertEquals(2L * tiquetes, resumen.getTiquetes());
+        assertEquals((centavos + tiquetes * 200_000L) / 100.0, resumen.getIngresos(), 0.001);
+        assertEquals(Arrays.asList(palco, general, null), new ArrayList<>(resumen.getPorLocalidad().keySet()));
+        assertEquals(tiquetes / 3 + 1, resumen.getPorLocalidad().get(palco).getTiquetes());
+        assertEquals(tiquetes / 2, resumen.getPorLocalidad().get(null).getTiquetes());
+    }
+}
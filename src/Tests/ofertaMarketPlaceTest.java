@@ -84,4 +84,25 @@ class OfertaMarketPlaceTest {
         assertTrue(oferta.perteneceAlVendedor(vendedor));
         assertFalse(oferta.perteneceAlVendedor(otro));
     }
-}
\ No newline at end of file
+
+    @Test
+    void mejorContraofertaPendienteDescartaLasGestionadas() {
+        Cliente comprador = new Cliente("buyer", "pass", "Comprador", 500_000.0, "CLI901");
+        ContraOferta baja = oferta.agregarContraoferta(comprador, 150_000.0);
+        ContraOferta alta = oferta.agregarContraoferta(comprador, 170_000.0);
+
+        assertSame(alta, oferta.mejorContraofertaPendiente().orElseThrow());
+        assertSame(baja, oferta.buscarContraoferta(baja.getId()).orElseThrow());
+
+        alta.setEstado(EstadoContraOferta.RECHAZADA);
+        assertSame(baja, oferta.mejorContraofertaPendiente().orElseThrow());
+
+        alta.setEstado(EstadoContraOferta.PENDIENTE);
+        assertSame(alta, oferta.mejorContraofertaPendiente().orElseThrow());
+
+        assertTrue(oferta.retirarContraoferta(alta));
+        baja.setEstado(EstadoContraOferta.ACEPTADA);
+        assertTrue(oferta.mejorContraofertaPendiente().isEmpty());
+        assertTrue(oferta.buscarContraoferta(alta.getId()).isEmpty());
+    }
+}
@@ -0,0 +1,101 @@
+package Tests;
+
+import Cliente.Administrador;
+import Cliente.Cliente;
+import Cliente.TableroGanancias;
+import eventos.Evento;
+import eventos.Localidad;
+import eventos.TipoEvento;
+import eventos.Venue;
+import org.junit.jupiter.api.Test;
+import tiquetes.AlmacenTiquetes;
+import tiquetes.TiqueteBasico;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias de {@link TableroGanancias} alimentado por los eventos.
+ */
+class tableroGananciasTest {
+
+    @Test
+    void losEventosAlimentanElTableroAlVenderYRetirarTiquetes() {
+        Administrador admin = new Administrador(0.0, "ADM-1", new ArrayList<>(), "admin", "secret", "Admin", 0.0);
+        Venue estadio = new Venue("VEN-1", "Estadio", "Bogotá", 1_000, new ArrayList<>());
+        Venue teatro = new Venue("VEN-2", "Teatro", "Bogotá", 1_000, new ArrayList<>());
+        LocalDate hoy = LocalDate.now();
+        LocalDate dia = hoy.plusDays(30);
+        Evento evento = new Evento(admin, "EVT-1", "Final", dia, LocalTime.of(18, 0), "PROGRAMADO",
+                TipoEvento.DEPORTIVO, estadio, null, null, new ArrayList<>());
+        Cliente ana = new Cliente("ana", "pass", "Ana", 0.0, "CLI-1");
+        Localidad general = new Localidad(null, new ArrayList<>(), "General", 50_000.0, false, 0);
+        TiqueteBasico primero = new TiqueteBasico(ana, 1, 50_000.0, 5_000.0, 1_000.0, "EMITIDO", general, evento,
+                null, false);
+        TiqueteBasico segundo = new TiqueteBasico(ana, 2, 50_000.0, 5_000.0, 1_000.0, "EMITIDO", general, evento,
+                null, false);
+        evento.venderTiquete(primero);
+        evento.venderTiquete(segundo);
+        AlmacenTiquetes almacen = new AlmacenTiquetes(evento, 4);
+        almacen.agregar(ana, 100, 50_000.0, 2_000.0, 500.0, "EMITIDO", general, null, false);
+
+        TableroGanancias tablero = admin.verTableroGanancias("admin", "secret");
+        assertEquals(3, tablero.getVentas());
+        assertEquals(12_000.0, tablero.getCargosServicio(), 0.001);
+        assertEquals(2_500.0, tablero.getCargosEmision(), 0.001);
+        assertEquals(14_500.0, tablero.getIngresos(TipoEvento.DEPORTIVO), 0.001);
+        assertEquals(14_500.0, tablero.getIngresosDelDia(hoy), 0.001);
+        assertEquals(0.0, tablero.getIngresosDelDia(dia), 0.001);
+        assertEquals(Map.of(estadio, 14_500.0), tablero.getIngresosPorVenue());
+        assertEquals(14_500.0, admin.getGananciasPorTipo().getPorTipo(TipoEvento.DEPORTIVO), 0.001);
+
+        segundo.setCargoEmision(3_000.0);
+        evento.quitarTiquete(primero);
+        evento.setTipoEvento(TipoEvento.CULTURAL);
+        evento.setVenue(teatro);
+        evento.setFecha(dia.plusDays(1));
+
+        assertEquals(2, tablero.getVentas());
+        assertEquals(10_500.0, tablero.getIngresos(), 0.001);
+        assertEquals(10_500.0, tablero.getIngresos(TipoEvento.CULTURAL), 0.001);
+        assertEquals(0.0, tablero.getIngresos(TipoEvento.DEPORTIVO), 0.001);
+        assertEquals(10_500.0, tablero.getIngresosDelVenue(teatro), 0.001);
+        assertEquals(0.0, tablero.getIngresosDelVenue(estadio), 0.001);
+        assertEquals(10_500.0, tablero.getIngresosDelDia(hoy), 0.001);
+        assertEquals(10_500.0, admin.getGanancias(), 0.001);
+
+        Administrador otro = new Administrador(0.0, "ADM-2", new ArrayList<>(), "otro", "secret", "Otro", 0.0);
+        evento.setAdministrador(otro);
+        assertEquals(0, tablero.getVentas());
+        assertEquals(0.0, tablero.getIngresos(), 0.001);
+        assertEquals(10_500.0, tablero.getIngresosDelDia(hoy), 0.001);
+        assertEquals(10_500.0, otro.verTableroGanancias("otro", "secret").getIngresos(TipoEvento.CULTURAL), 0.001);
+        assertEquals(10_500.0, otro.getGanancias(), 0.001);
+        assertEquals(0.0, tablero.getIngresosDelDia(dia.plusDays(1)));
+        assertThrows(SecurityException.class, () -> admin.verTableroGanancias("admin", "otra"));
+    }
+
+    @Test
+    void registrarTiquetesGuardadosNoAcreditaIngresos() {
+        Administrador admin = new Administrador(0.0, "ADM-1", new ArrayList<>(), "admin", "secret", "Admin", 0.0);
+        Venue estadio = new Venue("VEN-1", "Estadio", "Bogotá", 1_000, new ArrayList<>());
+        Evento evento = new Evento(admin, "EVT-1", "Final", LocalDate.now().plusDays(30), LocalTime.of(18, 0),
+                "PROGRAMADO", TipoEvento.DEPORTIVO, estadio, null, null, new ArrayList<>());
+        Cliente ana = new Cliente("ana", "pass", "Ana", 0.0, "CLI-1");
+        TiqueteBasico guardado = new TiqueteBasico(ana, 1, 50_000.0, 5_000.0, 1_000.0, "EMITIDO", null, evento,
+                null, false);
+        evento.registrarTiquete(guardado);
+        new AlmacenTiquetes(evento, 4);
+
+        TableroGanancias tablero = admin.verTableroGanancias("admin", "secret");
+        assertEquals(1, tablero.getVentas());
+        assertEquals(6_000.0, tablero.getIngresosDelVenue(estadio), 0.001);
+        assertEquals(0.0, tablero.getIngresos(), 0.001);
+        assertEquals(0.0, tablero.getIngresosDelDia(LocalDate.now()), 0.001);
+        assertEquals(0.0, admin.getGanancias(), 0.001);
+    }
+}
@@ -0,0 +1,77 @@
+package Tests;
+
+import Cliente.Administrador;
+import Cliente.Organizador;
+import eventos.Evento;
+import eventos.TipoEvento;
+import eventos.Venue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias del calendario de {@link Venue} y de la aprobación de venues.
+ */
+class venueTest {
+
+    private static final LocalDate MARZO = LocalDate.of(2030, 3, 1);
+
+    private Administrador admin;
+    private Organizador organizador;
+    private Venue venue;
+
+    @BeforeEach
+    void setUp() {
+        admin = new Administrador(0.0, "ADM-1", new ArrayList<>(), "admin", "secret", "Admin", 0.0);
+        organizador = new Organizador("org", "pass", "Organizador", 0.0, "ORG-1", 0.0, null);
+        venue = new Venue("VEN-1", "Coliseo", "Bogotá", 1000, new ArrayList<>());
+        admin.aprobarVenue(venue, true);
+    }
+
+    private Evento crear(String id, LocalDate fecha) {
+        return organizador.crearEvento(admin, id, "Evento " + id, fecha, LocalTime.of(20, 0), "PROGRAMADO",
+                TipoEvento.CONCIERTO, venue, null, organizador, new ArrayList<>());
+    }
+
+    @Test
+    void calendarioRespondeRangosYFechasLibres() {
+        Evento tercero = crear("E3", MARZO.plusDays(2));
+        Evento primero = crear("E1", MARZO);
+
+        assertTrue(venue.tieneEventoEnFecha(MARZO));
+        assertEquals(List.of(primero, tercero), venue.eventosEntre(MARZO, MARZO.plusDays(30)));
+        assertEquals(List.of(MARZO.plusDays(1), MARZO.plusDays(3)), venue.fechasLibres(MARZO, MARZO.plusDays(3)));
+        assertThrows(IllegalArgumentException.class, () -> crear("E4", MARZO));
+        assertThrows(IllegalArgumentException.class, () -> venue.fechasLibres(MARZO.plusDays(1), MARZO));
+    }
+
+    @Test
+    void cambiarFechaMueveElEventoEnElCalendario() {
+        Evento evento = crear("E1", MARZO);
+
+        evento.setFecha(MARZO.plusDays(5));
+
+        assertFalse(venue.tieneEventoEnFecha(MARZO));
+        assertTrue(venue.tieneEventoEnFecha(MARZO.plusDays(5)));
+        venue.removerEvento(evento);
+        assertTrue(venue.getEventosProgramados().isEmpty());
+    }
+
+    @Test
+    void soloSePuedeCrearEnVenuesAprobados() {
+        Venue otro = new Venue("VEN-2", "Estadio", "Cali", 5000, new ArrayList<>());
+
+        assertTrue(admin.tieneVenueAprobado(venue));
+        assertFalse(admin.tieneVenueAprobado(otro));
+        admin.aprobarVenue(venue, true);
+        assertEquals(1, admin.getVenuesAprobados().size());
+        assertThrows(IllegalArgumentException.class, () -> organizador.crearEvento(admin, "E9", "X", MARZO,
+                LocalTime.NOON, "PROGRAMADO", TipoEvento.CULTURAL, otro, null, organizador, new ArrayList<>()));
+    }
+}
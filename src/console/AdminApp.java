@@ -3,7 +3,9 @@ package console;
 import Cliente.Administrador;
 import log.EntradaLog;
 import manager.BoletaMasterSystem;
-import marketPlace.OfertaMarketPlace;
+import manager.OrdenOfertas;
+import manager.PaginaOfertas;
+import manager.VistaOferta;
 
 import java.util.List;
 import java.util.Scanner;
@@ -13,6 +15,8 @@ import java.util.Scanner;
  */
 public final class AdminApp {
 
+    private static final int TAMANO_PAGINA = 20;
+
     private AdminApp() {}
 
     public static void main(String[] args) {
@@ -32,7 +36,7 @@ public final class AdminApp {
                 String opcion = scanner.nextLine().trim();
                 try {
                     switch (opcion) {
-                        case "1" -> listarOfertas(sistema);
+                        case "1" -> listarOfertas(scanner, sistema);
                         case "2" -> cancelarOferta(scanner, sistema, admin);
                         case "3" -> mostrarLog(sistema, admin, login, password);
                         case "0" -> salir = true;
@@ -65,21 +69,31 @@ public final class AdminApp {
         System.out.print("Seleccione una opción: ");
     }
 
-    private static void listarOfertas(BoletaMasterSystem sistema) {
-        List<OfertaMarketPlace> ofertas = sistema.obtenerTodasLasOfertas();
-        if (ofertas.isEmpty()) {
+    private static void listarOfertas(Scanner scanner, BoletaMasterSystem sistema) {
+        PaginaOfertas<VistaOferta> pagina = sistema.paginarTodasLasOfertas(OrdenOfertas.FECHA_CREACION, null, TAMANO_PAGINA);
+        if (pagina.getOfertas().isEmpty()) {
             System.out.println("No hay ofertas registradas.");
             return;
         }
         System.out.println("Ofertas registradas:");
-        for (OfertaMarketPlace oferta : ofertas) {
-            System.out.printf("- ID %s | Vendedor: %s | Precio: %.2f | Estado: %s%n",
-                    oferta.getId(), oferta.getVendedor().getLogin(), oferta.getPrecioInicial(), oferta.getEstado());
+        while (true) {
+            for (VistaOferta oferta : pagina.getOfertas()) {
+                System.out.printf("- ID %s | Vendedor: %s | Precio: %.2f | Estado: %s%n",
+                        oferta.getId(), oferta.getLoginVendedor(), oferta.getPrecioInicial(), oferta.getEstado());
+            }
+            if (!pagina.tieneSiguiente()) {
+                return;
+            }
+            System.out.print("Enter para ver más, 'q' para terminar: ");
+            if (scanner.nextLine().trim().equalsIgnoreCase("q")) {
+                return;
+            }
+            pagina = sistema.paginarTodasLasOfertas(OrdenOfertas.FECHA_CREACION, pagina.getSiguienteCursor(), TAMANO_PAGINA);
         }
     }
 
     private static void cancelarOferta(Scanner scanner, BoletaMasterSystem sistema, Administrador admin) {
-        listarOfertas(sistema);
+        listarOfertas(scanner, sistema);
         System.out.print("Ingrese el ID de la oferta a eliminar: ");
         String ofertaId = scanner.nextLine().trim();
         sistema.cancelarOfertaPorAdministrador(admin, ofertaId);
@@ -2,12 +2,17 @@ package console;
 
 import Cliente.Cliente;
 import manager.BoletaMasterSystem;
-import marketPlace.ContraOferta;
+import manager.ConsultaEventos;
+import manager.VistaContraoferta;
+import manager.VistaEvento;
+import manager.VistaOferta;
+import manager.VistaTiquete;
+import eventos.TipoEvento;
 import marketPlace.OfertaMarketPlace;
-import marketPlace.EstadoContraOferta;
-import tiquetes.Tiquete;
 
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Scanner;
@@ -36,7 +41,7 @@ public final class ClienteApp {
                 String opcion = scanner.nextLine().trim();
                 try {
                     switch (opcion) {
-                        case "1" -> listarTiquetes(cliente);
+                        case "1" -> listarTiquetes(sistema, cliente);
                         case "2" -> publicarOferta(scanner, sistema, cliente);
                         case "3" -> cancelarOferta(scanner, sistema, cliente);
                         case "4" -> mostrarOfertasActivas(sistema, cliente);
@@ -46,6 +51,9 @@ public final class ClienteApp {
                         case "8" -> aceptarContraoferta(scanner, sistema, cliente);
                         case "9" -> rechazarContraoferta(scanner, sistema, cliente);
                         case "10" -> System.out.printf("Saldo disponible: %.2f%n", cliente.getSaldo());
+                        case "11" -> explorarEvento(scanner, sistema, cliente);
+                        case "12" -> buscarOfertas(scanner, sistema, cliente);
+                        case "13" -> filtrarEventos(scanner, sistema);
                         case "0" -> salir = true;
                         default -> System.out.println("Opción no válida.");
                     }
@@ -79,19 +87,22 @@ public final class ClienteApp {
         System.out.println("8. Aceptar contraoferta");
         System.out.println("9. Rechazar contraoferta");
         System.out.println("10. Consultar saldo");
+        System.out.println("11. Explorar evento");
+        System.out.println("12. Buscar ofertas");
+        System.out.println("13. Filtrar eventos");
         System.out.println("0. Salir");
         System.out.print("Seleccione una opción: ");
     }
 
-    private static void listarTiquetes(Cliente cliente) {
-        List<Tiquete> tiquetes = cliente.verTiquetes();
+    private static void listarTiquetes(BoletaMasterSystem sistema, Cliente cliente) {
+        List<VistaTiquete> tiquetes = sistema.obtenerTiquetesCliente(cliente);
         if (tiquetes.isEmpty()) {
             System.out.println("No tiene tiquetes disponibles.");
             return;
         }
         System.out.println("Mis tiquetes:");
-        for (Tiquete tiquete : tiquetes) {
-            String evento = tiquete.getEvento() == null ? "(sin evento)" : tiquete.getEvento().getNombre();
+        for (VistaTiquete tiquete : tiquetes) {
+            String evento = tiquete.getNombreEvento() == null ? "(sin evento)" : tiquete.getNombreEvento();
             System.out.printf("- ID %d | Evento: %s | Estado: %s%n", tiquete.getIdTiquete(), evento, tiquete.getEstado());
         }
     }
@@ -115,21 +126,97 @@ public final class ClienteApp {
     }
 
     private static void mostrarOfertasActivas(BoletaMasterSystem sistema, Cliente cliente) {
-        List<OfertaMarketPlace> ofertas = sistema.obtenerOfertasActivas().stream()
-                .filter(o -> !o.getVendedor().equals(cliente))
+        List<VistaOferta> ofertas = sistema.obtenerOfertasActivas().stream()
+                .filter(o -> !o.perteneceAlVendedor(cliente))
                 .collect(Collectors.toList());
         if (ofertas.isEmpty()) {
             System.out.println("No hay ofertas activas disponibles.");
             return;
         }
         System.out.println("Ofertas activas:");
-        for (OfertaMarketPlace oferta : ofertas) {
+        for (VistaOferta oferta : ofertas) {
             String eventos = oferta.getTiquetes().stream()
-                    .map(t -> t.getEvento() == null ? "(sin evento)" : t.getEvento().getNombre())
+                    .map(t -> t.getNombreEvento() == null ? "(sin evento)" : t.getNombreEvento())
                     .distinct()
                     .collect(Collectors.joining(", "));
             System.out.printf("- ID %s | Vendedor: %s | Precio: %.2f | Eventos: %s%n",
-                    oferta.getId(), oferta.getVendedor().getLogin(), oferta.getPrecioInicial(), eventos);
+                    oferta.getId(), oferta.getLoginVendedor(), oferta.getPrecioInicial(), eventos);
+        }
+    }
+
+    private static void explorarEvento(Scanner scanner, BoletaMasterSystem sistema, Cliente cliente) {
+        List<VistaEvento> eventos = sistema.obtenerEventos();
+        if (eventos.isEmpty()) {
+            System.out.println("No hay eventos registrados.");
+            return;
+        }
+        System.out.println("Eventos:");
+        for (VistaEvento evento : eventos) {
+            System.out.printf("- ID %s | %s%n", evento.getIdEvento(), evento.getNombre());
+        }
+        System.out.print("ID del evento: ");
+        String eventoId = scanner.nextLine().trim();
+        System.out.print("Localidad (vacío para todas): ");
+        String localidad = scanner.nextLine().trim();
+        if (localidad.isEmpty()) {
+            localidad = null;
+        }
+        List<VistaOferta> ofertas = sistema.mejoresOfertasEvento(eventoId, localidad, 10).stream()
+                .filter(o -> !o.perteneceAlVendedor(cliente))
+                .collect(Collectors.toList());
+        if (ofertas.isEmpty()) {
+            System.out.println("No hay ofertas activas para ese evento.");
+            return;
+        }
+        System.out.printf("Mejor precio por tiquete: %.2f%n", ofertas.get(0).getPrecioPorTiquete());
+        for (VistaOferta oferta : ofertas) {
+            System.out.printf("- ID %s | Vendedor: %s | Tiquetes: %d | Precio por tiquete: %.2f | Total: %.2f%n",
+                    oferta.getId(), oferta.getLoginVendedor(), oferta.getTiquetes().size(),
+                    oferta.getPrecioPorTiquete(), oferta.getPrecioInicial());
+        }
+    }
+
+    private static void filtrarEventos(Scanner scanner, BoletaMasterSystem sistema) {
+        ConsultaEventos consulta = new ConsultaEventos().entre(LocalDate.now(), null).estado("PROGRAMADO");
+        System.out.print("Tipo (" + Arrays.toString(TipoEvento.values()) + ", vacío para todos): ");
+        String tipo = scanner.nextLine().trim();
+        if (!tipo.isEmpty()) {
+            consulta.tipo(TipoEvento.valueOf(tipo.toUpperCase()));
+        }
+        System.out.print("Precio máximo por localidad (vacío para cualquiera): ");
+        String maximo = scanner.nextLine().trim();
+        if (!maximo.isEmpty()) {
+            consulta.precioEntre(0, Double.parseDouble(maximo));
+        }
+        List<VistaEvento> eventos = sistema.consultarEventos(consulta.limite(50));
+        if (eventos.isEmpty()) {
+            System.out.println("No hay eventos que cumplan los filtros.");
+            return;
+        }
+        for (VistaEvento evento : eventos) {
+            String venue = evento.getNombreVenue() == null ? "(sin venue)" : evento.getNombreVenue();
+            System.out.printf("- ID %s | %s | %s | %s | %s%n", evento.getIdEvento(), evento.getNombre(),
+                    evento.getFecha(), evento.getTipoEvento(), venue);
+        }
+    }
+
+    private static void buscarOfertas(Scanner scanner, BoletaMasterSystem sistema, Cliente cliente) {
+        System.out.print("Buscar (evento, venue, ciudad, tipo, localidad o vendedor): ");
+        String consulta = scanner.nextLine().trim();
+        List<VistaOferta> ofertas = sistema.buscarOfertas(consulta, 20).stream()
+                .filter(o -> !o.perteneceAlVendedor(cliente))
+                .collect(Collectors.toList());
+        if (ofertas.isEmpty()) {
+            System.out.println("No se encontraron ofertas.");
+            return;
+        }
+        for (VistaOferta oferta : ofertas) {
+            String eventos = oferta.getTiquetes().stream()
+                    .map(t -> t.getNombreEvento() == null ? "(sin evento)" : t.getNombreEvento())
+                    .distinct()
+                    .collect(Collectors.joining(", "));
+            System.out.printf("- ID %s | Vendedor: %s | Precio: %.2f | Eventos: %s%n",
+                    oferta.getId(), oferta.getLoginVendedor(), oferta.getPrecioInicial(), eventos);
         }
     }
 
@@ -152,17 +239,17 @@ public final class ClienteApp {
     }
 
     private static void mostrarContraofertasPendientes(BoletaMasterSystem sistema, Cliente cliente) {
-        Map<OfertaMarketPlace, List<ContraOferta>> pendientes = sistema.contraofertasPendientes(cliente);
+        Map<VistaOferta, List<VistaContraoferta>> pendientes = sistema.contraofertasPendientes(cliente);
         if (pendientes.isEmpty()) {
             System.out.println("No tiene contraofertas pendientes.");
             return;
         }
-        for (Map.Entry<OfertaMarketPlace, List<ContraOferta>> entry : pendientes.entrySet()) {
-            OfertaMarketPlace oferta = entry.getKey();
+        for (Map.Entry<VistaOferta, List<VistaContraoferta>> entry : pendientes.entrySet()) {
+            VistaOferta oferta = entry.getKey();
             System.out.printf("Oferta %s:%n", oferta.getId());
-            for (ContraOferta contra : entry.getValue()) {
+            for (VistaContraoferta contra : entry.getValue()) {
                 System.out.printf("  - ID %s | Comprador: %s | Monto: %.2f%n",
-                        contra.getId(), contra.getComprador().getLogin(), contra.getMonto());
+                        contra.getId(), contra.getLoginComprador(), contra.getMonto());
             }
         }
     }
@@ -188,15 +275,19 @@ public final class ClienteApp {
     }
 
     private static void mostrarOfertasDeVendedor(BoletaMasterSystem sistema, Cliente cliente) {
-        List<OfertaMarketPlace> ofertas = sistema.obtenerOfertasPorVendedor(cliente);
+        List<VistaOferta> ofertas = sistema.obtenerOfertasPorVendedor(cliente);
         if (ofertas.isEmpty()) {
             System.out.println("No tiene ofertas publicadas.");
             return;
         }
-        for (OfertaMarketPlace oferta : ofertas) {
-            System.out.printf("- ID %s | Estado: %s | Precio: %.2f | Contraofertas pendientes: %d%n",
+        for (VistaOferta oferta : ofertas) {
+            String mejor = oferta.mejorContraofertaPendiente()
+                    .map(c -> String.format("%.2f", c.getMonto()))
+                    .orElse("-");
+            System.out.printf("- ID %s | Estado: %s | Precio: %.2f | Contraofertas pendientes: %d | Mejor: %s%n",
                     oferta.getId(), oferta.getEstado(), oferta.getPrecioInicial(),
-                    oferta.getContraofertas().stream().filter(c -> c.getEstado() == EstadoContraOferta.PENDIENTE).count());
+                    oferta.getContraofertasPendientes().size(),
+                    mejor);
         }
     }
 
@@ -1,8 +1,8 @@
 package console;
 
 import Cliente.Organizador;
-import eventos.Evento;
 import manager.BoletaMasterSystem;
+import manager.VistaEvento;
 
 import java.util.Collection;
 import java.util.Scanner;
@@ -63,14 +63,14 @@ public final class OrganizadorApp {
     }
 
     private static void listarEventos(BoletaMasterSystem sistema, Organizador organizador) {
-        Collection<Evento> eventos = sistema.getEventosOrganizador(organizador);
+        Collection<VistaEvento> eventos = sistema.getEventosOrganizador(organizador);
         if (eventos.isEmpty()) {
             System.out.println("No tiene eventos asociados.");
             return;
         }
         System.out.println("Eventos:");
-        for (Evento evento : eventos) {
-            String venue = evento.getVenue() == null ? "(sin venue)" : evento.getVenue().getNombre();
+        for (VistaEvento evento : eventos) {
+            String venue = evento.getNombreVenue() == null ? "(sin venue)" : evento.getNombreVenue();
             System.out.printf("- %s | Fecha: %s | Hora: %s | Venue: %s | Estado: %s%n",
                     evento.getNombre(), evento.getFecha(), evento.getHora(), venue, evento.getEstado());
         }
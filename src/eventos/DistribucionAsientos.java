@@ -0,0 +1,96 @@
+package eventos;
+
+import java.util.Arrays;
+
+/**
+ * Distribución en filas de los asientos de una localidad numerada.
+ * <p>
+ * Los asientos se numeran de forma consecutiva fila por fila: la fila {@code 1} va del
+ * asiento {@code 1} a {@code asientosPorFila[0]}, la fila {@code 2} continúa a partir del
+ * siguiente, etc. Dos asientos son adyacentes si tienen números consecutivos dentro de
+ * la misma fila. La fila {@code 1} es la más cercana al escenario. Es inmutable.
+ */
+public final class DistribucionAsientos {
+
+    /** Primer asiento de cada fila y, al final, {@code capacidad + 1}. */
+    private final int[] inicios;
+
+    /**
+     * @param asientosPorFila número de asientos de cada fila, de la más cercana a la más lejana.
+     * @throws IllegalArgumentException si no hay filas o alguna no tiene asientos.
+     */
+    public DistribucionAsientos(int... asientosPorFila) {
+        if (asientosPorFila == null || asientosPorFila.length == 0) {
+            throw new IllegalArgumentException("La distribución debe tener al menos una fila");
+        }
+        inicios = new int[asientosPorFila.length + 1];
+        inicios[0] = 1;
+        for (int i = 0; i < asientosPorFila.length; i++) {
+            if (asientosPorFila[i] <= 0) {
+                throw new IllegalArgumentException("Cada fila debe tener al menos un asiento");
+            }
+            inicios[i + 1] = Math.addExact(inicios[i], asientosPorFila[i]);
+        }
+    }
+
+    /**
+     * Distribución de {@code capacidad} asientos en filas de {@code asientosPorFila}
+     * (la última fila puede quedar incompleta).
+     *
+     * @throws IllegalArgumentException si algún valor no es positivo.
+     */
+    public static DistribucionAsientos uniforme(int capacidad, int asientosPorFila) {
+        if (capacidad <= 0 || asientosPorFila <= 0) {
+            throw new IllegalArgumentException("La capacidad y los asientos por fila deben ser positivos");
+        }
+        int filas = (capacidad + asientosPorFila - 1) / asientosPorFila;
+        int[] tamanos = new int[filas];
+        Arrays.fill(tamanos, asientosPorFila);
+        tamanos[filas - 1] = capacidad - (filas - 1) * asientosPorFila;
+        return new DistribucionAsientos(tamanos);
+    }
+
+    public int getCapacidad() {
+        return inicios[inicios.length - 1] - 1;
+    }
+
+    public int getFilas() {
+        return inicios.length - 1;
+    }
+
+    /**
+     * @param fila fila entre {@code 1} y {@link #getFilas()}.
+     * @return primer asiento de la fila.
+     */
+    public int primerAsiento(int fila) {
+        validarFila(fila);
+        return inicios[fila - 1];
+    }
+
+    /**
+     * @param fila fila entre {@code 1} y {@link #getFilas()}.
+     * @return último asiento de la fila.
+     */
+    public int ultimoAsiento(int fila) {
+        validarFila(fila);
+        return inicios[fila] - 1;
+    }
+
+    /**
+     * @return fila del asiento.
+     * @throws IllegalArgumentException si el asiento no pertenece a la distribución.
+     */
+    public int filaDe(int asiento) {
+        if (asiento < 1 || asiento > getCapacidad()) {
+            throw new IllegalArgumentException("El asiento " + asiento + " no existe en la distribución");
+        }
+        int posicion = Arrays.binarySearch(inicios, asiento);
+        return posicion >= 0 ? posicion + 1 : -posicion - 1;
+    }
+
+    private void validarFila(int fila) {
+        if (fila < 1 || fila > getFilas()) {
+            throw new IllegalArgumentException("La fila " + fila + " no existe en la distribución");
+        }
+    }
+}
@@ -3,8 +3,11 @@ package eventos;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.ArrayList;
-import java.util.List;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.Objects;
+import java.util.Set;
 
 import Cliente.Administrador;
 import Cliente.Organizador;
@@ -25,6 +28,12 @@ import tiquetes.Tiquete;
  *   <li>Las localidades y precios se definen por evento (no son inherentes al venue).</li>
  *   <li>El porcentaje de venta del evento se puede calcular con base en la capacidad del venue.</li>
  * </ul>
+ * Los conteos de venta salen de su {@link InventarioTiquetes}, que se mantiene al
+ * registrar tiquetes, sin recorrerlos. Solo {@link #venderTiquete(Tiquete)} es una venta:
+ * acredita los cargos en el {@link Cliente.TableroGanancias} del administrador, en el día
+ * en que ocurre, y el precio como ingreso del organizador. Registrar un tiquete (al crear
+ * el evento o al cargar los datos guardados) no acredita ingresos, porque ya están en los
+ * totales guardados: solo lo cuenta en los cargos y el venue del tablero.
  */
 public class Evento {
     private Administrador administrador;
@@ -37,7 +46,21 @@ public class Evento {
     private Venue venue;
     private Oferta oferta;
     private Organizador organizador;
-    private final List<Tiquete> tiquetes;
+    private final Set<Tiquete> tiquetes;
+    private final Collection<Tiquete> vistaTiquetes;
+    private final InventarioTiquetes inventario = new InventarioTiquetes();
+    /** Cuenta los cambios en los tiquetes, sus precios o sus localidades; ver {@link #getVersion()}. */
+    private long version;
+    /**
+     * Tiquetes, cargos y precios (en centavos) de los tiquetes registrados, incluidos los de
+     * los almacenes del evento; sus ingresos están en el tablero de ganancias y en las
+     * finanzas del organizador, y estos totales permiten reclasificarlos sin recorrer los
+     * tiquetes.
+     */
+    private long acreditados;
+    private long centavosServicio;
+    private long centavosEmision;
+    private long centavosPrecio;
 
     /**
      * Crea un evento con todos sus datos principales y colecciones iniciales.
@@ -71,9 +94,12 @@ public class Evento {
         this.venue = venue;
         this.oferta = oferta;
         this.organizador = organizador;
-        this.tiquetes = new ArrayList<>();
+        this.tiquetes = new LinkedHashSet<>();
+        this.vistaTiquetes = Collections.unmodifiableCollection(this.tiquetes);
         if (tiquetes != null) {
-            this.tiquetes.addAll(tiquetes);
+            for (Tiquete tiquete : tiquetes) {
+                incorporar(tiquete, false);
+            }
         }
     }
 
@@ -82,7 +108,10 @@ public class Evento {
     }
 
     public void setAdministrador(Administrador administrador) {
-        this.administrador = Objects.requireNonNull(administrador, "El administrador es obligatorio");
+        Objects.requireNonNull(administrador, "El administrador es obligatorio");
+        reclasificar(false);
+        this.administrador = administrador;
+        reclasificar(true);
     }
 
     public String getIdEvento() {
@@ -105,8 +134,18 @@ public class Evento {
         return fecha;
     }
 
+    /**
+     * Cambia la fecha del evento y lo mueve en el calendario de su venue, si estaba registrado.
+     *
+     * @throws NullPointerException si {@code fecha} es {@code null}.
+     */
     public void setFecha(LocalDate fecha) {
-        this.fecha = Objects.requireNonNull(fecha, "La fecha es obligatoria");
+        LocalDate anterior = this.fecha;
+        Objects.requireNonNull(fecha, "La fecha es obligatoria");
+        this.fecha = fecha;
+        if (venue != null && !fecha.equals(anterior)) {
+            venue.reprogramarEvento(this, anterior);
+        }
     }
 
     public LocalTime getHora() {
@@ -130,7 +169,10 @@ public class Evento {
     }
 
     public void setTipoEvento(TipoEvento tipoEvento) {
-        this.tipoEvento = Objects.requireNonNull(tipoEvento, "El tipo de evento es obligatorio");
+        Objects.requireNonNull(tipoEvento, "El tipo de evento es obligatorio");
+        reclasificar(false);
+        this.tipoEvento = tipoEvento;
+        reclasificar(true);
     }
 
     public Venue getVenue() {
@@ -138,7 +180,9 @@ public class Evento {
     }
 
     public void setVenue(Venue venue) {
+        reclasificar(false);
         this.venue = venue;
+        reclasificar(true);
     }
 
     public Oferta getOferta() {
@@ -154,15 +198,43 @@ public class Evento {
     }
 
     public void setOrganizador(Organizador organizador) {
+        reclasificar(false);
         this.organizador = organizador;
+        reclasificar(true);
     }
 
     public ArrayList<Tiquete> getTiquetes() {
         return new ArrayList<>(tiquetes);
     }
+
+    /**
+     * @return vista de solo lectura de los tiquetes del evento, sin copiarlos.
+     */
+    public Collection<Tiquete> verTiquetes() {
+        return vistaTiquetes;
+    }
+
+    public InventarioTiquetes getInventario() {
+        return inventario;
+    }
     
+    /**
+     * @return contador que aumenta cada vez que se registra, retira o cambia de precio o de
+     *         localidad un tiquete del evento; permite a los reportes saber si deben recalcularse.
+     */
+    public long getVersion() {
+        return version;
+    }
+
     public int getVendidos() {
-    	return tiquetes.size();
+    	return inventario.getEmitidos();
+    }
+
+    /**
+     * @return cupos del venue aún sin tiquete emitido.
+     */
+    public int getRestantes() {
+        return inventario.getRestantes(getCapacidadMaxima());
     }
     
     public int getCapacidadMaxima() {
@@ -180,20 +252,236 @@ public class Evento {
     }
 
 
+    /**
+     * Reemplaza los tiquetes registrados sin acreditar ni descontar ingresos.
+     */
     public void setTiquetes(ArrayList<Tiquete> tiquetes) {
+        for (Tiquete tiquete : this.tiquetes) {
+            inventario.registrarBaja(tiquete.isImpreso());
+            contar(tiquete.getPrecio(), tiquete.getCargoServicio(), tiquete.getCargoEmision(), -1);
+            administrador.getTablero().descontarTiquete(venue, tiquete.getCargoServicio(), tiquete.getCargoEmision());
+        }
         this.tiquetes.clear();
+        version++;
         if (tiquetes != null) {
-            this.tiquetes.addAll(tiquetes);
+            for (Tiquete tiquete : tiquetes) {
+                incorporar(tiquete, false);
+            }
         }
     }
     /**
-     * Registra (agrega) un {@link tiquetes.Tiquete} al evento.
+     * Registra (agrega) al evento un {@link tiquetes.Tiquete} ya vendido, p. ej. al cargar los
+     * datos guardados, sin acreditar sus ingresos.
      *
      * @param tiquete tiquete a registrar (obligatorio).
      * @throws NullPointerException si {@code tiquete} es {@code null}.
      */
     public void registrarTiquete(Tiquete tiquete) {
-        tiquetes.add(Objects.requireNonNull(tiquete, "El tiquete es obligatorio"));
+        incorporar(tiquete, false);
+    }
+
+    /**
+     * Registra la venta de un {@link tiquetes.Tiquete}: lo agrega al evento, acredita sus
+     * cargos en el tablero de ganancias del administrador, en el día de hoy, y su precio en
+     * las finanzas del organizador. Si el tiquete ya estaba registrado no acredita nada.
+     *
+     * @param tiquete tiquete vendido (obligatorio).
+     * @throws NullPointerException si {@code tiquete} es {@code null}.
+     */
+    public void venderTiquete(Tiquete tiquete) {
+        incorporar(tiquete, true);
+    }
+
+    private void incorporar(Tiquete tiquete, boolean venta) {
+        if (tiquetes.add(Objects.requireNonNull(tiquete, "El tiquete es obligatorio"))) {
+            inventario.registrarEmision(tiquete.isImpreso());
+            incorporarCargos(tiquete.getPrecio(), tiquete.getCargoServicio(), tiquete.getCargoEmision(), venta);
+            version++;
+        }
+    }
+
+    /**
+     * Cuenta en el inventario un tiquete ya vendido que no se guarda en el evento sino en un
+     * {@link tiquetes.AlmacenTiquetes} suyo; lo invoca el almacén al abrirse.
+     */
+    public void registrarTiqueteAlmacenado(boolean impreso, double precio, double cargoServicio, double cargoEmision) {
+        inventario.registrarEmision(impreso);
+        incorporarCargos(precio, cargoServicio, cargoEmision, false);
+    }
+
+    /**
+     * Como {@link #venderTiquete(Tiquete)}, para un tiquete nuevo de un almacén del evento;
+     * lo invoca el almacén al agregarlo.
+     */
+    public void venderTiqueteAlmacenado(double precio, double cargoServicio, double cargoEmision) {
+        inventario.registrarEmision(false);
+        incorporarCargos(precio, cargoServicio, cargoEmision, true);
+    }
+
+    /**
+     * Como {@link #registrarImpresion(Tiquete, boolean)}, para un tiquete de un almacén del evento.
+     */
+    public void registrarImpresionAlmacenada(boolean impreso) {
+        inventario.ajustarImpresos(impreso ? 1 : -1);
+    }
+
+    /**
+     * Como {@link #registrarCambioCargos(Tiquete, double, double)}, para un tiquete de un
+     * almacén del evento.
+     */
+    public void registrarCambioCargosAlmacenados(double diferenciaServicio, double diferenciaEmision) {
+        ajustarCargos(diferenciaServicio, diferenciaEmision);
+    }
+
+    /**
+     * Como {@link #registrarCambioPrecio(Tiquete, double)}, para un tiquete de un almacén del
+     * evento.
+     */
+    public void registrarCambioPrecioAlmacenado(double diferencia) {
+        ajustarPrecio(diferencia);
+    }
+
+    /**
+     * Retira un tiquete del evento (p. ej. al cancelarlo) y descuenta sus ingresos en el día
+     * de hoy.
+     *
+     * @return {@code true} si el tiquete estaba registrado.
+     */
+    public boolean quitarTiquete(Tiquete tiquete) {
+        if (!tiquetes.remove(tiquete)) {
+            return false;
+        }
+        inventario.registrarBaja(tiquete.isImpreso());
+        contar(tiquete.getPrecio(), tiquete.getCargoServicio(), tiquete.getCargoEmision(), -1);
+        acreditar(tiquete.getPrecio(), tiquete.getCargoServicio(), tiquete.getCargoEmision(), false);
+        version++;
+        return true;
+    }
+
+    /**
+     * Refleja en el tablero de ganancias el cambio de cargos de un tiquete del evento;
+     * lo invocan los setters de cargos de {@link Tiquete}.
+     */
+    public void registrarCambioCargos(Tiquete tiquete, double diferenciaServicio, double diferenciaEmision) {
+        if (tiquetes.contains(tiquete)) {
+            ajustarCargos(diferenciaServicio, diferenciaEmision);
+        }
+    }
+
+    /**
+     * Refleja en las finanzas del organizador el cambio de precio de un tiquete del evento;
+     * lo invoca {@link Tiquete#setPrecio(double)}.
+     */
+    public void registrarCambioPrecio(Tiquete tiquete, double diferencia) {
+        if (tiquetes.contains(tiquete)) {
+            ajustarPrecio(diferencia);
+            version++;
+        }
+    }
+
+    /**
+     * Registra que cambió la localidad de un tiquete del evento; lo invoca
+     * {@link Tiquete#setLocalidad(Localidad)}.
+     */
+    public void registrarCambioTiquete(Tiquete tiquete) {
+        if (tiquetes.contains(tiquete)) {
+            version++;
+        }
+    }
+
+    private void contar(double precio, double cargoServicio, double cargoEmision, int signo) {
+        acreditados += signo;
+        centavosServicio += signo * aCentavos(cargoServicio);
+        centavosEmision += signo * aCentavos(cargoEmision);
+        centavosPrecio += signo * aCentavos(precio);
+    }
+
+    /**
+     * Cuenta los cargos de un tiquete nuevo en el evento; una venta además los acredita,
+     * mientras que un tiquete ya vendido solo se cuenta en el tablero, sin tocar el libro
+     * de ingresos.
+     */
+    private void incorporarCargos(double precio, double cargoServicio, double cargoEmision, boolean venta) {
+        contar(precio, cargoServicio, cargoEmision, 1);
+        if (venta) {
+            acreditar(precio, cargoServicio, cargoEmision, true);
+        } else {
+            administrador.getTablero().contarTiquete(venue, cargoServicio, cargoEmision);
+        }
+    }
+
+    private void acreditar(double precio, double cargoServicio, double cargoEmision, boolean venta) {
+        if (venta) {
+            administrador.getTablero().registrarVenta(tipoEvento, venue, LocalDate.now(), cargoServicio, cargoEmision);
+            if (organizador != null) {
+                organizador.registrarIngreso(tipoEvento, precio);
+            }
+        } else {
+            administrador.getTablero().anularVenta(tipoEvento, venue, LocalDate.now(), cargoServicio, cargoEmision);
+            if (organizador != null) {
+                organizador.ajustarIngreso(tipoEvento, -precio);
+            }
+        }
+    }
+
+    private void ajustarCargos(double diferenciaServicio, double diferenciaEmision) {
+        administrador.getTablero().ajustarCargos(tipoEvento, venue, LocalDate.now(), diferenciaServicio,
+                diferenciaEmision);
+        centavosServicio += aCentavos(diferenciaServicio);
+        centavosEmision += aCentavos(diferenciaEmision);
+    }
+
+    private void ajustarPrecio(double diferencia) {
+        if (organizador != null) {
+            organizador.ajustarIngreso(tipoEvento, diferencia);
+        }
+        centavosPrecio += aCentavos(diferencia);
+    }
+
+    /**
+     * Retira ({@code false}) o vuelve a acreditar ({@code true}) de una vez las ventas del
+     * evento y de sus almacenes; se usa alrededor de los cambios que las reclasifican. Los
+     * ingresos por día del tablero no se mueven: son los de las ventas, no los del evento.
+     */
+    private void reclasificar(boolean venta) {
+        if (acreditados == 0) {
+            return;
+        }
+        int signo = venta ? 1 : -1;
+        if (venta) {
+            administrador.getTablero().registrarVentas(tipoEvento, venue, acreditados,
+                    centavosServicio / 100.0, centavosEmision / 100.0);
+        } else {
+            administrador.getTablero().anularVentas(tipoEvento, venue, acreditados,
+                    centavosServicio / 100.0, centavosEmision / 100.0);
+        }
+        if (organizador != null) {
+            organizador.ajustarIngreso(tipoEvento, signo * centavosPrecio / 100.0);
+        }
+    }
+
+    private static long aCentavos(double monto) {
+        return Math.round(monto * 100.0);
+    }
+
+    /**
+     * Actualiza el inventario cuando un tiquete del evento cambia su marca de impresión;
+     * lo invoca {@link Tiquete#setImpreso(boolean)}.
+     */
+    public void registrarImpresion(Tiquete tiquete, boolean impreso) {
+        if (tiquetes.contains(tiquete)) {
+            inventario.ajustarImpresos(impreso ? 1 : -1);
+        }
+    }
+
+    /**
+     * Actualiza el inventario cuando un tiquete del evento entra ({@code +1}) o sale
+     * ({@code -1}) de una oferta activa del marketplace.
+     */
+    public void registrarReventa(Tiquete tiquete, int delta) {
+        if (tiquetes.contains(tiquete)) {
+            inventario.ajustarEnReventa(delta);
+        }
     }
     /**
      * Asocia un {@link eventos.Venue} al evento.
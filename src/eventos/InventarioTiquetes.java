@@ -0,0 +1,73 @@
+package eventos;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Contadores de inventario de un {@link Evento} o una {@link Localidad}: tiquetes
+ * emitidos, impresos y publicados en el marketplace.
+ * <p>
+ * Los mantienen el evento y la localidad al registrar o retirar tiquetes, el propio
+ * {@link tiquetes.Tiquete} al imprimirse y el índice del marketplace al activar o cerrar
+ * ofertas, de modo que consultar el inventario cuesta tiempo constante. Los contadores
+ * son atómicos y se pueden leer desde cualquier hilo.
+ */
+public final class InventarioTiquetes {
+
+    private final AtomicInteger emitidos = new AtomicInteger();
+    private final AtomicInteger impresos = new AtomicInteger();
+    private final AtomicInteger enReventa = new AtomicInteger();
+
+    public int getEmitidos() {
+        return emitidos.get();
+    }
+
+    public int getImpresos() {
+        return impresos.get();
+    }
+
+    /**
+     * @return tiquetes incluidos en ofertas activas del marketplace.
+     */
+    public int getEnReventa() {
+        return enReventa.get();
+    }
+
+    /**
+     * @return cupos sin emitir frente a {@code capacidad} (nunca negativo).
+     */
+    public int getRestantes(int capacidad) {
+        return Math.max(capacidad - emitidos.get(), 0);
+    }
+
+    void registrarEmision(boolean impreso) {
+        emitidos.incrementAndGet();
+        if (impreso) {
+            impresos.incrementAndGet();
+        }
+    }
+
+    void registrarBaja(boolean impreso) {
+        emitidos.decrementAndGet();
+        if (impreso) {
+            impresos.decrementAndGet();
+        }
+    }
+
+    void ajustarImpresos(int delta) {
+        impresos.addAndGet(delta);
+    }
+
+    void ajustarEnReventa(int delta) {
+        enReventa.addAndGet(delta);
+    }
+
+    void reiniciar() {
+        emitidos.set(0);
+        impresos.set(0);
+    }
+
+    @Override
+    public String toString() {
+        return "emitidos=" + emitidos.get() + ", impresos=" + impresos.get() + ", enReventa=" + enReventa.get();
+    }
+}
@@ -1,10 +1,16 @@
 package eventos;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 
 import tiquetes.Tiquete;
+import tiquetes.TiqueteBasico;
 
 /**
  * Modela una localidad de un evento en la plataforma BoletaMaster.
@@ -16,14 +22,26 @@ import tiquetes.Tiquete;
  *   <li>Si la localidad es numerada, cada tiquete debe tener un asiento único en la localidad.</li>
  * </ul>
  * Una localidad puede tener una {@link eventos.Oferta} vigente y agrupar múltiples
- * {@link tiquetes.Tiquete}.
+ * {@link tiquetes.Tiquete}. En las localidades numeradas lleva además un
+ * {@link MapaAsientos} con los asientos ocupados por sus tiquetes. Su
+ * {@link InventarioTiquetes} lleva los tiquetes emitidos, impresos y en reventa.
  */
 public class Localidad {
     private String nombre;
     private double precioBase;
     private boolean numerada;
     private int numeroAsientos;
-    private final List<Tiquete> tiquetes;
+    private final Set<Tiquete> tiquetes;
+    private final MapaAsientos asientos;
+    /**
+     * Número de tiquetes de la localidad en cada asiento. Datos antiguos pueden tener dos
+     * tiquetes en el mismo asiento; el asiento sigue ocupado mientras quede alguno. Se
+     * lleva por el número de asiento del tiquete, sin importar si la localidad es numerada
+     * o si el asiento está dentro de la capacidad, para que siga siendo válido si estas cambian.
+     */
+    private final Map<Integer, Integer> tiquetesPorAsiento = new HashMap<>();
+    private final InventarioTiquetes inventario = new InventarioTiquetes();
+    private DistribucionAsientos distribucion;
     private Oferta oferta;
 
     /**
@@ -46,9 +64,12 @@ public class Localidad {
         this.numerada = numerada;
         this.numeroAsientos = numeroAsientos;
         this.oferta = oferta;
-        this.tiquetes = new ArrayList<>();
+        this.asientos = new MapaAsientos(Math.max(numeroAsientos, 0));
+        this.tiquetes = new LinkedHashSet<>();
         if (tiquetes != null) {
-            this.tiquetes.addAll(tiquetes);
+            for (Tiquete tiquete : tiquetes) {
+                incorporar(tiquete);
+            }
         }
     }
 
@@ -88,6 +109,35 @@ public class Localidad {
             throw new IllegalArgumentException("El número de asientos debe ser positivo");
         }
         this.numeroAsientos = numeroAsientos;
+        asientos.redimensionar(numeroAsientos);
+        if (distribucion != null && distribucion.getCapacidad() != numeroAsientos) {
+            distribucion = null;
+        }
+    }
+
+    /**
+     * @return distribución en filas de los asientos; si no se configuró, una sola fila
+     *         con todos los asientos (o {@code null} si la localidad no tiene asientos).
+     */
+    public DistribucionAsientos getDistribucion() {
+        if (distribucion == null && numeroAsientos > 0) {
+            return new DistribucionAsientos(numeroAsientos);
+        }
+        return distribucion;
+    }
+
+    /**
+     * Configura la distribución en filas usada para asignar bloques de asientos. Se
+     * descarta si luego cambia el número de asientos.
+     *
+     * @param distribucion distribución (o {@code null} para usar una sola fila).
+     * @throws IllegalArgumentException si su capacidad no coincide con {@link #getNumeroAsientos()}.
+     */
+    public void setDistribucion(DistribucionAsientos distribucion) {
+        if (distribucion != null && distribucion.getCapacidad() != numeroAsientos) {
+            throw new IllegalArgumentException("La distribución debe tener " + numeroAsientos + " asientos");
+        }
+        this.distribucion = distribucion;
     }
 
     public ArrayList<Tiquete> getTiquetes() {
@@ -96,8 +146,101 @@ public class Localidad {
 
     public void setTiquetes(ArrayList<Tiquete> tiquetes) {
         this.tiquetes.clear();
+        tiquetesPorAsiento.clear();
+        inventario.reiniciar();
+        asientos.redimensionar(0);
+        asientos.redimensionar(numeroAsientos);
         if (tiquetes != null) {
-            this.tiquetes.addAll(tiquetes);
+            for (Tiquete tiquete : tiquetes) {
+                incorporar(tiquete);
+            }
+        }
+    }
+
+    public InventarioTiquetes getInventario() {
+        return inventario;
+    }
+
+    /**
+     * @return asientos aún sin tiquete emitido.
+     */
+    public int getRestantes() {
+        return inventario.getRestantes(numeroAsientos);
+    }
+
+    /**
+     * Actualiza el inventario cuando un tiquete de la localidad cambia su marca de impresión;
+     * lo invoca {@link Tiquete#setImpreso(boolean)}.
+     */
+    public void registrarImpresion(Tiquete tiquete, boolean impreso) {
+        if (tiquetes.contains(tiquete)) {
+            inventario.ajustarImpresos(impreso ? 1 : -1);
+        }
+    }
+
+    /**
+     * Actualiza el inventario cuando un tiquete de la localidad entra ({@code +1}) o sale
+     * ({@code -1}) de una oferta activa del marketplace.
+     */
+    public void registrarReventa(Tiquete tiquete, int delta) {
+        if (tiquetes.contains(tiquete)) {
+            inventario.ajustarEnReventa(delta);
+        }
+    }
+
+    /**
+     * @return {@code true} si la localidad es numerada, el asiento existe y nadie lo ocupa.
+     */
+    public boolean asientoDisponible(int asiento) {
+        return numerada && asiento >= 1 && asiento <= numeroAsientos && !asientos.estaOcupado(asiento);
+    }
+
+    /**
+     * @return asientos libres de la localidad numerada, en tiempo constante
+     *         (o {@code 0} si la localidad no es numerada).
+     */
+    public int getAsientosDisponibles() {
+        return numerada ? asientos.getDisponibles() : 0;
+    }
+
+    /**
+     * Reserva de forma atómica el mejor bloque de {@code cantidad} asientos adyacentes
+     * (véase {@link MapaAsientos#mejorBloque(DistribucionAsientos, int)}). Los asientos
+     * quedan ocupados hasta que se asignen a tiquetes o se liberen con
+     * {@link #liberarAsientos(Collection)}.
+     *
+     * @return asientos reservados en orden, o una lista vacía si no hay un bloque libre.
+     * @throws IllegalStateException    si la localidad no es numerada.
+     * @throws IllegalArgumentException si {@code cantidad <= 0}.
+     */
+    public List<Integer> reservarBloque(int cantidad) {
+        if (!numerada) {
+            throw new IllegalStateException("La localidad " + nombre + " no es numerada");
+        }
+        if (cantidad <= 0) {
+            throw new IllegalArgumentException("La cantidad de asientos debe ser positiva");
+        }
+        DistribucionAsientos actual = getDistribucion();
+        int inicio = actual == null ? -1 : asientos.reservarMejorBloque(actual, cantidad);
+        if (inicio == -1) {
+            return List.of();
+        }
+        List<Integer> reservados = new ArrayList<>(cantidad);
+        for (int asiento = inicio; asiento < inicio + cantidad; asiento++) {
+            reservados.add(asiento);
+        }
+        return reservados;
+    }
+
+    /**
+     * Libera asientos reservados con {@link #reservarBloque(int)}. Los asientos que
+     * pertenecen a un tiquete de la localidad no se liberan.
+     */
+    public void liberarAsientos(Collection<Integer> reservados) {
+        for (Integer asiento : reservados) {
+            if (asiento != null && !tiquetesPorAsiento.containsKey(asiento)) {
+                asientos.liberar(asiento);
+            }
         }
     }
 
@@ -118,7 +261,101 @@ public class Localidad {
      * @throws NullPointerException si {@code tiquete} es {@code null}.
      */
     public void agregarTiquete(Tiquete tiquete) {
-        tiquetes.add(Objects.requireNonNull(tiquete, "El tiquete es obligatorio"));
+        incorporar(tiquete);
+    }
+
+    private void incorporar(Tiquete tiquete) {
+        if (!tiquetes.add(Objects.requireNonNull(tiquete, "El tiquete es obligatorio"))) {
+            return;
+        }
+        contarAsiento(numeroAsientoDe(tiquete), 1);
+        inventario.registrarEmision(tiquete.isImpreso());
+        Integer asiento = asientoDe(tiquete);
+        if (asiento != null) {
+            asientos.ocupar(asiento);
+        }
+    }
+
+    /**
+     * Retira un tiquete de la localidad (p. ej. al cancelarlo) y libera su asiento.
+     *
+     * @param tiquete tiquete a retirar.
+     * @return {@code true} si el tiquete estaba en la localidad.
+     */
+    public boolean quitarTiquete(Tiquete tiquete) {
+        if (!tiquetes.remove(tiquete)) {
+            return false;
+        }
+        inventario.registrarBaja(tiquete.isImpreso());
+        liberarSiQuedaVacio(contarAsiento(numeroAsientoDe(tiquete), -1));
+        return true;
+    }
+
+    /**
+     * Mueve la ocupación de un tiquete de la localidad de su asiento actual a {@code nuevo};
+     * lo invoca {@link TiqueteBasico#asignarAsiento(int)} antes de cambiar el asiento.
+     * Si el tiquete no pertenece a esta localidad no hace nada.
+     *
+     * @throws IllegalArgumentException si la localidad es numerada y {@code nuevo} no existe en ella.
+     * @throws IllegalStateException    si {@code nuevo} ya está ocupado.
+     */
+    public void reubicarAsiento(TiqueteBasico tiquete, Integer nuevo) {
+        if (!tiquetes.contains(tiquete)) {
+            return;
+        }
+        Integer anterior = tiquete.getNumeroAsiento();
+        if (Objects.equals(anterior, nuevo)) {
+            return;
+        }
+        if (numerada && nuevo != null) {
+            if (nuevo < 1 || nuevo > numeroAsientos) {
+                throw new IllegalArgumentException("El asiento " + nuevo + " no existe en " + nombre);
+            }
+            if (!asientos.ocupar(nuevo)) {
+                throw new IllegalStateException("El asiento " + nuevo + " ya está ocupado en " + nombre);
+            }
+        }
+        contarAsiento(nuevo, 1);
+        liberarSiQuedaVacio(contarAsiento(anterior, -1));
+    }
+
+    /**
+     * Asiento del tiquete si la localidad es numerada y el asiento existe; {@code null} en otro caso.
+     */
+    private Integer asientoDe(Tiquete tiquete) {
+        if (!numerada || !(tiquete instanceof TiqueteBasico basico)) {
+            return null;
+        }
+        Integer asiento = basico.getNumeroAsiento();
+        return asiento != null && asiento >= 1 && asiento <= numeroAsientos ? asiento : null;
+    }
+
+    private static Integer numeroAsientoDe(Tiquete tiquete) {
+        return tiquete instanceof TiqueteBasico basico ? basico.getNumeroAsiento() : null;
+    }
+
+    /**
+     * Suma {@code delta} a los tiquetes del asiento.
+     *
+     * @return el asiento si quedó sin tiquetes; {@code null} en otro caso.
+     */
+    private Integer contarAsiento(Integer asiento, int delta) {
+        if (asiento == null) {
+            return null;
+        }
+        int restantes = tiquetesPorAsiento.getOrDefault(asiento, 0) + delta;
+        if (restantes > 0) {
+            tiquetesPorAsiento.put(asiento, restantes);
+            return null;
+        }
+        tiquetesPorAsiento.remove(asiento);
+        return asiento;
+    }
+
+    private void liberarSiQuedaVacio(Integer asiento) {
+        if (asiento != null && numerada && asiento >= 1 && asiento <= numeroAsientos) {
+            asientos.liberar(asiento);
+        }
     }
     /**
      * Fija el precio base uniforme de la localidad.
@@ -0,0 +1,226 @@
+package eventos;
+
+import java.util.Arrays;
+
+/**
+ * Mapa de ocupación de los asientos de una localidad numerada, con un bit por asiento.
+ * <p>
+ * Los asientos se numeran de {@code 1} a {@link #getCapacidad()}. Consultar, ocupar o
+ * liberar un asiento cuesta tiempo constante y los disponibles se conocen sin recorrer
+ * los tiquetes de la localidad. Los métodos son sincronizados, de modo que dos compras
+ * concurrentes no pueden ocupar el mismo asiento.
+ */
+public final class MapaAsientos {
+
+    private long[] palabras;
+    private int capacidad;
+    private int ocupados;
+
+    /**
+     * @param capacidad número de asientos (debe ser {@code >= 0}).
+     * @throws IllegalArgumentException si {@code capacidad} es negativa.
+     */
+    public MapaAsientos(int capacidad) {
+        if (capacidad < 0) {
+            throw new IllegalArgumentException("La capacidad no puede ser negativa");
+        }
+        this.capacidad = capacidad;
+        this.palabras = new long[palabrasPara(capacidad)];
+    }
+
+    public synchronized int getCapacidad() {
+        return capacidad;
+    }
+
+    public synchronized int getOcupados() {
+        return ocupados;
+    }
+
+    public synchronized int getDisponibles() {
+        return capacidad - ocupados;
+    }
+
+    /**
+     * @return {@code true} si el asiento existe y está ocupado.
+     */
+    public synchronized boolean estaOcupado(int asiento) {
+        if (asiento < 1 || asiento > capacidad) {
+            return false;
+        }
+        int indice = asiento - 1;
+        return (palabras[indice >>> 6] & (1L << indice)) != 0;
+    }
+
+    /**
+     * Marca el asiento como ocupado.
+     *
+     * @return {@code false} si ya estaba ocupado.
+     * @throws IllegalArgumentException si el asiento no existe en la localidad.
+     */
+    public synchronized boolean ocupar(int asiento) {
+        validar(asiento);
+        int indice = asiento - 1;
+        long bit = 1L << indice;
+        if ((palabras[indice >>> 6] & bit) != 0) {
+            return false;
+        }
+        palabras[indice >>> 6] |= bit;
+        ocupados++;
+        return true;
+    }
+
+    /**
+     * Libera el asiento.
+     *
+     * @return {@code false} si no estaba ocupado.
+     */
+    public synchronized boolean liberar(int asiento) {
+        if (!estaOcupado(asiento)) {
+            return false;
+        }
+        int indice = asiento - 1;
+        palabras[indice >>> 6] &= ~(1L << indice);
+        ocupados--;
+        return true;
+    }
+
+    /**
+     * @return el menor asiento libre, o {@code -1} si no quedan.
+     */
+    public synchronized int primerLibre() {
+        return siguienteLibre(1);
+    }
+
+    /**
+     * Busca el mejor bloque de {@code cantidad} asientos libres adyacentes según la
+     * distribución: el de la fila más cercana al escenario que lo admita y, dentro de ella,
+     * el más centrado. Los tramos libres se recorren palabra a palabra del mapa.
+     *
+     * @return primer asiento del bloque, o {@code -1} si ninguna fila lo admite.
+     * @throws IllegalArgumentException si {@code cantidad <= 0} o la distribución no
+     *                                  corresponde a la capacidad del mapa.
+     */
+    public synchronized int mejorBloque(DistribucionAsientos distribucion, int cantidad) {
+        if (cantidad <= 0) {
+            throw new IllegalArgumentException("La cantidad de asientos debe ser positiva");
+        }
+        if (distribucion.getCapacidad() != capacidad) {
+            throw new IllegalArgumentException("La distribución no corresponde a la capacidad de la localidad");
+        }
+        for (int fila = 1; fila <= distribucion.getFilas(); fila++) {
+            int primero = distribucion.primerAsiento(fila);
+            int ultimo = distribucion.ultimoAsiento(fila);
+            if (ultimo - primero + 1 < cantidad) {
+                continue;
+            }
+            double centro = (primero + ultimo) / 2.0;
+            int mejor = -1;
+            double mejorDistancia = Double.MAX_VALUE;
+            int desde = siguienteLibre(primero);
+            while (desde != -1 && desde <= ultimo) {
+                int hasta = Math.min(siguienteOcupado(desde), ultimo + 1) - 1;
+                if (hasta - desde + 1 >= cantidad) {
+                    long ideal = Math.round(centro - (cantidad - 1) / 2.0);
+                    int inicio = (int) Math.max(desde, Math.min(ideal, hasta - cantidad + 1));
+                    double distancia = Math.abs(inicio + (cantidad - 1) / 2.0 - centro);
+                    if (distancia < mejorDistancia) {
+                        mejor = inicio;
+                        mejorDistancia = distancia;
+                    }
+                }
+                desde = siguienteLibre(hasta + 1);
+            }
+            if (mejor != -1) {
+                return mejor;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Busca y ocupa el {@link #mejorBloque(DistribucionAsientos, int) mejor bloque} en una
+     * sola operación atómica, de modo que compradores concurrentes nunca reciben asientos
+     * solapados.
+     *
+     * @return primer asiento del bloque ocupado, o {@code -1} si no hay bloque disponible.
+     */
+    public synchronized int reservarMejorBloque(DistribucionAsientos distribucion, int cantidad) {
+        int inicio = mejorBloque(distribucion, cantidad);
+        if (inicio != -1) {
+            for (int asiento = inicio; asiento < inicio + cantidad; asiento++) {
+                ocupar(asiento);
+            }
+        }
+        return inicio;
+    }
+
+    /**
+     * @return el menor asiento libre {@code >= desde}, o {@code -1} si no hay.
+     */
+    public synchronized int siguienteLibre(int desde) {
+        if (desde > capacidad) {
+            return -1;
+        }
+        int indice = Math.max(desde, 1) - 1;
+        int palabra = indice >>> 6;
+        long libres = ~palabras[palabra] & (-1L << indice);
+        while (libres == 0) {
+            if (++palabra == palabras.length) {
+                return -1;
+            }
+            libres = ~palabras[palabra];
+        }
+        int asiento = palabra * 64 + Long.numberOfTrailingZeros(libres) + 1;
+        return asiento <= capacidad ? asiento : -1;
+    }
+
+    /**
+     * @return el menor asiento ocupado {@code >= desde}, o {@code getCapacidad() + 1} si no hay.
+     */
+    public synchronized int siguienteOcupado(int desde) {
+        if (desde > capacidad) {
+            return capacidad + 1;
+        }
+        int indice = Math.max(desde, 1) - 1;
+        int palabra = indice >>> 6;
+        long ocupadas = palabras[palabra] & (-1L << indice);
+        while (ocupadas == 0) {
+            if (++palabra == palabras.length) {
+                return capacidad + 1;
+            }
+            ocupadas = palabras[palabra];
+        }
+        return palabra * 64 + Long.numberOfTrailingZeros(ocupadas) + 1;
+    }
+
+    /**
+     * Cambia el número de asientos. Al reducirla se descartan los asientos sobrantes.
+     *
+     * @throws IllegalArgumentException si {@code nuevaCapacidad} es negativa.
+     */
+    public synchronized void redimensionar(int nuevaCapacidad) {
+        if (nuevaCapacidad < 0) {
+            throw new IllegalArgumentException("La capacidad no puede ser negativa");
+        }
+        palabras = Arrays.copyOf(palabras, palabrasPara(nuevaCapacidad));
+        int resto = nuevaCapacidad & 63;
+        if (resto != 0) {
+            palabras[palabras.length - 1] &= (1L << resto) - 1;
+        }
+        capacidad = nuevaCapacidad;
+        ocupados = 0;
+        for (long palabra : palabras) {
+            ocupados += Long.bitCount(palabra);
+        }
+    }
+
+    private void validar(int asiento) {
+        if (asiento < 1 || asiento > capacidad) {
+            throw new IllegalArgumentException("El asiento " + asiento + " no existe en la localidad");
+        }
+    }
+
+    private static int palabrasPara(int capacidad) {
+        return (capacidad + 63) >>> 6;
+    }
+}
@@ -3,7 +3,9 @@ package eventos;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.NavigableMap;
 import java.util.Objects;
+import java.util.TreeMap;
 
 /**
  * Representa un recinto (venue) donde se realizan eventos de BoletaMaster.
@@ -14,7 +16,8 @@ import java.util.Objects;
  *   <li>Un venue no puede tener dos eventos programados el mismo día.</li>
  *   <li>Las localidades se configuran por evento, pero pueden gestionarse desde el venue como soporte.</li>
  * </ul>
- * Mantiene además el registro interno de eventos programados para validaciones de disponibilidad.
+ * Mantiene además el calendario de eventos programados, ordenado por fecha, para validar
+ * disponibilidad y consultar rangos de fechas en tiempo logarítmico.
  */
 public class Venue {
     private String idVenue;
@@ -22,7 +25,10 @@ public class Venue {
     private String ubicacion;
     private int capacidadMaxima;
     private final List<Localidad> localidades;
-    private final List<Evento> eventosProgramados;
+    /**
+     * Eventos programados agrupados por fecha.
+     */
+    private final NavigableMap<LocalDate, List<Evento>> calendario;
     /**
      * Crea un venue con datos básicos, localidades iniciales y lista de eventos vacía.
      *
@@ -44,7 +50,7 @@ public class Venue {
         if (localidades != null) {
             this.localidades.addAll(localidades);
         }
-        this.eventosProgramados = new ArrayList<>();
+        this.calendario = new TreeMap<>();
     }
 
     public String getIdVenue() {
@@ -112,12 +118,55 @@ public class Venue {
      * @throws NullPointerException si {@code fecha} es {@code null}.
      */
     public boolean tieneEventoEnFecha(LocalDate fecha) {
-        for (Evento evento : eventosProgramados) {
-            if (evento.getFecha().equals(fecha)) {
-                return true;
+        return calendario.containsKey(Objects.requireNonNull(fecha, "La fecha es obligatoria"));
+    }
+
+    /**
+     * Eventos programados entre dos fechas (ambas incluidas), en orden cronológico.
+     *
+     * @throws NullPointerException     si alguna fecha es {@code null}.
+     * @throws IllegalArgumentException si {@code desde} es posterior a {@code hasta}.
+     */
+    public List<Evento> eventosEntre(LocalDate desde, LocalDate hasta) {
+        validarRango(desde, hasta);
+        List<Evento> resultado = new ArrayList<>();
+        for (List<Evento> delDia : calendario.subMap(desde, true, hasta, true).values()) {
+            resultado.addAll(delDia);
+        }
+        return resultado;
+    }
+
+    /**
+     * Fechas sin eventos programados entre dos fechas (ambas incluidas).
+     *
+     * @throws NullPointerException     si alguna fecha es {@code null}.
+     * @throws IllegalArgumentException si {@code desde} es posterior a {@code hasta}.
+     */
+    public List<LocalDate> fechasLibres(LocalDate desde, LocalDate hasta) {
+        validarRango(desde, hasta);
+        List<LocalDate> libres = new ArrayList<>();
+        LocalDate dia = desde;
+        for (LocalDate ocupada : calendario.subMap(desde, true, hasta, true).keySet()) {
+            for (; dia.isBefore(ocupada); dia = dia.plusDays(1)) {
+                libres.add(dia);
             }
+            dia = ocupada.plusDays(1);
+        }
+        for (; !dia.isAfter(hasta); dia = dia.plusDays(1)) {
+            libres.add(dia);
+        }
+        return libres;
+    }
+
+    /**
+     * @return todos los eventos programados, en orden cronológico.
+     */
+    public List<Evento> getEventosProgramados() {
+        List<Evento> resultado = new ArrayList<>();
+        for (List<Evento> delDia : calendario.values()) {
+            resultado.addAll(delDia);
         }
-        return false;
+        return resultado;
     }
     /**
      * Registra un {@link eventos.Evento} en la lista interna de eventos programados del venue.
@@ -129,7 +178,8 @@ public class Venue {
      * @throws NullPointerException si {@code evento} es {@code null}.
      */
     public void registrarEvento(Evento evento) {
-        eventosProgramados.add(Objects.requireNonNull(evento, "El evento es obligatorio"));
+        Objects.requireNonNull(evento, "El evento es obligatorio");
+        calendario.computeIfAbsent(evento.getFecha(), f -> new ArrayList<>(1)).add(evento);
     }
     /**
      * Elimina un {@link eventos.Evento} del registro interno de eventos programados.
@@ -137,6 +187,36 @@ public class Venue {
      * @param evento evento a remover (si no está presente, la operación no tiene efecto).
      */
     public void removerEvento(Evento evento) {
-        eventosProgramados.remove(evento);
+        if (evento != null) {
+            quitarDelCalendario(evento, evento.getFecha());
+        }
+    }
+
+    /**
+     * Mueve un evento ya registrado a su nueva fecha; lo invoca {@link Evento#setFecha(LocalDate)}.
+     */
+    void reprogramarEvento(Evento evento, LocalDate fechaAnterior) {
+        if (quitarDelCalendario(evento, fechaAnterior)) {
+            calendario.computeIfAbsent(evento.getFecha(), f -> new ArrayList<>(1)).add(evento);
+        }
+    }
+
+    private boolean quitarDelCalendario(Evento evento, LocalDate fecha) {
+        List<Evento> delDia = calendario.get(fecha);
+        if (delDia == null || !delDia.remove(evento)) {
+            return false;
+        }
+        if (delDia.isEmpty()) {
+            calendario.remove(fecha);
+        }
+        return true;
+    }
+
+    private static void validarRango(LocalDate desde, LocalDate hasta) {
+        Objects.requireNonNull(desde, "La fecha inicial es obligatoria");
+        Objects.requireNonNull(hasta, "La fecha final es obligatoria");
+        if (desde.isAfter(hasta)) {
+            throw new IllegalArgumentException("La fecha inicial no puede ser posterior a la final");
+        }
     }
 }
\ No newline at end of file
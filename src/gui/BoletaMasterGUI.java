@@ -2,10 +2,12 @@ package gui;
 
 import Cliente.Cliente;
 import manager.BoletaMasterSystem;
-import marketPlace.ContraOferta;
-import marketPlace.OfertaMarketPlace;
-import marketPlace.EstadoContraOferta;
-import tiquetes.Tiquete;
+import manager.OrdenOfertas;
+import manager.PaginaOfertas;
+import manager.VistaContraoferta;
+import manager.VistaEvento;
+import manager.VistaOferta;
+import manager.VistaTiquete;
 
 import javax.swing.*;
 import java.awt.*;
@@ -17,22 +19,32 @@ import java.util.stream.Collectors;
 
 public class BoletaMasterGUI extends JFrame {
 
+    private static final int TAMANO_PAGINA = 50;
+
     private final BoletaMasterSystem sistema;
     private Cliente clienteActual;
 
     private final CardLayout cardLayout = new CardLayout();
     private final JPanel content = new JPanel(cardLayout);
 
-    private DefaultListModel<Tiquete> tiqueteModel;
+    private DefaultListModel<VistaTiquete> tiqueteModel;
     private JLabel detalleTiquete;
     private JButton imprimirBtn;
 
-    private DefaultListModel<OfertaMarketPlace> ofertasActivasModel;
-    private DefaultListModel<OfertaMarketPlace> misOfertasModel;
-    private DefaultListModel<ContraOferta> contraofertasModel;
+    private DefaultListModel<VistaOferta> ofertasActivasModel;
+    private JComboBox<OrdenOfertas> ordenOfertasCombo;
+    private JButton verMasOfertasBtn;
+    private String cursorOfertas;
+    private DefaultListModel<VistaOferta> misOfertasModel;
+    private DefaultListModel<VistaContraoferta> contraofertasModel;
     private JTextField valorContraOfertaField;
     private JTextField valorNuevaOfertaField;
-    private JList<Tiquete> listaPublicables;
+    private JList<VistaTiquete> listaPublicables;
+
+    private JComboBox<VistaEvento> eventosCombo;
+    private JTextField localidadExplorarField;
+    private DefaultListModel<VistaOferta> libroEventoModel;
+    private JLabel mejorPrecioLabel;
 
     public BoletaMasterGUI() {
         super("BoletaMaster - Plataforma gráfica");
@@ -129,6 +141,7 @@ public class BoletaMasterGUI extends JFrame {
         tabs.addTab("Marketplace", crearTabMarketplace());
         tabs.addTab("Mis ofertas", crearTabMisOfertas());
         tabs.addTab("Publicar oferta", crearTabPublicar());
+        tabs.addTab("Explorar evento", crearTabExplorarEvento());
         panel.add(tabs, BorderLayout.CENTER);
         return panel;
     }
@@ -137,9 +150,9 @@ public class BoletaMasterGUI extends JFrame {
         JPanel panel = new JPanel(new BorderLayout(10, 10));
         panel.setBackground(new Color(236, 242, 250));
         tiqueteModel = new DefaultListModel<>();
-        JList<Tiquete> lista = new JList<>(tiqueteModel);
+        JList<VistaTiquete> lista = new JList<>(tiqueteModel);
         lista.setCellRenderer((list, value, index, isSelected, cellHasFocus) -> {
-            String evento = value.getEvento() != null ? value.getEvento().getNombre() : "(sin evento)";
+            String evento = value.getNombreEvento();
             String label = "#" + value.getIdTiquete() + " - " + evento;
             if (value.isImpreso()) {
                 label += " [IMPRESO]";
@@ -165,7 +178,7 @@ public class BoletaMasterGUI extends JFrame {
 
         imprimirBtn = new JButton("Ver / Imprimir boleta");
         imprimirBtn.addActionListener(e -> {
-            Tiquete seleccionado = lista.getSelectedValue();
+            VistaTiquete seleccionado = lista.getSelectedValue();
             if (seleccionado != null) {
                 abrirImpresion(seleccionado);
             }
@@ -178,22 +191,32 @@ public class BoletaMasterGUI extends JFrame {
         JPanel panel = new JPanel(new BorderLayout(10, 10));
         panel.setBackground(new Color(236, 242, 250));
         ofertasActivasModel = new DefaultListModel<>();
-        JList<OfertaMarketPlace> lista = new JList<>(ofertasActivasModel);
+        JList<VistaOferta> lista = new JList<>(ofertasActivasModel);
         lista.setCellRenderer((l, v, i, s, f) -> {
             String eventos = v.getTiquetes().stream()
-                    .map(t -> t.getEvento() != null ? t.getEvento().getNombre() : "(sin evento)")
+                    .map(VistaTiquete::getNombreEvento)
                     .distinct().collect(Collectors.joining(", "));
-            String texto = String.format("%s - $%.2f - Vendedor: %s", v.getId(), v.getPrecioInicial(), v.getVendedor().getLogin());
+            String texto = String.format("%s - $%.2f - Vendedor: %s", v.getId(), v.getPrecioInicial(), v.getLoginVendedor());
             JLabel lbl = new JLabel(texto + " | " + eventos);
             if (s) { lbl.setOpaque(true); lbl.setBackground(new Color(220, 235, 255)); }
             return lbl;
         });
         panel.add(new JScrollPane(lista), BorderLayout.CENTER);
 
+        JPanel busqueda = new JPanel(new BorderLayout(8, 8));
+        JTextField consultaField = new JTextField();
+        JButton buscar = new JButton("Buscar");
+        buscar.addActionListener(e -> buscarOfertas(consultaField.getText()));
+        consultaField.addActionListener(e -> buscarOfertas(consultaField.getText()));
+        busqueda.add(new JLabel("Buscar evento, venue, ciudad o vendedor"), BorderLayout.WEST);
+        busqueda.add(consultaField, BorderLayout.CENTER);
+        busqueda.add(buscar, BorderLayout.EAST);
+        panel.add(busqueda, BorderLayout.NORTH);
+
         JPanel acciones = new JPanel(new GridLayout(3, 2, 8, 8));
         JButton comprar = new JButton("Comprar oferta seleccionada");
         comprar.addActionListener(e -> {
-            OfertaMarketPlace oferta = lista.getSelectedValue();
+            VistaOferta oferta = lista.getSelectedValue();
             if (oferta == null) return;
             try {
                 sistema.comprarOferta(clienteActual, oferta.getId());
@@ -210,7 +233,7 @@ public class BoletaMasterGUI extends JFrame {
         acciones.add(valorContraOfertaField);
         JButton contraBtn = new JButton("Enviar contraoferta");
         contraBtn.addActionListener(e -> {
-            OfertaMarketPlace oferta = lista.getSelectedValue();
+            VistaOferta oferta = lista.getSelectedValue();
             if (oferta == null) return;
             try {
                 double monto = Double.parseDouble(valorContraOfertaField.getText());
@@ -222,6 +245,13 @@ public class BoletaMasterGUI extends JFrame {
             }
         });
         acciones.add(contraBtn);
+
+        ordenOfertasCombo = new JComboBox<>(OrdenOfertas.values());
+        ordenOfertasCombo.addActionListener(e -> cargarOfertasActivas(true));
+        acciones.add(ordenOfertasCombo);
+        verMasOfertasBtn = new JButton("Ver más ofertas");
+        verMasOfertasBtn.addActionListener(e -> cargarOfertasActivas(false));
+        acciones.add(verMasOfertasBtn);
         panel.add(acciones, BorderLayout.SOUTH);
         return panel;
     }
@@ -230,13 +260,13 @@ public class BoletaMasterGUI extends JFrame {
         JPanel panel = new JPanel(new BorderLayout(10, 10));
         panel.setBackground(new Color(236, 242, 250));
         misOfertasModel = new DefaultListModel<>();
-        JList<OfertaMarketPlace> listaOfertas = new JList<>(misOfertasModel);
+        JList<VistaOferta> listaOfertas = new JList<>(misOfertasModel);
         listaOfertas.setCellRenderer((l, v, i, s, f) -> new JLabel(v.getId() + " - Estado: " + v.getEstado() + " - $" + v.getPrecioInicial()));
         panel.add(new JScrollPane(listaOfertas), BorderLayout.WEST);
 
         contraofertasModel = new DefaultListModel<>();
-        JList<ContraOferta> listaContra = new JList<>(contraofertasModel);
-        listaContra.setCellRenderer((l, v, i, s, f) -> new JLabel(v.getId() + " - " + v.getComprador().getLogin() + " $" + v.getMonto() + " (" + v.getEstado() + ")"));
+        JList<VistaContraoferta> listaContra = new JList<>(contraofertasModel);
+        listaContra.setCellRenderer((l, v, i, s, f) -> new JLabel(v.getId() + " - " + v.getLoginComprador() + " $" + v.getMonto() + " (" + v.getEstado() + ")"));
         panel.add(new JScrollPane(listaContra), BorderLayout.CENTER);
 
         listaOfertas.addListSelectionListener(e -> {
@@ -248,7 +278,7 @@ public class BoletaMasterGUI extends JFrame {
         JPanel acciones = new JPanel(new GridLayout(1, 3, 8, 8));
         JButton cancelar = new JButton("Cancelar oferta");
         cancelar.addActionListener(e -> {
-            OfertaMarketPlace oferta = listaOfertas.getSelectedValue();
+            VistaOferta oferta = listaOfertas.getSelectedValue();
             if (oferta == null) return;
             try {
                 sistema.cancelarOfertaPorVendedor(clienteActual, oferta.getId());
@@ -259,8 +289,8 @@ public class BoletaMasterGUI extends JFrame {
         });
         JButton aceptar = new JButton("Aceptar contraoferta");
         aceptar.addActionListener(e -> {
-            OfertaMarketPlace oferta = listaOfertas.getSelectedValue();
-            ContraOferta contra = listaContra.getSelectedValue();
+            VistaOferta oferta = listaOfertas.getSelectedValue();
+            VistaContraoferta contra = listaContra.getSelectedValue();
             if (oferta == null || contra == null) return;
             try {
                 sistema.aceptarContraoferta(clienteActual, oferta.getId(), contra.getId());
@@ -271,8 +301,8 @@ public class BoletaMasterGUI extends JFrame {
         });
         JButton rechazar = new JButton("Rechazar contraoferta");
         rechazar.addActionListener(e -> {
-            OfertaMarketPlace oferta = listaOfertas.getSelectedValue();
-            ContraOferta contra = listaContra.getSelectedValue();
+            VistaOferta oferta = listaOfertas.getSelectedValue();
+            VistaContraoferta contra = listaContra.getSelectedValue();
             if (oferta == null || contra == null) return;
             try {
                 sistema.rechazarContraoferta(clienteActual, oferta.getId(), contra.getId());
@@ -307,7 +337,95 @@ public class BoletaMasterGUI extends JFrame {
         return panel;
     }
 
-    private void mostrarDetalleTiquete(Tiquete t) {
+    private JPanel crearTabExplorarEvento() {
+        JPanel panel = new JPanel(new BorderLayout(10, 10));
+        panel.setBackground(new Color(236, 242, 250));
+
+        JPanel filtros = new JPanel(new GridLayout(2, 3, 8, 8));
+        eventosCombo = new JComboBox<>();
+        eventosCombo.setRenderer((l, v, i, s, f) -> new JLabel(v == null ? "" : v.getIdEvento() + " - " + v.getNombre()));
+        localidadExplorarField = new JTextField();
+        JButton buscar = new JButton("Ver libro de ofertas");
+        buscar.addActionListener(e -> cargarLibroEvento());
+        filtros.add(new JLabel("Evento"));
+        filtros.add(new JLabel("Localidad (opcional)"));
+        filtros.add(new JLabel());
+        filtros.add(eventosCombo);
+        filtros.add(localidadExplorarField);
+        filtros.add(buscar);
+        panel.add(filtros, BorderLayout.NORTH);
+
+        libroEventoModel = new DefaultListModel<>();
+        JList<VistaOferta> lista = new JList<>(libroEventoModel);
+        lista.setCellRenderer((l, v, i, s, f) -> {
+            String texto = String.format("%s - $%.2f por tiquete (%d tiquetes, total $%.2f) - Vendedor: %s",
+                    v.getId(), v.getPrecioPorTiquete(), v.getTiquetes().size(), v.getPrecioInicial(), v.getLoginVendedor());
+            JLabel lbl = new JLabel(texto);
+            if (s) { lbl.setOpaque(true); lbl.setBackground(new Color(220, 235, 255)); }
+            return lbl;
+        });
+        panel.add(new JScrollPane(lista), BorderLayout.CENTER);
+
+        mejorPrecioLabel = new JLabel("Seleccione un evento");
+        panel.add(mejorPrecioLabel, BorderLayout.SOUTH);
+        return panel;
+    }
+
+    /**
+     * Carga la primera página de ofertas activas ({@code desdeInicio}) o agrega la siguiente.
+     */
+    private void cargarOfertasActivas(boolean desdeInicio) {
+        if (clienteActual == null) return;
+        if (desdeInicio) {
+            ofertasActivasModel.clear();
+            cursorOfertas = null;
+        } else if (cursorOfertas == null) {
+            return;
+        }
+        OrdenOfertas orden = (OrdenOfertas) ordenOfertasCombo.getSelectedItem();
+        PaginaOfertas<VistaOferta> pagina = sistema.paginarOfertasActivas(orden, cursorOfertas, TAMANO_PAGINA);
+        for (VistaOferta o : pagina.getOfertas()) {
+            if (!o.perteneceAlVendedor(clienteActual)) {
+                ofertasActivasModel.addElement(o);
+            }
+        }
+        cursorOfertas = pagina.getSiguienteCursor();
+        verMasOfertasBtn.setEnabled(pagina.tieneSiguiente());
+    }
+
+    private void buscarOfertas(String consulta) {
+        if (consulta.isBlank()) {
+            refrescarDatosCliente();
+            return;
+        }
+        ofertasActivasModel.clear();
+        cursorOfertas = null;
+        verMasOfertasBtn.setEnabled(false);
+        for (VistaOferta o : sistema.buscarOfertas(consulta, 100)) {
+            if (!o.perteneceAlVendedor(clienteActual)) {
+                ofertasActivasModel.addElement(o);
+            }
+        }
+    }
+
+    private void cargarLibroEvento() {
+        libroEventoModel.clear();
+        VistaEvento evento = (VistaEvento) eventosCombo.getSelectedItem();
+        if (evento == null) return;
+        String localidad = localidadExplorarField.getText().trim();
+        List<VistaOferta> ofertas = sistema.mejoresOfertasEvento(evento.getIdEvento(),
+                localidad.isEmpty() ? null : localidad, 50);
+        for (VistaOferta o : ofertas) {
+            if (!o.perteneceAlVendedor(clienteActual)) {
+                libroEventoModel.addElement(o);
+            }
+        }
+        mejorPrecioLabel.setText(libroEventoModel.isEmpty()
+                ? "No hay ofertas activas para este evento"
+                : String.format("Mejor precio por tiquete: $%.2f", libroEventoModel.get(0).getPrecioPorTiquete()));
+    }
+
+    private void mostrarDetalleTiquete(VistaTiquete t) {
         if (t == null) {
             detalleTiquete.setText("Seleccione un tiquete");
             imprimirBtn.setEnabled(false);
@@ -315,8 +433,8 @@ public class BoletaMasterGUI extends JFrame {
         }
         DateTimeFormatter fmt = DateTimeFormatter.ofPattern("dd/MM/yyyy");
         DateTimeFormatter fmtImp = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
-        String evento = t.getEvento() != null ? t.getEvento().getNombre() : "(sin evento)";
-        String fecha = t.getEvento() != null && t.getEvento().getFecha() != null ? fmt.format(t.getEvento().getFecha()) : "N/D";
+        String evento = t.getNombreEvento();
+        String fecha = t.getFechaEvento() != null ? fmt.format(t.getFechaEvento()) : "N/D";
         String fechaImp = t.getFechaImpresion() != null ? fmtImp.format(t.getFechaImpresion()) : "Pendiente";
         StringBuilder sb = new StringBuilder("<html><h2>" + evento + "</h2>");
         sb.append("<p>ID: ").append(t.getIdTiquete()).append("</p>");
@@ -331,36 +449,35 @@ public class BoletaMasterGUI extends JFrame {
     private void refrescarDatosCliente() {
         if (clienteActual == null) return;
         tiqueteModel.clear();
-        for (Tiquete t : clienteActual.verTiquetes()) {
+        for (VistaTiquete t : sistema.obtenerTiquetesCliente(clienteActual)) {
             tiqueteModel.addElement(t);
         }
-        ofertasActivasModel.clear();
-        for (OfertaMarketPlace o : sistema.obtenerOfertasActivas()) {
-            if (!o.getVendedor().equals(clienteActual)) {
-                ofertasActivasModel.addElement(o);
-            }
-        }
+        cargarOfertasActivas(true);
         misOfertasModel.clear();
-        for (OfertaMarketPlace o : sistema.obtenerOfertasPorVendedor(clienteActual)) {
+        for (VistaOferta o : sistema.obtenerOfertasPorVendedor(clienteActual)) {
             misOfertasModel.addElement(o);
         }
         actualizarPublicables();
+        eventosCombo.removeAllItems();
+        for (VistaEvento evento : sistema.obtenerEventos()) {
+            eventosCombo.addItem(evento);
+        }
+        libroEventoModel.clear();
+        mejorPrecioLabel.setText("Seleccione un evento");
     }
 
-    private void cargarContraofertas(OfertaMarketPlace oferta) {
+    private void cargarContraofertas(VistaOferta oferta) {
         contraofertasModel.clear();
         if (oferta == null) return;
-        for (ContraOferta c : oferta.getContraofertas()) {
-            if (c.getEstado() == EstadoContraOferta.PENDIENTE) {
-                contraofertasModel.addElement(c);
-            }
+        for (VistaContraoferta c : oferta.getContraofertasPendientes()) {
+            contraofertasModel.addElement(c);
         }
     }
 
     private void actualizarPublicables() {
-        DefaultListModel<Tiquete> model = (DefaultListModel<Tiquete>) listaPublicables.getModel();
+        DefaultListModel<VistaTiquete> model = (DefaultListModel<VistaTiquete>) listaPublicables.getModel();
         model.clear();
-        for (Tiquete t : clienteActual.verTiquetes()) {
+        for (VistaTiquete t : sistema.obtenerTiquetesCliente(clienteActual)) {
             if (!t.isImpreso()) {
                 model.addElement(t);
             }
@@ -368,14 +485,14 @@ public class BoletaMasterGUI extends JFrame {
     }
 
     private void publicarOferta() {
-        List<Tiquete> seleccion = listaPublicables.getSelectedValuesList();
+        List<VistaTiquete> seleccion = listaPublicables.getSelectedValuesList();
         if (seleccion.isEmpty()) {
             JOptionPane.showMessageDialog(this, "Seleccione al menos un tiquete", "Marketplace", JOptionPane.WARNING_MESSAGE);
             return;
         }
         try {
             double precio = Double.parseDouble(valorNuevaOfertaField.getText());
-            List<Integer> ids = seleccion.stream().map(Tiquete::getIdTiquete).collect(Collectors.toList());
+            List<Integer> ids = seleccion.stream().map(VistaTiquete::getIdTiquete).collect(Collectors.toList());
             sistema.publicarOferta(clienteActual, ids, precio);
             valorNuevaOfertaField.setText("");
             refrescarDatosCliente();
@@ -385,10 +502,16 @@ public class BoletaMasterGUI extends JFrame {
         }
     }
 
-    private void abrirImpresion(Tiquete tiquete) {
-        ImpresionTiqueteDialog dialog = new ImpresionTiqueteDialog(this, sistema, tiquete, () -> {
+    private void abrirImpresion(VistaTiquete tiquete) {
+        ImpresionTiqueteDialog dialog = new ImpresionTiqueteDialog(this, sistema, clienteActual, tiquete, () -> {
             refrescarDatosCliente();
-            mostrarDetalleTiquete(tiquete);
+            for (int i = 0; i < tiqueteModel.size(); i++) {
+                if (tiqueteModel.get(i).getIdTiquete() == tiquete.getIdTiquete()) {
+                    mostrarDetalleTiquete(tiqueteModel.get(i));
+                    return;
+                }
+            }
+            mostrarDetalleTiquete(null);
         });
         dialog.setVisible(true);
     }
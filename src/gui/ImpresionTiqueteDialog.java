@@ -1,7 +1,8 @@
 package gui;
 
+import Cliente.Cliente;
 import manager.BoletaMasterSystem;
-import tiquetes.Tiquete;
+import manager.VistaTiquete;
 import gui.qr.QrCode;
 
 import javax.swing.*;
@@ -12,23 +13,28 @@ import java.time.format.DateTimeFormatter;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 
+@SuppressWarnings("serial")
 public class ImpresionTiqueteDialog extends JDialog {
 	
 	private static final int QR_ESCALA = 10;
     private static final int QR_BORDE = 8;
 
-    private final Tiquete tiquete;
+    private final VistaTiquete tiquete;
     private final BoletaMasterSystem sistema;
+    private final Cliente cliente;
     private final Runnable onPrinted;
     private final JLabel qrLabel = new JLabel();
     private final JLabel infoLabel = new JLabel();
     private LocalDateTime fechaImpresion;
+    private boolean impreso;
 
-    public ImpresionTiqueteDialog(Frame owner, BoletaMasterSystem sistema, Tiquete tiquete, Runnable onPrinted) {
+    public ImpresionTiqueteDialog(Frame owner, BoletaMasterSystem sistema, Cliente cliente, VistaTiquete tiquete, Runnable onPrinted) {
         super(owner, "Imprimir boleta", true);
         this.tiquete = tiquete;
         this.sistema = sistema;
+        this.cliente = cliente;
         this.onPrinted = onPrinted;
+        this.impreso = tiquete.isImpreso();
         this.fechaImpresion = tiquete.getFechaImpresion() != null ? tiquete.getFechaImpresion() : LocalDateTime.now();
         initUI();
     }
@@ -52,7 +58,7 @@ public class ImpresionTiqueteDialog extends JDialog {
     
         add(banner, BorderLayout.NORTH);
         
-        JLabel tituloEvento = new JLabel(tiquete.getEvento() != null ? tiquete.getEvento().getNombre() : "Evento", SwingConstants.CENTER);
+        JLabel tituloEvento = new JLabel(tiquete.getNombreEvento(), SwingConstants.CENTER);
         tituloEvento.setForeground(new Color(240, 240, 245));
         tituloEvento.setFont(tituloEvento.getFont().deriveFont(Font.BOLD, 22f));
         tituloEvento.setBorder(BorderFactory.createEmptyBorder(0, 8, 8, 8));
@@ -65,7 +71,7 @@ public class ImpresionTiqueteDialog extends JDialog {
         imagenEvento.setBackground(new Color(22, 42, 82));
         imagenEvento.setBorder(BorderFactory.createLineBorder(new Color(80, 110, 150), 2));
         ImageIcon img = ImagenEventoFactory.crearImagenEvento(
-                tiquete.getEvento() != null ? tiquete.getEvento().getNombre() : "Evento",
+                tiquete.getNombreEvento(),
                 420, 260);
         imagenEvento.setIcon(img);
         main.add(imagenEvento, BorderLayout.CENTER);
@@ -104,13 +110,13 @@ public class ImpresionTiqueteDialog extends JDialog {
 
         JButton imprimirBtn = new JButton("Imprimir");
         imprimirBtn.addActionListener(e -> procesarImpresion(imprimirBtn));
-        imprimirBtn.setEnabled(!tiquete.isImpreso());
+        imprimirBtn.setEnabled(!impreso);
         imprimirBtn.setBackground(new Color(247, 204, 64));
         imprimirBtn.setForeground(new Color(20, 30, 48));
         imprimirBtn.setBorder(BorderFactory.createEmptyBorder(10, 16, 10, 16));
         add(imprimirBtn, BorderLayout.WEST);
 
-        if (tiquete.isImpreso()) {
+        if (impreso) {
             mostrarQr(construirContenidoQr(fechaImpresion));
         }
     }
@@ -118,30 +124,30 @@ public class ImpresionTiqueteDialog extends JDialog {
     private String construirTexto() {
         DateTimeFormatter fmtFecha = DateTimeFormatter.ofPattern("dd/MM/yyyy");
         DateTimeFormatter fmtImp = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
-        String evento = tiquete.getEvento() != null ? tiquete.getEvento().getNombre() : "(sin evento)";
-        String fechaEvento = tiquete.getEvento() != null && tiquete.getEvento().getFecha() != null
-                ? fmtFecha.format(tiquete.getEvento().getFecha()) : "N/D";
-        String fechaImp = tiquete.isImpreso() && fechaImpresion != null ? fmtImp.format(fechaImpresion) : "Pendiente";
+        String evento = tiquete.getNombreEvento();
+        String fechaEvento = tiquete.getFechaEvento() != null
+                ? fmtFecha.format(tiquete.getFechaEvento()) : "N/D";
+        String fechaImp = impreso && fechaImpresion != null ? fmtImp.format(fechaImpresion) : "Pendiente";
         StringBuilder sb = new StringBuilder("<html><h2 style='color:#f7cc40'>Datos del tiquete</h2>");
         sb.append("<p><b>Evento:</b> ").append(evento).append("</p>");
         sb.append("<p><b>ID Tiquete:</b> ").append(tiquete.getIdTiquete()).append("</p>");
         sb.append("<p><b>Fecha evento:</b> ").append(fechaEvento).append("</p>");
         sb.append("<p><b>Fecha impresión:</b> ").append(fechaImp).append("</p>");
-        sb.append(tiquete.isImpreso() ? "<p style='color:red'>Ya impreso</p>" : "");
+        sb.append(impreso ? "<p style='color:red'>Ya impreso</p>" : "");
         sb.append("</html>");
         return sb.toString();
     }
 
     private void procesarImpresion(JButton boton) {
-        if (tiquete.isImpreso()) {
+        if (impreso) {
             JOptionPane.showMessageDialog(this, "Este tiquete ya fue impreso", "Impresión", JOptionPane.WARNING_MESSAGE);
             boton.setEnabled(false);
             return;
         }
         fechaImpresion = LocalDateTime.now();
-        tiquete.setFechaImpresion(fechaImpresion);
         if (mostrarQr(construirContenidoQr(fechaImpresion))) {
-            sistema.marcarTiqueteImpreso(tiquete, fechaImpresion);
+            sistema.marcarTiqueteImpreso(cliente, tiquete.getIdTiquete(), fechaImpresion);
+            impreso = true;
             infoLabel.setText(construirTexto());
             boton.setEnabled(false);
             if (onPrinted != null) {
@@ -153,9 +159,9 @@ public class ImpresionTiqueteDialog extends JDialog {
     private String construirContenidoQr(LocalDateTime fecha) {
         DateTimeFormatter fmtEvento = DateTimeFormatter.ofPattern("dd/MM/yyyy");
         DateTimeFormatter fmtImp = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
-        String fechaEvento = tiquete.getEvento() != null && tiquete.getEvento().getFecha() != null
-        		  ? tiquete.getEvento().getFecha().format(fmtEvento) : "N/D";
-        String evento = tiquete.getEvento() != null ? tiquete.getEvento().getNombre() : "(sin evento)";
+        String fechaEvento = tiquete.getFechaEvento() != null
+        		  ? tiquete.getFechaEvento().format(fmtEvento) : "N/D";
+        String evento = tiquete.getNombreEvento();
         String query = String.format("evento=%s&id=%s&fechaEvento=%s&fechaExpedicion=%s",
                 URLEncoder.encode(evento, StandardCharsets.UTF_8),
                 URLEncoder.encode(String.valueOf(tiquete.getIdTiquete()), StandardCharsets.UTF_8),
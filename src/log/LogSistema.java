@@ -67,6 +67,27 @@ public class LogSistema {
     }
 
 
+    /**
+     * @return número de entradas registradas.
+     */
+    public int tamano() {
+        return entradas.size();
+    }
+
+    /**
+     * Descarta las entradas registradas después de las primeras {@code tamano}
+     * (usado para revertir una transacción fallida).
+     *
+     * @param tamano número de entradas a conservar.
+     * @throws IllegalArgumentException si {@code tamano} está fuera de rango.
+     */
+    public void truncar(int tamano) {
+        if (tamano < 0 || tamano > entradas.size()) {
+            throw new IllegalArgumentException("Tamaño de log fuera de rango: " + tamano);
+        }
+        entradas.subList(tamano, entradas.size()).clear();
+    }
+
     /**
      * Vacía por completo el log. Útil para restablecer el estado de la aplicación
      * entre cargas de datos.
@@ -0,0 +1,129 @@
+package manager;
+
+import Cliente.Administrador;
+import Cliente.Cliente;
+import eventos.Evento;
+import eventos.Localidad;
+import eventos.TipoEvento;
+import eventos.Venue;
+import tiquetes.AlmacenTiquetes;
+import tiquetes.TiqueteBasico;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.ref.Reference;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Comparación manual de heap usado y pausas de GC según dónde viven los tiquetes: como
+ * objetos, en un {@link AlmacenTiquetes} en el heap, fuera del heap o en un archivo mapeado.
+ * <p>
+ * Cada modo debe correr en su propia JVM para no heredar el heap de otro:
+ * {@code java -Xmx4g -Xmn256m manager.BenchmarkAlmacenFueraDeHeap <objetos|heap|directo|archivo> [tiquetes]}
+ * (20 000 000 por defecto; los modos fuera del heap necesitan además
+ * {@code -XX:MaxDirectMemorySize} o espacio en disco para ~24 bytes por tiquete). Tras cargar
+ * los tiquetes se mide el heap usado, la duración de un GC completo y las recolecciones
+ * durante una ráfaga de asignaciones de vida corta, como las de atender compras.
+ */
+public class BenchmarkAlmacenFueraDeHeap {
+
+    private static final int CLIENTES = 10_000;
+    private static final int RAFAGA = 200_000_000;
+    /** Destino de las asignaciones de la ráfaga, para que el JIT no las elimine. */
+    private static volatile Object sumidero;
+
+    public static void main(String[] args) throws Exception {
+        String modo = args.length > 0 ? args[0] : "directo";
+        int tiquetes = args.length > 1 ? Integer.parseInt(args[1]) : 20_000_000;
+        Administrador admin = new Administrador(0.0, "ADM", new ArrayList<>(), "admin", "admin", "Admin", 0.0);
+        Venue venue = new Venue("VEN", "Estadio", "Bogotá", tiquetes, new ArrayList<>());
+        Evento evento = new Evento(admin, "EVT", "Final", LocalDate.now().plusDays(30), LocalTime.NOON,
+                "PROGRAMADO", TipoEvento.DEPORTIVO, venue, null, null, new ArrayList<>());
+        Localidad general = new Localidad(null, new ArrayList<>(), "General", 80_000.0, true, tiquetes);
+        List<Cliente> clientes = new ArrayList<>();
+        for (int i = 0; i < CLIENTES; i++) {
+            clientes.add(new Cliente("c" + i, "p", "Cliente " + i, 0.0, "CLI" + i));
+        }
+
+        long antes = heapUsado();
+        Object vivos = cargar(modo, tiquetes, evento, general, clientes);
+        long heap = heapUsado() - antes;
+
+        long inicio = System.nanoTime();
+        System.gc();
+        long gcCompleto = System.nanoTime() - inicio;
+
+        long recoleccionesAntes = recolecciones();
+        long tiempoAntes = tiempoRecolecciones();
+        for (int i = 0; i < RAFAGA; i++) {
+            sumidero = new long[4];
+        }
+        long recolecciones = recolecciones() - recoleccionesAntes;
+        long tiempo = tiempoRecolecciones() - tiempoAntes;
+
+        System.out.printf("%-8s %,d tiquetes: heap %,8.1f MB (%5.1f bytes/tiquete)  GC completo %,6.1f ms  "
+                        + "ráfaga %d GCs, %,d ms (%.2f ms/GC)%n",
+                modo, tiquetes, heap / 1e6, (double) heap / tiquetes, gcCompleto / 1e6,
+                recolecciones, tiempo, recolecciones == 0 ? 0.0 : (double) tiempo / recolecciones);
+        Reference.reachabilityFence(vivos);
+    }
+
+    private static Object cargar(String modo, int tiquetes, Evento evento, Localidad general, List<Cliente> clientes)
+            throws Exception {
+        if (modo.equals("objetos")) {
+            MapaEnteros<TiqueteBasico> porId = new MapaEnteros<>(tiquetes);
+            for (int i = 0; i < tiquetes; i++) {
+                porId.put(i, new TiqueteBasico(clientes.get(i % CLIENTES), i, 80_000.0, 4_000.0, 1_000.0,
+                        "EMITIDO", general, evento, i + 1, true));
+            }
+            return porId;
+        }
+        AlmacenTiquetes almacen = switch (modo) {
+            case "heap" -> new AlmacenTiquetes(evento, tiquetes);
+            case "directo" -> AlmacenTiquetes.fueraDeHeap(evento, tiquetes);
+            case "archivo" -> AlmacenTiquetes.enArchivo(evento, archivoTemporal(), tiquetes);
+            default -> throw new IllegalArgumentException("Modo desconocido: " + modo);
+        };
+        for (int i = 0; i < tiquetes; i++) {
+            almacen.agregar(clientes.get(i % CLIENTES), i, 80_000.0, 4_000.0, 1_000.0, "EMITIDO", general, i + 1, true);
+        }
+        almacen.sincronizar();
+        return almacen;
+    }
+
+    private static Path archivoTemporal() throws Exception {
+        Path archivo = Files.createTempFile("tiquetes", ".tiq");
+        archivo.toFile().deleteOnExit();
+        archivo.resolveSibling(archivo.getFileName() + ".tablas").toFile().deleteOnExit();
+        return archivo;
+    }
+
+    private static long recolecciones() {
+        long total = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            total += gc.getCollectionCount();
+        }
+        return total;
+    }
+
+    private static long tiempoRecolecciones() {
+        long total = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            total += gc.getCollectionTime();
+        }
+        return total;
+    }
+
+    private static long heapUsado() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
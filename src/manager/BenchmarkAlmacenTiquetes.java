@@ -0,0 +1,94 @@
+package manager;
+
+import Cliente.Administrador;
+import Cliente.Cliente;
+import eventos.Evento;
+import eventos.Localidad;
+import eventos.TipoEvento;
+import eventos.Venue;
+import tiquetes.AlmacenTiquetes;
+import tiquetes.Tiquete;
+import tiquetes.TiqueteBasico;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Comparación manual de memoria y recorridos entre tiquetes como objetos (registrados en
+ * el evento, la localidad, el cliente y {@code tiquetesPorId}) y el {@link AlmacenTiquetes}
+ * columnar.
+ * <p>
+ * Uso: {@code java -Xmx4g manager.BenchmarkAlmacenTiquetes [tiquetes]} (2 000 000 por
+ * defecto). La memoria se mide como la diferencia de heap usado tras forzar GC.
+ */
+public class BenchmarkAlmacenTiquetes {
+
+    private static final int CLIENTES = 10_000;
+
+    public static void main(String[] args) {
+        int tiquetes = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        Administrador admin = new Administrador(0.0, "ADM", new ArrayList<>(), "admin", "admin", "Admin", 0.0);
+        Venue venue = new Venue("VEN", "Estadio", "Bogotá", tiquetes, new ArrayList<>());
+        Evento evento = new Evento(admin, "EVT", "Final", LocalDate.now().plusDays(30), LocalTime.NOON,
+                "PROGRAMADO", TipoEvento.DEPORTIVO, venue, null, null, new ArrayList<>());
+        List<Cliente> clientes = new ArrayList<>();
+        for (int i = 0; i < CLIENTES; i++) {
+            clientes.add(new Cliente("c" + i, "p", "Cliente " + i, 0.0, "CLI" + i));
+        }
+        System.out.printf("%,d tiquetes%n%n", tiquetes);
+
+        long antes = heapUsado();
+        Localidad general = new Localidad(null, new ArrayList<>(), "General", 80_000.0, true, tiquetes);
+        MapaEnteros<Tiquete> porId = new MapaEnteros<>(tiquetes);
+        for (int i = 0; i < tiquetes; i++) {
+            Cliente cliente = clientes.get(i % CLIENTES);
+            TiqueteBasico tiquete = new TiqueteBasico(cliente, i, 80_000.0, 4_000.0, 1_000.0, "EMITIDO",
+                    general, evento, i + 1, true);
+            evento.registrarTiquete(tiquete);
+            general.agregarTiquete(tiquete);
+            cliente.agregarTiquete(tiquete);
+            porId.put(i, tiquete);
+        }
+        long objetos = heapUsado() - antes;
+        long inicio = System.nanoTime();
+        double total = 0;
+        for (Tiquete tiquete : evento.verTiquetes()) {
+            total += tiquete.calcularValorTotal();
+        }
+        long recorridoObjetos = System.nanoTime() - inicio;
+        imprimir("Objetos", objetos, tiquetes, recorridoObjetos, total);
+
+        general = null;
+        porId = null;
+        evento.setTiquetes(null);
+        for (Cliente cliente : clientes) {
+            cliente.setTiquetes(new ArrayList<>());
+        }
+
+        antes = heapUsado();
+        Localidad columnar = new Localidad(null, new ArrayList<>(), "General", 80_000.0, true, tiquetes);
+        AlmacenTiquetes almacen = new AlmacenTiquetes(evento, tiquetes);
+        for (int i = 0; i < tiquetes; i++) {
+            almacen.agregar(clientes.get(i % CLIENTES), i, 80_000.0, 4_000.0, 1_000.0, "EMITIDO", columnar, i + 1, true);
+        }
+        long columnas = heapUsado() - antes;
+        inicio = System.nanoTime();
+        total = almacen.sumarValorTotal();
+        imprimir("AlmacenTiquetes", columnas, tiquetes, System.nanoTime() - inicio, total);
+    }
+
+    private static void imprimir(String nombre, long bytes, int tiquetes, long recorrido, double total) {
+        System.out.printf("%-16s %7.1f bytes/tiquete  recorrido %,7.1f ms  (total %.0f)%n",
+                nombre, (double) bytes / tiquetes, recorrido / 1e6, total);
+    }
+
+    private static long heapUsado() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,112 @@
+package manager;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.function.Function;
+import java.util.function.IntPredicate;
+import java.util.function.Supplier;
+
+/**
+ * Comparación manual de memoria y velocidad de búsqueda entre los índices por id de
+ * tiquete de {@link BoletaMasterState} ({@link MapaEnteros}, {@link ConjuntoEnteros},
+ * {@link BitmapEnteros}) y sus equivalentes de {@code java.util}. {@link BitmapEnteros}
+ * se mide con ids consecutivos y con uno de cada tres.
+ * <p>
+ * Uso: {@code java -Xmx4g manager.BenchmarkIndicesEnteros [tiquetes]} (10 000 000 por
+ * defecto). La memoria se mide como la diferencia de heap usado tras forzar GC, así que
+ * es aproximada; todos los valores apuntan al mismo objeto para medir solo el índice.
+ */
+public class BenchmarkIndicesEnteros {
+
+    private static final int BUSQUEDAS = 20_000_000;
+    private static final Object TIQUETE = new Object();
+
+    public static void main(String[] args) {
+        int tiquetes = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+        int[] busquedas = new SplittableRandom(42).ints(BUSQUEDAS, 0, tiquetes * 2).toArray();
+        System.out.printf("%,d tiquetes, %,d búsquedas (la mitad fallan)%n%n", tiquetes, BUSQUEDAS);
+
+        medir("HashMap<Integer,Object>", tiquetes, busquedas, () -> {
+            Map<Integer, Object> mapa = new HashMap<>();
+            for (int i = 0; i < tiquetes; i++) {
+                mapa.put(i, TIQUETE);
+            }
+            return mapa;
+        }, mapa -> clave -> mapa.get(clave) != null);
+
+        medir("MapaEnteros<Object>", tiquetes, busquedas, () -> {
+            MapaEnteros<Object> mapa = new MapaEnteros<>();
+            for (int i = 0; i < tiquetes; i++) {
+                mapa.put(i, TIQUETE);
+            }
+            return mapa;
+        }, mapa -> clave -> mapa.get(clave) != null);
+
+        medir("HashSet<Integer>", tiquetes, busquedas, () -> {
+            Set<Integer> conjunto = new HashSet<>();
+            for (int i = 0; i < tiquetes; i++) {
+                conjunto.add(i);
+            }
+            return conjunto;
+        }, conjunto -> conjunto::contains);
+
+        medir("ConjuntoEnteros", tiquetes, busquedas, () -> {
+            ConjuntoEnteros conjunto = new ConjuntoEnteros();
+            for (int i = 0; i < tiquetes; i++) {
+                conjunto.add(i);
+            }
+            return conjunto;
+        }, conjunto -> conjunto::contains);
+
+        medir("BitmapEnteros", tiquetes, busquedas, () -> {
+            BitmapEnteros conjunto = new BitmapEnteros();
+            for (int i = 0; i < tiquetes; i++) {
+                conjunto.add(i);
+            }
+            return conjunto;
+        }, conjunto -> conjunto::contains);
+
+        medir("BitmapEnteros (1 de 3)", tiquetes, busquedas, () -> {
+            BitmapEnteros conjunto = new BitmapEnteros();
+            for (int i = 0; i < tiquetes * 3; i += 3) {
+                conjunto.add(i);
+            }
+            return conjunto;
+        }, conjunto -> conjunto::contains);
+    }
+
+    private static <T> void medir(String nombre, int tiquetes, int[] busquedas, Supplier<T> construir,
+            Function<T, IntPredicate> buscador) {
+        long antes = heapUsado();
+        long inicio = System.nanoTime();
+        T indice = construir.get();
+        long carga = System.nanoTime() - inicio;
+        long bytes = heapUsado() - antes;
+
+        IntPredicate contiene = buscador.apply(indice);
+        int encontrados = 0;
+        for (int i = 0; i < busquedas.length / 10; i++) {
+            encontrados += contiene.test(busquedas[i]) ? 1 : 0;
+        }
+        inicio = System.nanoTime();
+        for (int clave : busquedas) {
+            encontrados += contiene.test(clave) ? 1 : 0;
+        }
+        long busqueda = System.nanoTime() - inicio;
+
+        System.out.printf("%-24s %6.1f bytes/tiquete  carga %,6d ms  %,6.1f M búsquedas/s  (%d)%n",
+                nombre, (double) bytes / tiquetes, carga / 1_000_000,
+                busquedas.length * 1_000.0 / busqueda, encontrados);
+    }
+
+    private static long heapUsado() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,104 @@
+package manager;
+
+import Cliente.Administrador;
+import Cliente.Cliente;
+import Cliente.Organizador;
+import eventos.Evento;
+import eventos.Localidad;
+import eventos.TipoEvento;
+import eventos.Venue;
+import tiquetes.Tiquete;
+import tiquetes.TiqueteBasico;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Comparación manual del reporte de finanzas de un organizador: recorrido secuencial con
+ * {@link Evento#getTiquetes()} por evento, primer reporte de {@link MotorReportesFinanzas}
+ * (todos los eventos en paralelo) y reporte tras vender un tiquete en un solo evento.
+ * <p>
+ * Uso: {@code java -Xmx4g manager.BenchmarkReportesFinanzas [eventos] [tiquetesPorEvento]}
+ * (500 y 4 000 por defecto). Cada medida es la mediana de varias repeticiones.
+ */
+public class BenchmarkReportesFinanzas {
+
+    private static final int REPETICIONES = 15;
+
+    public static void main(String[] args) {
+        int eventos = args.length > 0 ? Integer.parseInt(args[0]) : 500;
+        int porEvento = args.length > 1 ? Integer.parseInt(args[1]) : 4_000;
+        Administrador admin = new Administrador(0.0, "ADM", new ArrayList<>(), "admin", "admin", "Admin", 0.0);
+        Organizador organizador = new Organizador("org", "org", "Org", 0.0, "ORG", null);
+        Cliente cliente = new Cliente("c", "p", "Cliente", 0.0, "CLI");
+        List<Localidad> localidades = List.of(
+                new Localidad(null, new ArrayList<>(), "General", 80_000.0, false, porEvento),
+                new Localidad(null, new ArrayList<>(), "Preferencial", 150_000.0, false, porEvento),
+                new Localidad(null, new ArrayList<>(), "Palco", 400_000.0, true, porEvento));
+        int id = 0;
+        for (int e = 0; e < eventos; e++) {
+            Venue venue = new Venue("VEN" + e, "Venue " + e, "Bogotá", porEvento, new ArrayList<>());
+            Evento evento = new Evento(admin, "EVT" + e, "Evento " + e, LocalDate.now().plusDays(30 + e),
+                    LocalTime.NOON, "PROGRAMADO", TipoEvento.CONCIERTO, venue, null, organizador, new ArrayList<>());
+            for (int i = 0; i < porEvento; i++) {
+                Localidad localidad = localidades.get(i % localidades.size());
+                evento.registrarTiquete(new TiqueteBasico(cliente, id++, localidad.getPrecioBase(), 4_000.0, 1_000.0,
+                        "EMITIDO", localidad, evento, null, false));
+            }
+            organizador.registrarEvento(evento);
+        }
+        System.out.printf("%,d eventos, %,d tiquetes%n%n", eventos, id);
+
+        medir("secuencial con getTiquetes()", () -> secuencial(organizador));
+
+        BoletaMasterState state = new BoletaMasterState();
+        medir("motor, reporte completo", () -> new MotorReportesFinanzas(state).generar(organizador));
+
+        MotorReportesFinanzas motor = new MotorReportesFinanzas(state);
+        motor.generar(organizador);
+        Evento vendido = organizador.getEventos().get(eventos / 2);
+        int[] siguiente = {id};
+        medir("motor, tras vender en 1 evento", () -> {
+            vendido.registrarTiquete(new TiqueteBasico(cliente, siguiente[0]++, 80_000.0, 4_000.0, 1_000.0,
+                    "EMITIDO", localidades.get(0), vendido, null, false));
+            return motor.generar(organizador);
+        });
+        medir("motor, sin cambios", () -> motor.generar(organizador));
+    }
+
+    /**
+     * Lo que haría un organizador sin el motor: copiar y recorrer los tiquetes de cada evento.
+     */
+    private static Map<Evento, Map<Localidad, double[]>> secuencial(Organizador organizador) {
+        Map<Evento, Map<Localidad, double[]>> reporte = new HashMap<>();
+        for (Evento evento : organizador.getEventos()) {
+            Map<Localidad, double[]> porLocalidad = new HashMap<>();
+            for (Tiquete tiquete : evento.getTiquetes()) {
+                double[] suma = porLocalidad.computeIfAbsent(tiquete.getLocalidad(), l -> new double[2]);
+                suma[0]++;
+                suma[1] += tiquete.getPrecio();
+            }
+            reporte.put(evento, porLocalidad);
+        }
+        return reporte;
+    }
+
+    private static void medir(String nombre, Supplier<Object> reporte) {
+        long[] tiempos = new long[REPETICIONES];
+        Object ultimo = null;
+        for (int i = 0; i < REPETICIONES; i++) {
+            long inicio = System.nanoTime();
+            ultimo = reporte.get();
+            tiempos[i] = System.nanoTime() - inicio;
+        }
+        Arrays.sort(tiempos);
+        System.out.printf("%-32s %,10.3f ms  (%s)%n", nombre, tiempos[REPETICIONES / 2] / 1e6,
+                ultimo.getClass().getSimpleName());
+    }
+}
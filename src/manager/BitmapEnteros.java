@@ -0,0 +1,757 @@
+package manager;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.LongBinaryOperator;
+
+/**
+ * Conjunto de {@code int} comprimido al estilo <i>roaring bitmap</i>, pensado para ids de
+ * tiquete que llegan en rangos densos por evento.
+ * <p>
+ * Los 16 bits altos de cada valor eligen un contenedor y los 16 bajos se guardan en él con
+ * la representación más pequeña: un arreglo ordenado (hasta {@value #MAX_ARREGLO} valores),
+ * un mapa de bits de 8 KB o una lista de corridas {@code [inicio, fin]}. Un rango de ids
+ * consecutivos ocupa así cuatro bytes por cada 65 536 ids. {@link #contains(int)} es una
+ * búsqueda binaria entre contenedores y otra (o un acceso directo) dentro del contenedor.
+ * <p>
+ * Además de {@code Set<Integer>} ofrece operaciones en bloque ({@link #y(BitmapEnteros)},
+ * {@link #o(BitmapEnteros)}, {@link #menos(BitmapEnteros)}, {@link #agregarRango(int, int)})
+ * que trabajan palabra a palabra. Se itera en orden sin signo. Los iteradores fallan rápido
+ * y no admiten {@code remove}. No es seguro para hilos.
+ */
+public final class BitmapEnteros extends AbstractSet<Integer> {
+
+    private static final int MAX_ARREGLO = 4096;
+    /** Con más corridas que estas, el mapa de bits ocupa menos. */
+    private static final int MAX_CORRIDAS = 2048;
+    private static final int PALABRAS = 1024;
+    private static final int VALORES_POR_CONTENEDOR = 1 << 16;
+
+    private char[] claves = new char[4];
+    private Contenedor[] contenedores = new Contenedor[4];
+    private int cantidad;
+    private int tamano;
+    private int modificaciones;
+
+    /**
+     * @return conjunto con los valores de {@code desde} (incluido) a {@code hasta} (excluido).
+     */
+    public static BitmapEnteros rango(int desde, int hasta) {
+        BitmapEnteros conjunto = new BitmapEnteros();
+        conjunto.agregarRango(desde, hasta);
+        return conjunto;
+    }
+
+    @Override
+    public int size() {
+        return tamano;
+    }
+
+    public boolean contains(int valor) {
+        int i = indice((char) (valor >>> 16));
+        return i >= 0 && contenedores[i].contiene(valor & 0xFFFF);
+    }
+
+    @Override
+    public boolean contains(Object valor) {
+        return valor instanceof Integer entero && contains(entero.intValue());
+    }
+
+    /**
+     * @return {@code true} si el valor no estaba.
+     */
+    public boolean add(int valor) {
+        char alto = (char) (valor >>> 16);
+        int i = indice(alto);
+        if (i < 0) {
+            insertar(-i - 1, alto, new Arreglo(new char[] {(char) valor}, 1));
+        } else {
+            Contenedor contenedor = contenedores[i];
+            int antes = contenedor.cardinalidad();
+            contenedores[i] = contenedor.agregar(valor & 0xFFFF);
+            if (contenedores[i].cardinalidad() == antes) {
+                return false;
+            }
+        }
+        tamano++;
+        modificaciones++;
+        return true;
+    }
+
+    @Override
+    public boolean add(Integer valor) {
+        return add(valor.intValue());
+    }
+
+    /**
+     * @return {@code true} si el valor estaba.
+     */
+    public boolean remove(int valor) {
+        int i = indice((char) (valor >>> 16));
+        if (i < 0) {
+            return false;
+        }
+        Contenedor contenedor = contenedores[i];
+        int antes = contenedor.cardinalidad();
+        contenedor = contenedor.quitar(valor & 0xFFFF);
+        if (contenedor.cardinalidad() == antes) {
+            return false;
+        }
+        if (contenedor.cardinalidad() == 0) {
+            eliminar(i);
+        } else {
+            contenedores[i] = contenedor;
+        }
+        tamano--;
+        modificaciones++;
+        return true;
+    }
+
+    @Override
+    public boolean remove(Object valor) {
+        return valor instanceof Integer entero && remove(entero.intValue());
+    }
+
+    /**
+     * Agrega los valores de {@code desde} (incluido) a {@code hasta} (excluido).
+     *
+     * @throws IllegalArgumentException si {@code desde > hasta}.
+     */
+    public void agregarRango(int desde, int hasta) {
+        if (desde > hasta) {
+            throw new IllegalArgumentException("Rango inválido: " + desde + " > " + hasta);
+        }
+        long valor = desde;
+        while (valor < hasta) {
+            long finBloque = Math.min(hasta, ((valor >> 16) + 1) << 16);
+            char alto = (char) (valor >>> 16);
+            long[] palabras = new long[PALABRAS];
+            ponerRango(palabras, (int) (valor & 0xFFFF), (int) ((finBloque - 1) & 0xFFFF) + 1);
+            int i = indice(alto);
+            if (i >= 0) {
+                tamano -= contenedores[i].cardinalidad();
+                contenedores[i].volcar(palabras);
+                contenedores[i] = mejor(palabras, contar(palabras));
+                tamano += contenedores[i].cardinalidad();
+            } else {
+                Contenedor contenedor = mejor(palabras, (int) (finBloque - valor));
+                insertar(-i - 1, alto, contenedor);
+                tamano += contenedor.cardinalidad();
+            }
+            valor = finBloque;
+        }
+        modificaciones++;
+    }
+
+    /**
+     * @return nuevo conjunto con los valores que están en este y en {@code otro}.
+     */
+    public BitmapEnteros y(BitmapEnteros otro) {
+        BitmapEnteros resultado = new BitmapEnteros();
+        int i = 0;
+        int j = 0;
+        while (i < cantidad && j < otro.cantidad) {
+            if (claves[i] < otro.claves[j]) {
+                i++;
+            } else if (claves[i] > otro.claves[j]) {
+                j++;
+            } else {
+                resultado.anexar(claves[i], interseccion(contenedores[i], otro.contenedores[j]));
+                i++;
+                j++;
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * @return nuevo conjunto con los valores que están en este o en {@code otro}.
+     */
+    public BitmapEnteros o(BitmapEnteros otro) {
+        BitmapEnteros resultado = new BitmapEnteros();
+        int i = 0;
+        int j = 0;
+        while (i < cantidad || j < otro.cantidad) {
+            if (j == otro.cantidad || i < cantidad && claves[i] < otro.claves[j]) {
+                resultado.anexar(claves[i], contenedores[i].copiar());
+                i++;
+            } else if (i == cantidad || claves[i] > otro.claves[j]) {
+                resultado.anexar(otro.claves[j], otro.contenedores[j].copiar());
+                j++;
+            } else {
+                resultado.anexar(claves[i], combinar(contenedores[i], otro.contenedores[j], (a, b) -> a | b));
+                i++;
+                j++;
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * @return nuevo conjunto con los valores de este que no están en {@code otro}.
+     */
+    public BitmapEnteros menos(BitmapEnteros otro) {
+        BitmapEnteros resultado = new BitmapEnteros();
+        int j = 0;
+        for (int i = 0; i < cantidad; i++) {
+            while (j < otro.cantidad && otro.claves[j] < claves[i]) {
+                j++;
+            }
+            if (j < otro.cantidad && otro.claves[j] == claves[i]) {
+                resultado.anexar(claves[i], combinar(contenedores[i], otro.contenedores[j], (a, b) -> a & ~b));
+            } else {
+                resultado.anexar(claves[i], contenedores[i].copiar());
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Vuelve a elegir la representación más pequeña de cada contenedor; útil tras muchas
+     * altas y bajas sueltas.
+     */
+    public void optimizar() {
+        for (int i = 0; i < cantidad; i++) {
+            contenedores[i] = contenedores[i].optimizado();
+        }
+    }
+
+    @Override
+    public void clear() {
+        if (tamano == 0) {
+            return;
+        }
+        Arrays.fill(contenedores, 0, cantidad, null);
+        cantidad = 0;
+        tamano = 0;
+        modificaciones++;
+    }
+
+    @Override
+    public Iterator<Integer> iterator() {
+        return new Iterator<>() {
+            private final int esperadas = modificaciones;
+            private int contenedor;
+            /** 16 bits bajos del siguiente valor, o {@code -1} si no quedan. */
+            private int bajo = avanzar(0);
+
+            private int avanzar(int desde) {
+                while (contenedor < cantidad) {
+                    int siguiente = desde < VALORES_POR_CONTENEDOR ? contenedores[contenedor].siguiente(desde) : -1;
+                    if (siguiente >= 0) {
+                        return siguiente;
+                    }
+                    contenedor++;
+                    desde = 0;
+                }
+                return -1;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return bajo >= 0;
+            }
+
+            @Override
+            public Integer next() {
+                if (modificaciones != esperadas) {
+                    throw new ConcurrentModificationException();
+                }
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                int valor = claves[contenedor] << 16 | bajo;
+                bajo = avanzar(bajo + 1);
+                return valor;
+            }
+        };
+    }
+
+    /**
+     * @return posición del contenedor de {@code alto}, o {@code -(posición de inserción + 1)}.
+     */
+    private int indice(char alto) {
+        int izquierda = 0;
+        int derecha = cantidad - 1;
+        while (izquierda <= derecha) {
+            int medio = (izquierda + derecha) >>> 1;
+            if (claves[medio] < alto) {
+                izquierda = medio + 1;
+            } else if (claves[medio] > alto) {
+                derecha = medio - 1;
+            } else {
+                return medio;
+            }
+        }
+        return -(izquierda + 1);
+    }
+
+    private void insertar(int posicion, char alto, Contenedor contenedor) {
+        if (cantidad == claves.length) {
+            claves = Arrays.copyOf(claves, cantidad << 1);
+            contenedores = Arrays.copyOf(contenedores, cantidad << 1);
+        }
+        System.arraycopy(claves, posicion, claves, posicion + 1, cantidad - posicion);
+        System.arraycopy(contenedores, posicion, contenedores, posicion + 1, cantidad - posicion);
+        claves[posicion] = alto;
+        contenedores[posicion] = contenedor;
+        cantidad++;
+    }
+
+    private void eliminar(int posicion) {
+        cantidad--;
+        System.arraycopy(claves, posicion + 1, claves, posicion, cantidad - posicion);
+        System.arraycopy(contenedores, posicion + 1, contenedores, posicion, cantidad - posicion);
+        contenedores[cantidad] = null;
+    }
+
+    /**
+     * Agrega al final un contenedor cuya clave es mayor que todas las actuales; ignora {@code null}.
+     */
+    private void anexar(char alto, Contenedor contenedor) {
+        if (contenedor != null) {
+            insertar(cantidad, alto, contenedor);
+            tamano += contenedor.cardinalidad();
+        }
+    }
+
+    private static Contenedor interseccion(Contenedor a, Contenedor b) {
+        if (b instanceof Arreglo && !(a instanceof Arreglo)) {
+            Contenedor c = a;
+            a = b;
+            b = c;
+        }
+        if (a instanceof Arreglo arreglo) {
+            char[] valores = new char[arreglo.n];
+            int n = 0;
+            for (int i = 0; i < arreglo.n; i++) {
+                if (b.contiene(arreglo.valores[i])) {
+                    valores[n++] = arreglo.valores[i];
+                }
+            }
+            return n == 0 ? null : new Arreglo(valores, n);
+        }
+        return combinar(a, b, (x, y) -> x & y);
+    }
+
+    /**
+     * @return contenedor con {@code operacion} aplicada palabra a palabra, o {@code null} si queda vacío.
+     */
+    private static Contenedor combinar(Contenedor a, Contenedor b, LongBinaryOperator operacion) {
+        long[] izquierda = new long[PALABRAS];
+        long[] derecha = new long[PALABRAS];
+        a.volcar(izquierda);
+        b.volcar(derecha);
+        int n = 0;
+        for (int i = 0; i < PALABRAS; i++) {
+            izquierda[i] = operacion.applyAsLong(izquierda[i], derecha[i]);
+            n += Long.bitCount(izquierda[i]);
+        }
+        return n == 0 ? null : mejor(izquierda, n);
+    }
+
+    /**
+     * @return la representación más pequeña para los {@code n} valores marcados en {@code palabras}.
+     */
+    private static Contenedor mejor(long[] palabras, int n) {
+        int corridas = contarCorridas(palabras);
+        if (corridas * 4 < Math.min(n * 2, PALABRAS * 8)) {
+            return Corridas.desde(palabras, corridas, n);
+        }
+        if (n <= MAX_ARREGLO) {
+            return Arreglo.desde(palabras, n);
+        }
+        return new Mapa(palabras, n);
+    }
+
+    private static int contar(long[] palabras) {
+        int n = 0;
+        for (long palabra : palabras) {
+            n += Long.bitCount(palabra);
+        }
+        return n;
+    }
+
+    private static int contarCorridas(long[] palabras) {
+        int corridas = 0;
+        long anterior = 0;
+        for (long palabra : palabras) {
+            corridas += Long.bitCount(palabra & ~(palabra << 1 | anterior >>> 63));
+            anterior = palabra;
+        }
+        return corridas;
+    }
+
+    /**
+     * Marca los bits de {@code desde} (incluido) a {@code hasta} (excluido).
+     */
+    private static void ponerRango(long[] palabras, int desde, int hasta) {
+        if (desde >= hasta) {
+            return;
+        }
+        int primera = desde >>> 6;
+        int ultima = (hasta - 1) >>> 6;
+        long mascaraInicio = -1L << desde;
+        long mascaraFin = -1L >>> -hasta;
+        if (primera == ultima) {
+            palabras[primera] |= mascaraInicio & mascaraFin;
+            return;
+        }
+        palabras[primera] |= mascaraInicio;
+        Arrays.fill(palabras, primera + 1, ultima, -1L);
+        palabras[ultima] |= mascaraFin;
+    }
+
+    /**
+     * @return primer bit marcado desde {@code desde}, o {@code -1}.
+     */
+    private static int siguienteUno(long[] palabras, int desde) {
+        int i = desde >>> 6;
+        long palabra = palabras[i] & (-1L << desde);
+        while (palabra == 0) {
+            if (++i == PALABRAS) {
+                return -1;
+            }
+            palabra = palabras[i];
+        }
+        return i * 64 + Long.numberOfTrailingZeros(palabra);
+    }
+
+    /**
+     * @return primer bit sin marcar desde {@code desde}, o {@value #VALORES_POR_CONTENEDOR}.
+     */
+    private static int siguienteCero(long[] palabras, int desde) {
+        int i = desde >>> 6;
+        long palabra = ~palabras[i] & (-1L << desde);
+        while (palabra == 0) {
+            if (++i == PALABRAS) {
+                return VALORES_POR_CONTENEDOR;
+            }
+            palabra = ~palabras[i];
+        }
+        return i * 64 + Long.numberOfTrailingZeros(palabra);
+    }
+
+    /**
+     * Valores de un bloque de 65 536, representados por sus 16 bits bajos ({@code 0..0xFFFF}).
+     * Agregar o quitar puede devolver un contenedor de otro tipo.
+     */
+    private abstract static class Contenedor {
+
+        abstract int cardinalidad();
+
+        abstract boolean contiene(int bajo);
+
+        abstract Contenedor agregar(int bajo);
+
+        abstract Contenedor quitar(int bajo);
+
+        /**
+         * @return menor valor {@code >= desde}, o {@code -1}.
+         */
+        abstract int siguiente(int desde);
+
+        /**
+         * Marca los valores del contenedor en {@code palabras}.
+         */
+        abstract void volcar(long[] palabras);
+
+        abstract Contenedor copiar();
+
+        Contenedor optimizado() {
+            long[] palabras = new long[PALABRAS];
+            volcar(palabras);
+            return mejor(palabras, cardinalidad());
+        }
+    }
+
+    private static final class Arreglo extends Contenedor {
+        private char[] valores;
+        private int n;
+
+        private Arreglo(char[] valores, int n) {
+            this.valores = valores;
+            this.n = n;
+        }
+
+        private static Arreglo desde(long[] palabras, int n) {
+            char[] valores = new char[n];
+            int k = 0;
+            for (int i = 0; i < PALABRAS; i++) {
+                for (long palabra = palabras[i]; palabra != 0; palabra &= palabra - 1) {
+                    valores[k++] = (char) (i * 64 + Long.numberOfTrailingZeros(palabra));
+                }
+            }
+            return new Arreglo(valores, n);
+        }
+
+        @Override
+        int cardinalidad() {
+            return n;
+        }
+
+        @Override
+        boolean contiene(int bajo) {
+            return Arrays.binarySearch(valores, 0, n, (char) bajo) >= 0;
+        }
+
+        @Override
+        Contenedor agregar(int bajo) {
+            int posicion = Arrays.binarySearch(valores, 0, n, (char) bajo);
+            if (posicion >= 0) {
+                return this;
+            }
+            if (n == MAX_ARREGLO) {
+                long[] palabras = new long[PALABRAS];
+                volcar(palabras);
+                palabras[bajo >>> 6] |= 1L << bajo;
+                return mejor(palabras, n + 1);
+            }
+            posicion = -posicion - 1;
+            if (n == valores.length) {
+                valores = Arrays.copyOf(valores, Math.min(MAX_ARREGLO, n << 1));
+            }
+            System.arraycopy(valores, posicion, valores, posicion + 1, n - posicion);
+            valores[posicion] = (char) bajo;
+            n++;
+            return this;
+        }
+
+        @Override
+        Contenedor quitar(int bajo) {
+            int posicion = Arrays.binarySearch(valores, 0, n, (char) bajo);
+            if (posicion >= 0) {
+                n--;
+                System.arraycopy(valores, posicion + 1, valores, posicion, n - posicion);
+            }
+            return this;
+        }
+
+        @Override
+        int siguiente(int desde) {
+            int posicion = Arrays.binarySearch(valores, 0, n, (char) desde);
+            if (posicion < 0) {
+                posicion = -posicion - 1;
+            }
+            return posicion < n ? valores[posicion] : -1;
+        }
+
+        @Override
+        void volcar(long[] palabras) {
+            for (int i = 0; i < n; i++) {
+                palabras[valores[i] >>> 6] |= 1L << valores[i];
+            }
+        }
+
+        @Override
+        Contenedor copiar() {
+            return new Arreglo(Arrays.copyOf(valores, n), n);
+        }
+    }
+
+    private static final class Mapa extends Contenedor {
+        private final long[] palabras;
+        private int n;
+
+        private Mapa(long[] palabras, int n) {
+            this.palabras = palabras;
+            this.n = n;
+        }
+
+        @Override
+        int cardinalidad() {
+            return n;
+        }
+
+        @Override
+        boolean contiene(int bajo) {
+            return (palabras[bajo >>> 6] & (1L << bajo)) != 0;
+        }
+
+        @Override
+        Contenedor agregar(int bajo) {
+            if (!contiene(bajo)) {
+                palabras[bajo >>> 6] |= 1L << bajo;
+                n++;
+            }
+            return this;
+        }
+
+        @Override
+        Contenedor quitar(int bajo) {
+            if (!contiene(bajo)) {
+                return this;
+            }
+            palabras[bajo >>> 6] &= ~(1L << bajo);
+            n--;
+            return n <= MAX_ARREGLO ? Arreglo.desde(palabras, n) : this;
+        }
+
+        @Override
+        int siguiente(int desde) {
+            return siguienteUno(palabras, desde);
+        }
+
+        @Override
+        void volcar(long[] destino) {
+            for (int i = 0; i < PALABRAS; i++) {
+                destino[i] |= palabras[i];
+            }
+        }
+
+        @Override
+        Contenedor copiar() {
+            return new Mapa(palabras.clone(), n);
+        }
+    }
+
+    /**
+     * Corridas ordenadas y disjuntas; {@code largos[i]} es la longitud de la corrida menos uno.
+     */
+    private static final class Corridas extends Contenedor {
+        private char[] inicios;
+        private char[] largos;
+        private int corridas;
+        private int n;
+
+        private Corridas(char[] inicios, char[] largos, int corridas, int n) {
+            this.inicios = inicios;
+            this.largos = largos;
+            this.corridas = corridas;
+            this.n = n;
+        }
+
+        private static Corridas desde(long[] palabras, int corridas, int n) {
+            char[] inicios = new char[corridas];
+            char[] largos = new char[corridas];
+            int k = 0;
+            for (int inicio = siguienteUno(palabras, 0); inicio >= 0; ) {
+                int fin = siguienteCero(palabras, inicio);
+                inicios[k] = (char) inicio;
+                largos[k++] = (char) (fin - inicio - 1);
+                inicio = fin < VALORES_POR_CONTENEDOR ? siguienteUno(palabras, fin) : -1;
+            }
+            return new Corridas(inicios, largos, corridas, n);
+        }
+
+        private int fin(int corrida) {
+            return inicios[corrida] + largos[corrida];
+        }
+
+        /**
+         * @return última corrida que empieza en o antes de {@code bajo}, o {@code -1}.
+         */
+        private int buscar(int bajo) {
+            int izquierda = 0;
+            int derecha = corridas - 1;
+            while (izquierda <= derecha) {
+                int medio = (izquierda + derecha) >>> 1;
+                if (inicios[medio] <= bajo) {
+                    izquierda = medio + 1;
+                } else {
+                    derecha = medio - 1;
+                }
+            }
+            return derecha;
+        }
+
+        @Override
+        int cardinalidad() {
+            return n;
+        }
+
+        @Override
+        boolean contiene(int bajo) {
+            int i = buscar(bajo);
+            return i >= 0 && bajo <= fin(i);
+        }
+
+        @Override
+        Contenedor agregar(int bajo) {
+            int i = buscar(bajo);
+            if (i >= 0 && bajo <= fin(i)) {
+                return this;
+            }
+            n++;
+            boolean pegaAnterior = i >= 0 && fin(i) + 1 == bajo;
+            boolean pegaSiguiente = i + 1 < corridas && inicios[i + 1] == bajo + 1;
+            if (pegaAnterior && pegaSiguiente) {
+                largos[i] = (char) (fin(i + 1) - inicios[i]);
+                eliminar(i + 1);
+            } else if (pegaAnterior) {
+                largos[i]++;
+            } else if (pegaSiguiente) {
+                inicios[i + 1]--;
+                largos[i + 1]++;
+            } else {
+                insertar(i + 1, bajo, 0);
+            }
+            return corridas > MAX_CORRIDAS ? optimizado() : this;
+        }
+
+        @Override
+        Contenedor quitar(int bajo) {
+            int i = buscar(bajo);
+            if (i < 0 || bajo > fin(i)) {
+                return this;
+            }
+            n--;
+            int inicio = inicios[i];
+            int fin = fin(i);
+            if (inicio == fin) {
+                eliminar(i);
+            } else if (bajo == inicio) {
+                inicios[i]++;
+                largos[i]--;
+            } else if (bajo == fin) {
+                largos[i]--;
+            } else {
+                largos[i] = (char) (bajo - 1 - inicio);
+                insertar(i + 1, bajo + 1, fin - bajo - 1);
+            }
+            return corridas > MAX_CORRIDAS ? optimizado() : this;
+        }
+
+        private void insertar(int posicion, int inicio, int largo) {
+            if (corridas == inicios.length) {
+                inicios = Arrays.copyOf(inicios, Math.max(4, corridas << 1));
+                largos = Arrays.copyOf(largos, inicios.length);
+            }
+            System.arraycopy(inicios, posicion, inicios, posicion + 1, corridas - posicion);
+            System.arraycopy(largos, posicion, largos, posicion + 1, corridas - posicion);
+            inicios[posicion] = (char) inicio;
+            largos[posicion] = (char) largo;
+            corridas++;
+        }
+
+        private void eliminar(int posicion) {
+            corridas--;
+            System.arraycopy(inicios, posicion + 1, inicios, posicion, corridas - posicion);
+            System.arraycopy(largos, posicion + 1, largos, posicion, corridas - posicion);
+        }
+
+        @Override
+        int siguiente(int desde) {
+            int i = buscar(desde);
+            if (i >= 0 && desde <= fin(i)) {
+                return desde;
+            }
+            return i + 1 < corridas ? inicios[i + 1] : -1;
+        }
+
+        @Override
+        void volcar(long[] palabras) {
+            for (int i = 0; i < corridas; i++) {
+                ponerRango(palabras, inicios[i], fin(i) + 1);
+            }
+        }
+
+        @Override
+        Contenedor copiar() {
+            return new Corridas(Arrays.copyOf(inicios, corridas), Arrays.copyOf(largos, corridas), corridas, n);
+        }
+    }
+}
@@ -6,12 +6,16 @@ import Cliente.Organizador;
 import eventos.Evento;
 import log.LogSistema;
 import marketPlace.OfertaMarketPlace;
+import tiquetes.AlmacenTiquetes;
 import tiquetes.Tiquete;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Set;
+import java.util.Objects;
 
 import org.json.JSONArray;
 
@@ -19,7 +23,9 @@ import org.json.JSONArray;
  * Estructura en memoria que mantiene todas las entidades cargadas del sistema.
  * <p>
  * Se encarga únicamente de almacenar el estado, delegando la lógica a servicios
- * especializados.
+ * especializados. Los índices por id de tiquete usan {@link MapaEnteros} para no
+ * empaquetar las claves; las pertenencias (tiquetes Deluxe, tiquetes en oferta) usan
+ * {@link BitmapEnteros}, que comprime los rangos densos de ids de cada evento.
  */
 public final class BoletaMasterState {
 
@@ -27,11 +33,17 @@ public final class BoletaMasterState {
     private final Map<String, Cliente> clientesPorLogin = new HashMap<>();
     private final Map<String, Organizador> organizadoresPorLogin = new HashMap<>();
     private final Map<String, Evento> eventosPorId = new HashMap<>();
-    private final Map<Integer, Tiquete> tiquetesPorId = new HashMap<>();
+    private final MapaEnteros<Tiquete> tiquetesPorId = new MapaEnteros<>();
     private final Map<String, OfertaMarketPlace> ofertasPorId = new HashMap<>();
-    private final Map<Integer, String> tiqueteEnOferta = new HashMap<>();
-    private final Set<Integer> tiquetesDeluxe = new HashSet<>();
+    private final MapaEnteros<String> tiqueteEnOferta = new MapaEnteros<>();
+    private final BitmapEnteros tiquetesEnOferta = new BitmapEnteros();
+    private final BitmapEnteros tiquetesDeluxe = new BitmapEnteros();
+    private final List<AlmacenTiquetes> almacenes = new ArrayList<>();
+    /** Los mismos almacenes, por evento, para no recorrerlos todos al buscar los de uno. */
+    private final Map<Evento, List<AlmacenTiquetes>> almacenesPorEvento = new IdentityHashMap<>();
     private final LogSistema logSistema = new LogSistema();
+    private final RegistroIdempotencia registroIdempotencia = new RegistroIdempotencia();
+    private final RegistroCambios cambios = new RegistroCambios();
     private JSONArray paquetesRaw = new JSONArray();
 
     public Administrador getAdministrador() {
@@ -54,7 +66,7 @@ public final class BoletaMasterState {
         return eventosPorId;
     }
 
-    public Map<Integer, Tiquete> getTiquetesPorId() {
+    public MapaEnteros<Tiquete> getTiquetesPorId() {
         return tiquetesPorId;
     }
 
@@ -62,18 +74,112 @@ public final class BoletaMasterState {
         return ofertasPorId;
     }
 
-    public Map<Integer, String> getTiqueteEnOferta() {
+    public MapaEnteros<String> getTiqueteEnOferta() {
         return tiqueteEnOferta;
     }
 
-    public Set<Integer> getTiquetesDeluxe() {
+    /**
+     * @return ids de los tiquetes incluidos en una oferta activa; las mismas claves de
+     *         {@link #getTiqueteEnOferta()}, sin el id de la oferta.
+     */
+    public BitmapEnteros getTiquetesEnOferta() {
+        return tiquetesEnOferta;
+    }
+
+    public BitmapEnteros getTiquetesDeluxe() {
         return tiquetesDeluxe;
     }
 
+    /**
+     * @return ids de los tiquetes del evento, registrados en él o en sus almacenes.
+     */
+    public BitmapEnteros idsDe(Evento evento) {
+        BitmapEnteros ids = new BitmapEnteros();
+        for (Tiquete tiquete : evento.verTiquetes()) {
+            ids.add(tiquete.getIdTiquete());
+        }
+        for (AlmacenTiquetes almacen : almacenesDe(evento)) {
+            for (int fila = 0; fila < almacen.getTamano(); fila++) {
+                ids.add(almacen.idEn(fila));
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * @return ids de los tiquetes Deluxe del evento.
+     */
+    public BitmapEnteros tiquetesDeluxeDe(Evento evento) {
+        return idsDe(evento).y(tiquetesDeluxe);
+    }
+
+    /**
+     * @return ids de los tiquetes del evento que están en una oferta activa.
+     */
+    public BitmapEnteros tiquetesEnOfertaDe(Evento evento) {
+        return idsDe(evento).y(tiquetesEnOferta);
+    }
+
+    /**
+     * Registra el almacén columnar de un evento masivo; sus tiquetes se encuentran con
+     * {@link #buscarTiquete(int)} sin estar en {@link #getTiquetesPorId()}.
+     */
+    public void agregarAlmacen(AlmacenTiquetes almacen) {
+        almacenes.add(Objects.requireNonNull(almacen, "almacen"));
+        almacenesPorEvento.computeIfAbsent(almacen.getEvento(), e -> new ArrayList<>(1)).add(almacen);
+    }
+
+    boolean quitarAlmacen(AlmacenTiquetes almacen) {
+        if (!almacenes.remove(almacen)) {
+            return false;
+        }
+        List<AlmacenTiquetes> delEvento = almacenesPorEvento.get(almacen.getEvento());
+        delEvento.remove(almacen);
+        if (delEvento.isEmpty()) {
+            almacenesPorEvento.remove(almacen.getEvento());
+        }
+        return true;
+    }
+
+    public List<AlmacenTiquetes> getAlmacenes() {
+        return Collections.unmodifiableList(almacenes);
+    }
+
+    /**
+     * @return vista de solo lectura de los almacenes del evento, en orden de registro.
+     */
+    public List<AlmacenTiquetes> almacenesDe(Evento evento) {
+        List<AlmacenTiquetes> delEvento = almacenesPorEvento.get(evento);
+        return delEvento == null ? List.of() : Collections.unmodifiableList(delEvento);
+    }
+
+    /**
+     * @return el tiquete con ese id, buscándolo primero en {@link #getTiquetesPorId()} y
+     *         luego en los almacenes; {@code null} si no existe.
+     */
+    public Tiquete buscarTiquete(int idTiquete) {
+        Tiquete tiquete = tiquetesPorId.get(idTiquete);
+        for (int i = 0; tiquete == null && i < almacenes.size(); i++) {
+            tiquete = almacenes.get(i).buscar(idTiquete);
+        }
+        return tiquete;
+    }
+
     public LogSistema getLogSistema() {
         return logSistema;
     }
 
+    /**
+     * @return lo que cambió desde la última {@link InstantaneaLectura} publicada sobre este estado.
+     */
+    RegistroCambios getCambios() {
+        return cambios;
+    }
+
+    RegistroIdempotencia getRegistroIdempotencia() {
+        return registroIdempotencia;
+    }
+
     public JSONArray getPaquetesRaw() {
         return paquetesRaw;
     }
@@ -90,8 +196,13 @@ public final class BoletaMasterState {
         tiquetesPorId.clear();
         ofertasPorId.clear();
         tiqueteEnOferta.clear();
+        tiquetesEnOferta.clear();
         tiquetesDeluxe.clear();
+        almacenes.clear();
+        almacenesPorEvento.clear();
         paquetesRaw = new JSONArray();
         logSistema.limpiar();
+        registroIdempotencia.restaurar(List.of());
+        cambios.descartar();
     }
 }
\ No newline at end of file
@@ -8,9 +8,11 @@ import eventos.Evento;
 import log.LogSistema;
 import marketPlace.ContraOferta;
 import marketPlace.OfertaMarketPlace;
+import tiquetes.AlmacenTiquetes;
 import tiquetes.Tiquete;
 
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
@@ -18,6 +20,10 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
  * Fachada principal del sistema BoletaMaster.
@@ -29,8 +35,24 @@ import java.time.LocalDateTime;
 public class BoletaMasterSystem {
 
     private final JsonDataStore dataStore;
-    private BoletaMasterState state;
-    private MarketplaceService marketplaceService;
+    /**
+     * Serializa las mutaciones junto con su guardado. Se usa un {@link ReentrantLock}
+     * en lugar de {@code synchronized} para no fijar hilos virtuales al bloquear en E/S
+     * (ver {@link BoletaMasterSystemAsync}).
+     */
+    private final ReentrantLock escritura = new ReentrantLock();
+    private volatile BoletaMasterState state;
+    private volatile MarketplaceService marketplaceService;
+    private volatile MotorReportesFinanzas reportesFinanzas;
+    /**
+     * Guarda el paso entre el modo directo y el de escritor único: quien encola en
+     * {@link #escritorUnico} toma la parte de lectura durante la verificación y el encolado;
+     * activar y desactivar el modo toman la de escritura, así ninguna mutación se encola en
+     * un escritor ya cerrado ni se pierde al desactivarlo.
+     */
+    private final ReentrantReadWriteLock modoEscritor = new ReentrantReadWriteLock();
+    private volatile EscritorUnico escritorUnico;
+    private final LimitadorTasa limitador = new LimitadorTasa();
     /**
      * Marca de compatibilidad para integrar flujos de impresión/etiquetado desde la GUI.
      * No participa en la lógica del dominio, pero evita errores de compilación
@@ -56,16 +78,86 @@ public class BoletaMasterSystem {
         return new BoletaMasterSystem(JsonDataStore.fromDirectory(dataDir));
     }
 
-    public synchronized void cargarDatos() {
-        state = dataStore.load();
-        marketplaceService = new MarketplaceService(state);
+    public void cargarDatos() {
+        escritura.lock();
+        try {
+            BoletaMasterState cargado = dataStore.load();
+            marketplaceService = new MarketplaceService(cargado, escritura);
+            reportesFinanzas = new MotorReportesFinanzas(cargado);
+            state = cargado;
+        } finally {
+            escritura.unlock();
+        }
     }
 
-    public synchronized void guardarDatos() {
-        if (state == null) {
-            return;
+    public void guardarDatos() {
+        escritura.lock();
+        try {
+            if (state == null) {
+                return;
+            }
+            dataStore.save(state);
+        } finally {
+            escritura.unlock();
+        }
+    }
+
+    /**
+     * Activa el modo de escritor único: desde este momento todas las mutaciones se
+     * encolan en un anillo acotado y las aplica un solo hilo, por lotes, con un único
+     * guardado por lote. La instantánea de lectura se publica una vez por lote. Los métodos siguen siendo bloqueantes para quien los invoca.
+     *
+     * @param capacidad  número máximo de mutaciones pendientes (debe ser {@code > 0}).
+     * @param tamanoLote número máximo de mutaciones por lote (debe ser {@code > 0}).
+     * @throws IllegalStateException si los datos no se han cargado o el modo ya está activo.
+     */
+    public void activarEscritorUnico(int capacidad, int tamanoLote) {
+        modoEscritor.writeLock().lock();
+        try {
+            escritura.lock();
+            try {
+                requireState();
+                if (escritorUnico != null) {
+                    throw new IllegalStateException("El modo de escritor único ya está activo");
+                }
+                escritorUnico = new EscritorUnico(capacidad, tamanoLote, escritura, this::marketplace,
+                        () -> dataStore.save(requireState()));
+            } finally {
+                escritura.unlock();
+            }
+        } finally {
+            modoEscritor.writeLock().unlock();
         }
-        dataStore.save(state);
+    }
+
+    /**
+     * Desactiva el modo de escritor único tras aplicar las mutaciones pendientes.
+     */
+    public void desactivarEscritorUnico() {
+        modoEscritor.writeLock().lock();
+        try {
+            EscritorUnico escritor = escritorUnico;
+            if (escritor == null) {
+                return;
+            }
+            escritor.close();
+            escritorUnico = null;
+        } finally {
+            modoEscritor.writeLock().unlock();
+        }
+    }
+
+    public boolean isEscritorUnicoActivo() {
+        return escritorUnico != null;
+    }
+
+    /**
+     * Control de admisión de las operaciones de los clientes en el marketplace.
+     * Sin límites configurados admite todas las solicitudes; permite configurar límites
+     * por operación y consultar quién está siendo limitado.
+     */
+    public LimitadorTasa getLimitador() {
+        return limitador;
     }
 
     public Administrador getAdministrador() {
@@ -103,35 +195,204 @@ public class BoletaMasterSystem {
         return Optional.empty();
     }
 
-    public List<Tiquete> obtenerTiquetesCliente(Cliente cliente) {
-        return cliente.verTiquetes();
+    /**
+     * Reporte de ventas e ingresos del organizador por evento y por localidad. Solo recorre los
+     * eventos que cambiaron desde su reporte anterior; sus datos se copian bajo el candado de
+     * escritura y se suman en el pool después de soltarlo.
+     *
+     * @throws SecurityException     si las credenciales son inválidas.
+     * @throws IllegalStateException si los datos no se han cargado.
+     */
+    public ReporteFinanzas consultarReporteFinanzas(String login, String password) {
+        Organizador organizador = autenticarOrganizador(login, password)
+                .orElseThrow(() -> new SecurityException("Credenciales inválidas"));
+        MotorReportesFinanzas motor;
+        MotorReportesFinanzas.Captura captura;
+        escritura.lock();
+        try {
+            motor = reportesFinanzas;
+            captura = motor.capturar(organizador);
+        } finally {
+            escritura.unlock();
+        }
+        return motor.generar(captura);
     }
 
-    public List<OfertaMarketPlace> obtenerOfertasActivas() {
+    /**
+     * Tiquetes del cliente según la última instantánea publicada.
+     * Si el cliente no pertenece a los datos cargados se retornan las vistas de su colección.
+     */
+    public List<VistaTiquete> obtenerTiquetesCliente(Cliente cliente) {
+        Objects.requireNonNull(cliente, "cliente");
+        MarketplaceService servicio = marketplaceService;
+        List<VistaTiquete> tiquetes = servicio == null ? null : servicio.lectura().getTiquetes(cliente);
+        return tiquetes != null ? tiquetes : cliente.verTiquetes().stream().map(VistaTiquete::de).toList();
+    }
+
+    /**
+     * @return las ofertas activas, por fecha de creación.
+     */
+    public List<VistaOferta> obtenerOfertasActivas() {
         return marketplace().obtenerOfertasActivas();
     }
 
-    public List<OfertaMarketPlace> obtenerOfertasPorVendedor(Cliente vendedor) {
+    public List<VistaOferta> obtenerOfertasPorVendedor(Cliente vendedor) {
         return marketplace().obtenerOfertasPorVendedor(vendedor);
     }
 
-    public List<OfertaMarketPlace> obtenerTodasLasOfertas() {
+    public List<VistaOferta> obtenerTodasLasOfertas() {
         return marketplace().obtenerTodasLasOfertas();
     }
 
-    public Optional<OfertaMarketPlace> buscarOferta(String ofertaId) {
+    /**
+     * Lista las ofertas activas por páginas, leyendo los índices ordenados de la instantánea;
+     * cada página cuesta lo mismo sin importar cuántas ofertas haya.
+     *
+     * @param cursor cursor de la página anterior, o {@code null} para empezar.
+     * @param tamano ofertas por página (debe ser {@code > 0}); se recorta a
+     *               {@link PaginaOfertas#TAMANO_MAXIMO}.
+     * @throws IllegalArgumentException si el tamaño no es positivo o el cursor no es válido.
+     */
+    public PaginaOfertas<VistaOferta> paginarOfertasActivas(OrdenOfertas orden, String cursor, int tamano) {
+        return marketplace().paginarOfertasActivas(orden, cursor, PaginaOfertas.tamanoValido(tamano));
+    }
+
+    public PaginaOfertas<VistaOferta> paginarOfertasPorVendedor(Cliente vendedor, OrdenOfertas orden,
+                                                                String cursor, int tamano) {
+        return marketplace().paginarOfertasPorVendedor(vendedor, orden, cursor, PaginaOfertas.tamanoValido(tamano));
+    }
+
+    public PaginaOfertas<VistaOferta> paginarTodasLasOfertas(OrdenOfertas orden, String cursor, int tamano) {
+        return marketplace().paginarTodasLasOfertas(orden, cursor, PaginaOfertas.tamanoValido(tamano));
+    }
+
+    public Optional<VistaOferta> buscarOferta(String ofertaId) {
         return marketplace().buscarOferta(ofertaId);
     }
 
-    public Map<OfertaMarketPlace, List<ContraOferta>> contraofertasPendientes(Cliente vendedor) {
+    /**
+     * @return las ofertas del vendedor con contraofertas pendientes, por fecha de creación,
+     *         cada una con esas contraofertas.
+     */
+    public Map<VistaOferta, List<VistaContraoferta>> contraofertasPendientes(Cliente vendedor) {
         return marketplace().contraofertasPendientes(vendedor);
     }
 
+    /**
+     * Busca eventos por nombre, venue, ubicación o tipo, sin distinguir tildes ni mayúsculas.
+     * Cada palabra de la consulta se trata como prefijo.
+     *
+     * @return hasta {@code limite} eventos, del más al menos relevante.
+     */
+    public List<VistaEvento> buscarEventos(String consulta, int limite) {
+        return lectura().buscarEventos(consulta, limite);
+    }
+
+    /**
+     * Busca ofertas activas por los datos de sus eventos, localidades, vendedor o id.
+     *
+     * @return hasta {@code limite} ofertas, de la más a la menos relevante (y de menor precio por tiquete ante empate).
+     */
+    public List<VistaOferta> buscarOfertas(String consulta, int limite) {
+        return lectura().buscarOfertas(consulta, limite);
+    }
+
+    /**
+     * Consulta eventos combinando filtros por fecha, tipo, venue, estado, organizador y
+     * precio de las localidades. Usa el índice más selectivo de los filtros fijados.
+     *
+     * @return los eventos que cumplen la consulta, en orden cronológico.
+     */
+    public List<VistaEvento> consultarEventos(ConsultaEventos consulta) {
+        return lectura().consultarEventos(consulta);
+    }
+
+    public Optional<VistaEvento> buscarEventoPorId(String eventoId) {
+        return Optional.ofNullable(lectura().getEvento(eventoId));
+    }
+
+    /**
+     * Cambia el estado de un evento (p. ej. {@code "CANCELADO"}) y lo guarda; las consultas lo
+     * reflejan junto con los tiquetes y las ofertas activas que lo muestran.
+     *
+     * @throws IllegalArgumentException si el evento no existe.
+     */
+    public void cambiarEstadoEvento(String eventoId, String estado) {
+        Objects.requireNonNull(estado, "estado");
+        ejecutarYGuardar(() -> marketplace().enPuntoDeGuardado(unidad -> {
+            BoletaMasterState actual = requireState();
+            Evento evento = actual.getEventosPorId().get(eventoId);
+            if (evento == null) {
+                throw new IllegalArgumentException("Evento no encontrado: " + eventoId);
+            }
+            String previo = evento.getEstado();
+            evento.setEstado(estado);
+            unidad.alDeshacer(() -> evento.setEstado(previo));
+            marcarEvento(actual, evento);
+            return null;
+        }));
+    }
+
+    /**
+     * Marca el evento, los dueños de sus tiquetes y sus ofertas activas para la siguiente
+     * instantánea de lectura.
+     */
+    private void marcarEvento(BoletaMasterState actual, Evento evento) {
+        RegistroCambios cambios = actual.getCambios();
+        cambios.marcarEvento(evento);
+        for (Tiquete tiquete : evento.verTiquetes()) {
+            cambios.marcarCliente(tiquete.getCliente());
+        }
+        marketplace().marcarOfertasDe(evento.getIdEvento());
+    }
+
+    /**
+     * Contraoferta pendiente de mayor monto sobre una oferta, precalculada en su vista.
+     */
+    public Optional<VistaContraoferta> mejorContraofertaPendiente(String ofertaId) {
+        return buscarOferta(ofertaId).flatMap(VistaOferta::mejorContraofertaPendiente);
+    }
+
+    /**
+     * Oferta activa más barata por tiquete de un evento; con {@code localidad} se limita a esa localidad.
+     */
+    public Optional<VistaOferta> mejorOfertaEvento(String eventoId, String localidad) {
+        return marketplace().mejorOfertaEvento(eventoId, localidad);
+    }
+
+    /**
+     * @throws IllegalArgumentException si {@code cantidad} es negativa.
+     */
+    public List<VistaOferta> mejoresOfertasEvento(String eventoId, String localidad, int cantidad) {
+        return marketplace().mejoresOfertasEvento(eventoId, localidad, cantidad);
+    }
+
+    /**
+     * @throws IllegalArgumentException si {@code minimo} supera a {@code maximo}.
+     */
+    public List<VistaOferta> ofertasEventoEnRango(String eventoId, String localidad,
+                                                  double minimo, double maximo) {
+        return marketplace().ofertasEventoEnRango(eventoId, localidad, minimo, maximo);
+    }
+
     public OfertaMarketPlace publicarOferta(Cliente vendedor, List<Integer> tiquetesIds, double precioInicial) {
+        admitir(OperacionMarketplace.PUBLICAR_OFERTA, vendedor);
     	 return ejecutarYGuardar(() -> marketplace().publicarOferta(vendedor, tiquetesIds, precioInicial));
     }
 
+    /**
+     * Publica una oferta con una clave de idempotencia: un reintento con la misma clave
+     * retorna la oferta original sin volver a publicarla ni a guardar.
+     */
+    public OfertaMarketPlace publicarOferta(Cliente vendedor, List<Integer> tiquetesIds, double precioInicial,
+                                            String claveIdempotencia) {
+        admitir(OperacionMarketplace.PUBLICAR_OFERTA, vendedor, claveIdempotencia);
+        return ejecutarYGuardar(() -> marketplace().publicarOferta(vendedor, tiquetesIds, precioInicial,
+                claveIdempotencia));
+    }
+
     public void cancelarOfertaPorVendedor(Cliente vendedor, String ofertaId) {
+        admitir(OperacionMarketplace.CANCELAR_OFERTA, vendedor);
     	ejecutarYGuardar(() -> marketplace().cancelarOfertaPorVendedor(vendedor, ofertaId));
     }
 
@@ -140,36 +401,154 @@ public class BoletaMasterSystem {
     }
 
     public ContraOferta crearContraoferta(Cliente comprador, String ofertaId, double monto) {
+        admitir(OperacionMarketplace.CREAR_CONTRAOFERTA, comprador);
         return ejecutarYGuardar(() -> marketplace().crearContraoferta(comprador, ofertaId, monto));
     }
 
+    /**
+     * Crea una contraoferta con una clave de idempotencia: un reintento con la misma clave
+     * retorna la contraoferta original en lugar de duplicarla.
+     */
+    public ContraOferta crearContraoferta(Cliente comprador, String ofertaId, double monto,
+                                          String claveIdempotencia) {
+        admitir(OperacionMarketplace.CREAR_CONTRAOFERTA, comprador, claveIdempotencia);
+        return ejecutarYGuardar(() -> marketplace().crearContraoferta(comprador, ofertaId, monto,
+                claveIdempotencia));
+    }
+
     public void rechazarContraoferta(Cliente vendedor, String ofertaId, String contraofertaId) {
+        admitir(OperacionMarketplace.RECHAZAR_CONTRAOFERTA, vendedor);
     	ejecutarYGuardar(() -> marketplace().rechazarContraoferta(vendedor, ofertaId, contraofertaId));
     }
 
     public void aceptarContraoferta(Cliente vendedor, String ofertaId, String contraofertaId) {
+        admitir(OperacionMarketplace.ACEPTAR_CONTRAOFERTA, vendedor);
     	ejecutarYGuardar(() -> marketplace().aceptarContraoferta(vendedor, ofertaId, contraofertaId));
     }
 
+    /**
+     * Acepta una contraoferta con una clave de idempotencia: un reintento con la misma
+     * clave termina sin error y sin repetir la venta.
+     */
+    public void aceptarContraoferta(Cliente vendedor, String ofertaId, String contraofertaId,
+                                    String claveIdempotencia) {
+        admitir(OperacionMarketplace.ACEPTAR_CONTRAOFERTA, vendedor, claveIdempotencia);
+        ejecutarYGuardar(() -> marketplace().aceptarContraoferta(vendedor, ofertaId, contraofertaId,
+                claveIdempotencia));
+    }
+
     public void comprarOferta(Cliente comprador, String ofertaId) {
+        admitir(OperacionMarketplace.COMPRAR_OFERTA, comprador);
     	ejecutarYGuardar(() -> marketplace().comprarOferta(comprador, ofertaId));
     }
 
+    /**
+     * Compra una oferta con una clave de idempotencia: un reintento con la misma clave
+     * termina sin error, sin volver a cobrar y sin volver a guardar.
+     */
+    public void comprarOferta(Cliente comprador, String ofertaId, String claveIdempotencia) {
+        admitir(OperacionMarketplace.COMPRAR_OFERTA, comprador, claveIdempotencia);
+        ejecutarYGuardar(() -> marketplace().comprarOferta(comprador, ofertaId, claveIdempotencia));
+    }
+
+    /**
+     * Ajusta cuántas claves de idempotencia se recuerdan y durante cuánto tiempo.
+     *
+     * @param capacidad número máximo de claves recordadas (debe ser {@code > 0}).
+     * @param vigencia  tiempo durante el cual una clave sigue siendo válida (debe ser positivo).
+     * @throws IllegalArgumentException si algún límite no es positivo.
+     * @throws IllegalStateException    si los datos no se han cargado.
+     */
+    public void configurarIdempotencia(int capacidad, Duration vigencia) {
+        escritura.lock();
+        try {
+            requireState().getRegistroIdempotencia().configurar(capacidad, vigencia);
+        } finally {
+            escritura.unlock();
+        }
+    }
+
     public LogSistema getLogSistema() {
         return requireState().getLogSistema();
     }
 
-    public Collection<Evento> getEventosOrganizador(Organizador organizador) {
+    public Collection<VistaEvento> getEventosOrganizador(Organizador organizador) {
         if (organizador == null) {
             return Collections.emptyList();
         }
-        return organizador.getEventos();
+        List<VistaEvento> eventos = lectura().getEventosOrganizador(organizador);
+        return eventos != null ? eventos : organizador.getEventos().stream().map(VistaEvento::de).toList();
+    }
+
+    /**
+     * @return los eventos cargados, por id.
+     */
+    public List<VistaEvento> obtenerEventos() {
+        return lectura().getEventos();
     }
     
-    public void marcarTiqueteImpreso(Tiquete tiquete, LocalDateTime fechaImpresion) {
+    /**
+     * Registra el almacén columnar de un evento masivo y lo guarda con el resto del estado:
+     * los almacenes persistentes se sincronizan en su archivo y los que viven en memoria se
+     * copian junto a los datos, de modo que {@link #cargarDatos()} los recupera.
+     *
+     * @throws IllegalArgumentException si el evento del almacén no es un evento cargado o el
+     *                                  almacén ya estaba registrado.
+     */
+    public void registrarAlmacen(AlmacenTiquetes almacen) {
+        Objects.requireNonNull(almacen, "almacen");
+        ejecutarYGuardar(() -> marketplace().enPuntoDeGuardado(unidad -> {
+            BoletaMasterState actual = requireState();
+            if (actual.getEventosPorId().get(almacen.getEvento().getIdEvento()) != almacen.getEvento()) {
+                throw new IllegalArgumentException("El evento del almacén no está registrado");
+            }
+            if (actual.getAlmacenes().contains(almacen)) {
+                throw new IllegalArgumentException("El almacén ya está registrado");
+            }
+            actual.agregarAlmacen(almacen);
+            actual.getCambios().marcarEvento(almacen.getEvento());
+            unidad.alDeshacer(() -> actual.quitarAlmacen(almacen));
+            return null;
+        }));
+    }
+
+    /**
+     * Marca como impreso un tiquete del cliente, buscándolo por id en el estado cargado.
+     *
+     * @throws IllegalArgumentException si el tiquete no existe o no pertenece al cliente.
+     */
+    public void marcarTiqueteImpreso(Cliente cliente, int idTiquete, LocalDateTime fechaImpresion) {
+        Objects.requireNonNull(cliente, "cliente");
         ejecutarYGuardar(() -> {
+            Tiquete tiquete = requireState().buscarTiquete(idTiquete);
+            if (tiquete == null || tiquete.getCliente() != cliente) {
+                throw new IllegalArgumentException("El tiquete " + idTiquete + " no pertenece al cliente");
+            }
+            imprimir(tiquete, fechaImpresion);
+        });
+    }
+
+    public void marcarTiqueteImpreso(Tiquete tiquete, LocalDateTime fechaImpresion) {
+        ejecutarYGuardar(() -> imprimir(tiquete, fechaImpresion));
+    }
+
+    private void imprimir(Tiquete tiquete, LocalDateTime fechaImpresion) {
+        marketplace().enPuntoDeGuardado(unidad -> {
+            BoletaMasterState actual = requireState();
+            actual.getCambios().marcarCliente(tiquete.getCliente());
+            OfertaMarketPlace oferta = actual.getOfertasPorId().get(actual.getTiqueteEnOferta().get(tiquete.getIdTiquete()));
+            if (oferta != null) {
+                actual.getCambios().marcarOferta(oferta);
+            }
+            LocalDateTime fechaPrevia = tiquete.getFechaImpresion();
+            boolean impresoPrevio = tiquete.isImpreso();
             tiquete.setFechaImpresion(fechaImpresion);
             tiquete.marcarImpreso();
+            unidad.alDeshacer(() -> {
+                tiquete.setFechaImpresion(fechaPrevia);
+                tiquete.setImpreso(impresoPrevio);
+            });
+            return null;
         });
     }
 
@@ -189,13 +568,71 @@ public class BoletaMasterSystem {
         return state;
     }
     private void ejecutarYGuardar(Runnable accion) {
-        Objects.requireNonNull(accion, "accion").run();
-        guardarDatos();
+        Objects.requireNonNull(accion, "accion");
+        ejecutarYGuardar(() -> {
+            accion.run();
+            return null;
+        });
     }
 
     private <T> T ejecutarYGuardar(Supplier<T> accion) {
-        T resultado = Objects.requireNonNull(accion, "accion").get();
-        guardarDatos();
-        return resultado;
+        Objects.requireNonNull(accion, "accion");
+        CompletableFuture<T> encolada = null;
+        modoEscritor.readLock().lock();
+        try {
+            EscritorUnico escritor = escritorUnico;
+            if (escritor != null) {
+                encolada = escritor.enviar(accion);
+            }
+        } finally {
+            modoEscritor.readLock().unlock();
+        }
+        if (encolada != null) {
+            return esperar(encolada);
+        }
+        escritura.lock();
+        try {
+            return marketplace().enTransaccion(accion, () -> dataStore.save(requireState()));
+        } finally {
+            escritura.unlock();
+        }
+    }
+
+    private void admitir(OperacionMarketplace operacion, Cliente cliente) {
+        limitador.admitir(operacion, cliente == null ? null : cliente.getLogin());
+    }
+
+    /**
+     * Como {@link #admitir(OperacionMarketplace, Cliente)}, pero el reintento de una solicitud
+     * ya completada con la misma clave de idempotencia no consume fichas: no repite trabajo.
+     */
+    private void admitir(OperacionMarketplace operacion, Cliente cliente, String claveIdempotencia) {
+        if (!marketplace().esReintento(operacion, cliente, claveIdempotencia)) {
+            admitir(operacion, cliente);
+        }
+    }
+
+    /**
+     * Última instantánea publicada por el servicio del marketplace; todas las consultas leen
+     * de aquí sin tomar el candado.
+     */
+    private InstantaneaLectura lectura() {
+        requireState();
+        return marketplace().lectura();
+    }
+
+    private static <T> T esperar(CompletableFuture<T> futuro) {
+        try {
+            return futuro.join();
+        } catch (CompletionException e) {
+            Throwable causa = e.getCause();
+            if (causa instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (causa instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,211 @@
+package manager;
+
+import Cliente.Administrador;
+import Cliente.Cliente;
+import marketPlace.ContraOferta;
+import marketPlace.OfertaMarketPlace;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+/**
+ * Fachada asíncrona sobre {@link BoletaMasterSystem}.
+ * <p>
+ * Cada operación se ejecuta en un hilo virtual y retorna un {@link CompletableFuture},
+ * de modo que la GUI o la consola no quedan bloqueadas mientras se persiste. Las
+ * operaciones de escritura y de consulta tienen límites de concurrencia independientes:
+ * las tareas que excedan el límite esperan (sin ocupar un hilo de plataforma) hasta
+ * que se libere un permiso.
+ * <p>
+ * Las reglas de negocio y la serialización de las escrituras siguen a cargo del
+ * sistema envuelto; esta clase solo agrega la planificación.
+ */
+public final class BoletaMasterSystemAsync implements AutoCloseable {
+
+    public static final int MAX_ESCRITURAS_POR_DEFECTO = 64;
+    public static final int MAX_CONSULTAS_POR_DEFECTO = 1024;
+
+    private final BoletaMasterSystem sistema;
+    private final ExecutorService ejecutor;
+    private final Semaphore permisosEscritura;
+    private final Semaphore permisosConsulta;
+
+    public BoletaMasterSystemAsync(BoletaMasterSystem sistema) {
+        this(sistema, MAX_ESCRITURAS_POR_DEFECTO, MAX_CONSULTAS_POR_DEFECTO);
+    }
+
+    /**
+     * Crea la fachada con límites de concurrencia explícitos.
+     *
+     * @param sistema       sistema a envolver (obligatorio y con datos cargados).
+     * @param maxEscrituras número máximo de operaciones de escritura en curso (debe ser {@code > 0}).
+     * @param maxConsultas  número máximo de consultas en curso (debe ser {@code > 0}).
+     * @throws NullPointerException     si {@code sistema} es {@code null}.
+     * @throws IllegalArgumentException si algún límite no es positivo.
+     */
+    public BoletaMasterSystemAsync(BoletaMasterSystem sistema, int maxEscrituras, int maxConsultas) {
+        this.sistema = Objects.requireNonNull(sistema, "sistema");
+        if (maxEscrituras <= 0 || maxConsultas <= 0) {
+            throw new IllegalArgumentException("Los límites de concurrencia deben ser positivos");
+        }
+        this.permisosEscritura = new Semaphore(maxEscrituras, true);
+        this.permisosConsulta = new Semaphore(maxConsultas);
+        this.ejecutor = Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name("boletamaster-async-", 0).factory());
+    }
+
+    public BoletaMasterSystem getSistema() {
+        return sistema;
+    }
+
+    public CompletableFuture<OfertaMarketPlace> publicarOferta(Cliente vendedor, List<Integer> tiquetesIds,
+                                                             double precioInicial) {
+        return escribir(() -> sistema.publicarOferta(vendedor, tiquetesIds, precioInicial));
+    }
+
+    public CompletableFuture<Void> cancelarOfertaPorVendedor(Cliente vendedor, String ofertaId) {
+        return escribir(() -> {
+            sistema.cancelarOfertaPorVendedor(vendedor, ofertaId);
+            return null;
+        });
+    }
+
+    public CompletableFuture<Void> cancelarOfertaPorAdministrador(Administrador admin, String ofertaId) {
+        return escribir(() -> {
+            sistema.cancelarOfertaPorAdministrador(admin, ofertaId);
+            return null;
+        });
+    }
+
+    public CompletableFuture<ContraOferta> crearContraoferta(Cliente comprador, String ofertaId, double monto) {
+        return escribir(() -> sistema.crearContraoferta(comprador, ofertaId, monto));
+    }
+
+    public CompletableFuture<ContraOferta> crearContraoferta(Cliente comprador, String ofertaId, double monto,
+                                                           String claveIdempotencia) {
+        return escribir(() -> sistema.crearContraoferta(comprador, ofertaId, monto, claveIdempotencia));
+    }
+
+    public CompletableFuture<Void> rechazarContraoferta(Cliente vendedor, String ofertaId, String contraofertaId) {
+        return escribir(() -> {
+            sistema.rechazarContraoferta(vendedor, ofertaId, contraofertaId);
+            return null;
+        });
+    }
+
+    public CompletableFuture<Void> aceptarContraoferta(Cliente vendedor, String ofertaId, String contraofertaId) {
+        return escribir(() -> {
+            sistema.aceptarContraoferta(vendedor, ofertaId, contraofertaId);
+            return null;
+        });
+    }
+
+    public CompletableFuture<Void> comprarOferta(Cliente comprador, String ofertaId) {
+        return escribir(() -> {
+            sistema.comprarOferta(comprador, ofertaId);
+            return null;
+        });
+    }
+
+    public CompletableFuture<Void> comprarOferta(Cliente comprador, String ofertaId, String claveIdempotencia) {
+        return escribir(() -> {
+            sistema.comprarOferta(comprador, ofertaId, claveIdempotencia);
+            return null;
+        });
+    }
+
+    public CompletableFuture<List<VistaOferta>> obtenerOfertasActivas() {
+        return consultar(sistema::obtenerOfertasActivas);
+    }
+
+    public CompletableFuture<List<VistaOferta>> obtenerOfertasPorVendedor(Cliente vendedor) {
+        return consultar(() -> sistema.obtenerOfertasPorVendedor(vendedor));
+    }
+
+    public CompletableFuture<List<VistaOferta>> obtenerTodasLasOfertas() {
+        return consultar(sistema::obtenerTodasLasOfertas);
+    }
+
+    public CompletableFuture<PaginaOfertas<VistaOferta>> paginarOfertasActivas(OrdenOfertas orden, String cursor, int tamano) {
+        return consultar(() -> sistema.paginarOfertasActivas(orden, cursor, tamano));
+    }
+
+    public CompletableFuture<PaginaOfertas<VistaOferta>> paginarOfertasPorVendedor(Cliente vendedor,
+                                                                                   OrdenOfertas orden, String cursor, int tamano) {
+        return consultar(() -> sistema.paginarOfertasPorVendedor(vendedor, orden, cursor, tamano));
+    }
+
+    public CompletableFuture<PaginaOfertas<VistaOferta>> paginarTodasLasOfertas(OrdenOfertas orden, String cursor, int tamano) {
+        return consultar(() -> sistema.paginarTodasLasOfertas(orden, cursor, tamano));
+    }
+
+    public CompletableFuture<Optional<VistaOferta>> buscarOferta(String ofertaId) {
+        return consultar(() -> sistema.buscarOferta(ofertaId));
+    }
+
+    public CompletableFuture<Map<VistaOferta, List<VistaContraoferta>>> contraofertasPendientes(Cliente vendedor) {
+        return consultar(() -> sistema.contraofertasPendientes(vendedor));
+    }
+
+    public CompletableFuture<List<VistaTiquete>> obtenerTiquetesCliente(Cliente cliente) {
+        return consultar(() -> sistema.obtenerTiquetesCliente(cliente));
+    }
+
+    /**
+     * Número de escrituras que pueden iniciarse sin esperar en este momento.
+     *
+     * @return permisos de escritura disponibles.
+     */
+    public int escriturasDisponibles() {
+        return permisosEscritura.availablePermits();
+    }
+
+    /**
+     * Número de consultas que pueden iniciarse sin esperar en este momento.
+     *
+     * @return permisos de consulta disponibles.
+     */
+    public int consultasDisponibles() {
+        return permisosConsulta.availablePermits();
+    }
+
+    /**
+     * Deja de aceptar operaciones y espera a que terminen las que están en curso.
+     */
+    @Override
+    public void close() {
+        ejecutor.close();
+    }
+
+    private <T> CompletableFuture<T> escribir(Supplier<T> operacion) {
+        return ejecutar(permisosEscritura, operacion);
+    }
+
+    private <T> CompletableFuture<T> consultar(Supplier<T> operacion) {
+        return ejecutar(permisosConsulta, operacion);
+    }
+
+    private <T> CompletableFuture<T> ejecutar(Semaphore permisos, Supplier<T> operacion) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                permisos.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CompletionException(e);
+            }
+            try {
+                return operacion.get();
+            } finally {
+                permisos.release();
+            }
+        }, ejecutor);
+    }
+}
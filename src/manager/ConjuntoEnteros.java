@@ -0,0 +1,197 @@
+package manager;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Conjunto de {@code int} con direccionamiento abierto; compañero de {@link MapaEnteros}.
+ * <p>
+ * Guarda las claves en un {@code int[]} y marca las celdas ocupadas en un mapa de bits,
+ * así que cada elemento ocupa poco más de cuatro bytes y {@link #contains(int)} /
+ * {@link #add(int)} no empaquetan la clave. Implementa {@code Set<Integer>} para los
+ * usos genéricos. Los iteradores fallan rápido y no admiten {@code remove}. No es seguro
+ * para hilos.
+ */
+public final class ConjuntoEnteros extends AbstractSet<Integer> {
+
+    private int[] claves;
+    private long[] ocupadas;
+    private int tamano;
+    private int umbral;
+    private int modificaciones;
+
+    public ConjuntoEnteros() {
+        this(0);
+    }
+
+    /**
+     * @param esperados número de elementos que se espera guardar sin redimensionar.
+     */
+    public ConjuntoEnteros(int esperados) {
+        if (esperados < 0) {
+            throw new IllegalArgumentException("La capacidad no puede ser negativa");
+        }
+        asignar(MapaEnteros.capacidadPara(esperados));
+    }
+
+    @Override
+    public int size() {
+        return tamano;
+    }
+
+    public boolean contains(int clave) {
+        return buscar(clave) >= 0;
+    }
+
+    @Override
+    public boolean contains(Object clave) {
+        return clave instanceof Integer entero && contains(entero.intValue());
+    }
+
+    /**
+     * @return {@code true} si la clave no estaba.
+     */
+    public boolean add(int clave) {
+        int mascara = claves.length - 1;
+        int celda = MapaEnteros.dispersar(clave) & mascara;
+        while (ocupada(celda)) {
+            if (claves[celda] == clave) {
+                return false;
+            }
+            celda = (celda + 1) & mascara;
+        }
+        claves[celda] = clave;
+        marcar(celda);
+        modificaciones++;
+        if (++tamano > umbral) {
+            redimensionar(claves.length << 1);
+        }
+        return true;
+    }
+
+    @Override
+    public boolean add(Integer clave) {
+        return add(clave.intValue());
+    }
+
+    /**
+     * @return {@code true} si la clave estaba.
+     */
+    public boolean remove(int clave) {
+        int libre = buscar(clave);
+        if (libre < 0) {
+            return false;
+        }
+        int mascara = claves.length - 1;
+        int actual = libre;
+        while (true) {
+            actual = (actual + 1) & mascara;
+            if (!ocupada(actual)) {
+                break;
+            }
+            int ideal = MapaEnteros.dispersar(claves[actual]) & mascara;
+            if (((actual - ideal) & mascara) >= ((actual - libre) & mascara)) {
+                claves[libre] = claves[actual];
+                libre = actual;
+            }
+        }
+        ocupadas[libre >>> 6] &= ~(1L << libre);
+        tamano--;
+        modificaciones++;
+        return true;
+    }
+
+    @Override
+    public boolean remove(Object clave) {
+        return clave instanceof Integer entero && remove(entero.intValue());
+    }
+
+    @Override
+    public void clear() {
+        if (tamano == 0) {
+            return;
+        }
+        Arrays.fill(ocupadas, 0L);
+        tamano = 0;
+        modificaciones++;
+    }
+
+    @Override
+    public Iterator<Integer> iterator() {
+        return new Iterator<>() {
+            private final int esperadas = modificaciones;
+            private int siguiente = avanzar(0);
+
+            private int avanzar(int desde) {
+                while (desde < claves.length && !ocupada(desde)) {
+                    desde++;
+                }
+                return desde;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return siguiente < claves.length;
+            }
+
+            @Override
+            public Integer next() {
+                if (modificaciones != esperadas) {
+                    throw new ConcurrentModificationException();
+                }
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                int clave = claves[siguiente];
+                siguiente = avanzar(siguiente + 1);
+                return clave;
+            }
+        };
+    }
+
+    private int buscar(int clave) {
+        int mascara = claves.length - 1;
+        int celda = MapaEnteros.dispersar(clave) & mascara;
+        while (ocupada(celda)) {
+            if (claves[celda] == clave) {
+                return celda;
+            }
+            celda = (celda + 1) & mascara;
+        }
+        return -1;
+    }
+
+    private void redimensionar(int capacidad) {
+        int[] clavesPrevias = claves;
+        long[] ocupadasPrevias = ocupadas;
+        asignar(capacidad);
+        int mascara = capacidad - 1;
+        for (int i = 0; i < clavesPrevias.length; i++) {
+            if ((ocupadasPrevias[i >>> 6] & (1L << i)) != 0) {
+                int celda = MapaEnteros.dispersar(clavesPrevias[i]) & mascara;
+                while (ocupada(celda)) {
+                    celda = (celda + 1) & mascara;
+                }
+                claves[celda] = clavesPrevias[i];
+                marcar(celda);
+            }
+        }
+    }
+
+    private void asignar(int capacidad) {
+        claves = new int[capacidad];
+        ocupadas = new long[(capacidad + 63) >>> 6];
+        umbral = (int) (capacidad * 0.75);
+    }
+
+    private boolean ocupada(int celda) {
+        return (ocupadas[celda >>> 6] & (1L << celda)) != 0;
+    }
+
+    private void marcar(int celda) {
+        ocupadas[celda >>> 6] |= 1L << celda;
+    }
+}
@@ -0,0 +1,97 @@
+package manager;
+
+import eventos.TipoEvento;
+
+import java.time.LocalDate;
+import java.util.Locale;
+
+/**
+ * Filtros combinables para consultar eventos con {@link BoletaMasterSystem#consultarEventos(ConsultaEventos)}.
+ * <p>
+ * Cada método fija un filtro y retorna la misma consulta, para encadenarlos; un evento
+ * debe cumplir todos los filtros fijados. Los filtros sin fijar no restringen.
+ * <pre>
+ * new ConsultaEventos().tipo(TipoEvento.CONCIERTO).entre(inicio, fin).precioEntre(0, 100_000)
+ * </pre>
+ */
+public final class ConsultaEventos {
+
+    LocalDate desde;
+    LocalDate hasta;
+    TipoEvento tipo;
+    String idVenue;
+    String estado;
+    String organizador;
+    Double precioMinimo;
+    Double precioMaximo;
+    int limite = Integer.MAX_VALUE;
+
+    /**
+     * Eventos con fecha entre {@code desde} y {@code hasta}, ambas incluidas; cualquiera puede ser {@code null}.
+     *
+     * @throws IllegalArgumentException si {@code desde} es posterior a {@code hasta}.
+     */
+    public ConsultaEventos entre(LocalDate desde, LocalDate hasta) {
+        if (desde != null && hasta != null && desde.isAfter(hasta)) {
+            throw new IllegalArgumentException("La fecha inicial no puede ser posterior a la final");
+        }
+        this.desde = desde;
+        this.hasta = hasta;
+        return this;
+    }
+
+    public ConsultaEventos tipo(TipoEvento tipo) {
+        this.tipo = tipo;
+        return this;
+    }
+
+    public ConsultaEventos venue(String idVenue) {
+        this.idVenue = idVenue;
+        return this;
+    }
+
+    /**
+     * Estado del evento (p. ej. "PROGRAMADO"), sin distinguir mayúsculas.
+     */
+    public ConsultaEventos estado(String estado) {
+        this.estado = normalizarEstado(estado);
+        return this;
+    }
+
+    /**
+     * @param loginOrganizador login del organizador del evento.
+     */
+    public ConsultaEventos organizador(String loginOrganizador) {
+        this.organizador = loginOrganizador;
+        return this;
+    }
+
+    /**
+     * Eventos con al menos una localidad cuyo precio base está en el rango (ambos incluidos).
+     *
+     * @throws IllegalArgumentException si {@code minimo} supera a {@code maximo}.
+     */
+    public ConsultaEventos precioEntre(double minimo, double maximo) {
+        if (minimo > maximo) {
+            throw new IllegalArgumentException("El precio mínimo no puede superar al máximo");
+        }
+        this.precioMinimo = minimo;
+        this.precioMaximo = maximo;
+        return this;
+    }
+
+    /**
+     * @param limite número máximo de eventos a retornar (debe ser {@code > 0}).
+     */
+    public ConsultaEventos limite(int limite) {
+        if (limite <= 0) {
+            throw new IllegalArgumentException("El límite debe ser positivo");
+        }
+        this.limite = limite;
+        return this;
+    }
+
+    static String normalizarEstado(String estado) {
+        return estado == null ? null : estado.trim().toUpperCase(Locale.ROOT);
+    }
+}
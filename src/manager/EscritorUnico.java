@@ -0,0 +1,195 @@
+package manager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Bucle de un único escritor para las mutaciones de {@link BoletaMasterState}.
+ * <p>
+ * Las mutaciones se encolan como comandos en un anillo acotado
+ * ({@link ArrayBlockingQueue}, respaldado por un arreglo circular); cuando está lleno,
+ * quien envía espera, lo que aplica contrapresión en picos de demanda. Un solo hilo
+ * toma los comandos por lotes, los aplica en orden, persiste a lo sumo una vez por lote y
+ * solo entonces completa los futuros de los comandos exitosos. Al cerrar la transacción
+ * del lote, todavía con el candado de escritura tomado, el servicio publica la instantánea
+ * de lectura con el nuevo estado.
+ * <p>
+ * Cada lote es una transacción del {@link MarketplaceService}: un comando que falla
+ * revierte solo sus propios efectos, y si el guardado del lote falla se revierten los
+ * efectos de todos sus comandos.
+ */
+final class EscritorUnico implements AutoCloseable {
+
+    private static final Comando<Void> FIN = new Comando<>(() -> null);
+
+    private final ArrayBlockingQueue<Comando<?>> anillo;
+    private final int tamanoLote;
+    private final ReentrantLock escritura;
+    private final Supplier<MarketplaceService> marketplace;
+    private final Runnable persistir;
+    private final Thread hilo;
+    private volatile boolean abierto = true;
+
+    /**
+     * @param capacidad  número máximo de comandos pendientes (debe ser {@code > 0}).
+     * @param tamanoLote número máximo de comandos aplicados por lote (debe ser {@code > 0}).
+     * @param escritura  candado que protege el estado durante la aplicación y el guardado.
+     * @param marketplace servicio que provee la transacción de cada lote.
+     * @param persistir  acción que hace durable el estado tras un lote.
+     */
+    EscritorUnico(int capacidad, int tamanoLote, ReentrantLock escritura,
+                  Supplier<MarketplaceService> marketplace, Runnable persistir) {
+        if (capacidad <= 0 || tamanoLote <= 0) {
+            throw new IllegalArgumentException("La capacidad y el tamaño de lote deben ser positivos");
+        }
+        this.anillo = new ArrayBlockingQueue<>(capacidad);
+        this.tamanoLote = tamanoLote;
+        this.escritura = Objects.requireNonNull(escritura, "escritura");
+        this.marketplace = Objects.requireNonNull(marketplace, "marketplace");
+        this.persistir = Objects.requireNonNull(persistir, "persistir");
+        this.hilo = Thread.ofPlatform().daemon().name("boletamaster-escritor").start(this::bucle);
+    }
+
+    /**
+     * Encola una mutación. Bloquea mientras el anillo esté lleno.
+     * <p>
+     * No debe correr a la vez que {@link #close()}: un comando encolado después del
+     * centinela no se aplicaría ni se completaría. {@link BoletaMasterSystem} serializa
+     * ambos con su candado de modo.
+     *
+     * @param mutacion mutación a aplicar en el hilo escritor.
+     * @return futuro que se completa cuando la mutación quedó aplicada y persistida.
+     * @throws IllegalStateException si el escritor ya fue cerrado.
+     */
+    <T> CompletableFuture<T> enviar(Supplier<T> mutacion) {
+        Comando<T> comando = new Comando<>(Objects.requireNonNull(mutacion, "mutacion"));
+        if (!abierto) {
+            throw new IllegalStateException("El escritor único fue detenido");
+        }
+        try {
+            anillo.put(comando);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrumpido al encolar la operación", e);
+        }
+        return comando.resultado;
+    }
+
+    int pendientes() {
+        return anillo.size();
+    }
+
+    /**
+     * Deja de aceptar comandos, aplica los que quedaban encolados y detiene el hilo escritor.
+     * Ver {@link #enviar(Supplier)} sobre la concurrencia con los envíos.
+     * <p>
+     * El hilo se detiene con un comando centinela y no con una interrupción, para no
+     * abortar una escritura de archivos en curso.
+     */
+    @Override
+    public void close() {
+        if (!abierto) {
+            return;
+        }
+        abierto = false;
+        try {
+            anillo.put(FIN);
+            hilo.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<Comando<?>> tardios = new ArrayList<>();
+        anillo.drainTo(tardios);
+        for (Comando<?> comando : tardios) {
+            comando.resultado.completeExceptionally(new IllegalStateException("El escritor único fue detenido"));
+        }
+    }
+
+    private void bucle() {
+        List<Comando<?>> lote = new ArrayList<>(tamanoLote);
+        boolean fin = false;
+        while (!fin) {
+            try {
+                lote.add(anillo.take());
+            } catch (InterruptedException e) {
+                continue;
+            }
+            anillo.drainTo(lote, tamanoLote - lote.size());
+            fin = lote.remove(FIN);
+            if (!lote.isEmpty()) {
+                aplicar(lote);
+                lote.clear();
+            }
+        }
+    }
+
+    /**
+     * Aplica el lote y completa los futuros de todos sus comandos. Cualquier fallo, incluido
+     * un {@link Error} del guardado o de la publicación, falla los comandos que no habían
+     * fallado por sí mismos en lugar de detener el hilo escritor.
+     */
+    private void aplicar(List<Comando<?>> lote) {
+        Throwable fallo = null;
+        escritura.lock();
+        try {
+            MarketplaceService servicio = marketplace.get();
+            UnidadDeTrabajo unidad = servicio.abrirTransaccion();
+            try {
+                for (Comando<?> comando : lote) {
+                    comando.ejecutar(servicio);
+                }
+                if (unidad.marca() > 0) {
+                    persistir.run();
+                }
+                unidad.confirmar();
+            } catch (Throwable e) {
+                unidad.deshacer();
+                throw e;
+            } finally {
+                servicio.cerrarTransaccion();
+            }
+        } catch (Throwable e) {
+            fallo = e;
+        } finally {
+            escritura.unlock();
+        }
+        for (Comando<?> comando : lote) {
+            comando.confirmar(fallo);
+        }
+    }
+
+    private static final class Comando<T> {
+        private final Supplier<T> mutacion;
+        private final CompletableFuture<T> resultado = new CompletableFuture<>();
+        private T valor;
+
+        private Comando(Supplier<T> mutacion) {
+            this.mutacion = mutacion;
+        }
+
+        private void ejecutar(MarketplaceService servicio) {
+            try {
+                valor = servicio.enPuntoDeGuardado(unidad -> mutacion.get());
+            } catch (RuntimeException | Error e) {
+                resultado.completeExceptionally(e);
+            }
+        }
+
+        /**
+         * Completa el futuro salvo que el comando ya haya fallado por sí mismo; con
+         * {@code fallo} también falla los que no llegaron a ejecutarse.
+         */
+        private void confirmar(Throwable fallo) {
+            if (fallo != null) {
+                resultado.completeExceptionally(fallo);
+            } else {
+                resultado.complete(valor);
+            }
+        }
+    }
+}
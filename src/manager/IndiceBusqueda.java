@@ -0,0 +1,90 @@
+package manager;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Búsqueda de texto sobre los eventos y las ofertas activas del marketplace.
+ * <p>
+ * Indexa el nombre del evento, el nombre y la ubicación del venue y el tipo de evento;
+ * las ofertas se indexan además por su id, el login del vendedor y las localidades de sus
+ * tiquetes. Es inmutable: cada {@link InstantaneaLectura} guarda su versión y la siguiente
+ * se obtiene indexando solo los eventos y las ofertas que cambiaron.
+ */
+final class IndiceBusqueda {
+
+    static final int PESO_NOMBRE_EVENTO = 8;
+    static final int PESO_LOCALIDAD = 4;
+    static final int PESO_VENUE = 4;
+    static final int PESO_TIPO = 2;
+    static final int PESO_UBICACION = 2;
+    static final int PESO_OTROS = 1;
+
+    static final IndiceBusqueda VACIO = new IndiceBusqueda(
+            IndiceTexto.vacio(VistaEvento::getIdEvento,
+                    Comparator.comparing(VistaEvento::getFecha).thenComparing(VistaEvento::getIdEvento)),
+            IndiceTexto.vacio(VistaOferta::getId,
+                    Comparator.comparingDouble(VistaOferta::getPrecioPorTiquete)
+                            .thenComparing(VistaOferta.POR_FECHA_CREACION)));
+
+    private final IndiceTexto<VistaEvento> eventos;
+    private final IndiceTexto<VistaOferta> ofertas;
+
+    private IndiceBusqueda(IndiceTexto<VistaEvento> eventos, IndiceTexto<VistaOferta> ofertas) {
+        this.eventos = eventos;
+        this.ofertas = ofertas;
+    }
+
+    /**
+     * @return un índice con el evento indexado con sus datos actuales.
+     */
+    IndiceBusqueda conEvento(VistaEvento evento) {
+        Map<String, Integer> terminos = new HashMap<>();
+        agregarEvento(terminos, evento);
+        IndiceTexto.agregarCampo(terminos, evento.getIdEvento(), PESO_OTROS);
+        return new IndiceBusqueda(eventos.con(evento, terminos), ofertas);
+    }
+
+    /**
+     * @param eventos datos de cada evento por id, para indexar la oferta por sus eventos.
+     * @return un índice con la oferta indexada con sus datos actuales.
+     */
+    IndiceBusqueda conOferta(VistaOferta oferta, Function<String, VistaEvento> eventos) {
+        Map<String, Integer> terminos = new HashMap<>();
+        IndiceTexto.agregarCampo(terminos, oferta.getId(), PESO_OTROS);
+        IndiceTexto.agregarCampo(terminos, oferta.getLoginVendedor(), PESO_OTROS);
+        for (VistaTiquete tiquete : oferta.getTiquetes()) {
+            VistaEvento evento = eventos.apply(tiquete.getIdEvento());
+            if (evento != null) {
+                agregarEvento(terminos, evento);
+            }
+            if (tiquete.getLocalidad() != null) {
+                IndiceTexto.agregarCampo(terminos, tiquete.getLocalidad(), PESO_LOCALIDAD);
+            }
+        }
+        return new IndiceBusqueda(this.eventos, ofertas.con(oferta, terminos));
+    }
+
+    IndiceBusqueda sinOferta(VistaOferta oferta) {
+        IndiceTexto<VistaOferta> sinOferta = ofertas.sin(oferta);
+        return sinOferta == ofertas ? this : new IndiceBusqueda(eventos, sinOferta);
+    }
+
+    List<VistaEvento> buscarEventos(String consulta, int limite) {
+        return eventos.buscar(consulta, limite);
+    }
+
+    List<VistaOferta> buscarOfertas(String consulta, int limite) {
+        return ofertas.buscar(consulta, limite);
+    }
+
+    private static void agregarEvento(Map<String, Integer> terminos, VistaEvento evento) {
+        IndiceTexto.agregarCampo(terminos, evento.getNombre(), PESO_NOMBRE_EVENTO);
+        IndiceTexto.agregarCampo(terminos, evento.getTipoEvento().name(), PESO_TIPO);
+        IndiceTexto.agregarCampo(terminos, evento.getNombreVenue(), PESO_VENUE);
+        IndiceTexto.agregarCampo(terminos, evento.getUbicacionVenue(), PESO_UBICACION);
+    }
+}
@@ -0,0 +1,276 @@
+package manager;
+
+import eventos.TipoEvento;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Índices secundarios sobre los eventos para responder {@link ConsultaEventos}.
+ * <p>
+ * Hay un índice por fecha, tipo, venue, estado, organizador y precio base de las
+ * localidades. Cada consulta elige el índice más selectivo entre los filtros fijados
+ * (el que produce menos candidatos; los rangos se cuentan solo hasta superar al mejor
+ * encontrado) y verifica el resto de filtros sobre esos candidatos.
+ * <p>
+ * Es inmutable y se arma sobre {@link MapaPersistente}: {@link #con(VistaEvento)} retorna
+ * un índice nuevo en O(log n) que comparte el resto con el anterior, y cada
+ * {@link InstantaneaLectura} guarda el suyo. La vista anterior del evento (por su id) dice
+ * de qué entradas retirarlo.
+ */
+final class IndiceEventos {
+
+    private static final Comparator<VistaEvento> CRONOLOGICO =
+            Comparator.comparing(VistaEvento::getFecha).thenComparing(VistaEvento::getIdEvento);
+
+    static final IndiceEventos VACIO = new IndiceEventos(MapaPersistente.vacio(), MapaPersistente.vacio(),
+            MapaPersistente.vacio(), MapaPersistente.vacio(), MapaPersistente.vacio(), MapaPersistente.vacio(),
+            MapaPersistente.vacio());
+
+    private final MapaPersistente<String, VistaEvento> porId;
+    private final MapaPersistente<LocalDate, Grupo> porFecha;
+    private final MapaPersistente<TipoEvento, Grupo> porTipo;
+    private final MapaPersistente<String, Grupo> porVenue;
+    private final MapaPersistente<String, Grupo> porEstado;
+    private final MapaPersistente<String, Grupo> porOrganizador;
+    private final MapaPersistente<Double, Grupo> porPrecio;
+
+    private IndiceEventos(MapaPersistente<String, VistaEvento> porId,
+                          MapaPersistente<LocalDate, Grupo> porFecha,
+                          MapaPersistente<TipoEvento, Grupo> porTipo,
+                          MapaPersistente<String, Grupo> porVenue,
+                          MapaPersistente<String, Grupo> porEstado,
+                          MapaPersistente<String, Grupo> porOrganizador,
+                          MapaPersistente<Double, Grupo> porPrecio) {
+        this.porId = porId;
+        this.porFecha = porFecha;
+        this.porTipo = porTipo;
+        this.porVenue = porVenue;
+        this.porEstado = porEstado;
+        this.porOrganizador = porOrganizador;
+        this.porPrecio = porPrecio;
+    }
+
+    /**
+     * @return un índice con el evento indexado con los datos de la vista, reemplazando las
+     *         claves de la vista anterior con el mismo id si la había.
+     */
+    IndiceEventos con(VistaEvento evento) {
+        Objects.requireNonNull(evento, "evento");
+        VistaEvento previo = porId.obtener(evento.getIdEvento());
+        MapaPersistente<LocalDate, Grupo> fechas = porFecha;
+        MapaPersistente<TipoEvento, Grupo> tipos = porTipo;
+        MapaPersistente<String, Grupo> venues = porVenue;
+        MapaPersistente<String, Grupo> estados = porEstado;
+        MapaPersistente<String, Grupo> organizadores = porOrganizador;
+        MapaPersistente<Double, Grupo> precios = porPrecio;
+        if (previo != null) {
+            fechas = quitarDe(fechas, previo.getFecha(), previo);
+            tipos = quitarDe(tipos, previo.getTipoEvento(), previo);
+            venues = quitarDe(venues, previo.getIdVenue(), previo);
+            estados = quitarDe(estados, estado(previo), previo);
+            organizadores = quitarDe(organizadores, previo.getLoginOrganizador(), previo);
+            for (double precio : precios(previo)) {
+                precios = quitarDe(precios, precio, previo);
+            }
+        }
+        fechas = agregarA(fechas, evento.getFecha(), evento);
+        tipos = agregarA(tipos, evento.getTipoEvento(), evento);
+        venues = agregarA(venues, evento.getIdVenue(), evento);
+        estados = agregarA(estados, estado(evento), evento);
+        organizadores = agregarA(organizadores, evento.getLoginOrganizador(), evento);
+        for (double precio : precios(evento)) {
+            precios = agregarA(precios, precio, evento);
+        }
+        return new IndiceEventos(porId.con(evento.getIdEvento(), evento), fechas, tipos, venues, estados,
+                organizadores, precios);
+    }
+
+    /**
+     * @return los eventos que cumplen todos los filtros, en orden cronológico (y por id).
+     */
+    List<VistaEvento> consultar(ConsultaEventos consulta) {
+        Objects.requireNonNull(consulta, "consulta");
+        List<VistaEvento> resultado = new ArrayList<>();
+        for (VistaEvento evento : candidatos(consulta)) {
+            if (cumple(evento, consulta)) {
+                resultado.add(evento);
+            }
+        }
+        resultado.sort(CRONOLOGICO);
+        return resultado.size() > consulta.limite
+                ? new ArrayList<>(resultado.subList(0, consulta.limite))
+                : resultado;
+    }
+
+    /**
+     * Planificador: retorna los candidatos del índice más selectivo entre los filtros fijados.
+     */
+    private Collection<VistaEvento> candidatos(ConsultaEventos consulta) {
+        Grupo mejor = new Grupo(porId);
+        if (consulta.tipo != null) {
+            mejor = menor(mejor, porTipo.obtener(consulta.tipo));
+        }
+        if (consulta.idVenue != null) {
+            mejor = menor(mejor, porVenue.obtener(consulta.idVenue));
+        }
+        if (consulta.estado != null) {
+            mejor = menor(mejor, porEstado.obtener(consulta.estado));
+        }
+        if (consulta.organizador != null) {
+            mejor = menor(mejor, porOrganizador.obtener(consulta.organizador));
+        }
+        Collection<VistaEvento> candidatos = mejor.eventos();
+        int tope = mejor.tamano();
+        if (consulta.desde != null || consulta.hasta != null) {
+            List<Grupo> rango = new ArrayList<>();
+            for (Map.Entry<LocalDate, Grupo> entrada : porFecha.desde(consulta.desde, true)) {
+                if (consulta.hasta != null && entrada.getKey().isAfter(consulta.hasta)) {
+                    break;
+                }
+                rango.add(entrada.getValue());
+            }
+            if (contarHasta(rango, tope) < tope) {
+                candidatos = unir(rango);
+                tope = candidatos.size();
+            }
+        }
+        if (consulta.precioMinimo != null) {
+            List<Grupo> rango = new ArrayList<>();
+            for (Map.Entry<Double, Grupo> entrada : porPrecio.desde(consulta.precioMinimo, true)) {
+                if (entrada.getKey() > consulta.precioMaximo) {
+                    break;
+                }
+                rango.add(entrada.getValue());
+            }
+            if (contarHasta(rango, tope) < tope) {
+                candidatos = unir(rango);
+            }
+        }
+        return candidatos;
+    }
+
+    private static Grupo menor(Grupo actual, Grupo candidato) {
+        Grupo grupo = candidato == null ? Grupo.VACIO : candidato;
+        return grupo.tamano() < actual.tamano() ? grupo : actual;
+    }
+
+    /**
+     * Cuenta los eventos de los grupos, dejando de contar al llegar a {@code tope}.
+     */
+    private static int contarHasta(List<Grupo> grupos, int tope) {
+        int total = 0;
+        for (Grupo grupo : grupos) {
+            total += grupo.tamano();
+            if (total >= tope) {
+                return tope;
+            }
+        }
+        return total;
+    }
+
+    private static Collection<VistaEvento> unir(List<Grupo> grupos) {
+        Map<String, VistaEvento> union = new LinkedHashMap<>();
+        for (Grupo grupo : grupos) {
+            for (VistaEvento evento : grupo.eventos.valores()) {
+                union.put(evento.getIdEvento(), evento);
+            }
+        }
+        return union.values();
+    }
+
+    private static <K> MapaPersistente<K, Grupo> agregarA(MapaPersistente<K, Grupo> indice, K clave,
+                                                          VistaEvento evento) {
+        if (clave == null) {
+            return indice;
+        }
+        Grupo grupo = indice.obtener(clave);
+        return indice.con(clave, (grupo == null ? Grupo.VACIO : grupo).con(evento));
+    }
+
+    private static <K> MapaPersistente<K, Grupo> quitarDe(MapaPersistente<K, Grupo> indice, K clave,
+                                                          VistaEvento evento) {
+        Grupo grupo = clave == null ? null : indice.obtener(clave);
+        if (grupo == null) {
+            return indice;
+        }
+        Grupo restante = grupo.sin(evento);
+        return restante.tamano() == 0 ? indice.sin(clave) : indice.con(clave, restante);
+    }
+
+    private static String estado(VistaEvento evento) {
+        return ConsultaEventos.normalizarEstado(evento.getEstado());
+    }
+
+    private static double[] precios(VistaEvento evento) {
+        return evento.getPreciosPorLocalidad().values().stream().mapToDouble(Double::doubleValue).distinct().toArray();
+    }
+
+    private static boolean cumple(VistaEvento evento, ConsultaEventos consulta) {
+        LocalDate fecha = evento.getFecha();
+        if (consulta.desde != null && fecha.isBefore(consulta.desde)) {
+            return false;
+        }
+        if (consulta.hasta != null && fecha.isAfter(consulta.hasta)) {
+            return false;
+        }
+        if (consulta.tipo != null && consulta.tipo != evento.getTipoEvento()) {
+            return false;
+        }
+        if (consulta.idVenue != null && !consulta.idVenue.equals(evento.getIdVenue())) {
+            return false;
+        }
+        if (consulta.estado != null && !consulta.estado.equals(estado(evento))) {
+            return false;
+        }
+        if (consulta.organizador != null && !consulta.organizador.equals(evento.getLoginOrganizador())) {
+            return false;
+        }
+        if (consulta.precioMinimo != null) {
+            for (double precio : precios(evento)) {
+                if (precio >= consulta.precioMinimo && precio <= consulta.precioMaximo) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Eventos de una entrada del índice, por id.
+     */
+    private static final class Grupo {
+        private static final Grupo VACIO = new Grupo(MapaPersistente.vacio());
+
+        private final MapaPersistente<String, VistaEvento> eventos;
+
+        private Grupo(MapaPersistente<String, VistaEvento> eventos) {
+            this.eventos = eventos;
+        }
+
+        private Grupo con(VistaEvento evento) {
+            return new Grupo(eventos.con(evento.getIdEvento(), evento));
+        }
+
+        private Grupo sin(VistaEvento evento) {
+            return new Grupo(eventos.sin(evento.getIdEvento()));
+        }
+
+        private int tamano() {
+            return eventos.tamano();
+        }
+
+        private Collection<VistaEvento> eventos() {
+            List<VistaEvento> lista = new ArrayList<>(eventos.tamano());
+            eventos.valores().forEach(lista::add);
+            return lista;
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package manager;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.function.Function;
+
+/**
+ * Índice invertido inmutable con búsqueda por prefijo y resultados ordenados por relevancia.
+ * <p>
+ * Cada documento se indexa con un conjunto de términos y un peso por término (el del campo
+ * más importante en que aparece). Los términos se normalizan sin tildes y en minúsculas,
+ * de modo que "Bogotá" y "bogota" son el mismo término.
+ * <p>
+ * Una consulta devuelve los documentos que contienen, para cada palabra consultada, algún
+ * término que empiece por ella. El puntaje suma el peso de cada coincidencia (doble si la
+ * palabra coincide completa) y los empates se resuelven con el comparador del índice. El
+ * costo depende del número de términos y documentos que coinciden con los prefijos, no
+ * del total de documentos indexados.
+ * <p>
+ * {@link #con(Object, Map)} y {@link #sin(Object)} retornan un índice nuevo que comparte
+ * con el anterior todo lo que no cambió ({@link MapaPersistente}): indexar un documento
+ * cuesta O(t log n) para sus t términos, y cada versión se puede consultar desde cualquier
+ * hilo sin candados.
+ *
+ * @param <T> tipo de documento indexado; los documentos se identifican por su clave.
+ */
+final class IndiceTexto<T> {
+
+    private final Function<T, String> clave;
+    private final Comparator<T> desempate;
+    /** Término → clave del documento → documento y peso. */
+    private final MapaPersistente<String, MapaPersistente<String, Posting<T>>> terminos;
+    /** Clave del documento → términos con que se indexó. */
+    private final MapaPersistente<String, Map<String, Integer>> documentos;
+
+    private IndiceTexto(Function<T, String> clave, Comparator<T> desempate,
+                        MapaPersistente<String, MapaPersistente<String, Posting<T>>> terminos,
+                        MapaPersistente<String, Map<String, Integer>> documentos) {
+        this.clave = clave;
+        this.desempate = desempate;
+        this.terminos = terminos;
+        this.documentos = documentos;
+    }
+
+    static <T> IndiceTexto<T> vacio(Function<T, String> clave, Comparator<T> desempate) {
+        return new IndiceTexto<>(Objects.requireNonNull(clave, "clave"), Objects.requireNonNull(desempate, "desempate"),
+                MapaPersistente.vacio(), MapaPersistente.vacio());
+    }
+
+    /**
+     * Agrega los términos de {@code texto} a {@code destino} con el peso indicado,
+     * conservando el mayor peso si el término ya estaba.
+     */
+    static void agregarCampo(Map<String, Integer> destino, String texto, int peso) {
+        for (String termino : normalizar(texto)) {
+            destino.merge(termino, peso, Math::max);
+        }
+    }
+
+    /**
+     * Separa el texto en palabras sin tildes y en minúsculas.
+     */
+    static List<String> normalizar(String texto) {
+        List<String> resultado = new ArrayList<>();
+        if (texto == null || texto.isEmpty()) {
+            return resultado;
+        }
+        String sinTildes = Normalizer.normalize(texto, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}+", "")
+                .toLowerCase(Locale.ROOT);
+        for (String palabra : sinTildes.split("[^\\p{L}\\p{N}]+")) {
+            if (!palabra.isEmpty()) {
+                resultado.add(palabra);
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * @return un índice con el documento indexado con estos términos y pesos, en lugar de
+     *         la versión anterior del documento con la misma clave si la había.
+     */
+    IndiceTexto<T> con(T documento, Map<String, Integer> terminosDocumento) {
+        Objects.requireNonNull(documento, "documento");
+        String id = clave.apply(documento);
+        IndiceTexto<T> sinAnterior = sinClave(id);
+        Map<String, Integer> copia = Map.copyOf(terminosDocumento);
+        MapaPersistente<String, MapaPersistente<String, Posting<T>>> nuevos = sinAnterior.terminos;
+        for (Map.Entry<String, Integer> termino : copia.entrySet()) {
+            MapaPersistente<String, Posting<T>> postings = nuevos.obtener(termino.getKey());
+            if (postings == null) {
+                postings = MapaPersistente.vacio();
+            }
+            nuevos = nuevos.con(termino.getKey(), postings.con(id, new Posting<>(documento, termino.getValue())));
+        }
+        return new IndiceTexto<>(clave, desempate, nuevos, sinAnterior.documentos.con(id, copia));
+    }
+
+    /**
+     * @return un índice sin el documento; este mismo si no estaba.
+     */
+    IndiceTexto<T> sin(T documento) {
+        return sinClave(clave.apply(documento));
+    }
+
+    int tamano() {
+        return documentos.tamano();
+    }
+
+    /**
+     * @param consulta palabras a buscar; cada una se trata como prefijo.
+     * @param limite   número máximo de resultados (debe ser {@code >= 0}).
+     * @return los documentos que coinciden con todas las palabras, del más al menos relevante.
+     * @throws IllegalArgumentException si {@code limite} es negativo.
+     */
+    List<T> buscar(String consulta, int limite) {
+        if (limite < 0) {
+            throw new IllegalArgumentException("El límite no puede ser negativo");
+        }
+        List<String> palabras = normalizar(consulta);
+        if (palabras.isEmpty() || limite == 0) {
+            return new ArrayList<>();
+        }
+        Map<String, Puntaje<T>> puntajes = null;
+        for (String palabra : palabras) {
+            puntajes = coincidencias(palabra, puntajes);
+            if (puntajes.isEmpty()) {
+                return new ArrayList<>();
+            }
+        }
+        return mejores(puntajes, limite);
+    }
+
+    private IndiceTexto<T> sinClave(String id) {
+        Map<String, Integer> previos = documentos.obtener(id);
+        if (previos == null) {
+            return this;
+        }
+        MapaPersistente<String, MapaPersistente<String, Posting<T>>> nuevos = terminos;
+        for (String termino : previos.keySet()) {
+            MapaPersistente<String, Posting<T>> postings = nuevos.obtener(termino);
+            if (postings != null) {
+                postings = postings.sin(id);
+                nuevos = postings.estaVacio() ? nuevos.sin(termino) : nuevos.con(termino, postings);
+            }
+        }
+        return new IndiceTexto<>(clave, desempate, nuevos, documentos.sin(id));
+    }
+
+    /**
+     * Puntajes de los documentos con algún término que empiece por {@code palabra}; si hay
+     * puntajes previos, solo considera esos documentos y acumula sobre ellos.
+     */
+    private Map<String, Puntaje<T>> coincidencias(String palabra, Map<String, Puntaje<T>> previos) {
+        Map<String, Puntaje<T>> delPrefijo = new HashMap<>();
+        for (Map.Entry<String, MapaPersistente<String, Posting<T>>> entrada : terminos.desde(palabra, true)) {
+            if (!entrada.getKey().startsWith(palabra)) {
+                break;
+            }
+            int factor = entrada.getKey().length() == palabra.length() ? 2 : 1;
+            for (Map.Entry<String, Posting<T>> posting : entrada.getValue().desde(null, true)) {
+                if (previos == null || previos.containsKey(posting.getKey())) {
+                    Posting<T> documento = posting.getValue();
+                    delPrefijo.merge(posting.getKey(), new Puntaje<>(documento.documento, documento.peso * factor),
+                            (a, b) -> a.valor >= b.valor ? a : b);
+                }
+            }
+        }
+        if (previos != null) {
+            delPrefijo.replaceAll((id, puntaje) ->
+                    new Puntaje<>(puntaje.documento, puntaje.valor + previos.get(id).valor));
+        }
+        return delPrefijo;
+    }
+
+    private List<T> mejores(Map<String, Puntaje<T>> puntajes, int limite) {
+        Comparator<Puntaje<T>> relevancia = Comparator.<Puntaje<T>>comparingInt(p -> p.valor).reversed()
+                .thenComparing(p -> p.documento, desempate);
+        PriorityQueue<Puntaje<T>> peores = new PriorityQueue<>(relevancia.reversed());
+        for (Puntaje<T> puntaje : puntajes.values()) {
+            peores.offer(puntaje);
+            if (peores.size() > limite) {
+                peores.poll();
+            }
+        }
+        List<T> resultado = new ArrayList<>(peores.size());
+        while (!peores.isEmpty()) {
+            resultado.add(peores.poll().documento);
+        }
+        Collections.reverse(resultado);
+        return resultado;
+    }
+
+    private static final class Posting<T> {
+        private final T documento;
+        private final int peso;
+
+        private Posting(T documento, int peso) {
+            this.documento = documento;
+            this.peso = peso;
+        }
+    }
+
+    private static final class Puntaje<T> {
+        private final T documento;
+        private final int valor;
+
+        private Puntaje(T documento, int valor) {
+            this.documento = documento;
+            this.valor = valor;
+        }
+    }
+}
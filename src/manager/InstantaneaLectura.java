@@ -0,0 +1,545 @@
+package manager;
+
+import Cliente.Cliente;
+import Cliente.Organizador;
+import eventos.Evento;
+import marketPlace.EstadoOferta;
+import marketPlace.OfertaMarketPlace;
+import tiquetes.Tiquete;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Vista inmutable del sistema publicada después de cada confirmación.
+ * <p>
+ * Guarda {@link VistaOferta vistas} de las ofertas, de los tiquetes de cada cliente y de
+ * los eventos, y los índices que responden las consultas: las ofertas (todas, activas y de
+ * cada vendedor) en cada {@link OrdenOfertas orden}, las que tienen contraofertas pendientes
+ * por vendedor, los libros de órdenes por evento y por localidad, la {@link IndiceBusqueda
+ * búsqueda de texto} y los {@link IndiceEventos índices de eventos}. Nada de lo que contiene
+ * cambia después de publicada: los lectores la recorren sin candados y todas sus respuestas
+ * corresponden al mismo punto en el tiempo.
+ * <p>
+ * Sus estructuras son {@link MapaPersistente mapas persistentes}. La instantánea siguiente
+ * aplica sobre la anterior solo las ofertas, clientes y eventos marcados en el
+ * {@link RegistroCambios} del estado, con un costo O(log n) por elemento cambiado, y comparte
+ * con ella todo lo demás; solo se construye desde cero cuando cambia el estado (al cargar).
+ */
+final class InstantaneaLectura {
+
+    static final InstantaneaLectura VACIA = new InstantaneaLectura(new Edicion());
+
+    private final BoletaMasterState origen;
+    private final MapaPersistente<String, VistaOferta> ofertas;
+    private final Ordenadas todas;
+    private final Ordenadas activas;
+    private final MapaPersistente<String, Ordenadas> porVendedor;
+    private final MapaPersistente<String, MapaPersistente<VistaOferta, VistaOferta>> pendientesPorVendedor;
+    private final MapaPersistente<String, MapaPersistente<Nivel, VistaOferta>> libros;
+    private final MapaPersistente<String, TiquetesCliente> tiquetesPorCliente;
+    private final MapaPersistente<String, VistaEvento> eventos;
+    private final MapaPersistente<String, EventosOrganizador> eventosPorOrganizador;
+    private final IndiceBusqueda busqueda;
+    private final IndiceEventos indiceEventos;
+
+    private InstantaneaLectura(Edicion edicion) {
+        this.origen = edicion.origen;
+        this.ofertas = edicion.ofertas;
+        this.todas = edicion.todas;
+        this.activas = edicion.activas;
+        this.porVendedor = edicion.porVendedor;
+        this.pendientesPorVendedor = edicion.pendientesPorVendedor;
+        this.libros = edicion.libros;
+        this.tiquetesPorCliente = edicion.tiquetesPorCliente;
+        this.eventos = edicion.eventos;
+        this.eventosPorOrganizador = edicion.eventosPorOrganizador;
+        this.busqueda = edicion.busqueda;
+        this.indiceEventos = edicion.indiceEventos;
+    }
+
+    /**
+     * Construye la instantánea siguiente a partir del estado confirmado y de los cambios
+     * marcados desde la anterior. Debe invocarse con el candado de escritura tomado.
+     */
+    static InstantaneaLectura construir(BoletaMasterState state, InstantaneaLectura anterior) {
+        RegistroCambios cambios = state.getCambios();
+        if (anterior.origen != state) {
+            cambios.descartar();
+            return desdeCero(state);
+        }
+        Edicion edicion = new Edicion(anterior);
+        for (Evento evento : cambios.tomarEventos()) {
+            if (state.getEventosPorId().get(evento.getIdEvento()) == evento) {
+                edicion.ponerEvento(VistaEvento.de(evento));
+            }
+        }
+        for (OfertaMarketPlace oferta : cambios.tomarOfertas()) {
+            VistaOferta previa = edicion.ofertas.obtener(oferta.getId());
+            if (previa != null) {
+                edicion.quitarOferta(previa);
+            }
+            if (state.getOfertasPorId().get(oferta.getId()) == oferta) {
+                edicion.agregarOferta(VistaOferta.de(oferta));
+            }
+        }
+        for (Cliente cliente : cambios.tomarClientes()) {
+            if (state.getClientesPorLogin().get(cliente.getLogin()) == cliente) {
+                edicion.ponerCliente(cliente);
+            }
+        }
+        return new InstantaneaLectura(edicion);
+    }
+
+    private static InstantaneaLectura desdeCero(BoletaMasterState state) {
+        Edicion edicion = new Edicion();
+        edicion.origen = state;
+        for (Organizador organizador : state.getOrganizadoresPorLogin().values()) {
+            edicion.eventosPorOrganizador = edicion.eventosPorOrganizador.con(organizador.getLogin(),
+                    new EventosOrganizador(organizador, MapaPersistente.vacio()));
+        }
+        for (Evento evento : state.getEventosPorId().values()) {
+            edicion.ponerEvento(VistaEvento.de(evento));
+        }
+        for (OfertaMarketPlace oferta : state.getOfertasPorId().values()) {
+            edicion.agregarOferta(VistaOferta.de(oferta));
+        }
+        for (Cliente cliente : state.getClientesPorLogin().values()) {
+            edicion.ponerCliente(cliente);
+        }
+        return new InstantaneaLectura(edicion);
+    }
+
+    /**
+     * @return todas las ofertas, por fecha de creación.
+     */
+    List<VistaOferta> getOfertas() {
+        return lista(todas.en(OrdenOfertas.FECHA_CREACION).valores());
+    }
+
+    /**
+     * @return las ofertas activas, por fecha de creación.
+     */
+    List<VistaOferta> getOfertasActivas() {
+        return lista(activas.en(OrdenOfertas.FECHA_CREACION).valores());
+    }
+
+    /**
+     * @return las ofertas del vendedor, por fecha de creación.
+     */
+    List<VistaOferta> getOfertasPorVendedor(Cliente vendedor) {
+        Ordenadas delVendedor = vendedor == null ? null : porVendedor.obtener(vendedor.getLogin());
+        return delVendedor == null ? List.of() : lista(delVendedor.en(OrdenOfertas.FECHA_CREACION).valores());
+    }
+
+    VistaOferta getOferta(String ofertaId) {
+        return ofertaId == null ? null : ofertas.obtener(ofertaId);
+    }
+
+    PaginaOfertas<VistaOferta> paginaActivas(OrdenOfertas orden, String cursor, int tamano) {
+        return pagina(activas, orden, cursor, tamano);
+    }
+
+    PaginaOfertas<VistaOferta> paginaTodas(OrdenOfertas orden, String cursor, int tamano) {
+        return pagina(todas, orden, cursor, tamano);
+    }
+
+    PaginaOfertas<VistaOferta> paginaDe(Cliente vendedor, OrdenOfertas orden, String cursor, int tamano) {
+        return pagina(vendedor == null ? null : porVendedor.obtener(vendedor.getLogin()), orden, cursor, tamano);
+    }
+
+    /**
+     * @return las ofertas del vendedor con contraofertas pendientes, por fecha de creación,
+     *         cada una con esas contraofertas.
+     */
+    Map<VistaOferta, List<VistaContraoferta>> getContraofertasPendientes(Cliente vendedor) {
+        MapaPersistente<VistaOferta, VistaOferta> conPendientes =
+                vendedor == null ? null : pendientesPorVendedor.obtener(vendedor.getLogin());
+        if (conPendientes == null) {
+            return Map.of();
+        }
+        Map<VistaOferta, List<VistaContraoferta>> resultado = new LinkedHashMap<>();
+        for (VistaOferta oferta : conPendientes.valores()) {
+            resultado.put(oferta, oferta.getContraofertasPendientes());
+        }
+        return Collections.unmodifiableMap(resultado);
+    }
+
+    /**
+     * Oferta activa más barata por tiquete de un evento o de una de sus localidades.
+     */
+    Optional<VistaOferta> mejorOferta(String eventoId, String localidad) {
+        MapaPersistente<Nivel, VistaOferta> libro = libro(eventoId, localidad);
+        Map.Entry<Nivel, VistaOferta> primera = libro == null ? null : libro.primera();
+        return primera == null ? Optional.empty() : Optional.of(primera.getValue());
+    }
+
+    /**
+     * @throws IllegalArgumentException si {@code cantidad} es negativa.
+     */
+    List<VistaOferta> mejoresOfertas(String eventoId, String localidad, int cantidad) {
+        if (cantidad < 0) {
+            throw new IllegalArgumentException("La cantidad no puede ser negativa");
+        }
+        MapaPersistente<Nivel, VistaOferta> libro = libro(eventoId, localidad);
+        List<VistaOferta> resultado = new ArrayList<>(Math.min(cantidad, 64));
+        if (libro != null) {
+            Iterator<VistaOferta> it = libro.valores().iterator();
+            while (resultado.size() < cantidad && it.hasNext()) {
+                resultado.add(it.next());
+            }
+        }
+        return Collections.unmodifiableList(resultado);
+    }
+
+    /**
+     * @throws IllegalArgumentException si {@code minimo} supera a {@code maximo}.
+     */
+    List<VistaOferta> ofertasEnRango(String eventoId, String localidad, double minimo, double maximo) {
+        if (minimo > maximo) {
+            throw new IllegalArgumentException("El precio mínimo no puede superar al máximo");
+        }
+        MapaPersistente<Nivel, VistaOferta> libro = libro(eventoId, localidad);
+        List<VistaOferta> resultado = new ArrayList<>();
+        if (libro != null) {
+            Nivel hasta = Nivel.cota(maximo, true);
+            for (Map.Entry<Nivel, VistaOferta> entrada
+                    : libro.desde(Nivel.cota(minimo, false), true)) {
+                if (entrada.getKey().compareTo(hasta) > 0) {
+                    break;
+                }
+                resultado.add(entrada.getValue());
+            }
+        }
+        return Collections.unmodifiableList(resultado);
+    }
+
+    List<VistaEvento> buscarEventos(String consulta, int limite) {
+        return busqueda.buscarEventos(consulta, limite);
+    }
+
+    List<VistaOferta> buscarOfertas(String consulta, int limite) {
+        return busqueda.buscarOfertas(consulta, limite);
+    }
+
+    List<VistaEvento> consultarEventos(ConsultaEventos consulta) {
+        return indiceEventos.consultar(consulta);
+    }
+
+    /**
+     * @return los tiquetes del cliente en esta instantánea, o {@code null} si el cliente
+     *         no pertenece al estado publicado.
+     */
+    List<VistaTiquete> getTiquetes(Cliente cliente) {
+        TiquetesCliente vista = tiquetesPorCliente.obtener(cliente.getLogin());
+        return vista == null || vista.cliente != cliente ? null : vista.tiquetes;
+    }
+
+    VistaEvento getEvento(String eventoId) {
+        return eventoId == null ? null : eventos.obtener(eventoId);
+    }
+
+    /**
+     * @return los eventos, por id.
+     */
+    List<VistaEvento> getEventos() {
+        return lista(eventos.valores());
+    }
+
+    /**
+     * @return los eventos del organizador por id, o {@code null} si el organizador no
+     *         pertenece al estado publicado.
+     */
+    List<VistaEvento> getEventosOrganizador(Organizador organizador) {
+        EventosOrganizador vista = eventosPorOrganizador.obtener(organizador.getLogin());
+        return vista == null || vista.organizador != organizador ? null : lista(vista.eventos.valores());
+    }
+
+    private PaginaOfertas<VistaOferta> pagina(Ordenadas grupo, OrdenOfertas orden, String cursor, int tamano) {
+        Objects.requireNonNull(orden, "orden");
+        int limite = PaginaOfertas.tamanoValido(tamano);
+        VistaOferta despuesDe = null;
+        if (cursor != null) {
+            despuesDe = ofertas.obtener(PaginaOfertas.idDesdeCursor(orden, cursor));
+            if (despuesDe == null) {
+                throw new IllegalArgumentException("Cursor inválido: " + cursor);
+            }
+        }
+        List<VistaOferta> pagina = new ArrayList<>(Math.min(limite, 64));
+        if (grupo == null) {
+            return new PaginaOfertas<>(pagina, null);
+        }
+        Iterator<Map.Entry<VistaOferta, VistaOferta>> it = grupo.en(orden).desde(despuesDe, false).iterator();
+        while (pagina.size() < limite && it.hasNext()) {
+            pagina.add(it.next().getValue());
+        }
+        String siguiente = it.hasNext() && !pagina.isEmpty()
+                ? PaginaOfertas.cursor(orden, pagina.get(pagina.size() - 1).getId())
+                : null;
+        return new PaginaOfertas<>(pagina, siguiente);
+    }
+
+    private MapaPersistente<Nivel, VistaOferta> libro(String eventoId, String localidad) {
+        return eventoId == null ? null : libros.obtener(localidad == null ? eventoId : llaveLocalidad(eventoId, localidad));
+    }
+
+    private static <T> List<T> lista(Iterable<T> valores) {
+        List<T> resultado = new ArrayList<>();
+        valores.forEach(resultado::add);
+        return Collections.unmodifiableList(resultado);
+    }
+
+    private static Set<String> llavesLibros(VistaOferta oferta) {
+        Set<String> llaves = new LinkedHashSet<>();
+        for (VistaTiquete tiquete : oferta.getTiquetes()) {
+            if (tiquete.getIdEvento() != null) {
+                llaves.add(tiquete.getIdEvento());
+                if (tiquete.getLocalidad() != null) {
+                    llaves.add(llaveLocalidad(tiquete.getIdEvento(), tiquete.getLocalidad()));
+                }
+            }
+        }
+        return llaves;
+    }
+
+    private static String llaveLocalidad(String eventoId, String localidad) {
+        return eventoId + '\u0000' + localidad;
+    }
+
+    private static <K, V> MapaPersistente<String, MapaPersistente<K, V>> agregarEn(
+            MapaPersistente<String, MapaPersistente<K, V>> grupos, String llave, K clave, V valor,
+            MapaPersistente<K, V> vacio) {
+        MapaPersistente<K, V> grupo = grupos.obtener(llave);
+        return grupos.con(llave, (grupo == null ? vacio : grupo).con(clave, valor));
+    }
+
+    private static <K, V> MapaPersistente<String, MapaPersistente<K, V>> quitarDe(
+            MapaPersistente<String, MapaPersistente<K, V>> grupos, String llave, K clave) {
+        MapaPersistente<K, V> grupo = grupos.obtener(llave);
+        if (grupo == null) {
+            return grupos;
+        }
+        MapaPersistente<K, V> restante = grupo.sin(clave);
+        return restante.estaVacio() ? grupos.sin(llave) : grupos.con(llave, restante);
+    }
+
+    /**
+     * Estructuras de la instantánea en construcción; empieza con las de la anterior y cada
+     * cambio las reemplaza por versiones nuevas sin tocar las que ya estaban publicadas.
+     */
+    private static final class Edicion {
+        private BoletaMasterState origen;
+        private MapaPersistente<String, VistaOferta> ofertas = MapaPersistente.vacio();
+        private Ordenadas todas = Ordenadas.VACIAS;
+        private Ordenadas activas = Ordenadas.VACIAS;
+        private MapaPersistente<String, Ordenadas> porVendedor = MapaPersistente.vacio();
+        private MapaPersistente<String, MapaPersistente<VistaOferta, VistaOferta>> pendientesPorVendedor =
+                MapaPersistente.vacio();
+        private MapaPersistente<String, MapaPersistente<Nivel, VistaOferta>> libros =
+                MapaPersistente.vacio();
+        private MapaPersistente<String, TiquetesCliente> tiquetesPorCliente = MapaPersistente.vacio();
+        private MapaPersistente<String, VistaEvento> eventos = MapaPersistente.vacio();
+        private MapaPersistente<String, EventosOrganizador> eventosPorOrganizador = MapaPersistente.vacio();
+        private IndiceBusqueda busqueda = IndiceBusqueda.VACIO;
+        private IndiceEventos indiceEventos = IndiceEventos.VACIO;
+
+        private Edicion() {
+        }
+
+        private Edicion(InstantaneaLectura anterior) {
+            origen = anterior.origen;
+            ofertas = anterior.ofertas;
+            todas = anterior.todas;
+            activas = anterior.activas;
+            porVendedor = anterior.porVendedor;
+            pendientesPorVendedor = anterior.pendientesPorVendedor;
+            libros = anterior.libros;
+            tiquetesPorCliente = anterior.tiquetesPorCliente;
+            eventos = anterior.eventos;
+            eventosPorOrganizador = anterior.eventosPorOrganizador;
+            busqueda = anterior.busqueda;
+            indiceEventos = anterior.indiceEventos;
+        }
+
+        private void agregarOferta(VistaOferta oferta) {
+            String vendedor = oferta.getLoginVendedor();
+            ofertas = ofertas.con(oferta.getId(), oferta);
+            todas = todas.con(oferta);
+            Ordenadas delVendedor = porVendedor.obtener(vendedor);
+            porVendedor = porVendedor.con(vendedor, (delVendedor == null ? Ordenadas.VACIAS : delVendedor).con(oferta));
+            if (!oferta.getContraofertasPendientes().isEmpty()) {
+                pendientesPorVendedor = agregarEn(pendientesPorVendedor, vendedor, oferta, oferta,
+                        MapaPersistente.vacio(VistaOferta.POR_FECHA_CREACION));
+            }
+            if (oferta.getEstado() == EstadoOferta.ACTIVA) {
+                activas = activas.con(oferta);
+                Nivel nivel = Nivel.de(oferta);
+                for (String llave : llavesLibros(oferta)) {
+                    libros = agregarEn(libros, llave, nivel, oferta, MapaPersistente.vacio());
+                }
+                busqueda = busqueda.conOferta(oferta, eventos::obtener);
+            }
+        }
+
+        private void quitarOferta(VistaOferta oferta) {
+            String vendedor = oferta.getLoginVendedor();
+            ofertas = ofertas.sin(oferta.getId());
+            todas = todas.sin(oferta);
+            activas = activas.sin(oferta);
+            Ordenadas delVendedor = porVendedor.obtener(vendedor);
+            if (delVendedor != null) {
+                Ordenadas restantes = delVendedor.sin(oferta);
+                porVendedor = restantes.estaVacio() ? porVendedor.sin(vendedor) : porVendedor.con(vendedor, restantes);
+            }
+            pendientesPorVendedor = quitarDe(pendientesPorVendedor, vendedor, oferta);
+            Nivel nivel = Nivel.de(oferta);
+            for (String llave : llavesLibros(oferta)) {
+                libros = quitarDe(libros, llave, nivel);
+            }
+            busqueda = busqueda.sinOferta(oferta);
+        }
+
+        private void ponerCliente(Cliente cliente) {
+            List<VistaTiquete> tiquetes = new ArrayList<>();
+            for (Tiquete tiquete : cliente.verTiquetes()) {
+                tiquetes.add(VistaTiquete.de(tiquete));
+            }
+            tiquetesPorCliente = tiquetesPorCliente.con(cliente.getLogin(),
+                    new TiquetesCliente(cliente, List.copyOf(tiquetes)));
+        }
+
+        private void ponerEvento(VistaEvento evento) {
+            String id = evento.getIdEvento();
+            VistaEvento previo = eventos.obtener(id);
+            eventos = eventos.con(id, evento);
+            if (previo != null && previo.getLoginOrganizador() != null) {
+                EventosOrganizador suyos = eventosPorOrganizador.obtener(previo.getLoginOrganizador());
+                if (suyos != null) {
+                    eventosPorOrganizador = eventosPorOrganizador.con(previo.getLoginOrganizador(),
+                            new EventosOrganizador(suyos.organizador, suyos.eventos.sin(id)));
+                }
+            }
+            if (evento.getLoginOrganizador() != null) {
+                EventosOrganizador suyos = eventosPorOrganizador.obtener(evento.getLoginOrganizador());
+                if (suyos != null) {
+                    eventosPorOrganizador = eventosPorOrganizador.con(evento.getLoginOrganizador(),
+                            new EventosOrganizador(suyos.organizador, suyos.eventos.con(id, evento)));
+                }
+            }
+            busqueda = busqueda.conEvento(evento);
+            indiceEventos = indiceEventos.con(evento);
+        }
+    }
+
+    /**
+     * Un mismo grupo de vistas de ofertas ordenado por cada {@link OrdenOfertas}.
+     */
+    private static final class Ordenadas {
+        private static final Ordenadas VACIAS = new Ordenadas(vacias());
+
+        private final Map<OrdenOfertas, MapaPersistente<VistaOferta, VistaOferta>> porOrden;
+
+        private Ordenadas(Map<OrdenOfertas, MapaPersistente<VistaOferta, VistaOferta>> porOrden) {
+            this.porOrden = porOrden;
+        }
+
+        private static Map<OrdenOfertas, MapaPersistente<VistaOferta, VistaOferta>> vacias() {
+            Map<OrdenOfertas, MapaPersistente<VistaOferta, VistaOferta>> porOrden = new EnumMap<>(OrdenOfertas.class);
+            for (OrdenOfertas orden : OrdenOfertas.values()) {
+                porOrden.put(orden, MapaPersistente.vacio(orden.comparador()));
+            }
+            return porOrden;
+        }
+
+        private Ordenadas con(VistaOferta oferta) {
+            Map<OrdenOfertas, MapaPersistente<VistaOferta, VistaOferta>> nuevo = new EnumMap<>(porOrden);
+            nuevo.replaceAll((orden, ofertas) -> ofertas.con(oferta, oferta));
+            return new Ordenadas(nuevo);
+        }
+
+        private Ordenadas sin(VistaOferta oferta) {
+            if (porOrden.get(OrdenOfertas.FECHA_CREACION).obtener(oferta) == null) {
+                return this;
+            }
+            Map<OrdenOfertas, MapaPersistente<VistaOferta, VistaOferta>> nuevo = new EnumMap<>(porOrden);
+            nuevo.replaceAll((orden, ofertas) -> ofertas.sin(oferta));
+            return new Ordenadas(nuevo);
+        }
+
+        private MapaPersistente<VistaOferta, VistaOferta> en(OrdenOfertas orden) {
+            return porOrden.get(orden);
+        }
+
+        private boolean estaVacio() {
+            return porOrden.get(OrdenOfertas.FECHA_CREACION).estaVacio();
+        }
+    }
+
+    /**
+     * Clave de orden de los libros: precio por tiquete, fecha de creación e identificador.
+     */
+    private static final class Nivel implements Comparable<Nivel> {
+        private final double precio;
+        private final LocalDateTime fecha;
+        private final String id;
+
+        private Nivel(double precio, LocalDateTime fecha, String id) {
+            this.precio = precio;
+            this.fecha = fecha;
+            this.id = id;
+        }
+
+        private static Nivel de(VistaOferta oferta) {
+            return new Nivel(oferta.getPrecioPorTiquete(), oferta.getFechaCreacion(), oferta.getId());
+        }
+
+        /**
+         * Cota que queda antes ({@code superior = false}) o después de todas las ofertas de ese precio.
+         */
+        private static Nivel cota(double precio, boolean superior) {
+            return superior
+                    ? new Nivel(precio, LocalDateTime.MAX, "\uffff")
+                    : new Nivel(precio, LocalDateTime.MIN, "");
+        }
+
+        @Override
+        public int compareTo(Nivel otro) {
+            int porPrecio = Double.compare(precio, otro.precio);
+            if (porPrecio != 0) {
+                return porPrecio;
+            }
+            int porFecha = fecha.compareTo(otro.fecha);
+            return porFecha != 0 ? porFecha : id.compareTo(otro.id);
+        }
+    }
+
+    private static final class TiquetesCliente {
+        private final Cliente cliente;
+        private final List<VistaTiquete> tiquetes;
+
+        private TiquetesCliente(Cliente cliente, List<VistaTiquete> tiquetes) {
+            this.cliente = cliente;
+            this.tiquetes = tiquetes;
+        }
+    }
+
+    private static final class EventosOrganizador {
+        private final Organizador organizador;
+        private final MapaPersistente<String, VistaEvento> eventos;
+
+        private EventosOrganizador(Organizador organizador, MapaPersistente<String, VistaEvento> eventos) {
+            this.organizador = organizador;
+            this.eventos = eventos;
+        }
+    }
+}
@@ -1,9 +1,11 @@
 package manager;
 
+import Cliente.AcumuladorIngresos;
 import Cliente.Administrador;
 
 import Cliente.Cliente;
 import Cliente.Organizador;
+import Cliente.TableroGanancias;
 import eventos.Evento;
 import eventos.Localidad;
 import eventos.Oferta;
@@ -14,19 +16,26 @@ import marketPlace.ContraOferta;
 import marketPlace.EstadoOferta;
 import marketPlace.OfertaMarketPlace;
 import marketPlace.EstadoContraOferta;
+import tiquetes.AlmacenTiquetes;
 import tiquetes.Tiquete;
 import tiquetes.TiqueteBasico;
 
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
 
 import org.json.JSONArray;
 import org.json.JSONObject;
@@ -42,6 +51,11 @@ final class JsonDataStore {
     private final Path paquetesPath;
     private final Path ofertasPath;
     private final Path logPath;
+    private final Path idempotenciaPath;
+    /** Catálogo de los almacenes de tiquetes: evento y archivo de columnas de cada uno. */
+    private final Path almacenesPath;
+    /** Carpeta donde se copian los almacenes que viven en memoria. */
+    private final Path almacenesDir;
 
     JsonDataStore(Path usuariosPath,
                   Path eventosPath,
@@ -55,6 +69,9 @@ final class JsonDataStore {
         this.paquetesPath = Objects.requireNonNull(paquetesPath);
         this.ofertasPath = Objects.requireNonNull(ofertasPath);
         this.logPath = Objects.requireNonNull(logPath);
+        this.idempotenciaPath = ofertasPath.resolveSibling("marketplace_idempotencia.json");
+        this.almacenesPath = tiquetesPath.resolveSibling("almacenes.json");
+        this.almacenesDir = tiquetesPath.resolveSibling("almacenes");
     }
 
     static JsonDataStore fromDirectory(String dataDir) {
@@ -71,12 +88,15 @@ final class JsonDataStore {
     BoletaMasterState load() {
         BoletaMasterState state = new BoletaMasterState();
         state.reset();
-        cargarUsuarios(state);
+        JSONObject usuarios = cargarUsuarios(state);
         cargarEventos(state);
         cargarTiquetes(state);
+        cargarAlmacenes(state);
+        restaurarIngresos(state, usuarios);
         cargarPaquetes(state);
         cargarLog(state);
         cargarOfertas(state);
+        cargarIdempotencia(state);
         return state;
     }
 
@@ -84,12 +104,14 @@ final class JsonDataStore {
         guardarUsuarios(state);
         guardarEventos(state);
         guardarTiquetes(state);
+        guardarAlmacenes(state);
         guardarPaquetes(state);
         guardarLog(state);
         guardarOfertas(state);
+        guardarIdempotencia(state);
     }
 
-    private void cargarUsuarios(BoletaMasterState state) {
+    private JSONObject cargarUsuarios(BoletaMasterState state) {
         if (!Files.exists(usuariosPath)) {
             throw new RuntimeException("No existe el archivo de usuarios: " + usuariosPath);
         }
@@ -147,6 +169,33 @@ final class JsonDataStore {
                 state.getOrganizadoresPorLogin().put(login, organizador);
             }
         }
+        return root;
+    }
+
+    /**
+     * Fija el tablero de ganancias del administrador y las finanzas de los organizadores
+     * guardados. Registrar los tiquetes cargados no acredita ingresos (solo los cuenta en
+     * los cargos y los venues del tablero), así que el libro de ingresos sale únicamente de
+     * lo guardado. Sin tablero guardado, los días de las ventas y la reventa no se pueden
+     * saber y quedan vacíos.
+     */
+    private void restaurarIngresos(BoletaMasterState state, JSONObject usuarios) {
+        JSONObject adminJson = usuarios.getJSONObject("administrador");
+        TableroGanancias tablero = state.getAdministrador().getTablero();
+        tablero.restaurarGanancias(adminJson.optDouble("ganancias", 0.0),
+                leerIngresosPorTipo(adminJson.optJSONObject("gananciasPorTipo")));
+        JSONObject t = adminJson.optJSONObject("tablero");
+        tablero.restaurarDias(leerMontosPorDia(t, "porDia"), leerMontosPorDia(t, "reventaPorDia"));
+        tablero.restaurarReventa(leerIngresosPorTipo(t == null ? null : t.optJSONObject("reventaPorTipo")),
+                t == null ? 0L : t.optLong("reventas", 0L));
+        JSONArray organizadores = usuarios.optJSONArray("organizadores");
+        if (organizadores != null) {
+            for (int i = 0; i < organizadores.length(); i++) {
+                JSONObject o = organizadores.getJSONObject(i);
+                state.getOrganizadoresPorLogin().get(o.getString("login")).restaurarFinanzas(
+                        o.optDouble("finanzas", 0.0), leerIngresosPorTipo(o.optJSONObject("finanzasPorTipo")));
+            }
+        }
     }
 
     private void cargarEventos(BoletaMasterState state) {
@@ -234,7 +283,8 @@ final class JsonDataStore {
         JSONArray arr = new JSONArray(raw);
         Map<String, Cliente> clientes = state.getClientesPorLogin();
         Map<String, Evento> eventos = state.getEventosPorId();
-        Map<Integer, Tiquete> tiquetes = state.getTiquetesPorId();
+        MapaEnteros<Tiquete> tiquetes = state.getTiquetesPorId();
+        tiquetes.asegurarCapacidad(arr.length());
         for (int i = 0; i < arr.length(); i++) {
             JSONObject t = arr.getJSONObject(i);
             Evento evento = eventos.get(t.optString("eventoId", null));
@@ -352,9 +402,9 @@ final class JsonDataStore {
         }
         JSONArray arr = new JSONArray(raw);
         Map<String, Cliente> clientes = state.getClientesPorLogin();
-        Map<Integer, Tiquete> tiquetes = state.getTiquetesPorId();
         Map<String, OfertaMarketPlace> ofertas = state.getOfertasPorId();
-        Map<Integer, String> tiqueteEnOferta = state.getTiqueteEnOferta();
+        MapaEnteros<String> tiqueteEnOferta = state.getTiqueteEnOferta();
+        BitmapEnteros tiquetesEnOferta = state.getTiquetesEnOferta();
         for (int i = 0; i < arr.length(); i++) {
             JSONObject o = arr.getJSONObject(i);
             Cliente vendedor = clientes.get(o.getString("vendedorLogin"));
@@ -365,7 +415,7 @@ final class JsonDataStore {
             JSONArray ids = o.optJSONArray("tiquetes");
             if (ids != null) {
                 for (int j = 0; j < ids.length(); j++) {
-                    Tiquete tiquete = tiquetes.get(ids.getInt(j));
+                    Tiquete tiquete = state.buscarTiquete(ids.getInt(j));
                     if (tiquete != null) {
                         tiquetesOferta.add(tiquete);
                     }
@@ -400,6 +450,7 @@ final class JsonDataStore {
             if (oferta.getEstado() == EstadoOferta.ACTIVA) {
                 for (Tiquete tiquete : tiquetesOferta) {
                     tiqueteEnOferta.put(tiquete.getIdTiquete(), oferta.getId());
+                    tiquetesEnOferta.add(tiquete.getIdTiquete());
                 }
             }
         }
@@ -415,7 +466,10 @@ final class JsonDataStore {
             admin.put("login", administrador.getLogin());
             admin.put("password", administrador.getPassword());
             admin.put("nombre", administrador.getNombre());
-            admin.put("ganancias", administrador.getGanancias());
+            AcumuladorIngresos.Instantanea ganancias = administrador.getGananciasPorTipo();
+            admin.put("ganancias", ganancias.getTotal());
+            admin.put("gananciasPorTipo", escribirIngresosPorTipo(ganancias));
+            admin.put("tablero", escribirTablero(administrador.getTablero()));
             JSONObject cargos = new JSONObject();
             for (TipoEvento tipo : TipoEvento.values()) {
                 cargos.put(tipo.name(), administrador.getCargoServicio(tipo));
@@ -453,7 +507,9 @@ final class JsonDataStore {
             o.put("login", organizador.getLogin());
             o.put("password", organizador.getPassword());
             o.put("nombre", organizador.getNombre());
-            o.put("finanzas", organizador.getFinanzas());
+            AcumuladorIngresos.Instantanea finanzas = organizador.getFinanzasPorTipo();
+            o.put("finanzas", finanzas.getTotal());
+            o.put("finanzasPorTipo", escribirIngresosPorTipo(finanzas));
             JSONArray eventos = new JSONArray();
             for (Evento evento : organizador.getEventos()) {
                 eventos.put(evento.getIdEvento());
@@ -478,7 +534,7 @@ final class JsonDataStore {
             e.put("organizadorLogin", evento.getOrganizador() == null ? JSONObject.NULL : evento.getOrganizador().getLogin());
             e.put("administradorLogin", evento.getAdministrador() == null ? JSONObject.NULL : evento.getAdministrador().getLogin());
             JSONArray tiquetes = new JSONArray();
-            for (Tiquete tiquete : evento.getTiquetes()) {
+            for (Tiquete tiquete : evento.verTiquetes()) {
                 tiquetes.put(tiquete.getIdTiquete());
             }
             e.put("tiquetes", tiquetes);
@@ -549,6 +605,65 @@ final class JsonDataStore {
         JsonFiles.write(tiquetesPath, arr.toString(2));
     }
 
+    /**
+     * Reabre los almacenes del catálogo; se omiten los de eventos que ya no existen. Sus
+     * tiquetes se cuentan en el inventario de su evento al reabrirlos.
+     */
+    private void cargarAlmacenes(BoletaMasterState state) {
+        if (!Files.exists(almacenesPath)) {
+            return;
+        }
+        String raw = JsonFiles.read(almacenesPath);
+        if (raw.isBlank()) {
+            return;
+        }
+        JSONArray arr = new JSONArray(raw);
+        for (int i = 0; i < arr.length(); i++) {
+            JSONObject a = arr.getJSONObject(i);
+            Evento evento = state.getEventosPorId().get(a.getString("eventoId"));
+            if (evento == null) {
+                continue;
+            }
+            Path archivo = almacenesPath.resolveSibling(a.getString("archivo"));
+            state.agregarAlmacen(AlmacenTiquetes.abrir(archivo, evento, state.getClientesPorLogin()));
+        }
+    }
+
+    /**
+     * Sincroniza los almacenes persistentes en su propio archivo y copia los que viven en
+     * memoria a {@link #almacenesDir}; el catálogo guarda la ruta de cada uno relativa a él.
+     */
+    private void guardarAlmacenes(BoletaMasterState state) {
+        JSONArray arr = new JSONArray();
+        Set<Path> ocupados = new HashSet<>();
+        for (AlmacenTiquetes almacen : state.getAlmacenes()) {
+            if (almacen.getArchivo() != null) {
+                ocupados.add(almacen.getArchivo().toAbsolutePath().normalize());
+            }
+        }
+        Map<Evento, Integer> porEvento = new IdentityHashMap<>();
+        for (AlmacenTiquetes almacen : state.getAlmacenes()) {
+            Path archivo = almacen.getArchivo();
+            if (archivo != null) {
+                almacen.sincronizar();
+            } else {
+                do {
+                    int numero = porEvento.merge(almacen.getEvento(), 1, Integer::sum);
+                    archivo = almacenesDir.resolve(almacen.getEvento().getIdEvento() + "-" + numero + ".tiq");
+                } while (ocupados.contains(archivo.toAbsolutePath().normalize()));
+                JsonFiles.ensureDir(almacenesDir);
+                almacen.guardarEn(archivo);
+            }
+            JSONObject a = new JSONObject();
+            a.put("eventoId", almacen.getEvento().getIdEvento());
+            Path base = almacenesPath.toAbsolutePath().getParent();
+            Path absoluto = archivo.toAbsolutePath();
+            a.put("archivo", absoluto.startsWith(base) ? base.relativize(absoluto).toString() : absoluto.toString());
+            arr.put(a);
+        }
+        JsonFiles.write(almacenesPath, arr.toString(2));
+    }
+
     private void guardarPaquetes(BoletaMasterState state) {
         JsonFiles.write(paquetesPath, state.getPaquetesRaw().toString(2));
     }
@@ -595,6 +710,96 @@ final class JsonDataStore {
         JsonFiles.write(ofertasPath, arr.toString(2));
     }
 
+    private void cargarIdempotencia(BoletaMasterState state) {
+        if (!Files.exists(idempotenciaPath)) {
+            return;
+        }
+        String raw = JsonFiles.read(idempotenciaPath);
+        if (raw.isBlank()) {
+            return;
+        }
+        JSONArray arr = new JSONArray(raw);
+        List<RegistroIdempotencia.Entrada> entradas = new ArrayList<>();
+        for (int i = 0; i < arr.length(); i++) {
+            JSONObject e = arr.getJSONObject(i);
+            entradas.add(new RegistroIdempotencia.Entrada(
+                    e.getString("operacion"),
+                    e.getString("login"),
+                    e.getString("clave"),
+                    e.getString("huella"),
+                    e.getString("resultado"),
+                    Instant.parse(e.getString("registrada"))));
+        }
+        state.getRegistroIdempotencia().restaurar(entradas);
+    }
+
+    private void guardarIdempotencia(BoletaMasterState state) {
+        JSONArray arr = new JSONArray();
+        for (RegistroIdempotencia.Entrada entrada : state.getRegistroIdempotencia().entradasVigentes()) {
+            JSONObject e = new JSONObject();
+            e.put("operacion", entrada.getOperacion());
+            e.put("login", entrada.getLogin());
+            e.put("clave", entrada.getClave());
+            e.put("huella", entrada.getHuella());
+            e.put("resultado", entrada.getResultado());
+            e.put("registrada", entrada.getRegistrada().toString());
+            arr.put(e);
+        }
+        JsonFiles.write(idempotenciaPath, arr.toString(2));
+    }
+
+    /**
+     * Lee un detalle de ingresos por tipo de evento; las claves que no son un
+     * {@link TipoEvento} vigente se ignoran, y su monto queda como ingreso sin clasificar.
+     */
+    private Map<TipoEvento, Double> leerIngresosPorTipo(JSONObject json) {
+        Map<TipoEvento, Double> porTipo = new EnumMap<>(TipoEvento.class);
+        if (json != null) {
+            for (TipoEvento tipo : TipoEvento.values()) {
+                if (json.has(tipo.name())) {
+                    porTipo.put(tipo, json.getDouble(tipo.name()));
+                }
+            }
+        }
+        return porTipo;
+    }
+
+    private Map<LocalDate, Double> leerMontosPorDia(JSONObject tablero, String clave) {
+        Map<LocalDate, Double> porDia = new TreeMap<>();
+        JSONObject json = tablero == null ? null : tablero.optJSONObject(clave);
+        if (json != null) {
+            for (String dia : json.keySet()) {
+                porDia.put(LocalDate.parse(dia), json.getDouble(dia));
+            }
+        }
+        return porDia;
+    }
+
+    /**
+     * Escribe los agregados del tablero que no se pueden deducir de los tiquetes; las
+     * ganancias por tipo van aparte, en {@code gananciasPorTipo}.
+     */
+    private JSONObject escribirTablero(TableroGanancias tablero) {
+        JSONObject json = new JSONObject();
+        JSONObject porDia = new JSONObject();
+        tablero.getIngresosPorDia().forEach((dia, monto) -> porDia.put(dia.toString(), monto));
+        json.put("porDia", porDia);
+        JSONObject reventaPorDia = new JSONObject();
+        tablero.getVolumenReventaPorDia().forEach((dia, monto) -> reventaPorDia.put(dia.toString(), monto));
+        json.put("reventaPorDia", reventaPorDia);
+        json.put("reventaPorTipo", escribirIngresosPorTipo(tablero.getVolumenReventaPorTipo()));
+        json.put("reventas", tablero.getReventas());
+        return json;
+    }
+
+    private JSONObject escribirIngresosPorTipo(AcumuladorIngresos.Instantanea instantanea) {
+        JSONObject json = new JSONObject();
+        for (Map.Entry<TipoEvento, Double> entry : instantanea.getPorTipo().entrySet()) {
+            json.put(entry.getKey().name(), entry.getValue());
+        }
+        return json;
+    }
+
     private Localidad buscarLocalidad(Venue venue, String identificador) {
         if (venue == null || identificador == null || identificador.isBlank()) {
             return null;
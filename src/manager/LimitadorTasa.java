@@ -0,0 +1,198 @@
+package manager;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Control de admisión por cliente y por tipo de operación del marketplace.
+ * <p>
+ * Cada par (login, operación) tiene una cubeta de fichas: admite ráfagas de hasta
+ * {@code capacidad} solicitudes y se recarga a razón de {@code recargaPorSegundo}.
+ * Cuando la cubeta está vacía la solicitud se rechaza de inmediato con una
+ * {@link LimiteExcedidoException}, antes de tomar el candado de escritura o de guardar,
+ * para que un cliente abusivo no degrade la latencia del resto. Las operaciones sin
+ * límite configurado se admiten siempre.
+ * <p>
+ * Una cubeta que volvió a llenarse equivale a una nueva, así que a lo sumo una vez por
+ * segundo se descartan las de los clientes inactivos; el mapa no crece con cada login
+ * que alguna vez hizo una solicitud.
+ * <p>
+ * Lleva contadores de solicitudes admitidas y rechazadas por operación y de rechazos
+ * por cliente, para saber a quién se está limitando.
+ */
+public final class LimitadorTasa {
+
+    private static final long NANOS_ENTRE_BARRIDOS = 1_000_000_000L;
+
+    private final LongSupplier relojNanos;
+    private final AtomicLong siguienteBarrido;
+    private final Map<OperacionMarketplace, Limite> limites = new ConcurrentHashMap<>();
+    private final Map<String, Cubeta> cubetas = new ConcurrentHashMap<>();
+    private final Map<OperacionMarketplace, LongAdder> admitidas = new EnumMap<>(OperacionMarketplace.class);
+    private final Map<OperacionMarketplace, LongAdder> rechazadas = new EnumMap<>(OperacionMarketplace.class);
+    private final Map<String, LongAdder> rechazosPorCliente = new ConcurrentHashMap<>();
+
+    public LimitadorTasa() {
+        this(System::nanoTime);
+    }
+
+    LimitadorTasa(LongSupplier relojNanos) {
+        this.relojNanos = Objects.requireNonNull(relojNanos, "relojNanos");
+        this.siguienteBarrido = new AtomicLong(relojNanos.getAsLong() + NANOS_ENTRE_BARRIDOS);
+        for (OperacionMarketplace operacion : OperacionMarketplace.values()) {
+            admitidas.put(operacion, new LongAdder());
+            rechazadas.put(operacion, new LongAdder());
+        }
+    }
+
+    /**
+     * Fija el límite de una operación para cada cliente. Las cubetas existentes de esa
+     * operación se reinician llenas con el nuevo límite.
+     *
+     * @param operacion         operación a limitar (obligatoria).
+     * @param capacidad         ráfaga máxima de solicitudes (debe ser {@code > 0}).
+     * @param recargaPorSegundo fichas recuperadas por segundo (debe ser {@code > 0}).
+     * @throws IllegalArgumentException si algún valor no es positivo.
+     */
+    public void configurar(OperacionMarketplace operacion, int capacidad, double recargaPorSegundo) {
+        Objects.requireNonNull(operacion, "operacion");
+        if (capacidad <= 0 || !(recargaPorSegundo > 0)) {
+            throw new IllegalArgumentException("La capacidad y la recarga deben ser positivas");
+        }
+        limites.put(operacion, new Limite(capacidad, recargaPorSegundo));
+        cubetas.keySet().removeIf(llave -> llave.startsWith(operacion.name() + '\u0000'));
+    }
+
+    /**
+     * Quita el límite de una operación; desde entonces se admiten todas sus solicitudes.
+     */
+    public void desactivar(OperacionMarketplace operacion) {
+        Objects.requireNonNull(operacion, "operacion");
+        limites.remove(operacion);
+        cubetas.keySet().removeIf(llave -> llave.startsWith(operacion.name() + '\u0000'));
+    }
+
+    public boolean estaLimitada(OperacionMarketplace operacion) {
+        return limites.containsKey(operacion);
+    }
+
+    /**
+     * Consume una ficha de la cubeta del cliente para la operación.
+     *
+     * @param operacion operación solicitada.
+     * @param login     login del cliente que la solicita.
+     * @throws LimiteExcedidoException si el cliente superó el límite de la operación.
+     */
+    public void admitir(OperacionMarketplace operacion, String login) {
+        Objects.requireNonNull(operacion, "operacion");
+        Limite limite = limites.get(operacion);
+        if (limite != null && login != null) {
+            long ahora = relojNanos.getAsLong();
+            long[] espera = new long[1];
+            // Consumir dentro de compute lo hace atómico frente al barrido de inactivas.
+            cubetas.compute(operacion.name() + '\u0000' + login, (llave, cubeta) -> {
+                Cubeta actual = cubeta != null ? cubeta : new Cubeta(limite, ahora);
+                espera[0] = actual.consumir(ahora);
+                return actual;
+            });
+            barrerInactivas(ahora);
+            if (espera[0] > 0) {
+                rechazadas.get(operacion).increment();
+                rechazosPorCliente.computeIfAbsent(login, l -> new LongAdder()).increment();
+                throw new LimiteExcedidoException(operacion, login, Duration.ofNanos(espera[0]));
+            }
+        }
+        admitidas.get(operacion).increment();
+    }
+
+    /**
+     * @return cubetas de clientes que se están siguiendo en este momento.
+     */
+    public int getCubetasActivas() {
+        return cubetas.size();
+    }
+
+    private void barrerInactivas(long ahora) {
+        long siguiente = siguienteBarrido.get();
+        if (ahora - siguiente < 0 || !siguienteBarrido.compareAndSet(siguiente, ahora + NANOS_ENTRE_BARRIDOS)) {
+            return;
+        }
+        for (String llave : cubetas.keySet()) {
+            cubetas.computeIfPresent(llave, (k, cubeta) -> cubeta.llenaEn(ahora) ? null : cubeta);
+        }
+    }
+
+    public long getAdmitidas(OperacionMarketplace operacion) {
+        return admitidas.get(operacion).sum();
+    }
+
+    public long getRechazadas(OperacionMarketplace operacion) {
+        return rechazadas.get(operacion).sum();
+    }
+
+    /**
+     * @return número de solicitudes rechazadas por login, en todas las operaciones.
+     */
+    public Map<String, Long> getRechazosPorCliente() {
+        Map<String, Long> resultado = new HashMap<>();
+        rechazosPorCliente.forEach((login, contador) -> resultado.put(login, contador.sum()));
+        return resultado;
+    }
+
+    private static final class Limite {
+        private final int capacidad;
+        private final double fichasPorNano;
+
+        private Limite(int capacidad, double recargaPorSegundo) {
+            this.capacidad = capacidad;
+            this.fichasPorNano = recargaPorSegundo / 1_000_000_000.0;
+        }
+    }
+
+    private static final class Cubeta {
+        private final Limite limite;
+        private double fichas;
+        private long ultimaRecarga;
+
+        private Cubeta(Limite limite, long ahora) {
+            this.limite = limite;
+            this.fichas = limite.capacidad;
+            this.ultimaRecarga = ahora;
+        }
+
+        /**
+         * Consume una ficha si hay; lo invoca {@code compute} del mapa, que serializa los
+         * accesos a la cubeta.
+         *
+         * @return {@code 0} si la consumió, o los nanosegundos hasta tener una ficha.
+         */
+        private long consumir(long ahora) {
+            recargar(ahora);
+            if (fichas < 1.0) {
+                return Math.max(1L, (long) Math.ceil((1.0 - fichas) / limite.fichasPorNano));
+            }
+            fichas -= 1.0;
+            return 0L;
+        }
+
+        private boolean llenaEn(long ahora) {
+            recargar(ahora);
+            return fichas >= limite.capacidad;
+        }
+
+        private void recargar(long ahora) {
+            long transcurrido = ahora - ultimaRecarga;
+            if (transcurrido > 0) {
+                fichas = Math.min(limite.capacidad, fichas + transcurrido * limite.fichasPorNano);
+                ultimaRecarga = ahora;
+            }
+        }
+    }
+}
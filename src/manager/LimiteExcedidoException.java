@@ -0,0 +1,43 @@
+package manager;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Solicitud rechazada por el {@link LimitadorTasa} porque el cliente agotó las fichas de
+ * la operación. Indica cuánto esperar antes de reintentar.
+ * <p>
+ * Extiende {@link IllegalStateException} para que quien ya atrapaba los rechazos del
+ * limitador como estado ilegal los siga atrapando.
+ */
+public class LimiteExcedidoException extends IllegalStateException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final OperacionMarketplace operacion;
+    private final String login;
+    private final Duration reintentarEn;
+
+    public LimiteExcedidoException(OperacionMarketplace operacion, String login, Duration reintentarEn) {
+        super("Demasiadas solicitudes de " + operacion + " para el cliente " + login
+                + "; intente de nuevo en " + reintentarEn.toMillis() + " ms");
+        this.operacion = Objects.requireNonNull(operacion, "operacion");
+        this.login = login;
+        this.reintentarEn = Objects.requireNonNull(reintentarEn, "reintentarEn");
+    }
+
+    public OperacionMarketplace getOperacion() {
+        return operacion;
+    }
+
+    public String getLogin() {
+        return login;
+    }
+
+    /**
+     * @return tiempo mínimo hasta que la cubeta del cliente recupere una ficha.
+     */
+    public Duration getReintentarEn() {
+        return reintentarEn;
+    }
+}
@@ -0,0 +1,326 @@
+package manager;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Mapa de claves {@code int} con direccionamiento abierto (sondeo lineal).
+ * <p>
+ * Guarda las claves en un {@code int[]} y los valores en un arreglo paralelo, sin objetos
+ * de entrada ni claves en caja: los métodos con parámetro {@code int}
+ * ({@link #get(int)}, {@link #put(int, Object)}, {@link #containsKey(int)},
+ * {@link #remove(int)}) no reservan memoria. Implementa {@link Map}, de modo que también
+ * sirve donde se espera un {@code Map<Integer, V>}; los métodos heredados con
+ * {@code Object} desempaquetan la clave.
+ * <p>
+ * No admite valores {@code null} (una celda con valor {@code null} está vacía). Los
+ * borrados desplazan hacia atrás las claves siguientes en lugar de dejar lápidas, así que
+ * el rendimiento no se degrada con altas y bajas repetidas. Los iteradores fallan rápido
+ * ante modificaciones concurrentes y no admiten {@code remove}. No es seguro para hilos.
+ *
+ * @param <V> tipo de los valores.
+ */
+public final class MapaEnteros<V> extends AbstractMap<Integer, V> {
+
+    private static final int CAPACIDAD_MINIMA = 16;
+
+    private int[] claves;
+    private Object[] valores;
+    private int tamano;
+    private int umbral;
+    private int modificaciones;
+    private Set<Map.Entry<Integer, V>> entradas;
+
+    public MapaEnteros() {
+        this(0);
+    }
+
+    /**
+     * @param esperados número de entradas que se espera guardar sin redimensionar.
+     */
+    public MapaEnteros(int esperados) {
+        if (esperados < 0) {
+            throw new IllegalArgumentException("La capacidad no puede ser negativa");
+        }
+        asignar(capacidadPara(esperados));
+    }
+
+    @Override
+    public int size() {
+        return tamano;
+    }
+
+    /**
+     * Crece de una vez para guardar {@code esperados} entradas (p. ej. antes de una carga masiva).
+     */
+    public void asegurarCapacidad(int esperados) {
+        int capacidad = capacidadPara(esperados);
+        if (capacidad > claves.length) {
+            redimensionar(capacidad);
+        }
+    }
+
+    public V get(int clave) {
+        int celda = buscar(clave);
+        return celda < 0 ? null : valor(celda);
+    }
+
+    @Override
+    public V get(Object clave) {
+        return clave instanceof Integer entero ? get(entero.intValue()) : null;
+    }
+
+    public boolean containsKey(int clave) {
+        return buscar(clave) >= 0;
+    }
+
+    @Override
+    public boolean containsKey(Object clave) {
+        return clave instanceof Integer entero && containsKey(entero.intValue());
+    }
+
+    /**
+     * @return el valor anterior de la clave, o {@code null} si no estaba.
+     * @throws NullPointerException si {@code valor} es {@code null}.
+     */
+    public V put(int clave, V valor) {
+        Objects.requireNonNull(valor, "El valor es obligatorio");
+        int mascara = claves.length - 1;
+        int celda = dispersar(clave) & mascara;
+        while (valores[celda] != null) {
+            if (claves[celda] == clave) {
+                V previo = valor(celda);
+                valores[celda] = valor;
+                return previo;
+            }
+            celda = (celda + 1) & mascara;
+        }
+        claves[celda] = clave;
+        valores[celda] = valor;
+        modificaciones++;
+        if (++tamano > umbral) {
+            redimensionar(claves.length << 1);
+        }
+        return null;
+    }
+
+    @Override
+    public V put(Integer clave, V valor) {
+        return put(clave.intValue(), valor);
+    }
+
+    /**
+     * @return el valor que tenía la clave, o {@code null} si no estaba.
+     */
+    public V remove(int clave) {
+        int celda = buscar(clave);
+        if (celda < 0) {
+            return null;
+        }
+        V previo = valor(celda);
+        borrarCelda(celda);
+        return previo;
+    }
+
+    @Override
+    public V remove(Object clave) {
+        return clave instanceof Integer entero ? remove(entero.intValue()) : null;
+    }
+
+    @Override
+    public void clear() {
+        if (tamano == 0) {
+            return;
+        }
+        Arrays.fill(valores, null);
+        tamano = 0;
+        modificaciones++;
+    }
+
+    @Override
+    public Set<Map.Entry<Integer, V>> entrySet() {
+        if (entradas == null) {
+            entradas = new Entradas();
+        }
+        return entradas;
+    }
+
+    private int buscar(int clave) {
+        int mascara = claves.length - 1;
+        int celda = dispersar(clave) & mascara;
+        while (valores[celda] != null) {
+            if (claves[celda] == clave) {
+                return celda;
+            }
+            celda = (celda + 1) & mascara;
+        }
+        return -1;
+    }
+
+    /**
+     * Vacía la celda y desplaza hacia ella las claves siguientes del mismo grupo que
+     * quedarían inalcanzables desde su celda ideal.
+     */
+    private void borrarCelda(int libre) {
+        int mascara = claves.length - 1;
+        int actual = libre;
+        while (true) {
+            actual = (actual + 1) & mascara;
+            if (valores[actual] == null) {
+                break;
+            }
+            int ideal = dispersar(claves[actual]) & mascara;
+            if (((actual - ideal) & mascara) >= ((actual - libre) & mascara)) {
+                claves[libre] = claves[actual];
+                valores[libre] = valores[actual];
+                libre = actual;
+            }
+        }
+        valores[libre] = null;
+        tamano--;
+        modificaciones++;
+    }
+
+    private void redimensionar(int capacidad) {
+        int[] clavesPrevias = claves;
+        Object[] valoresPrevios = valores;
+        asignar(capacidad);
+        int mascara = capacidad - 1;
+        for (int i = 0; i < clavesPrevias.length; i++) {
+            if (valoresPrevios[i] != null) {
+                int celda = dispersar(clavesPrevias[i]) & mascara;
+                while (valores[celda] != null) {
+                    celda = (celda + 1) & mascara;
+                }
+                claves[celda] = clavesPrevias[i];
+                valores[celda] = valoresPrevios[i];
+            }
+        }
+    }
+
+    private void asignar(int capacidad) {
+        claves = new int[capacidad];
+        valores = new Object[capacidad];
+        umbral = (int) (capacidad * 0.75);
+    }
+
+    @SuppressWarnings("unchecked")
+    private V valor(int celda) {
+        return (V) valores[celda];
+    }
+
+    /**
+     * Mezcla los bits de la clave (los ids suelen ser consecutivos) antes de enmascararla.
+     */
+    static int dispersar(int clave) {
+        int h = clave * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * @return la menor potencia de dos que guarda {@code esperados} entradas bajo el umbral de carga.
+     */
+    static int capacidadPara(int esperados) {
+        long necesaria = Math.max(CAPACIDAD_MINIMA, (long) Math.ceil(esperados / 0.75) + 1);
+        if (necesaria > (1 << 30)) {
+            throw new IllegalArgumentException("Demasiadas entradas: " + esperados);
+        }
+        return Integer.highestOneBit((int) necesaria - 1) << 1;
+    }
+
+    private final class Entradas extends AbstractSet<Map.Entry<Integer, V>> {
+        @Override
+        public int size() {
+            return tamano;
+        }
+
+        @Override
+        public void clear() {
+            MapaEnteros.this.clear();
+        }
+
+        @Override
+        public Iterator<Map.Entry<Integer, V>> iterator() {
+            return new Iterator<>() {
+                private final int esperadas = modificaciones;
+                private int siguiente = avanzar(0);
+
+                private int avanzar(int desde) {
+                    while (desde < valores.length && valores[desde] == null) {
+                        desde++;
+                    }
+                    return desde;
+                }
+
+                @Override
+                public boolean hasNext() {
+                    return siguiente < valores.length;
+                }
+
+                @Override
+                public Map.Entry<Integer, V> next() {
+                    if (modificaciones != esperadas) {
+                        throw new ConcurrentModificationException();
+                    }
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    Entrada entrada = new Entrada(siguiente);
+                    siguiente = avanzar(siguiente + 1);
+                    return entrada;
+                }
+            };
+        }
+    }
+
+    private final class Entrada implements Map.Entry<Integer, V> {
+        private final int celda;
+        private final int clave;
+
+        private Entrada(int celda) {
+            this.celda = celda;
+            this.clave = claves[celda];
+        }
+
+        @Override
+        public Integer getKey() {
+            return clave;
+        }
+
+        @Override
+        public V getValue() {
+            return valor(celda);
+        }
+
+        @Override
+        public V setValue(V valor) {
+            Objects.requireNonNull(valor, "El valor es obligatorio");
+            V previo = valor(celda);
+            valores[celda] = valor;
+            return previo;
+        }
+
+        @Override
+        public boolean equals(Object otro) {
+            return otro instanceof Map.Entry<?, ?> e
+                    && Objects.equals(getKey(), e.getKey()) && Objects.equals(getValue(), e.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return clave ^ getValue().hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return clave + "=" + getValue();
+        }
+    }
+}
@@ -0,0 +1,281 @@
+package manager;
+
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * Mapa ordenado inmutable y persistente.
+ * <p>
+ * {@link #con(Object, Object)} y {@link #sin(Object)} no modifican el mapa: retornan uno
+ * nuevo que comparte con el anterior todos los nodos salvo los del camino de la raíz a la
+ * clave, así que cuestan O(log n) en tiempo y en memoria. Las versiones anteriores siguen
+ * siendo válidas y, como ningún nodo cambia después de creado, se pueden leer desde
+ * cualquier hilo sin candados. {@link InstantaneaLectura} lo usa para publicar índices
+ * nuevos con un costo proporcional a lo que cambió y no al tamaño de los datos.
+ * <p>
+ * Es un árbol AVL en el que cada nodo guarda además el tamaño de su subárbol. Las claves
+ * no pueden ser {@code null}.
+ */
+final class MapaPersistente<K, V> {
+
+    private final Comparator<? super K> orden;
+    private final Nodo<K, V> raiz;
+
+    private MapaPersistente(Comparator<? super K> orden, Nodo<K, V> raiz) {
+        this.orden = orden;
+        this.raiz = raiz;
+    }
+
+    static <K extends Comparable<? super K>, V> MapaPersistente<K, V> vacio() {
+        return new MapaPersistente<>(Comparator.naturalOrder(), null);
+    }
+
+    static <K, V> MapaPersistente<K, V> vacio(Comparator<? super K> orden) {
+        return new MapaPersistente<>(Objects.requireNonNull(orden, "orden"), null);
+    }
+
+    int tamano() {
+        return Nodo.tamano(raiz);
+    }
+
+    boolean estaVacio() {
+        return raiz == null;
+    }
+
+    /**
+     * @return el valor de la clave, o {@code null} si no está.
+     */
+    V obtener(K clave) {
+        Nodo<K, V> nodo = raiz;
+        while (nodo != null) {
+            int c = orden.compare(clave, nodo.clave);
+            if (c == 0) {
+                return nodo.valor;
+            }
+            nodo = c < 0 ? nodo.izquierdo : nodo.derecho;
+        }
+        return null;
+    }
+
+    /**
+     * @return un mapa con la clave asociada a {@code valor}; este mismo si ya lo estaba.
+     */
+    MapaPersistente<K, V> con(K clave, V valor) {
+        Objects.requireNonNull(clave, "clave");
+        Nodo<K, V> nueva = con(raiz, clave, valor);
+        return nueva == raiz ? this : new MapaPersistente<>(orden, nueva);
+    }
+
+    /**
+     * @return un mapa sin la clave; este mismo si no estaba.
+     */
+    MapaPersistente<K, V> sin(K clave) {
+        Nodo<K, V> nueva = sin(raiz, clave);
+        return nueva == raiz ? this : new MapaPersistente<>(orden, nueva);
+    }
+
+    /**
+     * @return la entrada de menor clave, o {@code null} si el mapa está vacío.
+     */
+    Map.Entry<K, V> primera() {
+        return raiz == null ? null : minimo(raiz);
+    }
+
+    /**
+     * Entradas en orden de clave a partir de {@code desde}. Ubicar el inicio cuesta
+     * O(log n) y cada entrada siguiente O(1) amortizado, así que recorrer solo una página
+     * no depende del tamaño del mapa.
+     *
+     * @param desde    primera clave del recorrido, o {@code null} para empezar por la menor.
+     * @param incluida si {@code desde} se incluye cuando está en el mapa.
+     */
+    Iterable<Map.Entry<K, V>> desde(K desde, boolean incluida) {
+        return () -> new Recorrido(desde, incluida);
+    }
+
+    /**
+     * Valores en orden de clave.
+     */
+    Iterable<V> valores() {
+        return () -> {
+            Iterator<Map.Entry<K, V>> entradas = new Recorrido(null, true);
+            return new Iterator<>() {
+                @Override
+                public boolean hasNext() {
+                    return entradas.hasNext();
+                }
+
+                @Override
+                public V next() {
+                    return entradas.next().getValue();
+                }
+            };
+        };
+    }
+
+    private Nodo<K, V> con(Nodo<K, V> nodo, K clave, V valor) {
+        if (nodo == null) {
+            return new Nodo<>(clave, valor, null, null);
+        }
+        int c = orden.compare(clave, nodo.clave);
+        if (c < 0) {
+            Nodo<K, V> izquierdo = con(nodo.izquierdo, clave, valor);
+            return izquierdo == nodo.izquierdo ? nodo : balancear(nodo.clave, nodo.valor, izquierdo, nodo.derecho);
+        }
+        if (c > 0) {
+            Nodo<K, V> derecho = con(nodo.derecho, clave, valor);
+            return derecho == nodo.derecho ? nodo : balancear(nodo.clave, nodo.valor, nodo.izquierdo, derecho);
+        }
+        return nodo.valor == valor ? nodo : new Nodo<>(clave, valor, nodo.izquierdo, nodo.derecho);
+    }
+
+    private Nodo<K, V> sin(Nodo<K, V> nodo, K clave) {
+        if (nodo == null) {
+            return null;
+        }
+        int c = orden.compare(clave, nodo.clave);
+        if (c < 0) {
+            Nodo<K, V> izquierdo = sin(nodo.izquierdo, clave);
+            return izquierdo == nodo.izquierdo ? nodo : balancear(nodo.clave, nodo.valor, izquierdo, nodo.derecho);
+        }
+        if (c > 0) {
+            Nodo<K, V> derecho = sin(nodo.derecho, clave);
+            return derecho == nodo.derecho ? nodo : balancear(nodo.clave, nodo.valor, nodo.izquierdo, derecho);
+        }
+        if (nodo.izquierdo == null) {
+            return nodo.derecho;
+        }
+        if (nodo.derecho == null) {
+            return nodo.izquierdo;
+        }
+        Nodo<K, V> sucesor = minimo(nodo.derecho);
+        return balancear(sucesor.clave, sucesor.valor, nodo.izquierdo, sinMinimo(nodo.derecho));
+    }
+
+    private static <K, V> Nodo<K, V> minimo(Nodo<K, V> nodo) {
+        while (nodo.izquierdo != null) {
+            nodo = nodo.izquierdo;
+        }
+        return nodo;
+    }
+
+    private static <K, V> Nodo<K, V> sinMinimo(Nodo<K, V> nodo) {
+        if (nodo.izquierdo == null) {
+            return nodo.derecho;
+        }
+        return balancear(nodo.clave, nodo.valor, sinMinimo(nodo.izquierdo), nodo.derecho);
+    }
+
+    /**
+     * Crea el nodo aplicando las rotaciones necesarias; los subárboles difieren en altura
+     * a lo sumo en dos, como ocurre tras una sola inserción o eliminación.
+     */
+    private static <K, V> Nodo<K, V> balancear(K clave, V valor, Nodo<K, V> izquierdo, Nodo<K, V> derecho) {
+        int alturaIzquierda = Nodo.altura(izquierdo);
+        int alturaDerecha = Nodo.altura(derecho);
+        if (alturaIzquierda > alturaDerecha + 1) {
+            if (Nodo.altura(izquierdo.izquierdo) >= Nodo.altura(izquierdo.derecho)) {
+                return new Nodo<>(izquierdo.clave, izquierdo.valor, izquierdo.izquierdo,
+                        new Nodo<>(clave, valor, izquierdo.derecho, derecho));
+            }
+            Nodo<K, V> medio = izquierdo.derecho;
+            return new Nodo<>(medio.clave, medio.valor,
+                    new Nodo<>(izquierdo.clave, izquierdo.valor, izquierdo.izquierdo, medio.izquierdo),
+                    new Nodo<>(clave, valor, medio.derecho, derecho));
+        }
+        if (alturaDerecha > alturaIzquierda + 1) {
+            if (Nodo.altura(derecho.derecho) >= Nodo.altura(derecho.izquierdo)) {
+                return new Nodo<>(derecho.clave, derecho.valor,
+                        new Nodo<>(clave, valor, izquierdo, derecho.izquierdo), derecho.derecho);
+            }
+            Nodo<K, V> medio = derecho.izquierdo;
+            return new Nodo<>(medio.clave, medio.valor,
+                    new Nodo<>(clave, valor, izquierdo, medio.izquierdo),
+                    new Nodo<>(derecho.clave, derecho.valor, medio.derecho, derecho.derecho));
+        }
+        return new Nodo<>(clave, valor, izquierdo, derecho);
+    }
+
+    private static final class Nodo<K, V> implements Map.Entry<K, V> {
+        private final K clave;
+        private final V valor;
+        private final Nodo<K, V> izquierdo;
+        private final Nodo<K, V> derecho;
+        private final int altura;
+        private final int tamano;
+
+        private Nodo(K clave, V valor, Nodo<K, V> izquierdo, Nodo<K, V> derecho) {
+            this.clave = clave;
+            this.valor = valor;
+            this.izquierdo = izquierdo;
+            this.derecho = derecho;
+            this.altura = Math.max(altura(izquierdo), altura(derecho)) + 1;
+            this.tamano = tamano(izquierdo) + tamano(derecho) + 1;
+        }
+
+        private static int altura(Nodo<?, ?> nodo) {
+            return nodo == null ? 0 : nodo.altura;
+        }
+
+        private static int tamano(Nodo<?, ?> nodo) {
+            return nodo == null ? 0 : nodo.tamano;
+        }
+
+        @Override
+        public K getKey() {
+            return clave;
+        }
+
+        @Override
+        public V getValue() {
+            return valor;
+        }
+
+        @Override
+        public V setValue(V valor) {
+            throw new UnsupportedOperationException("El mapa es inmutable");
+        }
+    }
+
+    /**
+     * Recorrido en orden con una pila de los nodos pendientes.
+     */
+    private final class Recorrido implements Iterator<Map.Entry<K, V>> {
+        private final Deque<Nodo<K, V>> pendientes = new ArrayDeque<>();
+
+        private Recorrido(K desde, boolean incluida) {
+            Nodo<K, V> nodo = raiz;
+            while (nodo != null) {
+                int c = desde == null ? 1 : orden.compare(nodo.clave, desde);
+                if (c > 0 || (c == 0 && incluida)) {
+                    pendientes.push(nodo);
+                    nodo = nodo.izquierdo;
+                } else {
+                    nodo = nodo.derecho;
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !pendientes.isEmpty();
+        }
+
+        @Override
+        public Map.Entry<K, V> next() {
+            if (pendientes.isEmpty()) {
+                throw new NoSuchElementException();
+            }
+            Nodo<K, V> siguiente = pendientes.pop();
+            for (Nodo<K, V> nodo = siguiente.derecho; nodo != null; nodo = nodo.izquierdo) {
+                pendientes.push(nodo);
+            }
+            return siguiente;
+        }
+    }
+}
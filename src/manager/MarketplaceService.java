@@ -2,6 +2,7 @@ package manager;
 
 import Cliente.Administrador;
 import Cliente.Cliente;
+import eventos.TipoEvento;
 import log.LogSistema;
 import marketPlace.ContraOferta;
 import marketPlace.EstadoOferta;
@@ -10,235 +11,714 @@ import marketPlace.EstadoContraOferta;
 import tiquetes.Tiquete;
 
 import java.util.ArrayList;
-import java.util.LinkedHashMap;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * Encapsula toda la lógica del marketplace de reventa.
+ * <p>
+ * Las operaciones se serializan con un {@link ReentrantLock}; {@link BoletaMasterSystem}
+ * le entrega su candado de escritura, de modo que el servicio y el sistema comparten uno solo.
+ * Cada operación marca en el {@link RegistroCambios} las ofertas que toca y, al confirmarse
+ * (o al cerrar la transacción que la contiene), el servicio publica la siguiente
+ * {@link InstantaneaLectura}; las consultas leen de ella sin tomar el candado.
  */
 public class MarketplaceService {
 
     private final BoletaMasterState state;
     private final LogSistema logSistema;
+    /**
+     * Última instantánea publicada; se reemplaza con {@link #candado} tomado.
+     */
+    private volatile InstantaneaLectura instantanea;
+    /**
+     * Transacción abierta por quien coordina la persistencia, o {@code null} si cada
+     * operación se confirma por sí sola. Solo cambia con {@link #candado} tomado.
+     */
+    private UnidadDeTrabajo transaccion;
+    private final ReentrantLock candado;
 
     public MarketplaceService(BoletaMasterState state) {
+        this(state, new ReentrantLock());
+    }
+
+    /**
+     * Cada estado lo administra un solo servicio: al crearlo se suman al inventario de los
+     * eventos los tiquetes de las ofertas activas.
+     *
+     * @param candado candado que serializa las operaciones y las transacciones del servicio.
+     */
+    public MarketplaceService(BoletaMasterState state, ReentrantLock candado) {
+        this.candado = Objects.requireNonNull(candado, "candado");
         this.state = Objects.requireNonNull(state, "state");
         this.logSistema = state.getLogSistema();
+        for (OfertaMarketPlace oferta : state.getOfertasPorId().values()) {
+            if (oferta.getEstado() == EstadoOferta.ACTIVA) {
+                ajustarReventa(oferta, 1);
+            }
+        }
+        this.instantanea = InstantaneaLectura.construir(state, InstantaneaLectura.VACIA);
+    }
+
+    /**
+     * @return las ofertas activas, por fecha de creación.
+     */
+    public List<VistaOferta> obtenerOfertasActivas() {
+        return instantanea.getOfertasActivas();
+    }
+
+    /**
+     * Oferta activa más barata (por tiquete) de un evento o de una de sus localidades.
+     *
+     * @param localidad nombre de la localidad, o {@code null} para todo el evento.
+     */
+    public Optional<VistaOferta> mejorOfertaEvento(String eventoId, String localidad) {
+        return instantanea.mejorOferta(eventoId, localidad);
+    }
+
+    /**
+     * @param localidad nombre de la localidad, o {@code null} para todo el evento.
+     * @param cantidad  número máximo de ofertas.
+     * @return las ofertas activas más baratas del evento, de menor a mayor precio por tiquete.
+     * @throws IllegalArgumentException si {@code cantidad} es negativa.
+     */
+    public List<VistaOferta> mejoresOfertasEvento(String eventoId, String localidad, int cantidad) {
+        return instantanea.mejoresOfertas(eventoId, localidad, cantidad);
+    }
+
+    /**
+     * @param localidad nombre de la localidad, o {@code null} para todo el evento.
+     * @return las ofertas activas del evento con precio por tiquete entre {@code minimo} y
+     *         {@code maximo} (ambos incluidos), de menor a mayor precio.
+     * @throws IllegalArgumentException si {@code minimo} supera a {@code maximo}.
+     */
+    public List<VistaOferta> ofertasEventoEnRango(String eventoId, String localidad,
+                                                  double minimo, double maximo) {
+        return instantanea.ofertasEnRango(eventoId, localidad, minimo, maximo);
+    }
+
+    /**
+     * Página de las ofertas activas en el orden indicado.
+     *
+     * @param cursor {@link PaginaOfertas#getSiguienteCursor() cursor} de la página anterior,
+     *               o {@code null} para la primera página.
+     * @param tamano número máximo de ofertas de la página (debe ser {@code > 0}); se recorta
+     *               a {@link PaginaOfertas#TAMANO_MAXIMO}.
+     * @throws IllegalArgumentException si el tamaño no es positivo o el cursor no es válido.
+     */
+    public PaginaOfertas<VistaOferta> paginarOfertasActivas(OrdenOfertas orden, String cursor, int tamano) {
+        return instantanea.paginaActivas(orden, cursor, tamano);
     }
 
-    public List<OfertaMarketPlace> obtenerOfertasActivas() {
-        return state.getOfertasPorId().values().stream()
-                .filter(o -> o.getEstado() == EstadoOferta.ACTIVA)
-                .collect(Collectors.toList());
+    /**
+     * Página de todas las ofertas, en cualquier estado; ver {@link #paginarOfertasActivas}.
+     */
+    public PaginaOfertas<VistaOferta> paginarTodasLasOfertas(OrdenOfertas orden, String cursor, int tamano) {
+        return instantanea.paginaTodas(orden, cursor, tamano);
     }
 
-    public List<OfertaMarketPlace> obtenerOfertasPorVendedor(Cliente vendedor) {
-        return state.getOfertasPorId().values().stream()
-                .filter(o -> o.getVendedor().equals(vendedor))
-                .collect(Collectors.toList());
+    /**
+     * Página de las ofertas publicadas por el vendedor; ver {@link #paginarOfertasActivas}.
+     */
+    public PaginaOfertas<VistaOferta> paginarOfertasPorVendedor(Cliente vendedor, OrdenOfertas orden,
+                                                                String cursor, int tamano) {
+        return instantanea.paginaDe(vendedor, orden, cursor, tamano);
     }
 
-    public List<OfertaMarketPlace> obtenerTodasLasOfertas() {
-        return new ArrayList<>(state.getOfertasPorId().values());
+    /**
+     * @return las ofertas del vendedor, por fecha de creación.
+     */
+    public List<VistaOferta> obtenerOfertasPorVendedor(Cliente vendedor) {
+        return instantanea.getOfertasPorVendedor(vendedor);
     }
 
-    public Optional<OfertaMarketPlace> buscarOferta(String ofertaId) {
-        return Optional.ofNullable(state.getOfertasPorId().get(ofertaId));
+    /**
+     * @return todas las ofertas, por fecha de creación.
+     */
+    public List<VistaOferta> obtenerTodasLasOfertas() {
+        return instantanea.getOfertas();
     }
 
-    public Map<OfertaMarketPlace, List<ContraOferta>> contraofertasPendientes(Cliente vendedor) {
-        Map<OfertaMarketPlace, List<ContraOferta>> result = new LinkedHashMap<>();
-        for (OfertaMarketPlace oferta : obtenerOfertasPorVendedor(vendedor)) {
-            List<ContraOferta> pendientes = oferta.getContraofertas().stream()
-                    .filter(c -> c.getEstado() == EstadoContraOferta.PENDIENTE)
-                    .collect(Collectors.toList());
-            if (!pendientes.isEmpty()) {
-                result.put(oferta, pendientes);
+    public Optional<VistaOferta> buscarOferta(String ofertaId) {
+        return Optional.ofNullable(instantanea.getOferta(ofertaId));
+    }
+
+    /**
+     * @return las ofertas del vendedor con contraofertas pendientes, por fecha de creación,
+     *         cada una con esas contraofertas.
+     */
+    public Map<VistaOferta, List<VistaContraoferta>> contraofertasPendientes(Cliente vendedor) {
+        return instantanea.getContraofertasPendientes(vendedor);
+    }
+
+    /**
+     * Última instantánea publicada; se lee sin candado.
+     */
+    InstantaneaLectura lectura() {
+        return instantanea;
+    }
+
+    /**
+     * Marca las ofertas activas del evento para que la siguiente instantánea vuelva a
+     * copiarlas, p. ej. tras cambiar los datos del evento que muestran. Se invoca con el
+     * candado tomado, cuando la instantánea publicada refleja el estado confirmado.
+     */
+    void marcarOfertasDe(String eventoId) {
+        RegistroCambios cambios = state.getCambios();
+        for (VistaOferta vista : instantanea.mejoresOfertas(eventoId, null, Integer.MAX_VALUE)) {
+            OfertaMarketPlace oferta = state.getOfertasPorId().get(vista.getId());
+            if (oferta != null) {
+                cambios.marcarOferta(oferta);
             }
         }
-        return result;
     }
 
-   public synchronized OfertaMarketPlace publicarOferta(Cliente vendedor, List<Integer> tiquetesIds, double precioInicial) {
-        if (vendedor == null) {
-            throw new IllegalArgumentException("Se requiere un vendedor");
+    /**
+     * Indica si la solicitud es el reintento de una ya completada con la misma clave de
+     * idempotencia. No toma el monitor del servicio, así que puede consultarse antes de
+     * admitir la solicitud sin esperar a la transacción en curso.
+     *
+     * @return {@code true} si la clave tiene un resultado vigente para el solicitante.
+     */
+    public boolean esReintento(OperacionMarketplace operacion, Cliente solicitante, String clave) {
+        return solicitante != null && clave != null
+                && state.getRegistroIdempotencia().contiene(operacion.name(), solicitante.getLogin(), clave);
+    }
+
+    /**
+     * Igual que {@link #publicarOferta(Cliente, List, double)}, pero si la clave ya se usó
+     * retorna la oferta publicada originalmente sin volver a ejecutar la operación.
+     *
+     * @param claveIdempotencia clave generada por el cliente para identificar la solicitud.
+     * @throws IllegalArgumentException si la clave está vacía o ya se usó con otros parámetros.
+     */
+    public OfertaMarketPlace publicarOferta(Cliente vendedor, List<Integer> tiquetesIds,
+                                                         double precioInicial, String claveIdempotencia) {
+        candado.lock();
+        try {
+            return idempotente(OperacionMarketplace.PUBLICAR_OFERTA, vendedor, claveIdempotencia,
+                    tiquetesIds + "|" + precioInicial,
+                    () -> publicarOferta(vendedor, tiquetesIds, precioInicial),
+                    OfertaMarketPlace::getId,
+                    id -> state.getOfertasPorId().get(id));
+        } finally {
+            candado.unlock();
         }
-        if (tiquetesIds == null || tiquetesIds.isEmpty()) {
-            throw new IllegalArgumentException("Debe seleccionar al menos un tiquete");
+    }
+
+    /**
+     * Igual que {@link #crearContraoferta(Cliente, String, double)}, pero si la clave ya se
+     * usó retorna la contraoferta creada originalmente en lugar de crear otra.
+     *
+     * @param claveIdempotencia clave generada por el cliente para identificar la solicitud.
+     * @throws IllegalArgumentException si la clave está vacía o ya se usó con otros parámetros.
+     */
+    public ContraOferta crearContraoferta(Cliente comprador, String ofertaId, double monto,
+                                                       String claveIdempotencia) {
+        candado.lock();
+        try {
+            return idempotente(OperacionMarketplace.CREAR_CONTRAOFERTA, comprador, claveIdempotencia,
+                    ofertaId + "|" + monto,
+                    () -> crearContraoferta(comprador, ofertaId, monto),
+                    ContraOferta::getId,
+                    id -> state.getOfertasPorId().get(ofertaId).buscarContraoferta(id).orElseThrow(
+                            () -> new IllegalStateException("No existe la contraoferta " + id)));
+        } finally {
+            candado.unlock();
         }
-        if (precioInicial <= 0) {
-            throw new IllegalArgumentException("El precio debe ser positivo");
+    }
+
+    /**
+     * Igual que {@link #aceptarContraoferta(Cliente, String, String)}, pero un reintento con
+     * la misma clave no falla por encontrar la oferta ya vendida.
+     *
+     * @param claveIdempotencia clave generada por el cliente para identificar la solicitud.
+     * @throws IllegalArgumentException si la clave está vacía o ya se usó con otros parámetros.
+     */
+    public void aceptarContraoferta(Cliente vendedor, String ofertaId, String contraofertaId,
+                                                 String claveIdempotencia) {
+        candado.lock();
+        try {
+            idempotente(OperacionMarketplace.ACEPTAR_CONTRAOFERTA, vendedor, claveIdempotencia,
+                    ofertaId + "|" + contraofertaId,
+                    () -> {
+                        aceptarContraoferta(vendedor, ofertaId, contraofertaId);
+                        return "";
+                    },
+                    resultado -> resultado,
+                    resultado -> resultado);
+        } finally {
+            candado.unlock();
         }
-        Map<Integer, Tiquete> tiquetes = state.getTiquetesPorId();
-        Set<Integer> deluxe = state.getTiquetesDeluxe();
-        Map<Integer, String> tiqueteEnOferta = state.getTiqueteEnOferta();
-        List<Tiquete> tiquetesOferta = new ArrayList<>();
-        for (Integer id : tiquetesIds) {
-            Tiquete tiquete = tiquetes.get(id);
-            if (tiquete == null) {
-                throw new IllegalArgumentException("No existe el tiquete " + id);
-            }
-            if (!Objects.equals(tiquete.getCliente(), vendedor)) {
-                throw new IllegalArgumentException("El tiquete " + id + " no pertenece al vendedor");
+    }
+
+    /**
+     * Igual que {@link #comprarOferta(Cliente, String)}, pero un reintento con la misma
+     * clave no vuelve a cobrar ni falla por encontrar la oferta ya vendida.
+     *
+     * @param claveIdempotencia clave generada por el cliente para identificar la solicitud.
+     * @throws IllegalArgumentException si la clave está vacía o ya se usó con otros parámetros.
+     */
+    public void comprarOferta(Cliente comprador, String ofertaId, String claveIdempotencia) {
+        candado.lock();
+        try {
+            idempotente(OperacionMarketplace.COMPRAR_OFERTA, comprador, claveIdempotencia, ofertaId,
+                    () -> {
+                        comprarOferta(comprador, ofertaId);
+                        return "";
+                    },
+                    resultado -> resultado,
+                    resultado -> resultado);
+        } finally {
+            candado.unlock();
+        }
+    }
+
+    public OfertaMarketPlace publicarOferta(Cliente vendedor, List<Integer> tiquetesIds, double precioInicial) {
+        candado.lock();
+        try {
+            if (vendedor == null) {
+                throw new IllegalArgumentException("Se requiere un vendedor");
             }
-            if (tiquete.isImpreso()) {
-                throw new IllegalArgumentException("El tiquete " + id + " ya fue impreso y no puede publicarse en el marketplace");
+            if (tiquetesIds == null || tiquetesIds.isEmpty()) {
+                throw new IllegalArgumentException("Debe seleccionar al menos un tiquete");
             }
-            if (deluxe.contains(id)) {
-                throw new IllegalArgumentException("El tiquete " + id + " pertenece a un paquete Deluxe y no puede revenderse");
+            if (precioInicial <= 0) {
+                throw new IllegalArgumentException("El precio debe ser positivo");
             }
-            if (tiqueteEnOferta.containsKey(id)) {
-                throw new IllegalArgumentException("El tiquete " + id + " ya está incluido en otra oferta");
+            BitmapEnteros deluxe = state.getTiquetesDeluxe();
+            BitmapEnteros enOferta = state.getTiquetesEnOferta();
+            MapaEnteros<String> tiqueteEnOferta = state.getTiqueteEnOferta();
+            List<Tiquete> tiquetesOferta = new ArrayList<>();
+            for (int id : tiquetesIds) {
+                Tiquete tiquete = state.buscarTiquete(id);
+                if (tiquete == null) {
+                    throw new IllegalArgumentException("No existe el tiquete " + id);
+                }
+                if (!Objects.equals(tiquete.getCliente(), vendedor)) {
+                    throw new IllegalArgumentException("El tiquete " + id + " no pertenece al vendedor");
+                }
+                if (tiquete.isImpreso()) {
+                    throw new IllegalArgumentException("El tiquete " + id + " ya fue impreso y no puede publicarse en el marketplace");
+                }
+                if (deluxe.contains(id)) {
+                    throw new IllegalArgumentException("El tiquete " + id + " pertenece a un paquete Deluxe y no puede revenderse");
+                }
+                if (enOferta.contains(id)) {
+                    throw new IllegalArgumentException("El tiquete " + id + " ya está incluido en otra oferta");
+                }
+                tiquetesOferta.add(tiquete);
             }
-            tiquetesOferta.add(tiquete);
-        }
-        OfertaMarketPlace oferta = new OfertaMarketPlace(vendedor, tiquetesOferta, precioInicial);
-        state.getOfertasPorId().put(oferta.getId(), oferta);
-        for (Tiquete tiquete : tiquetesOferta) {
-            tiqueteEnOferta.put(tiquete.getIdTiquete(), oferta.getId());
+            OfertaMarketPlace oferta = new OfertaMarketPlace(vendedor, tiquetesOferta, precioInicial);
+            return enPuntoDeGuardado(unidad -> {
+                unidad.poner(state.getOfertasPorId(), oferta.getId(), oferta);
+                state.getCambios().marcarOferta(oferta);
+                ajustarReventa(unidad, oferta, 1);
+                for (Tiquete tiquete : tiquetesOferta) {
+                    unidad.poner(tiqueteEnOferta, tiquete.getIdTiquete(), oferta.getId());
+                    unidad.agregar(enOferta, tiquete.getIdTiquete());
+                }
+                unidad.registrarLog(logSistema, "OFERTA", String.format("%s publicó la oferta %s por %.2f",
+                        vendedor.getLogin(), oferta.getId(), precioInicial));
+                return oferta;
+            });
+        } finally {
+            candado.unlock();
         }
-        logSistema.registrar("OFERTA", String.format("%s publicó la oferta %s por %.2f",
-                vendedor.getLogin(), oferta.getId(), precioInicial));
-        return oferta;
     }
 
-    public synchronized void cancelarOfertaPorVendedor(Cliente vendedor, String ofertaId) {
-        OfertaMarketPlace oferta = validarOfertaDeVendedor(vendedor, ofertaId);
-        if (oferta.getEstado() != EstadoOferta.ACTIVA) {
-            throw new IllegalStateException("La oferta no está activa");
+    public void cancelarOfertaPorVendedor(Cliente vendedor, String ofertaId) {
+        candado.lock();
+        try {
+            OfertaMarketPlace oferta = validarOfertaDeVendedor(vendedor, ofertaId);
+            if (oferta.getEstado() != EstadoOferta.ACTIVA) {
+                throw new IllegalStateException("La oferta no está activa");
+            }
+            enPuntoDeGuardado(unidad -> {
+                cambiarEstado(unidad, oferta, EstadoOferta.CANCELADA_VENDEDOR);
+                liberarTiquetes(unidad, oferta);
+                unidad.registrarLog(logSistema, "OFERTA", String.format("%s canceló la oferta %s",
+                        vendedor.getLogin(), oferta.getId()));
+                return null;
+            });
+        } finally {
+            candado.unlock();
         }
-        oferta.setEstado(EstadoOferta.CANCELADA_VENDEDOR);
-        liberarTiquetes(oferta);
-        logSistema.registrar("OFERTA", String.format("%s canceló la oferta %s",
-                vendedor.getLogin(), oferta.getId()));
     }
 
-    public synchronized void cancelarOfertaPorAdministrador(Administrador admin, String ofertaId) {
-        Administrador administrador = state.getAdministrador();
-        if (administrador == null || admin == null || !administrador.equals(admin)) {
-            throw new SecurityException("Administrador no autorizado");
-        }
-        OfertaMarketPlace oferta = state.getOfertasPorId().get(ofertaId);
-        if (oferta == null) {
-            throw new IllegalArgumentException("No existe la oferta");
+    public void cancelarOfertaPorAdministrador(Administrador admin, String ofertaId) {
+        candado.lock();
+        try {
+            Administrador administrador = state.getAdministrador();
+            if (administrador == null || admin == null || !administrador.equals(admin)) {
+                throw new SecurityException("Administrador no autorizado");
+            }
+            OfertaMarketPlace oferta = state.getOfertasPorId().get(ofertaId);
+            if (oferta == null) {
+                throw new IllegalArgumentException("No existe la oferta");
+            }
+            if (oferta.getEstado() != EstadoOferta.ACTIVA) {
+                throw new IllegalStateException("La oferta no está activa");
+            }
+            enPuntoDeGuardado(unidad -> {
+                cambiarEstado(unidad, oferta, EstadoOferta.CANCELADA_ADMIN);
+                liberarTiquetes(unidad, oferta);
+                unidad.registrarLog(logSistema, "OFERTA", String.format(
+                        "El administrador eliminó la oferta %s del vendedor %s",
+                        oferta.getId(), oferta.getVendedor().getLogin()));
+                return null;
+            });
+        } finally {
+            candado.unlock();
         }
-        if (oferta.getEstado() != EstadoOferta.ACTIVA) {
-            throw new IllegalStateException("La oferta no está activa");
+    }
+
+    public ContraOferta crearContraoferta(Cliente comprador, String ofertaId, double monto) {
+        candado.lock();
+        try {
+            OfertaMarketPlace oferta = state.getOfertasPorId().get(ofertaId);
+            if (comprador == null) {
+                throw new IllegalArgumentException("Se requiere un comprador");
+            }
+            if (oferta == null) {
+                throw new IllegalArgumentException("No existe la oferta");
+            }
+            if (oferta.getEstado() != EstadoOferta.ACTIVA) {
+                throw new IllegalStateException("La oferta no está activa");
+            }
+            if (oferta.getVendedor().equals(comprador)) {
+                throw new IllegalArgumentException("No puede contraofertar su propia oferta");
+            }
+            if (monto <= 0) {
+                throw new IllegalArgumentException("El monto debe ser positivo");
+            }
+            if (comprador.getSaldo() < monto) {
+                throw new IllegalArgumentException("Saldo insuficiente para realizar la contraoferta");
+            }
+            return enPuntoDeGuardado(unidad -> {
+                ContraOferta contra = oferta.agregarContraoferta(comprador, monto);
+                state.getCambios().marcarOferta(oferta);
+                unidad.alDeshacer(() -> oferta.retirarContraoferta(contra));
+                unidad.registrarLog(logSistema, "CONTRAOFERTA", String.format("%s propuso %.2f sobre la oferta %s",
+                        comprador.getLogin(), monto, oferta.getId()));
+                return contra;
+            });
+        } finally {
+            candado.unlock();
         }
-        oferta.setEstado(EstadoOferta.CANCELADA_ADMIN);
-        liberarTiquetes(oferta);
-        logSistema.registrar("OFERTA", String.format(
-                "El administrador eliminó la oferta %s del vendedor %s",
-                oferta.getId(), oferta.getVendedor().getLogin()));
     }
 
-    public synchronized ContraOferta crearContraoferta(Cliente comprador, String ofertaId, double monto) {
-        OfertaMarketPlace oferta = state.getOfertasPorId().get(ofertaId);
-        if (comprador == null) {
-            throw new IllegalArgumentException("Se requiere un comprador");
+    public void rechazarContraoferta(Cliente vendedor, String ofertaId, String contraofertaId) {
+        candado.lock();
+        try {
+            OfertaMarketPlace oferta = validarOfertaDeVendedor(vendedor, ofertaId);
+            ContraOferta contra = oferta.buscarContraoferta(contraofertaId)
+                    .orElseThrow(() -> new IllegalArgumentException("No existe la contraoferta"));
+            if (contra.getEstado() != EstadoContraOferta.PENDIENTE) {
+                throw new IllegalStateException("La contraoferta ya fue gestionada");
+            }
+            enPuntoDeGuardado(unidad -> {
+                cambiarEstado(unidad, oferta, contra, EstadoContraOferta.RECHAZADA);
+                unidad.registrarLog(logSistema, "CONTRAOFERTA", String.format("%s rechazó la contraoferta %s de %s",
+                        vendedor.getLogin(), contra.getId(), contra.getComprador().getLogin()));
+                return null;
+            });
+        } finally {
+            candado.unlock();
         }
-        if (oferta == null) {
-            throw new IllegalArgumentException("No existe la oferta");
+    }
+
+    public void aceptarContraoferta(Cliente vendedor, String ofertaId, String contraofertaId) {
+        candado.lock();
+        try {
+            OfertaMarketPlace oferta = validarOfertaDeVendedor(vendedor, ofertaId);
+            if (oferta.getEstado() != EstadoOferta.ACTIVA) {
+                throw new IllegalStateException("La oferta no está activa");
+            }
+            ContraOferta contra = oferta.buscarContraoferta(contraofertaId)
+                    .orElseThrow(() -> new IllegalArgumentException("No existe la contraoferta"));
+            if (contra.getEstado() != EstadoContraOferta.PENDIENTE) {
+                throw new IllegalStateException("La contraoferta ya fue gestionada");
+            }
+            validarTiquetesNoImpresos(oferta);
+            Cliente comprador = contra.getComprador();
+            double monto = contra.getMonto();
+            enPuntoDeGuardado(unidad -> {
+                unidad.debitar(comprador, monto);
+                unidad.acreditar(vendedor, monto);
+                transferirTiquetes(unidad, oferta, comprador);
+                registrarReventa(unidad, oferta, monto);
+                cambiarEstado(unidad, oferta, contra, EstadoContraOferta.ACEPTADA);
+                cambiarEstado(unidad, oferta, EstadoOferta.VENDIDA);
+                unidad.registrarLog(logSistema, "CONTRAOFERTA", String.format("%s aceptó la contraoferta %s de %s",
+                        vendedor.getLogin(), contra.getId(), comprador.getLogin()));
+                unidad.registrarLog(logSistema, "TRANSACCION", String.format(
+                        "Venta concretada por %.2f entre %s y %s (oferta %s)",
+                        monto, vendedor.getLogin(), comprador.getLogin(), oferta.getId()));
+                return null;
+            });
+        } finally {
+            candado.unlock();
         }
-        if (oferta.getEstado() != EstadoOferta.ACTIVA) {
-            throw new IllegalStateException("La oferta no está activa");
+    }
+
+    public void comprarOferta(Cliente comprador, String ofertaId) {
+        candado.lock();
+        try {
+            OfertaMarketPlace oferta = state.getOfertasPorId().get(ofertaId);
+            if (oferta == null) {
+                throw new IllegalArgumentException("No existe la oferta");
+            }
+            if (oferta.getEstado() != EstadoOferta.ACTIVA) {
+                throw new IllegalStateException("La oferta no está activa");
+            }
+            if (oferta.getVendedor().equals(comprador)) {
+                throw new IllegalArgumentException("No puede comprar su propia oferta");
+            }
+            validarTiquetesNoImpresos(oferta);
+            double monto = oferta.getPrecioInicial();
+            Cliente vendedor = oferta.getVendedor();
+            enPuntoDeGuardado(unidad -> {
+                unidad.debitar(comprador, monto);
+                unidad.acreditar(vendedor, monto);
+                transferirTiquetes(unidad, oferta, comprador);
+                registrarReventa(unidad, oferta, monto);
+                cambiarEstado(unidad, oferta, EstadoOferta.VENDIDA);
+                unidad.registrarLog(logSistema, "TRANSACCION", String.format(
+                        "Compra directa por %.2f entre %s y %s (oferta %s)",
+                        monto, comprador.getLogin(), vendedor.getLogin(), oferta.getId()));
+                return null;
+            });
+        } finally {
+            candado.unlock();
         }
-        if (oferta.getVendedor().equals(comprador)) {
-            throw new IllegalArgumentException("No puede contraofertar su propia oferta");
+    }
+
+    /**
+     * Ejecuta {@code operacion} y {@code persistir} como una sola transacción: si alguna
+     * de las dos falla, se revierten todos los efectos sobre el estado en memoria.
+     * De este modo una transacción produce exactamente una escritura durable, y ninguna
+     * si la operación no tuvo efectos (por ejemplo, un reintento idempotente).
+     * <p>
+     * Conserva el candado del servicio durante toda la transacción, incluido
+     * {@code persistir}: ninguna operación de otro hilo se intercala ni puede revertirse
+     * junto con esta. Es un {@link ReentrantLock} y no el monitor, así que esperar la
+     * escritura no fija hilos virtuales.
+     *
+     * @param operacion operación que muta el estado.
+     * @param persistir escritura durable del estado resultante.
+     * @return el resultado de la operación.
+     * @throws IllegalStateException si ya hay una transacción abierta.
+     */
+    public <T> T enTransaccion(Supplier<T> operacion, Runnable persistir) {
+        Objects.requireNonNull(operacion, "operacion");
+        Objects.requireNonNull(persistir, "persistir");
+        UnidadDeTrabajo unidad = abrirTransaccion();
+        try {
+            T resultado = operacion.get();
+            if (unidad.marca() > 0) {
+                persistir.run();
+            }
+            unidad.confirmar();
+            return resultado;
+        } catch (RuntimeException | Error e) {
+            unidad.deshacer();
+            throw e;
+        } finally {
+            cerrarTransaccion();
         }
-        if (monto <= 0) {
-            throw new IllegalArgumentException("El monto debe ser positivo");
+    }
+
+    /**
+     * Abre una transacción que agrupa varias operaciones; cada operación posterior queda
+     * como un punto de guardado dentro de ella hasta {@link #cerrarTransaccion()}. El hilo
+     * que la abre conserva el candado del servicio hasta cerrarla, así que las operaciones
+     * de otros hilos esperan y nunca quedan dentro de una transacción ajena.
+     *
+     * @return la unidad de trabajo abierta.
+     * @throws IllegalStateException si ya hay una transacción abierta.
+     */
+    UnidadDeTrabajo abrirTransaccion() {
+        candado.lock();
+        if (transaccion != null) {
+            candado.unlock();
+            throw new IllegalStateException("Ya hay una transacción abierta");
         }
-        if (comprador.getSaldo() < monto) {
-            throw new IllegalArgumentException("Saldo insuficiente para realizar la contraoferta");
+        transaccion = new UnidadDeTrabajo();
+        return transaccion;
+    }
+
+    /**
+     * Cierra la transacción y libera el candado que tomó {@link #abrirTransaccion()}.
+     *
+     * @throws IllegalMonitorStateException si el hilo actual no abrió la transacción.
+     */
+    void cerrarTransaccion() {
+        if (!candado.isHeldByCurrentThread() || transaccion == null) {
+            throw new IllegalMonitorStateException("El hilo actual no tiene una transacción abierta");
         }
-        ContraOferta contra = oferta.agregarContraoferta(comprador, monto);
-        logSistema.registrar("CONTRAOFERTA", String.format("%s propuso %.2f sobre la oferta %s",
-                comprador.getLogin(), monto, oferta.getId()));
-        return contra;
-    }
-
-    public synchronized void rechazarContraoferta(Cliente vendedor, String ofertaId, String contraofertaId) {
-        OfertaMarketPlace oferta = validarOfertaDeVendedor(vendedor, ofertaId);
-        ContraOferta contra = oferta.buscarContraoferta(contraofertaId)
-                .orElseThrow(() -> new IllegalArgumentException("No existe la contraoferta"));
-        if (contra.getEstado() != EstadoContraOferta.PENDIENTE) {
-            throw new IllegalStateException("La contraoferta ya fue gestionada");
+        transaccion = null;
+        try {
+            publicar();
+        } finally {
+            candado.unlock();
         }
-        contra.setEstado(EstadoContraOferta.RECHAZADA);
-        logSistema.registrar("CONTRAOFERTA", String.format("%s rechazó la contraoferta %s de %s",
-                vendedor.getLogin(), contra.getId(), contra.getComprador().getLogin()));
     }
 
-    public synchronized void aceptarContraoferta(Cliente vendedor, String ofertaId, String contraofertaId) {
-        OfertaMarketPlace oferta = validarOfertaDeVendedor(vendedor, ofertaId);
-        if (oferta.getEstado() != EstadoOferta.ACTIVA) {
-            throw new IllegalStateException("La oferta no está activa");
+    /**
+     * Ejecuta una operación atómica: si falla, solo se revierten sus propios efectos.
+     * Fuera de una transacción abierta, los efectos quedan confirmados y publicados al terminar.
+     */
+    <T> T enPuntoDeGuardado(Function<UnidadDeTrabajo, T> operacion) {
+        candado.lock();
+        UnidadDeTrabajo unidad = transaccion != null ? transaccion : new UnidadDeTrabajo();
+        try {
+            int marca = unidad.marca();
+            try {
+                T resultado = operacion.apply(unidad);
+                if (unidad != transaccion) {
+                    unidad.confirmar();
+                }
+                return resultado;
+            } catch (RuntimeException | Error e) {
+                unidad.deshacerHasta(marca);
+                throw e;
+            }
+        } finally {
+            try {
+                if (unidad != transaccion) {
+                    publicar();
+                }
+            } finally {
+                candado.unlock();
+            }
         }
-        ContraOferta contra = oferta.buscarContraoferta(contraofertaId)
-                .orElseThrow(() -> new IllegalArgumentException("No existe la contraoferta"));
-        if (contra.getEstado() != EstadoContraOferta.PENDIENTE) {
-            throw new IllegalStateException("La contraoferta ya fue gestionada");
+    }
+
+    /**
+     * Publica la instantánea siguiente con lo marcado desde la anterior. Se invoca con el
+     * candado tomado, después de revertir o confirmar.
+     */
+    private void publicar() {
+        instantanea = InstantaneaLectura.construir(state, instantanea);
+    }
+
+    private <T> T idempotente(OperacionMarketplace operacion, Cliente solicitante, String clave, String huella,
+                              Supplier<T> ejecutar, Function<T, String> resultado, Function<String, T> reconstruir) {
+        if (solicitante == null) {
+            throw new IllegalArgumentException("Se requiere un cliente");
         }
-        validarTiquetesNoImpresos(oferta);
-        Cliente comprador = contra.getComprador();
-        double monto = contra.getMonto();
-        comprador.usarSaldo(monto);
-        vendedor.acreditarSaldo(monto);
-        transferirTiquetes(oferta, comprador);
-        contra.setEstado(EstadoContraOferta.ACEPTADA);
-        oferta.setEstado(EstadoOferta.VENDIDA);
-        logSistema.registrar("CONTRAOFERTA", String.format("%s aceptó la contraoferta %s de %s",
-                vendedor.getLogin(), contra.getId(), comprador.getLogin()));
-        logSistema.registrar("TRANSACCION", String.format(
-                "Venta concretada por %.2f entre %s y %s (oferta %s)",
-                monto, vendedor.getLogin(), comprador.getLogin(), oferta.getId()));
-    }
-
-    public synchronized void comprarOferta(Cliente comprador, String ofertaId) {
-        OfertaMarketPlace oferta = state.getOfertasPorId().get(ofertaId);
-        if (oferta == null) {
-            throw new IllegalArgumentException("No existe la oferta");
+        if (clave == null || clave.isBlank()) {
+            throw new IllegalArgumentException("La clave de idempotencia es obligatoria");
         }
-        if (oferta.getEstado() != EstadoOferta.ACTIVA) {
-            throw new IllegalStateException("La oferta no está activa");
+        RegistroIdempotencia registro = state.getRegistroIdempotencia();
+        String login = solicitante.getLogin();
+        Optional<String> previo = registro.buscar(operacion.name(), login, clave, huella);
+        if (previo.isPresent()) {
+            return reconstruir.apply(previo.get());
         }
-        if (oferta.getVendedor().equals(comprador)) {
-            throw new IllegalArgumentException("No puede comprar su propia oferta");
+        return enPuntoDeGuardado(unidad -> {
+            T valor = ejecutar.get();
+            registro.registrar(operacion.name(), login, clave, huella, resultado.apply(valor));
+            unidad.alDeshacer(() -> registro.olvidar(operacion.name(), login, clave));
+            return valor;
+        });
+    }
+
+    private void cambiarEstado(UnidadDeTrabajo unidad, OfertaMarketPlace oferta, EstadoOferta estado) {
+        boolean eraActiva = oferta.getEstado() == EstadoOferta.ACTIVA;
+        unidad.cambiarEstado(oferta, estado);
+        state.getCambios().marcarOferta(oferta);
+        if (eraActiva != (estado == EstadoOferta.ACTIVA)) {
+            ajustarReventa(unidad, oferta, eraActiva ? -1 : 1);
         }
-        validarTiquetesNoImpresos(oferta);
-        double monto = oferta.getPrecioInicial();
-        comprador.usarSaldo(monto);
-        Cliente vendedor = oferta.getVendedor();
-        vendedor.acreditarSaldo(monto);
-        transferirTiquetes(oferta, comprador);
-        oferta.setEstado(EstadoOferta.VENDIDA);
-        logSistema.registrar("TRANSACCION", String.format(
-                "Compra directa por %.2f entre %s y %s (oferta %s)",
-                monto, comprador.getLogin(), vendedor.getLogin(), oferta.getId()));
-    }
-
-    private void transferirTiquetes(OfertaMarketPlace oferta, Cliente nuevoPropietario) {
-        Map<Integer, String> tiqueteEnOferta = state.getTiqueteEnOferta();
+    }
+
+    private void cambiarEstado(UnidadDeTrabajo unidad, OfertaMarketPlace oferta, ContraOferta contra,
+                               EstadoContraOferta estado) {
+        unidad.cambiarEstado(contra, estado);
+        state.getCambios().marcarOferta(oferta);
+    }
+
+    private void transferirTiquetes(UnidadDeTrabajo unidad, OfertaMarketPlace oferta, Cliente nuevoPropietario) {
+        MapaEnteros<String> tiqueteEnOferta = state.getTiqueteEnOferta();
+        BitmapEnteros enOferta = state.getTiquetesEnOferta();
+        RegistroCambios cambios = state.getCambios();
+        cambios.marcarCliente(nuevoPropietario);
         for (Tiquete tiquete : oferta.getTiquetes()) {
-        	if (tiquete.isImpreso()) {
+            if (tiquete.isImpreso()) {
                 throw new IllegalStateException("El tiquete " + tiquete.getIdTiquete() + " ya fue impreso y no puede transferirse");
             }
-            Cliente antiguo = tiquete.getCliente();
-            if (antiguo != null) {
-                antiguo.eliminarTiquete(tiquete);
-            }
-            nuevoPropietario.agregarTiquete(tiquete);
-            tiquete.setCliente(nuevoPropietario);
-            tiqueteEnOferta.remove(tiquete.getIdTiquete());
+            cambios.marcarCliente(tiquete.getCliente());
+            unidad.transferirTiquete(tiquete, nuevoPropietario);
+            unidad.quitar(tiqueteEnOferta, tiquete.getIdTiquete());
+            unidad.quitar(enOferta, tiquete.getIdTiquete());
         }
     }
     
+    /**
+     * Como {@link #ajustarReventa(OfertaMarketPlace, int)}, revirtiendo el ajuste si la unidad
+     * se deshace.
+     */
+    private static void ajustarReventa(UnidadDeTrabajo unidad, OfertaMarketPlace oferta, int delta) {
+        ajustarReventa(oferta, delta);
+        unidad.alDeshacer(() -> ajustarReventa(oferta, -delta));
+    }
+
+    /**
+     * Lleva al inventario del evento y de la localidad los tiquetes de una oferta que entra
+     * ({@code +1}) o sale ({@code -1}) de las activas.
+     */
+    private static void ajustarReventa(OfertaMarketPlace oferta, int delta) {
+        for (Tiquete tiquete : oferta.getTiquetes()) {
+            if (tiquete.getEvento() != null) {
+                tiquete.getEvento().registrarReventa(tiquete, delta);
+            }
+            if (tiquete.getLocalidad() != null) {
+                tiquete.getLocalidad().registrarReventa(tiquete, delta);
+            }
+        }
+    }
+
+    /**
+     * Suma la venta al volumen de reventa del tablero del administrador, si hay uno cargado.
+     */
+    private void registrarReventa(UnidadDeTrabajo unidad, OfertaMarketPlace oferta, double monto) {
+        Administrador administrador = state.getAdministrador();
+        if (administrador != null) {
+            unidad.registrarReventa(administrador.getTablero(), montosPorTipo(oferta, monto));
+        }
+    }
+
+    /**
+     * Reparte el monto de una venta entre los tipos de evento de los tiquetes de la oferta, en
+     * proporción a cuántos tiquetes tiene cada tipo; el residuo de centavos va al último tipo.
+     */
+    static Map<TipoEvento, Double> montosPorTipo(OfertaMarketPlace oferta, double monto) {
+        Map<TipoEvento, Integer> tiquetesPorTipo = new EnumMap<>(TipoEvento.class);
+        for (Tiquete tiquete : oferta.getTiquetes()) {
+            tiquetesPorTipo.merge(tiquete.getEvento().getTipoEvento(), 1, Integer::sum);
+        }
+        Map<TipoEvento, Double> montos = new EnumMap<>(TipoEvento.class);
+        long centavos = Math.round(monto * 100.0);
+        long repartidos = 0;
+        int contados = 0;
+        int total = oferta.getTiquetes().size();
+        for (Map.Entry<TipoEvento, Integer> tipo : tiquetesPorTipo.entrySet()) {
+            contados += tipo.getValue();
+            long hasta = contados == total ? centavos : centavos * contados / total;
+            montos.put(tipo.getKey(), (hasta - repartidos) / 100.0);
+            repartidos = hasta;
+        }
+        return montos;
+    }
+
     private void validarTiquetesNoImpresos(OfertaMarketPlace oferta) {
         for (Tiquete tiquete : oferta.getTiquetes()) {
             if (tiquete.isImpreso()) {
@@ -258,10 +738,12 @@ public class MarketplaceService {
         return oferta;
     }
 
-    private void liberarTiquetes(OfertaMarketPlace oferta) {
-        Map<Integer, String> tiqueteEnOferta = state.getTiqueteEnOferta();
+    private void liberarTiquetes(UnidadDeTrabajo unidad, OfertaMarketPlace oferta) {
+        MapaEnteros<String> tiqueteEnOferta = state.getTiqueteEnOferta();
+        BitmapEnteros enOferta = state.getTiquetesEnOferta();
         for (Tiquete tiquete : oferta.getTiquetes()) {
-            tiqueteEnOferta.remove(tiquete.getIdTiquete());
+            unidad.quitar(tiqueteEnOferta, tiquete.getIdTiquete());
+            unidad.quitar(enOferta, tiquete.getIdTiquete());
         }
     }
 }
\ No newline at end of file
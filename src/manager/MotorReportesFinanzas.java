@@ -0,0 +1,323 @@
+package manager;
+
+import Cliente.Organizador;
+import eventos.Evento;
+import eventos.Localidad;
+import tiquetes.AlmacenTiquetes;
+import tiquetes.Tiquete;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Genera los {@link ReporteFinanzas} de los organizadores sumando en paralelo, con
+ * fork/join, los tiquetes de sus eventos junto con las ventas de los {@link AlmacenTiquetes}
+ * del estado.
+ * <p>
+ * Los eventos se reparten entre los hilos del pool, y los eventos grandes se parten además
+ * en rangos de {@value #UMBRAL} tiquetes. El motor guarda el resumen de cada evento junto
+ * con la versión del evento y la de cada uno de sus almacenes ({@link Evento#getVersion()},
+ * {@link AlmacenTiquetes#getVersion()}): el siguiente reporte del mismo organizador solo
+ * recorre los eventos que cambiaron, así que un organizador con cientos de eventos recibe
+ * su reporte en milisegundos si pocos tuvieron ventas.
+ * <p>
+ * Un reporte se genera en dos pasos. {@link #capturar(Organizador)} es el único que lee el
+ * estado: compara las versiones y, de los eventos que cambiaron, copia el precio y la
+ * localidad de cada tiquete y suma por localidad sus almacenes, que ya son columnas
+ * contiguas. {@link #generar(Captura)} suma en el pool lo copiado sin tocar el estado.
+ * {@link BoletaMasterSystem#consultarReporteFinanzas(String, String)} solo toma el candado de
+ * escritura para la captura, así que las escrituras no esperan a que el pool termine.
+ */
+public final class MotorReportesFinanzas {
+
+    static final int UMBRAL = 8_192;
+
+    private final BoletaMasterState state;
+    private final ForkJoinPool pool;
+    /** Último resumen de cada evento, por organizador. */
+    private final Map<Organizador, Map<Evento, Calculado>> calculados = new IdentityHashMap<>();
+
+    public MotorReportesFinanzas(BoletaMasterState state) {
+        this(state, ForkJoinPool.commonPool());
+    }
+
+    public MotorReportesFinanzas(BoletaMasterState state, ForkJoinPool pool) {
+        this.state = Objects.requireNonNull(state, "state");
+        this.pool = Objects.requireNonNull(pool, "pool");
+    }
+
+    /**
+     * Genera el reporte del organizador, recalculando solo los eventos que cambiaron desde
+     * su reporte anterior. Mientras se captura nadie debe modificar los eventos ni los
+     * almacenes.
+     *
+     * @throws NullPointerException si {@code organizador} es {@code null}.
+     */
+    public ReporteFinanzas generar(Organizador organizador) {
+        return generar(capturar(organizador));
+    }
+
+    /**
+     * Decide qué eventos del organizador cambiaron desde su reporte anterior y copia sus datos.
+     * Cuesta O(eventos y almacenes del organizador + tiquetes de los eventos que cambiaron) y
+     * debe ejecutarse sin que nadie modifique los eventos ni los almacenes.
+     *
+     * @throws NullPointerException si {@code organizador} es {@code null}.
+     */
+    synchronized Captura capturar(Organizador organizador) {
+        Objects.requireNonNull(organizador, "organizador");
+        Map<Evento, Calculado> anteriores = calculados.getOrDefault(organizador, Map.of());
+        Map<Evento, Calculado> vigentes = new IdentityHashMap<>();
+        List<Evento> eventos = List.copyOf(organizador.getEventos());
+        List<Calcular> pendientes = new ArrayList<>();
+        for (Evento evento : eventos) {
+            List<AlmacenTiquetes> suyos = state.almacenesDe(evento);
+            Calculado anterior = anteriores.get(evento);
+            if (anterior != null && anterior.vigente(evento, suyos)) {
+                vigentes.put(evento, anterior);
+            } else if (!vigentes.containsKey(evento)) {
+                Calculado nuevo = new Calculado(evento, suyos);
+                vigentes.put(evento, nuevo);
+                pendientes.add(Calcular.copiar(evento, suyos, nuevo));
+            }
+        }
+        return new Captura(organizador, eventos, vigentes, pendientes);
+    }
+
+    /**
+     * Suma en el pool los eventos que cambiaron según la captura y arma el reporte. No lee
+     * el estado, así que puede ejecutarse mientras otros lo modifican.
+     */
+    ReporteFinanzas generar(Captura captura) {
+        if (!captura.pendientes.isEmpty()) {
+            pool.invoke(new CalcularEventos(captura.pendientes, 0, captura.pendientes.size()));
+        }
+        guardar(captura.organizador, captura.vigentes);
+
+        List<ReporteFinanzas.ResumenEvento> resumenes = new ArrayList<>(captura.eventos.size());
+        for (Evento evento : captura.eventos) {
+            resumenes.add(captura.vigentes.get(evento).resumen);
+        }
+        return new ReporteFinanzas(captura.organizador, resumenes, captura.pendientes.size());
+    }
+
+    /**
+     * Si dos reportes del mismo organizador se cruzan gana el último en terminar; a lo sumo
+     * el siguiente recalcula algún evento de más, porque cada resumen lleva su versión.
+     */
+    private synchronized void guardar(Organizador organizador, Map<Evento, Calculado> vigentes) {
+        calculados.put(organizador, vigentes);
+    }
+
+    /**
+     * Olvida los resúmenes guardados: el siguiente reporte de cada organizador recorre todos
+     * sus eventos.
+     */
+    public synchronized void reiniciar() {
+        calculados.clear();
+    }
+
+    /**
+     * Lo que {@link #capturar(Organizador)} copió del estado para un reporte.
+     */
+    static final class Captura {
+        private final Organizador organizador;
+        private final List<Evento> eventos;
+        private final Map<Evento, Calculado> vigentes;
+        private final List<Calcular> pendientes;
+
+        private Captura(Organizador organizador, List<Evento> eventos, Map<Evento, Calculado> vigentes,
+                List<Calcular> pendientes) {
+            this.organizador = organizador;
+            this.eventos = eventos;
+            this.vigentes = vigentes;
+            this.pendientes = pendientes;
+        }
+    }
+
+    /**
+     * Resumen de un evento con el vector de versiones con que se calculó: la del evento y la
+     * de cada almacén suyo. Cada versión solo crece, así que el resumen sigue vigente si y
+     * solo si los almacenes son los mismos y ninguna versión cambió.
+     */
+    private static final class Calculado {
+        private final long versionEvento;
+        private final AlmacenTiquetes[] almacenes;
+        private final long[] versionesAlmacenes;
+        private ReporteFinanzas.ResumenEvento resumen;
+
+        private Calculado(Evento evento, List<AlmacenTiquetes> almacenes) {
+            this.versionEvento = evento.getVersion();
+            this.almacenes = almacenes.toArray(new AlmacenTiquetes[0]);
+            this.versionesAlmacenes = new long[this.almacenes.length];
+            for (int i = 0; i < this.almacenes.length; i++) {
+                versionesAlmacenes[i] = this.almacenes[i].getVersion();
+            }
+        }
+
+        private boolean vigente(Evento evento, List<AlmacenTiquetes> actuales) {
+            if (evento.getVersion() != versionEvento || actuales.size() != almacenes.length) {
+                return false;
+            }
+            for (int i = 0; i < almacenes.length; i++) {
+                AlmacenTiquetes almacen = actuales.get(i);
+                if (almacen != almacenes[i] || almacen.getVersion() != versionesAlmacenes[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Reparte los eventos pendientes entre los hilos partiendo la lista por la mitad.
+     */
+    @SuppressWarnings("serial")
+    private static final class CalcularEventos extends RecursiveAction {
+        private final List<Calcular> pendientes;
+        private final int desde;
+        private final int hasta;
+
+        private CalcularEventos(List<Calcular> pendientes, int desde, int hasta) {
+            this.pendientes = pendientes;
+            this.desde = desde;
+            this.hasta = hasta;
+        }
+
+        @Override
+        protected void compute() {
+            if (hasta - desde == 1) {
+                pendientes.get(desde).compute();
+                return;
+            }
+            int mitad = (desde + hasta) >>> 1;
+            invokeAll(new CalcularEventos(pendientes, desde, mitad), new CalcularEventos(pendientes, mitad, hasta));
+        }
+    }
+
+    /**
+     * Suma los tiquetes copiados de un evento, partidos en rangos, les agrega las sumas de
+     * sus almacenes y deja el resumen en {@link Calculado#resumen}.
+     */
+    @SuppressWarnings("serial")
+    private static final class Calcular extends RecursiveAction {
+        private final Evento evento;
+        private final Localidad[] localidades;
+        private final long[] centavos;
+        private final Sumas almacenadas;
+        private final Calculado destino;
+
+        private Calcular(Evento evento, Localidad[] localidades, long[] centavos, Sumas almacenadas,
+                Calculado destino) {
+            this.evento = evento;
+            this.localidades = localidades;
+            this.centavos = centavos;
+            this.almacenadas = almacenadas;
+            this.destino = destino;
+        }
+
+        /**
+         * Copia la localidad y el precio de cada tiquete del evento y suma sus almacenes,
+         * cuyas columnas se recorren tan rápido como se copiarían.
+         */
+        private static Calcular copiar(Evento evento, List<AlmacenTiquetes> almacenes, Calculado destino) {
+            Collection<Tiquete> tiquetes = evento.verTiquetes();
+            Localidad[] localidades = new Localidad[tiquetes.size()];
+            long[] centavos = new long[tiquetes.size()];
+            int i = 0;
+            for (Tiquete tiquete : tiquetes) {
+                localidades[i] = tiquete.getLocalidad();
+                centavos[i] = Math.round(tiquete.getPrecio() * 100.0);
+                i++;
+            }
+            Sumas almacenadas = new Sumas();
+            for (AlmacenTiquetes almacen : almacenes) {
+                List<Localidad> tabla = almacen.getLocalidades();
+                long[] porLocalidad = new long[tabla.size() + 1];
+                long[] centavosPorLocalidad = new long[tabla.size() + 1];
+                almacen.sumarVentasPorLocalidad(0, almacen.getTamano(), porLocalidad, centavosPorLocalidad);
+                for (int j = 0; j < porLocalidad.length; j++) {
+                    if (porLocalidad[j] > 0) {
+                        almacenadas.sumar(j < tabla.size() ? tabla.get(j) : null, porLocalidad[j], centavosPorLocalidad[j]);
+                    }
+                }
+            }
+            return new Calcular(evento, localidades, centavos, almacenadas, destino);
+        }
+
+        @Override
+        protected void compute() {
+            Sumas total = localidades.length > 0
+                    ? new SumarTiquetes(localidades, centavos, 0, localidades.length).compute()
+                    : new Sumas();
+            total.agregar(almacenadas);
+            destino.resumen = total.resumir(evento);
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private static final class SumarTiquetes extends RecursiveTask<Sumas> {
+        private final Localidad[] localidades;
+        private final long[] centavos;
+        private final int desde;
+        private final int hasta;
+
+        private SumarTiquetes(Localidad[] localidades, long[] centavos, int desde, int hasta) {
+            this.localidades = localidades;
+            this.centavos = centavos;
+            this.desde = desde;
+            this.hasta = hasta;
+        }
+
+        @Override
+        protected Sumas compute() {
+            if (hasta - desde <= UMBRAL) {
+                Sumas sumas = new Sumas();
+                for (int i = desde; i < hasta; i++) {
+                    sumas.sumar(localidades[i], 1, centavos[i]);
+                }
+                return sumas;
+            }
+            int mitad = (desde + hasta) >>> 1;
+            SumarTiquetes derecha = new SumarTiquetes(localidades, centavos, mitad, hasta);
+            derecha.fork();
+            Sumas sumas = new SumarTiquetes(localidades, centavos, desde, mitad).compute();
+            sumas.agregar(derecha.join());
+            return sumas;
+        }
+    }
+
+    /**
+     * Tiquetes y centavos por localidad de un rango. Al agregar primero el rango izquierdo,
+     * las localidades quedan en el orden en que aparecen en los tiquetes.
+     */
+    private static final class Sumas {
+        /** Localidad → {tiquetes, centavos}. */
+        private final Map<Localidad, long[]> porLocalidad = new LinkedHashMap<>();
+
+        private void sumar(Localidad localidad, long tiquetes, long centavos) {
+            long[] suma = porLocalidad.computeIfAbsent(localidad, l -> new long[2]);
+            suma[0] += tiquetes;
+            suma[1] += centavos;
+        }
+
+        private void agregar(Sumas otras) {
+            otras.porLocalidad.forEach((localidad, suma) -> sumar(localidad, suma[0], suma[1]));
+        }
+
+        private ReporteFinanzas.ResumenEvento resumir(Evento evento) {
+            Map<Localidad, ReporteFinanzas.ResumenLocalidad> resumenes = new LinkedHashMap<>();
+            porLocalidad.forEach((localidad, suma) -> resumenes.put(localidad,
+                    new ReporteFinanzas.ResumenLocalidad(localidad, suma[0], suma[1])));
+            return new ReporteFinanzas.ResumenEvento(evento, resumenes);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package manager;
+
+/**
+ * Operaciones del marketplace que modifican el estado.
+ */
+public enum OperacionMarketplace {
+    PUBLICAR_OFERTA,
+    CANCELAR_OFERTA,
+    CREAR_CONTRAOFERTA,
+    RECHAZAR_CONTRAOFERTA,
+    ACEPTAR_CONTRAOFERTA,
+    COMPRAR_OFERTA
+}
@@ -0,0 +1,33 @@
+package manager;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+
+/**
+ * Criterios de orden disponibles para listar ofertas por páginas.
+ * <p>
+ * Todos son órdenes totales: ante empate se ordena por fecha de creación y luego por id,
+ * de modo que un cursor identifica siempre una posición única.
+ */
+public enum OrdenOfertas {
+    /** Precio de la oferta, de menor a mayor. */
+    PRECIO(Comparator.comparingDouble(VistaOferta::getPrecioInicial)),
+    /** Fecha de publicación, de la más antigua a la más reciente. */
+    FECHA_CREACION(Comparator.comparing(VistaOferta::getFechaCreacion)),
+    /** Fecha del evento más próximo de la oferta; las ofertas sin evento van al final. */
+    FECHA_EVENTO(Comparator.comparing(VistaOferta::getFechaEvento,
+            Comparator.nullsLast(Comparator.<LocalDate>naturalOrder())));
+
+    private final Comparator<VistaOferta> comparador;
+
+    OrdenOfertas(Comparator<VistaOferta> principal) {
+        this.comparador = principal.thenComparing(VistaOferta.POR_FECHA_CREACION);
+    }
+
+    /**
+     * Orden de las {@link VistaOferta vistas} de la instantánea de lectura.
+     */
+    Comparator<VistaOferta> comparador() {
+        return comparador;
+    }
+}
@@ -0,0 +1,75 @@
+package manager;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Página de un listado de ofertas y cursor para pedir la siguiente.
+ * <p>
+ * El cursor es opaco para quien lo usa: identifica la última oferta de la página y el
+ * orden del listado, y sigue siendo válido aunque esa oferta cambie de estado o se
+ * publiquen ofertas nuevas entre una página y otra.
+ * <p>
+ * Las páginas salen de la instantánea de lectura, así que contienen
+ * {@link VistaOferta vistas} y no las ofertas vivas. Una página tiene a lo sumo
+ * {@value #TAMANO_MAXIMO} ofertas: un tamaño mayor se recorta, para que una sola consulta
+ * no reserve ni recorra una cantidad arbitraria de ofertas.
+ *
+ * @param <T> tipo de las ofertas de la página.
+ */
+public final class PaginaOfertas<T> {
+
+    /** Tamaño máximo de una página; los pedidos mayores se recortan a este valor. */
+    public static final int TAMANO_MAXIMO = 500;
+
+    private final List<T> ofertas;
+    private final String siguienteCursor;
+
+    PaginaOfertas(List<T> ofertas, String siguienteCursor) {
+        this.ofertas = Collections.unmodifiableList(Objects.requireNonNull(ofertas, "ofertas"));
+        this.siguienteCursor = siguienteCursor;
+    }
+
+    public List<T> getOfertas() {
+        return ofertas;
+    }
+
+    /**
+     * @return cursor de la siguiente página, o {@code null} si esta es la última.
+     */
+    public String getSiguienteCursor() {
+        return siguienteCursor;
+    }
+
+    public boolean tieneSiguiente() {
+        return siguienteCursor != null;
+    }
+
+    /**
+     * @return el tamaño pedido, recortado a {@link #TAMANO_MAXIMO}.
+     * @throws IllegalArgumentException si el tamaño no es positivo.
+     */
+    static int tamanoValido(int tamano) {
+        if (tamano <= 0) {
+            throw new IllegalArgumentException("El tamaño de página debe ser positivo");
+        }
+        return Math.min(tamano, TAMANO_MAXIMO);
+    }
+
+    static String cursor(OrdenOfertas orden, String idUltima) {
+        return orden.name() + ':' + idUltima;
+    }
+
+    /**
+     * @return id de la última oferta de la página anterior.
+     * @throws IllegalArgumentException si el cursor no corresponde al orden pedido.
+     */
+    static String idDesdeCursor(OrdenOfertas orden, String cursor) {
+        String prefijo = orden.name() + ':';
+        if (!cursor.startsWith(prefijo) || cursor.length() == prefijo.length()) {
+            throw new IllegalArgumentException("Cursor inválido para el orden " + orden + ": " + cursor);
+        }
+        return cursor.substring(prefijo.length());
+    }
+}
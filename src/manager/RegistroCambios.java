@@ -0,0 +1,75 @@
+package manager;
+
+import Cliente.Cliente;
+import eventos.Evento;
+import marketPlace.OfertaMarketPlace;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Ofertas, clientes y eventos que cambiaron desde la última {@link InstantaneaLectura}.
+ * <p>
+ * Quien modifica el estado marca lo que tocó ({@link MarketplaceService} las ofertas y los
+ * dueños de los tiquetes transferidos, {@link BoletaMasterSystem} los eventos y los tiquetes
+ * impresos) y la instantánea siguiente vuelve a copiar solo eso.
+ * Marcar de más no es un error: una transacción revertida deja marcados elementos que
+ * quedaron como estaban, y la instantánea simplemente los copia igual. Se usa con el
+ * candado de escritura tomado; cada conjunto contiene a lo sumo un elemento por entidad
+ * del estado.
+ */
+final class RegistroCambios {
+
+    private final Set<OfertaMarketPlace> ofertas = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final Set<Cliente> clientes = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final Set<Evento> eventos = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    void marcarOferta(OfertaMarketPlace oferta) {
+        ofertas.add(oferta);
+    }
+
+    void marcarCliente(Cliente cliente) {
+        if (cliente != null) {
+            clientes.add(cliente);
+        }
+    }
+
+    void marcarEvento(Evento evento) {
+        if (evento != null) {
+            eventos.add(evento);
+        }
+    }
+
+    /**
+     * @return las ofertas marcadas, dejando vacío su conjunto.
+     */
+    List<OfertaMarketPlace> tomarOfertas() {
+        return tomar(ofertas);
+    }
+
+    List<Cliente> tomarClientes() {
+        return tomar(clientes);
+    }
+
+    List<Evento> tomarEventos() {
+        return tomar(eventos);
+    }
+
+    /**
+     * Olvida todas las marcas, cuando la instantánea siguiente se construye desde cero.
+     */
+    void descartar() {
+        ofertas.clear();
+        clientes.clear();
+        eventos.clear();
+    }
+
+    private static <T> List<T> tomar(Set<T> marcados) {
+        List<T> resultado = new ArrayList<>(marcados);
+        marcados.clear();
+        return resultado;
+    }
+}
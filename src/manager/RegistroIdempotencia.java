@@ -0,0 +1,230 @@
+package manager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Registro acotado y con expiración de las operaciones ya completadas con una clave
+ * de idempotencia.
+ * <p>
+ * Cada entrada se identifica por operación, login de quien la solicita y clave, y guarda
+ * una huella de los parámetros de la solicitud junto con el resultado (por ejemplo el id
+ * de la contraoferta creada). Cuando el registro se llena se descarta la entrada usada
+ * hace más tiempo; las entradas más antiguas que el tiempo de vida se ignoran y se
+ * eliminan.
+ * <p>
+ * Ninguna operación recorre el registro completo: el mapa está en orden de acceso, así
+ * que la entrada a descartar por capacidad es siempre la primera, y una cola en orden
+ * de registro permite retirar las expiradas desde su cabeza.
+ */
+final class RegistroIdempotencia {
+
+    static final int CAPACIDAD_POR_DEFECTO = 10_000;
+    static final Duration VIGENCIA_POR_DEFECTO = Duration.ofHours(24);
+
+    private final Clock reloj;
+    private final LinkedHashMap<String, Entrada> entradas = new LinkedHashMap<>(16, 0.75f, true);
+    /** Entradas en orden de registro; puede contener entradas ya retiradas de {@link #entradas}. */
+    private final ArrayDeque<Entrada> porRegistro = new ArrayDeque<>();
+    private int capacidad = CAPACIDAD_POR_DEFECTO;
+    private Duration vigencia = VIGENCIA_POR_DEFECTO;
+
+    RegistroIdempotencia() {
+        this(Clock.systemUTC());
+    }
+
+    RegistroIdempotencia(Clock reloj) {
+        this.reloj = Objects.requireNonNull(reloj, "reloj");
+    }
+
+    /**
+     * Ajusta los límites del registro y descarta lo que ya no cabe.
+     *
+     * @throws IllegalArgumentException si la capacidad o la vigencia no son positivas.
+     */
+    synchronized void configurar(int capacidad, Duration vigencia) {
+        if (capacidad <= 0 || vigencia == null || vigencia.isNegative() || vigencia.isZero()) {
+            throw new IllegalArgumentException("La capacidad y la vigencia deben ser positivas");
+        }
+        this.capacidad = capacidad;
+        this.vigencia = vigencia;
+        depurar();
+    }
+
+    /**
+     * Busca el resultado de una solicitud ya completada.
+     *
+     * @param huella parámetros de la solicitud actual.
+     * @return el resultado registrado, o vacío si la clave no se ha usado o ya expiró.
+     * @throws IllegalArgumentException si la clave ya se usó con otros parámetros.
+     */
+    synchronized Optional<String> buscar(String operacion, String login, String clave, String huella) {
+        String llave = llave(operacion, login, clave);
+        Entrada entrada = entradas.get(llave);
+        if (entrada == null) {
+            return Optional.empty();
+        }
+        if (expirada(entrada)) {
+            retirar(entradas.remove(llave));
+            return Optional.empty();
+        }
+        if (!entrada.huella.equals(huella)) {
+            throw new IllegalArgumentException("La clave de idempotencia " + clave
+                    + " ya se usó con una solicitud diferente");
+        }
+        return Optional.of(entrada.resultado);
+    }
+
+    /**
+     * @return si la clave tiene un resultado vigente, sin comparar los parámetros; permite
+     *         reconocer un reintento antes de ejecutar nada.
+     */
+    synchronized boolean contiene(String operacion, String login, String clave) {
+        Entrada entrada = entradas.get(llave(operacion, login, clave));
+        return entrada != null && !expirada(entrada);
+    }
+
+    synchronized void registrar(String operacion, String login, String clave, String huella, String resultado) {
+        Entrada entrada = new Entrada(operacion, login, clave, huella, resultado, reloj.instant());
+        retirar(entradas.put(entrada.llave, entrada));
+        entrada.presente = true;
+        porRegistro.addLast(entrada);
+        depurar();
+    }
+
+    synchronized void olvidar(String operacion, String login, String clave) {
+        retirar(entradas.remove(llave(operacion, login, clave)));
+    }
+
+    synchronized int tamano() {
+        return entradas.size();
+    }
+
+    /**
+     * @return copia de las entradas vigentes, de la menos a la más recientemente usada.
+     */
+    synchronized List<Entrada> entradasVigentes() {
+        depurar();
+        return new ArrayList<>(entradas.values());
+    }
+
+    /**
+     * Reemplaza el contenido del registro (usado en persistencia). Las entradas expiradas se descartan.
+     */
+    synchronized void restaurar(List<Entrada> nuevas) {
+        entradas.values().forEach(this::retirar);
+        entradas.clear();
+        porRegistro.clear();
+        for (Entrada entrada : nuevas) {
+            retirar(entradas.put(entrada.llave, entrada));
+            entrada.presente = true;
+        }
+        List<Entrada> ordenadas = new ArrayList<>(entradas.values());
+        ordenadas.sort(Comparator.comparing(Entrada::getRegistrada));
+        porRegistro.addAll(ordenadas);
+        depurar();
+    }
+
+    /**
+     * Retira las entradas expiradas desde la cabeza de la cola de registro y, si aún sobran,
+     * las usadas hace más tiempo desde la cabeza del mapa. Cuesta lo que se retira.
+     */
+    private void depurar() {
+        while (!porRegistro.isEmpty()) {
+            Entrada primera = porRegistro.peekFirst();
+            if (!primera.presente) {
+                porRegistro.pollFirst();
+            } else if (expirada(primera)) {
+                porRegistro.pollFirst();
+                retirar(entradas.remove(primera.llave));
+            } else {
+                break;
+            }
+        }
+        Iterator<Entrada> menosUsadas = entradas.values().iterator();
+        while (entradas.size() > capacidad) {
+            retirar(menosUsadas.next());
+            menosUsadas.remove();
+        }
+        if (porRegistro.size() > 2 * entradas.size() + 16) {
+            porRegistro.removeIf(entrada -> !entrada.presente);
+        }
+    }
+
+    /**
+     * Marca como retirada una entrada que salió del mapa (ignora {@code null}); la cola de
+     * registro la descarta cuando llega a su cabeza.
+     */
+    private void retirar(Entrada entrada) {
+        if (entrada != null) {
+            entrada.presente = false;
+        }
+    }
+
+    private boolean expirada(Entrada entrada) {
+        return entrada.registrada.plus(vigencia).isBefore(reloj.instant());
+    }
+
+    private static String llave(String operacion, String login, String clave) {
+        return operacion + '\u0000' + login + '\u0000' + clave;
+    }
+
+    /**
+     * Solicitud completada y su resultado.
+     */
+    static final class Entrada {
+        private final String operacion;
+        private final String login;
+        private final String clave;
+        private final String huella;
+        private final String resultado;
+        private final Instant registrada;
+        private final String llave;
+        /** Si sigue en el mapa del registro; se lee y escribe con el monitor del registro. */
+        private boolean presente;
+
+        Entrada(String operacion, String login, String clave, String huella, String resultado, Instant registrada) {
+            this.operacion = Objects.requireNonNull(operacion, "operacion");
+            this.login = Objects.requireNonNull(login, "login");
+            this.clave = Objects.requireNonNull(clave, "clave");
+            this.huella = Objects.requireNonNull(huella, "huella");
+            this.resultado = Objects.requireNonNull(resultado, "resultado");
+            this.registrada = Objects.requireNonNull(registrada, "registrada");
+            this.llave = llave(operacion, login, clave);
+        }
+
+        String getOperacion() {
+            return operacion;
+        }
+
+        String getLogin() {
+            return login;
+        }
+
+        String getClave() {
+            return clave;
+        }
+
+        String getHuella() {
+            return huella;
+        }
+
+        String getResultado() {
+            return resultado;
+        }
+
+        Instant getRegistrada() {
+            return registrada;
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package manager;
+
+import Cliente.Organizador;
+import eventos.Evento;
+import eventos.Localidad;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Ventas e ingresos de un organizador por evento y por localidad, generados por
+ * {@link MotorReportesFinanzas}. Los ingresos son la suma de los precios de los tiquetes
+ * emitidos (sin cargos de servicio ni de emisión, que son de la tiquetera); las cortesías
+ * cuentan como tiquetes con ingreso cero. Es inmutable; los montos se suman en centavos.
+ */
+public final class ReporteFinanzas {
+
+    private final Organizador organizador;
+    private final List<ResumenEvento> eventos;
+    private final Map<Evento, ResumenEvento> porEvento;
+    private final long tiquetes;
+    private final long centavos;
+    private final int eventosRecalculados;
+
+    ReporteFinanzas(Organizador organizador, List<ResumenEvento> eventos, int eventosRecalculados) {
+        this.organizador = Objects.requireNonNull(organizador, "organizador");
+        this.eventos = List.copyOf(eventos);
+        Map<Evento, ResumenEvento> indice = new LinkedHashMap<>();
+        long totalTiquetes = 0;
+        long totalCentavos = 0;
+        for (ResumenEvento resumen : this.eventos) {
+            indice.put(resumen.evento, resumen);
+            totalTiquetes += resumen.tiquetes;
+            totalCentavos += resumen.centavos;
+        }
+        this.porEvento = Collections.unmodifiableMap(indice);
+        this.tiquetes = totalTiquetes;
+        this.centavos = totalCentavos;
+        this.eventosRecalculados = eventosRecalculados;
+    }
+
+    public Organizador getOrganizador() {
+        return organizador;
+    }
+
+    /**
+     * @return resúmenes de los eventos, en el orden de {@link Organizador#getEventos()}.
+     */
+    public List<ResumenEvento> getEventos() {
+        return eventos;
+    }
+
+    /**
+     * @return resumen del evento, o {@code null} si no es del organizador.
+     */
+    public ResumenEvento getEvento(Evento evento) {
+        return porEvento.get(evento);
+    }
+
+    public long getTiquetes() {
+        return tiquetes;
+    }
+
+    public double getIngresos() {
+        return centavos / 100.0;
+    }
+
+    /**
+     * @return eventos que se recorrieron para este reporte; los demás se tomaron del anterior.
+     */
+    public int getEventosRecalculados() {
+        return eventosRecalculados;
+    }
+
+    /**
+     * Ventas e ingresos de un evento, con su detalle por localidad.
+     */
+    public static final class ResumenEvento {
+        private final Evento evento;
+        private final Map<Localidad, ResumenLocalidad> porLocalidad;
+        private final long tiquetes;
+        private final long centavos;
+
+        ResumenEvento(Evento evento, Map<Localidad, ResumenLocalidad> porLocalidad) {
+            this.evento = Objects.requireNonNull(evento, "evento");
+            this.porLocalidad = Collections.unmodifiableMap(new LinkedHashMap<>(porLocalidad));
+            long totalTiquetes = 0;
+            long totalCentavos = 0;
+            for (ResumenLocalidad resumen : porLocalidad.values()) {
+                totalTiquetes += resumen.tiquetes;
+                totalCentavos += resumen.centavos;
+            }
+            this.tiquetes = totalTiquetes;
+            this.centavos = totalCentavos;
+        }
+
+        public Evento getEvento() {
+            return evento;
+        }
+
+        /**
+         * @return detalle por localidad, en el orden en que aparecen en los tiquetes; los
+         *         tiquetes sin localidad quedan bajo la clave {@code null}.
+         */
+        public Map<Localidad, ResumenLocalidad> getPorLocalidad() {
+            return porLocalidad;
+        }
+
+        public long getTiquetes() {
+            return tiquetes;
+        }
+
+        public double getIngresos() {
+            return centavos / 100.0;
+        }
+    }
+
+    /**
+     * Ventas e ingresos de una localidad de un evento.
+     */
+    public static final class ResumenLocalidad {
+        private final Localidad localidad;
+        private final long tiquetes;
+        private final long centavos;
+
+        ResumenLocalidad(Localidad localidad, long tiquetes, long centavos) {
+            this.localidad = localidad;
+            this.tiquetes = tiquetes;
+            this.centavos = centavos;
+        }
+
+        /**
+         * @return localidad, o {@code null} para los tiquetes sin localidad.
+         */
+        public Localidad getLocalidad() {
+            return localidad;
+        }
+
+        public long getTiquetes() {
+            return tiquetes;
+        }
+
+        public double getIngresos() {
+            return centavos / 100.0;
+        }
+    }
+}
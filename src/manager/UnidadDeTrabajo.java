@@ -0,0 +1,157 @@
+package manager;
+
+import Cliente.Cliente;
+import Cliente.TableroGanancias;
+import Cliente.Usuario;
+import eventos.TipoEvento;
+import log.LogSistema;
+import marketPlace.ContraOferta;
+import marketPlace.EstadoContraOferta;
+import marketPlace.EstadoOferta;
+import marketPlace.OfertaMarketPlace;
+import tiquetes.Tiquete;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Unidad de trabajo sobre {@link BoletaMasterState} con bitácora de deshacer.
+ * <p>
+ * Cada efecto (movimiento de saldo, cambio de propietario de un tiquete, cambio de
+ * estado, entrada de log, etc.) se aplica de inmediato y deja registrada su acción
+ * inversa. Si la operación falla, {@link #deshacer()} revierte todos los efectos en
+ * orden inverso; si termina bien, {@link #confirmar()} descarta la bitácora.
+ * <p>
+ * Las {@link #marca() marcas} funcionan como puntos de guardado: permiten revertir solo
+ * la última operación de un lote sin afectar las anteriores.
+ * <p>
+ * No es segura para hilos; se usa con el candado de escritura tomado.
+ */
+final class UnidadDeTrabajo {
+
+    private final List<Runnable> inversas = new ArrayList<>();
+
+    /**
+     * @return posición actual de la bitácora, para usar con {@link #deshacerHasta(int)}.
+     */
+    int marca() {
+        return inversas.size();
+    }
+
+    /**
+     * Registra una acción inversa arbitraria para un efecto ya aplicado.
+     */
+    void alDeshacer(Runnable inversa) {
+        inversas.add(Objects.requireNonNull(inversa, "inversa"));
+    }
+
+    void debitar(Usuario usuario, double monto) {
+        double previo = usuario.getSaldo();
+        usuario.usarSaldo(monto);
+        alDeshacer(() -> usuario.setSaldo(previo));
+    }
+
+    void acreditar(Usuario usuario, double monto) {
+        double previo = usuario.getSaldo();
+        usuario.acreditarSaldo(monto);
+        alDeshacer(() -> usuario.setSaldo(previo));
+    }
+
+    void transferirTiquete(Tiquete tiquete, Cliente nuevoPropietario) {
+        Cliente antiguo = tiquete.getCliente();
+        long orden = antiguo == null ? -1 : antiguo.retirarTiquete(tiquete);
+        nuevoPropietario.agregarTiquete(tiquete);
+        tiquete.setCliente(nuevoPropietario);
+        alDeshacer(() -> {
+            tiquete.setCliente(antiguo);
+            nuevoPropietario.eliminarTiquete(tiquete);
+            if (orden >= 0) {
+                antiguo.restaurarTiquete(tiquete, orden);
+            }
+        });
+    }
+
+    void cambiarEstado(OfertaMarketPlace oferta, EstadoOferta estado) {
+        EstadoOferta previo = oferta.getEstado();
+        oferta.setEstado(estado);
+        alDeshacer(() -> oferta.setEstado(previo));
+    }
+
+    void cambiarEstado(ContraOferta contraoferta, EstadoContraOferta estado) {
+        EstadoContraOferta previo = contraoferta.getEstado();
+        contraoferta.setEstado(estado);
+        alDeshacer(() -> contraoferta.setEstado(previo));
+    }
+
+    <K, V> void poner(Map<K, V> mapa, K clave, V valor) {
+        boolean existia = mapa.containsKey(clave);
+        V previo = mapa.put(clave, valor);
+        alDeshacer(() -> restaurar(mapa, clave, existia, previo));
+    }
+
+    <K, V> void quitar(Map<K, V> mapa, K clave) {
+        if (!mapa.containsKey(clave)) {
+            return;
+        }
+        V previo = mapa.remove(clave);
+        alDeshacer(() -> mapa.put(clave, previo));
+    }
+
+    void agregar(BitmapEnteros conjunto, int valor) {
+        if (conjunto.add(valor)) {
+            alDeshacer(() -> conjunto.remove(valor));
+        }
+    }
+
+    void quitar(BitmapEnteros conjunto, int valor) {
+        if (conjunto.remove(valor)) {
+            alDeshacer(() -> conjunto.add(valor));
+        }
+    }
+
+    void registrarReventa(TableroGanancias tablero, Map<TipoEvento, Double> montos) {
+        LocalDate hoy = LocalDate.now();
+        tablero.registrarReventa(hoy, montos);
+        alDeshacer(() -> tablero.anularReventa(hoy, montos));
+    }
+
+    void registrarLog(LogSistema log, String tipo, String descripcion) {
+        int previas = log.tamano();
+        log.registrar(tipo, descripcion);
+        alDeshacer(() -> log.truncar(previas));
+    }
+
+    /**
+     * Revierte, en orden inverso, los efectos registrados después de {@code marca}.
+     */
+    void deshacerHasta(int marca) {
+        for (int i = inversas.size() - 1; i >= marca; i--) {
+            inversas.remove(i).run();
+        }
+    }
+
+    /**
+     * Revierte todos los efectos registrados.
+     */
+    void deshacer() {
+        deshacerHasta(0);
+    }
+
+    /**
+     * Da por definitivos los efectos registrados.
+     */
+    void confirmar() {
+        inversas.clear();
+    }
+
+    private static <K, V> void restaurar(Map<K, V> mapa, K clave, boolean existia, V previo) {
+        if (existia) {
+            mapa.put(clave, previo);
+        } else {
+            mapa.remove(clave);
+        }
+    }
+}
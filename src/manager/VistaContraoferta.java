@@ -0,0 +1,53 @@
+package manager;
+
+import marketPlace.ContraOferta;
+import marketPlace.EstadoContraOferta;
+
+import java.time.LocalDateTime;
+
+/**
+ * Copia inmutable de una {@link ContraOferta}; el comprador se guarda por su login.
+ */
+public final class VistaContraoferta {
+
+    private final String id;
+    private final String comprador;
+    private final double monto;
+    private final EstadoContraOferta estado;
+    private final LocalDateTime fechaCreacion;
+
+    private VistaContraoferta(ContraOferta contraoferta) {
+        this.id = contraoferta.getId();
+        this.comprador = contraoferta.getComprador().getLogin();
+        this.monto = contraoferta.getMonto();
+        this.estado = contraoferta.getEstado();
+        this.fechaCreacion = contraoferta.getFechaCreacion();
+    }
+
+    static VistaContraoferta de(ContraOferta contraoferta) {
+        return new VistaContraoferta(contraoferta);
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * @return login del comprador.
+     */
+    public String getLoginComprador() {
+        return comprador;
+    }
+
+    public double getMonto() {
+        return monto;
+    }
+
+    public EstadoContraOferta getEstado() {
+        return estado;
+    }
+
+    public LocalDateTime getFechaCreacion() {
+        return fechaCreacion;
+    }
+}
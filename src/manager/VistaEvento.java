@@ -0,0 +1,132 @@
+package manager;
+
+import eventos.Evento;
+import eventos.Localidad;
+import eventos.TipoEvento;
+import eventos.Venue;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Copia inmutable de los datos de un {@link Evento} tal como estaba al publicarse una
+ * instantánea de lectura: catálogo (nombre, fecha, venue, tipo, organizador y precios de
+ * las localidades) y tiquetes emitidos. El organizador se guarda por su login.
+ * <p>
+ * La vista se renueva cuando el evento cambia de estado con
+ * {@link BoletaMasterSystem#cambiarEstadoEvento(String, String)} o cuando se le registra un almacén.
+ */
+public final class VistaEvento {
+
+    private final String idEvento;
+    private final String nombre;
+    private final LocalDate fecha;
+    private final LocalTime hora;
+    private final String estado;
+    private final TipoEvento tipoEvento;
+    private final String idVenue;
+    private final String nombreVenue;
+    private final String ubicacionVenue;
+    private final int capacidadMaxima;
+    private final String organizador;
+    private final Map<String, Double> preciosPorLocalidad;
+    private final int vendidos;
+
+    private VistaEvento(Evento evento) {
+        this.idEvento = evento.getIdEvento();
+        this.nombre = evento.getNombre();
+        this.fecha = evento.getFecha();
+        this.hora = evento.getHora();
+        this.estado = evento.getEstado();
+        this.tipoEvento = evento.getTipoEvento();
+        Venue venue = evento.getVenue();
+        this.idVenue = venue == null ? null : venue.getIdVenue();
+        this.nombreVenue = venue == null ? null : venue.getNombre();
+        this.ubicacionVenue = venue == null ? null : venue.getUbicacion();
+        this.capacidadMaxima = evento.getCapacidadMaxima();
+        this.organizador = evento.getOrganizador() == null ? null : evento.getOrganizador().getLogin();
+        Map<String, Double> precios = new LinkedHashMap<>();
+        if (venue != null) {
+            for (Localidad localidad : venue.getLocalidades()) {
+                precios.put(localidad.getNombre(), localidad.getPrecioBase());
+            }
+        }
+        this.preciosPorLocalidad = Collections.unmodifiableMap(precios);
+        this.vendidos = evento.getVendidos();
+    }
+
+    static VistaEvento de(Evento evento) {
+        return new VistaEvento(evento);
+    }
+
+    public String getIdEvento() {
+        return idEvento;
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    public LocalDate getFecha() {
+        return fecha;
+    }
+
+    public LocalTime getHora() {
+        return hora;
+    }
+
+    public String getEstado() {
+        return estado;
+    }
+
+    public TipoEvento getTipoEvento() {
+        return tipoEvento;
+    }
+
+    /**
+     * @return id del venue, o {@code null} si el evento no tiene venue.
+     */
+    public String getIdVenue() {
+        return idVenue;
+    }
+
+    public String getNombreVenue() {
+        return nombreVenue;
+    }
+
+    public String getUbicacionVenue() {
+        return ubicacionVenue;
+    }
+
+    public int getCapacidadMaxima() {
+        return capacidadMaxima;
+    }
+
+    /**
+     * @return login del organizador, o {@code null} si no tiene.
+     */
+    public String getLoginOrganizador() {
+        return organizador;
+    }
+
+    /**
+     * @return precio base de cada localidad del venue, en el orden del venue.
+     */
+    public Map<String, Double> getPreciosPorLocalidad() {
+        return preciosPorLocalidad;
+    }
+
+    public int getVendidos() {
+        return vendidos;
+    }
+
+    /**
+     * @return cupos del venue aún sin tiquete emitido.
+     */
+    public int getRestantes() {
+        return Math.max(0, capacidadMaxima - vendidos);
+    }
+}
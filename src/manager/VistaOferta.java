@@ -0,0 +1,149 @@
+package manager;
+
+import Cliente.Cliente;
+import marketPlace.ContraOferta;
+import marketPlace.EstadoContraOferta;
+import marketPlace.EstadoOferta;
+import marketPlace.OfertaMarketPlace;
+import tiquetes.Tiquete;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Copia inmutable de una {@link OfertaMarketPlace}, con sus tiquetes y contraofertas, tal
+ * como estaba al publicarse una instantánea de lectura. El vendedor se guarda por su login.
+ * <p>
+ * Cada cambio de la oferta (de estado o en sus contraofertas) produce una vista nueva en la
+ * instantánea siguiente; las vistas ya entregadas no cambian.
+ */
+public final class VistaOferta {
+
+    static final Comparator<VistaOferta> POR_FECHA_CREACION =
+            Comparator.comparing(VistaOferta::getFechaCreacion).thenComparing(VistaOferta::getId);
+    private static final Comparator<VistaContraoferta> MEJOR_PRIMERO =
+            Comparator.comparingDouble(VistaContraoferta::getMonto).reversed()
+                    .thenComparing(VistaContraoferta::getFechaCreacion)
+                    .thenComparing(VistaContraoferta::getId);
+
+    private final String id;
+    private final String vendedor;
+    private final List<VistaTiquete> tiquetes;
+    private final double precioInicial;
+    private final EstadoOferta estado;
+    private final List<VistaContraoferta> contraofertas;
+    private final List<VistaContraoferta> pendientes;
+    private final VistaContraoferta mejorPendiente;
+    private final LocalDateTime fechaCreacion;
+    private final LocalDate fechaEvento;
+
+    private VistaOferta(OfertaMarketPlace oferta) {
+        this.id = oferta.getId();
+        this.vendedor = oferta.getVendedor().getLogin();
+        List<VistaTiquete> vistasTiquetes = new ArrayList<>(oferta.getTiquetes().size());
+        for (Tiquete tiquete : oferta.getTiquetes()) {
+            vistasTiquetes.add(VistaTiquete.de(tiquete));
+        }
+        this.tiquetes = List.copyOf(vistasTiquetes);
+        this.precioInicial = oferta.getPrecioInicial();
+        this.estado = oferta.getEstado();
+        List<VistaContraoferta> todas = new ArrayList<>(oferta.getContraofertas().size());
+        List<VistaContraoferta> pendientesOferta = new ArrayList<>();
+        VistaContraoferta mejor = null;
+        for (ContraOferta contraoferta : oferta.getContraofertas()) {
+            VistaContraoferta vista = VistaContraoferta.de(contraoferta);
+            todas.add(vista);
+            if (vista.getEstado() == EstadoContraOferta.PENDIENTE) {
+                pendientesOferta.add(vista);
+                if (mejor == null || MEJOR_PRIMERO.compare(vista, mejor) < 0) {
+                    mejor = vista;
+                }
+            }
+        }
+        this.contraofertas = List.copyOf(todas);
+        this.pendientes = List.copyOf(pendientesOferta);
+        this.mejorPendiente = mejor;
+        this.fechaCreacion = oferta.getFechaCreacion();
+        this.fechaEvento = oferta.getFechaEvento();
+    }
+
+    static VistaOferta de(OfertaMarketPlace oferta) {
+        return new VistaOferta(oferta);
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * @return login del vendedor.
+     */
+    public String getLoginVendedor() {
+        return vendedor;
+    }
+
+    public boolean perteneceAlVendedor(Cliente posibleVendedor) {
+        return posibleVendedor != null && vendedor.equals(posibleVendedor.getLogin());
+    }
+
+    public List<VistaTiquete> getTiquetes() {
+        return tiquetes;
+    }
+
+    public double getPrecioInicial() {
+        return precioInicial;
+    }
+
+    /**
+     * @return precio inicial dividido por el número de tiquetes.
+     */
+    public double getPrecioPorTiquete() {
+        return tiquetes.isEmpty() ? precioInicial : precioInicial / tiquetes.size();
+    }
+
+    public EstadoOferta getEstado() {
+        return estado;
+    }
+
+    public List<VistaContraoferta> getContraofertas() {
+        return contraofertas;
+    }
+
+    /**
+     * @return las contraofertas pendientes, en el orden en que se hicieron.
+     */
+    public List<VistaContraoferta> getContraofertasPendientes() {
+        return pendientes;
+    }
+
+    /**
+     * @return la contraoferta pendiente de mayor monto (ante empate, la más antigua).
+     */
+    public Optional<VistaContraoferta> mejorContraofertaPendiente() {
+        return Optional.ofNullable(mejorPendiente);
+    }
+
+    public Optional<VistaContraoferta> buscarContraoferta(String idContraoferta) {
+        for (VistaContraoferta contraoferta : contraofertas) {
+            if (contraoferta.getId().equals(idContraoferta)) {
+                return Optional.of(contraoferta);
+            }
+        }
+        return Optional.empty();
+    }
+
+    public LocalDateTime getFechaCreacion() {
+        return fechaCreacion;
+    }
+
+    /**
+     * @return fecha del evento más próximo de la oferta, o {@code null} si ningún tiquete tiene evento.
+     */
+    public LocalDate getFechaEvento() {
+        return fechaEvento;
+    }
+}
@@ -0,0 +1,117 @@
+package manager;
+
+import tiquetes.Tiquete;
+import tiquetes.TiqueteBasico;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Copia inmutable de un {@link Tiquete} tal como estaba al publicarse una instantánea de
+ * lectura. El propietario, la localidad y el evento se guardan por su login, nombre e id,
+ * junto con los datos del evento que se muestran con el tiquete.
+ */
+public final class VistaTiquete {
+
+    private final int idTiquete;
+    private final double precio;
+    private final double cargoServicio;
+    private final double cargoEmision;
+    private final String estado;
+    private final boolean impreso;
+    private final LocalDateTime fechaImpresion;
+    private final String localidad;
+    private final Integer numeroAsiento;
+    private final String idEvento;
+    private final String nombreEvento;
+    private final LocalDate fechaEvento;
+    private final String cliente;
+
+    private VistaTiquete(Tiquete tiquete) {
+        this.idTiquete = tiquete.getIdTiquete();
+        this.precio = tiquete.getPrecio();
+        this.cargoServicio = tiquete.getCargoServicio();
+        this.cargoEmision = tiquete.getCargoEmision();
+        this.estado = tiquete.getEstado();
+        this.impreso = tiquete.isImpreso();
+        this.fechaImpresion = tiquete.getFechaImpresion();
+        this.localidad = tiquete.getLocalidad() == null ? null : tiquete.getLocalidad().getNombre();
+        this.numeroAsiento = tiquete instanceof TiqueteBasico basico ? basico.getNumeroAsiento() : null;
+        this.idEvento = tiquete.getEvento().getIdEvento();
+        this.nombreEvento = tiquete.getEvento().getNombre();
+        this.fechaEvento = tiquete.getEvento().getFecha();
+        this.cliente = tiquete.getCliente() == null ? null : tiquete.getCliente().getLogin();
+    }
+
+    static VistaTiquete de(Tiquete tiquete) {
+        return new VistaTiquete(tiquete);
+    }
+
+    public int getIdTiquete() {
+        return idTiquete;
+    }
+
+    public double getPrecio() {
+        return precio;
+    }
+
+    public double getCargoServicio() {
+        return cargoServicio;
+    }
+
+    public double getCargoEmision() {
+        return cargoEmision;
+    }
+
+    /**
+     * @return precio más cargos, como {@link Tiquete#calcularValorTotal()}.
+     */
+    public double getValorTotal() {
+        return precio + cargoServicio + cargoEmision;
+    }
+
+    public String getEstado() {
+        return estado;
+    }
+
+    public boolean isImpreso() {
+        return impreso;
+    }
+
+    public LocalDateTime getFechaImpresion() {
+        return fechaImpresion;
+    }
+
+    /**
+     * @return nombre de la localidad, o {@code null} si el tiquete no tiene.
+     */
+    public String getLocalidad() {
+        return localidad;
+    }
+
+    /**
+     * @return asiento de un tiquete básico numerado, o {@code null}.
+     */
+    public Integer getNumeroAsiento() {
+        return numeroAsiento;
+    }
+
+    public String getIdEvento() {
+        return idEvento;
+    }
+
+    public String getNombreEvento() {
+        return nombreEvento;
+    }
+
+    public LocalDate getFechaEvento() {
+        return fechaEvento;
+    }
+
+    /**
+     * @return login del propietario, o {@code null} si no tiene.
+     */
+    public String getLoginCliente() {
+        return cliente;
+    }
+}
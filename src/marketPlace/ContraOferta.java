@@ -15,6 +15,8 @@ public class ContraOferta {
     private final double monto;
     private EstadoContraOferta estado;
     private final LocalDateTime fechaCreacion;
+    /** Oferta a la que pertenece; se le avisa cada cambio de estado. */
+    private OfertaMarketPlace oferta;
 
     public ContraOferta(Cliente comprador, double monto) {
         this(UUID.randomUUID().toString(), comprador, monto, EstadoContraOferta.PENDIENTE, LocalDateTime.now());
@@ -46,9 +48,17 @@ public class ContraOferta {
 
     public void setEstado(EstadoContraOferta estado) {
         this.estado = Objects.requireNonNull(estado);
+        OfertaMarketPlace actual = oferta;
+        if (actual != null) {
+            actual.alCambiarEstado(this);
+        }
     }
 
     public LocalDateTime getFechaCreacion() {
         return fechaCreacion;
     }
+
+    void vincular(OfertaMarketPlace oferta) {
+        this.oferta = oferta;
+    }
 }
\ No newline at end of file
@@ -4,25 +4,46 @@ import Cliente.Cliente;
 
 import tiquetes.Tiquete;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
 
 /**
  * Oferta publicada por un cliente en el marketplace.
+ * <p>
+ * Sus contraofertas, el índice por id y la mejor pendiente se protegen con el monitor de
+ * la oferta. Cada contraoferta avisa a su oferta cuando cambia de estado, así que la mejor
+ * pendiente se mantiene al día en ese momento y consultarla no modifica nada.
  */
-public class OfertaMarketPlace {
+public final class OfertaMarketPlace {
+    private static final Comparator<ContraOferta> MEJOR_PRIMERO =
+            Comparator.comparingDouble(ContraOferta::getMonto).reversed()
+                    .thenComparing(ContraOferta::getFechaCreacion)
+                    .thenComparing(ContraOferta::getId);
+
     private final String id;
     private final Cliente vendedor;
     private final List<Tiquete> tiquetes;
     private final double precioInicial;
     private EstadoOferta estado;
     private final List<ContraOferta> contraofertas;
+    private final Map<String, ContraOferta> contraofertasPorId;
+    /**
+     * Contraoferta pendiente de mayor monto, o {@code null}. Agregar o volver a poner una
+     * pendiente la compara en O(1); solo cuando la actual deja de estar pendiente o se
+     * retira se recorren las contraofertas para elegir otra.
+     */
+    private ContraOferta mejorPendiente;
     private final LocalDateTime fechaCreacion;
+    private final LocalDate fechaEvento;
 
     public OfertaMarketPlace(Cliente vendedor, List<Tiquete> tiquetes, double precioInicial) {
         this(UUID.randomUUID().toString(), vendedor, tiquetes, precioInicial, EstadoOferta.ACTIVA, new ArrayList<>(), LocalDateTime.now());
@@ -36,7 +57,14 @@ public class OfertaMarketPlace {
         this.precioInicial = precioInicial;
         this.estado = Objects.requireNonNull(estado, "El estado es obligatorio");
         this.contraofertas = new ArrayList<>(Objects.requireNonNull(contraofertas, "Las contraofertas son obligatorias"));
+        this.contraofertasPorId = new HashMap<>();
+        for (ContraOferta contraoferta : this.contraofertas) {
+            contraofertasPorId.put(contraoferta.getId(), contraoferta);
+            contraoferta.vincular(this);
+            considerar(contraoferta);
+        }
         this.fechaCreacion = Objects.requireNonNull(fechaCreacion, "La fecha de creación es obligatoria");
+        this.fechaEvento = fechaEventoMasProximo(this.tiquetes);
     }
 
     public String getId() {
@@ -55,6 +83,26 @@ public class OfertaMarketPlace {
         return precioInicial;
     }
 
+    /**
+     * Precio de la oferta repartido entre sus tiquetes.
+     *
+     * @return precio inicial dividido por el número de tiquetes.
+     */
+    public double getPrecioPorTiquete() {
+        return tiquetes.isEmpty() ? precioInicial : precioInicial / tiquetes.size();
+    }
+
+    /**
+     * Fecha del evento más próximo entre los tiquetes de la oferta, tomada al crearla.
+     * Se fija una sola vez para que el orden de los listados por fecha de evento no cambie
+     * mientras la oferta está indexada.
+     *
+     * @return la fecha, o {@code null} si ningún tiquete tiene evento.
+     */
+    public LocalDate getFechaEvento() {
+        return fechaEvento;
+    }
+
     public EstadoOferta getEstado() {
         return estado;
     }
@@ -63,18 +111,78 @@ public class OfertaMarketPlace {
         this.estado = Objects.requireNonNull(estado);
     }
 
-    public List<ContraOferta> getContraofertas() {
-        return Collections.unmodifiableList(contraofertas);
+    /**
+     * @return copia inmutable de las contraofertas, en orden de creación.
+     */
+    public synchronized List<ContraOferta> getContraofertas() {
+        return List.copyOf(contraofertas);
     }
 
-    public ContraOferta agregarContraoferta(Cliente comprador, double monto) {
+    public synchronized ContraOferta agregarContraoferta(Cliente comprador, double monto) {
         ContraOferta contraoferta = new ContraOferta(comprador, monto);
         contraofertas.add(contraoferta);
+        contraofertasPorId.put(contraoferta.getId(), contraoferta);
+        contraoferta.vincular(this);
+        considerar(contraoferta);
         return contraoferta;
     }
 
-    public Optional<ContraOferta> buscarContraoferta(String idContraoferta) {
-        return contraofertas.stream().filter(c -> c.getId().equals(idContraoferta)).findFirst();
+    /**
+     * Retira una contraoferta previamente agregada (usado para revertir una transacción fallida).
+     *
+     * @return {@code true} si la contraoferta pertenecía a la oferta.
+     */
+    public synchronized boolean retirarContraoferta(ContraOferta contraoferta) {
+        if (contraoferta == null || contraofertasPorId.get(contraoferta.getId()) != contraoferta) {
+            return false;
+        }
+        contraofertasPorId.remove(contraoferta.getId());
+        contraofertas.remove(contraoferta);
+        contraoferta.vincular(null);
+        if (contraoferta == mejorPendiente) {
+            recalcularMejorPendiente();
+        }
+        return true;
+    }
+
+    /**
+     * Retorna la contraoferta pendiente de mayor monto (ante empate, la más antigua), en
+     * tiempo constante.
+     *
+     * @return la mejor contraoferta pendiente, o vacío si no hay ninguna.
+     */
+    public synchronized Optional<ContraOferta> mejorContraofertaPendiente() {
+        return Optional.ofNullable(mejorPendiente);
+    }
+
+    public synchronized Optional<ContraOferta> buscarContraoferta(String idContraoferta) {
+        return Optional.ofNullable(contraofertasPorId.get(idContraoferta));
+    }
+
+    /**
+     * Lo invoca {@link ContraOferta#setEstado(EstadoContraOferta)} para mantener la mejor
+     * contraoferta pendiente.
+     */
+    synchronized void alCambiarEstado(ContraOferta contraoferta) {
+        if (contraoferta.getEstado() == EstadoContraOferta.PENDIENTE) {
+            considerar(contraoferta);
+        } else if (contraoferta == mejorPendiente) {
+            recalcularMejorPendiente();
+        }
+    }
+
+    private void considerar(ContraOferta contraoferta) {
+        if (contraoferta.getEstado() == EstadoContraOferta.PENDIENTE
+                && (mejorPendiente == null || MEJOR_PRIMERO.compare(contraoferta, mejorPendiente) < 0)) {
+            mejorPendiente = contraoferta;
+        }
+    }
+
+    private void recalcularMejorPendiente() {
+        mejorPendiente = null;
+        for (ContraOferta contraoferta : contraofertas) {
+            considerar(contraoferta);
+        }
     }
 
     public boolean perteneceAlVendedor(Cliente posibleVendedor) {
@@ -84,4 +192,15 @@ public class OfertaMarketPlace {
     public LocalDateTime getFechaCreacion() {
         return fechaCreacion;
     }
-}
\ No newline at end of file
+
+    private static LocalDate fechaEventoMasProximo(List<Tiquete> tiquetes) {
+        LocalDate masProxima = null;
+        for (Tiquete tiquete : tiquetes) {
+            if (tiquete.getEvento() != null && tiquete.getEvento().getFecha() != null
+                    && (masProxima == null || tiquete.getEvento().getFecha().isBefore(masProxima))) {
+                masProxima = tiquete.getEvento().getFecha();
+            }
+        }
+        return masProxima;
+    }
+}
@@ -0,0 +1,761 @@
+package tiquetes;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import Cliente.Cliente;
+import eventos.Evento;
+import eventos.Localidad;
+
+/**
+ * Almacén columnar de los tiquetes básicos de un evento masivo.
+ * <p>
+ * En lugar de un objeto {@link TiqueteBasico} por tiquete, cada atributo se guarda como
+ * un valor primitivo (id, tarifa, propietario, localidad, estado, marcas, asiento y fecha
+ * de impresión), de modo que un tiquete ocupa unos 22 bytes y los recorridos
+ * ({@link #sumarValorTotal()}, {@link #contarImpresos()}...) leen memoria contigua.
+ * Las columnas viven en arreglos del heap, en un buffer fuera del heap
+ * ({@link #fueraDeHeap(Evento, int)}) o en un archivo mapeado que sobrevive a reinicios
+ * ({@link #enArchivo(Evento, Path, int)}, {@link #sincronizar()}, {@link #abrir(Path, Evento, Map)}).
+ * Propietarios, localidades, estados y tarifas (precio y cargos, que se repiten por
+ * localidad) se guardan como índices a tablas sin repetidos. Mientras los ids lleguen
+ * consecutivos la fila se deduce del id; si no, se construye un índice id → fila.
+ * <p>
+ * Los llamadores existentes reciben vistas ligeras ({@link #ver(int)}, {@link #buscar(int)}):
+ * objetos {@link TiqueteBasico} que leen y escriben directamente sobre las columnas. Dos
+ * vistas de la misma fila son iguales, así que pueden guardarse en colecciones. La fecha
+ * de impresión se guarda con precisión de segundos. Cada tiquete agregado es una venta
+ * que el evento acredita en el tablero de ganancias; los recuperados con
+ * {@link #abrir(Path, Evento, Map)} solo se cuentan en el evento. No es seguro para hilos.
+ */
+public final class AlmacenTiquetes {
+
+    private static final int CAPACIDAD_MINIMA = 16;
+    private static final int SIN_FECHA = Integer.MIN_VALUE;
+    /** Las fechas de impresión se guardan en segundos desde 2000-01-01 (cubre hasta 2068). */
+    private static final long BASE_FECHAS = LocalDateTime.of(2000, 1, 1, 0, 0).toEpochSecond(ZoneOffset.UTC);
+    private static final int MAX_TARIFAS = Character.MAX_VALUE + 1;
+    private static final byte IMPRESO = 1;
+    private static final byte NUMERADA = 2;
+
+    private final Evento evento;
+    private int tamano;
+    private final ColumnasTiquetes columnas;
+    /** Archivo de las columnas si el almacén es persistente; {@code null} si no. */
+    private final Path archivo;
+    /** Id de la fila 0; mientras {@link #consecutivos}, la fila de un id es {@code id - primerId}. */
+    private int primerId;
+    private boolean consecutivos = true;
+    /** Cuenta los tiquetes agregados y los cambios de precio o localidad; ver {@link #getVersion()}. */
+    private long version;
+    /** Índice id → fila + 1 con direccionamiento abierto ({@code 0} = celda vacía); solo sin {@link #consecutivos}. */
+    private int[] filasPorId;
+
+    private final List<Cliente> clientes = new ArrayList<>();
+    private final Map<Cliente, Integer> indiceClientes = new IdentityHashMap<>();
+    private final List<Localidad> tablaLocalidades = new ArrayList<>();
+    private final Map<Localidad, Integer> indiceLocalidades = new IdentityHashMap<>();
+    private final List<String> tablaEstados = new ArrayList<>();
+    private final List<Tarifa> tablaTarifas = new ArrayList<>();
+    private final Map<Tarifa, Integer> indiceTarifas = new HashMap<>();
+
+    /**
+     * @param evento    evento al que pertenecen todos los tiquetes (obligatorio).
+     * @param esperados número de tiquetes que se espera guardar sin redimensionar.
+     */
+    public AlmacenTiquetes(Evento evento, int esperados) {
+        this.evento = Objects.requireNonNull(evento, "El evento es obligatorio");
+        this.columnas = new ColumnasEnHeap(capacidadInicial(esperados));
+        this.archivo = null;
+    }
+
+    private AlmacenTiquetes(Evento evento, ColumnasTiquetes columnas, Path archivo) {
+        this.evento = Objects.requireNonNull(evento, "El evento es obligatorio");
+        this.columnas = columnas;
+        this.archivo = archivo;
+    }
+
+    /**
+     * Crea un almacén cuyas columnas viven fuera del heap, en un buffer directo: el recolector
+     * de basura no las recorre ni las copia.
+     *
+     * @param evento    evento al que pertenecen todos los tiquetes (obligatorio).
+     * @param esperados número de tiquetes que se espera guardar sin redimensionar.
+     */
+    public static AlmacenTiquetes fueraDeHeap(Evento evento, int esperados) {
+        return new AlmacenTiquetes(evento, ColumnasFueraDeHeap.enMemoria(capacidadInicial(esperados)), null);
+    }
+
+    /**
+     * Crea un almacén cuyas columnas viven en {@code archivo}, mapeado en memoria. Si el archivo
+     * existe se reemplaza. {@link #sincronizar()} lo deja listo para {@link #abrir(Path, Evento, Map)}.
+     *
+     * @param evento    evento al que pertenecen todos los tiquetes (obligatorio).
+     * @param archivo   archivo de las columnas; las tablas de clientes, localidades, estados y
+     *                  tarifas se guardan junto a él con extensión {@code .tablas}.
+     * @param esperados número de tiquetes que se espera guardar sin redimensionar.
+     * @throws UncheckedIOException si no se puede crear el archivo.
+     */
+    public static AlmacenTiquetes enArchivo(Evento evento, Path archivo, int esperados) {
+        Objects.requireNonNull(evento, "El evento es obligatorio");
+        Objects.requireNonNull(archivo, "El archivo es obligatorio");
+        return new AlmacenTiquetes(evento, ColumnasFueraDeHeap.crearArchivo(archivo, capacidadInicial(esperados)),
+                archivo);
+    }
+
+    /**
+     * Reabre un almacén guardado con {@link #sincronizar()}. Los tiquetes agregados después de la
+     * última sincronización no se recuperan.
+     *
+     * @param evento            evento del almacén; sus localidades se buscan por nombre en el venue.
+     * @param clientesPorLogin  clientes registrados, para resolver los propietarios.
+     * @throws IllegalStateException si falta un cliente o una localidad, o el archivo no es un almacén.
+     * @throws UncheckedIOException  si no se pueden leer los archivos.
+     */
+    public static AlmacenTiquetes abrir(Path archivo, Evento evento, Map<String, ? extends Cliente> clientesPorLogin) {
+        Objects.requireNonNull(evento, "El evento es obligatorio");
+        ColumnasFueraDeHeap columnas = ColumnasFueraDeHeap.abrirArchivo(archivo);
+        AlmacenTiquetes almacen = new AlmacenTiquetes(evento, columnas, archivo);
+        almacen.leerTablas(clientesPorLogin);
+        almacen.tamano = columnas.filasGuardadas();
+        almacen.version = almacen.tamano;
+        if (almacen.tamano > 0) {
+            almacen.primerId = columnas.id(0);
+            for (int fila = 1; fila < almacen.tamano && almacen.consecutivos; fila++) {
+                almacen.consecutivos = columnas.id(fila) == almacen.primerId + fila;
+            }
+            if (!almacen.consecutivos) {
+                almacen.construirIndice();
+            }
+        }
+        for (int fila = 0; fila < almacen.tamano; fila++) {
+            Tarifa tarifa = almacen.tarifa(fila);
+            evento.registrarTiqueteAlmacenado((columnas.marcas(fila) & IMPRESO) != 0, tarifa.precio(),
+                    tarifa.cargoServicio(), tarifa.cargoEmision());
+        }
+        return almacen;
+    }
+
+    private static int capacidadInicial(int esperados) {
+        if (esperados < 0) {
+            throw new IllegalArgumentException("La capacidad no puede ser negativa");
+        }
+        return Math.max(esperados, CAPACIDAD_MINIMA);
+    }
+
+    public Evento getEvento() {
+        return evento;
+    }
+
+    /**
+     * @return archivo de las columnas si el almacén es persistente; {@code null} si vive en memoria.
+     */
+    public Path getArchivo() {
+        return archivo;
+    }
+
+    public int getTamano() {
+        return tamano;
+    }
+
+    /**
+     * @return contador que aumenta con cada tiquete agregado y cada cambio de precio o de
+     *         localidad, como {@link Evento#getVersion()}.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * @return localidades de los tiquetes del almacén, en el orden de sus índices en
+     *         {@link #sumarVentasPorLocalidad(int, int, long[], long[])}.
+     */
+    public List<Localidad> getLocalidades() {
+        return Collections.unmodifiableList(tablaLocalidades);
+    }
+
+    /**
+     * Agrega al almacén un tiquete recién vendido; el evento acredita la venta.
+     *
+     * @return fila asignada al tiquete.
+     * @throws IllegalArgumentException si ya hay un tiquete con ese id o algún valor es negativo.
+     * @throws NullPointerException     si {@code estado} es {@code null}.
+     */
+    public int agregar(Cliente cliente, int idTiquete, double precio, double cargoServicio, double cargoEmision,
+            String estado, Localidad localidad, Integer numeroAsiento, boolean localidadNumerada) {
+        if (buscarFila(idTiquete) >= 0) {
+            throw new IllegalArgumentException("Ya existe el tiquete " + idTiquete);
+        }
+        if (precio < 0 || cargoServicio < 0 || cargoEmision < 0) {
+            throw new IllegalArgumentException("El precio y los cargos deben ser positivos");
+        }
+        Objects.requireNonNull(estado, "El estado es obligatorio");
+        char tarifa = codigoTarifa(new Tarifa(precio, cargoServicio, cargoEmision));
+        if (tamano == columnas.capacidad()) {
+            redimensionar(columnas.capacidad() + (columnas.capacidad() >> 1));
+        }
+        if (tamano == 0) {
+            primerId = idTiquete;
+        } else if (consecutivos && idTiquete != primerId + tamano) {
+            consecutivos = false;
+            construirIndice();
+        }
+        int fila = tamano++;
+        columnas.setId(fila, idTiquete);
+        columnas.setTarifa(fila, tarifa);
+        columnas.setPropietario(fila, indiceCliente(cliente));
+        columnas.setLocalidad(fila, indiceLocalidad(localidad));
+        columnas.setEstado(fila, codigoEstado(estado));
+        columnas.setMarcas(fila, localidadNumerada ? NUMERADA : 0);
+        columnas.setAsiento(fila, numeroAsiento == null ? 0 : numeroAsiento);
+        columnas.setFechaImpresion(fila, SIN_FECHA);
+        if (!consecutivos) {
+            indexar(fila);
+        }
+        version++;
+        evento.venderTiqueteAlmacenado(precio, cargoServicio, cargoEmision);
+        return fila;
+    }
+
+    /**
+     * @return vista del tiquete con ese id, o {@code null} si no está en el almacén.
+     */
+    public Tiquete buscar(int idTiquete) {
+        int fila = buscarFila(idTiquete);
+        return fila < 0 ? null : new Vista(fila);
+    }
+
+    /**
+     * @return id del tiquete guardado en la fila, sin crear una vista.
+     * @throws IndexOutOfBoundsException si la fila no existe.
+     */
+    public int idEn(int fila) {
+        Objects.checkIndex(fila, tamano);
+        return columnas.id(fila);
+    }
+
+    public boolean contiene(int idTiquete) {
+        return buscarFila(idTiquete) >= 0;
+    }
+
+    /**
+     * @return vista del tiquete guardado en la fila.
+     * @throws IndexOutOfBoundsException si la fila no existe.
+     */
+    public Tiquete ver(int fila) {
+        Objects.checkIndex(fila, tamano);
+        return new Vista(fila);
+    }
+
+    /**
+     * @return vistas de los tiquetes cuyo propietario es {@code cliente}.
+     */
+    public List<Tiquete> tiquetesDe(Cliente cliente) {
+        Integer indice = indiceClientes.get(cliente);
+        List<Tiquete> resultado = new ArrayList<>();
+        if (indice == null) {
+            return resultado;
+        }
+        for (int fila = 0; fila < tamano; fila++) {
+            if (columnas.propietario(fila) == indice) {
+                resultado.add(new Vista(fila));
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * @return suma de {@link Tiquete#calcularValorTotal()} de todos los tiquetes.
+     */
+    public double sumarValorTotal() {
+        int[] conteos = new int[tablaTarifas.size()];
+        for (int fila = 0; fila < tamano; fila++) {
+            conteos[columnas.tarifa(fila)]++;
+        }
+        double total = 0;
+        for (int i = 0; i < conteos.length; i++) {
+            total += conteos[i] * tablaTarifas.get(i).total();
+        }
+        return total;
+    }
+
+    public int contarImpresos() {
+        int impresos = 0;
+        for (int fila = 0; fila < tamano; fila++) {
+            impresos += columnas.marcas(fila) & IMPRESO;
+        }
+        return impresos;
+    }
+
+    /**
+     * @return tiquetes con ese estado (comparación exacta).
+     */
+    public int contarPorEstado(String estado) {
+        int codigo = tablaEstados.indexOf(estado);
+        if (codigo < 0) {
+            return 0;
+        }
+        int total = 0;
+        for (int fila = 0; fila < tamano; fila++) {
+            if ((columnas.estado(fila) & 0xFF) == codigo) {
+                total++;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * @return tiquetes emitidos por localidad, en el orden en que aparecieron las localidades.
+     */
+    public Map<Localidad, Integer> contarPorLocalidad() {
+        int[] conteos = new int[tablaLocalidades.size()];
+        for (int fila = 0; fila < tamano; fila++) {
+            short localidad = columnas.localidad(fila);
+            if (localidad >= 0) {
+                conteos[localidad]++;
+            }
+        }
+        Map<Localidad, Integer> resultado = new LinkedHashMap<>();
+        for (int i = 0; i < conteos.length; i++) {
+            resultado.put(tablaLocalidades.get(i), conteos[i]);
+        }
+        return resultado;
+    }
+
+    /**
+     * Suma por localidad los tiquetes y sus precios (en centavos) de las filas
+     * {@code [desde, hasta)}. La posición {@code i} de cada arreglo corresponde a
+     * {@code getLocalidades().get(i)}; la posición extra del final, a los tiquetes sin localidad.
+     * <p>
+     * Solo lee las columnas, así que varios hilos pueden sumar rangos distintos a la vez
+     * mientras nadie modifique el almacén.
+     *
+     * @param tiquetes arreglo de tamaño {@code getLocalidades().size() + 1} donde se suman los tiquetes.
+     * @param centavos arreglo del mismo tamaño donde se suman los precios.
+     * @throws IndexOutOfBoundsException si el rango no está dentro del almacén.
+     * @throws IllegalArgumentException  si los arreglos no tienen el tamaño esperado.
+     */
+    public void sumarVentasPorLocalidad(int desde, int hasta, long[] tiquetes, long[] centavos) {
+        Objects.checkFromToIndex(desde, hasta, tamano);
+        int sinLocalidad = tablaLocalidades.size();
+        if (tiquetes.length != sinLocalidad + 1 || centavos.length != sinLocalidad + 1) {
+            throw new IllegalArgumentException("Se esperaban arreglos de tamaño " + (sinLocalidad + 1));
+        }
+        long[] precios = new long[tablaTarifas.size()];
+        for (int i = 0; i < precios.length; i++) {
+            precios[i] = Math.round(tablaTarifas.get(i).precio() * 100.0);
+        }
+        for (int fila = desde; fila < hasta; fila++) {
+            short localidad = columnas.localidad(fila);
+            int posicion = localidad < 0 ? sinLocalidad : localidad;
+            tiquetes[posicion]++;
+            centavos[posicion] += precios[columnas.tarifa(fila)];
+        }
+    }
+
+    /**
+     * Lleva las columnas al archivo y guarda junto a él las tablas de estados, tarifas,
+     * propietarios (por login) y localidades (por nombre). No hace nada si el almacén no es
+     * persistente.
+     *
+     * @throws UncheckedIOException si no se pueden escribir los archivos.
+     */
+    public void sincronizar() {
+        if (archivo == null) {
+            return;
+        }
+        escribirTablas(archivoTablas(archivo));
+        columnas.sincronizar(tamano);
+    }
+
+    /**
+     * Guarda una copia de los tiquetes en {@code destino}, en el formato que lee
+     * {@link #abrir(Path, Evento, Map)}; sirve para persistir un almacén que vive en memoria.
+     * El almacén no cambia ni queda asociado al archivo.
+     *
+     * @throws IllegalArgumentException si {@code destino} es el archivo del propio almacén.
+     * @throws UncheckedIOException     si no se pueden escribir los archivos.
+     */
+    public void guardarEn(Path destino) {
+        Objects.requireNonNull(destino, "El archivo es obligatorio");
+        if (destino.equals(archivo)) {
+            throw new IllegalArgumentException("Use sincronizar() para guardar el almacén en su propio archivo");
+        }
+        ColumnasFueraDeHeap copia = ColumnasFueraDeHeap.crearArchivo(destino, capacidadInicial(tamano));
+        for (int fila = 0; fila < tamano; fila++) {
+            copia.setId(fila, columnas.id(fila));
+            copia.setTarifa(fila, columnas.tarifa(fila));
+            copia.setPropietario(fila, columnas.propietario(fila));
+            copia.setLocalidad(fila, columnas.localidad(fila));
+            copia.setEstado(fila, columnas.estado(fila));
+            copia.setMarcas(fila, columnas.marcas(fila));
+            copia.setAsiento(fila, columnas.asiento(fila));
+            copia.setFechaImpresion(fila, columnas.fechaImpresion(fila));
+        }
+        escribirTablas(archivoTablas(destino));
+        copia.sincronizar(tamano);
+    }
+
+    private void escribirTablas(Path tablas) {
+        try (DataOutputStream salida = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(tablas)))) {
+            salida.writeInt(tablaEstados.size());
+            for (String estado : tablaEstados) {
+                salida.writeUTF(estado);
+            }
+            salida.writeInt(tablaTarifas.size());
+            for (Tarifa tarifa : tablaTarifas) {
+                salida.writeDouble(tarifa.precio());
+                salida.writeDouble(tarifa.cargoServicio());
+                salida.writeDouble(tarifa.cargoEmision());
+            }
+            salida.writeInt(clientes.size());
+            for (Cliente cliente : clientes) {
+                salida.writeUTF(cliente.getLogin());
+            }
+            salida.writeInt(tablaLocalidades.size());
+            for (Localidad localidad : tablaLocalidades) {
+                salida.writeUTF(localidad.getNombre());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudieron guardar las tablas en " + tablas, e);
+        }
+    }
+
+    private void leerTablas(Map<String, ? extends Cliente> clientesPorLogin) {
+        Map<String, Localidad> localidadesPorNombre = new HashMap<>();
+        if (evento.getVenue() != null) {
+            for (Localidad localidad : evento.getVenue().getLocalidades()) {
+                localidadesPorNombre.put(localidad.getNombre(), localidad);
+            }
+        }
+        try (DataInputStream entrada = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(archivoTablas(archivo))))) {
+            for (int i = entrada.readInt(); i > 0; i--) {
+                tablaEstados.add(entrada.readUTF());
+            }
+            for (int i = entrada.readInt(); i > 0; i--) {
+                codigoTarifa(new Tarifa(entrada.readDouble(), entrada.readDouble(), entrada.readDouble()));
+            }
+            for (int i = entrada.readInt(); i > 0; i--) {
+                String login = entrada.readUTF();
+                Cliente cliente = clientesPorLogin.get(login);
+                if (cliente == null) {
+                    throw new IllegalStateException("No existe el cliente " + login + " del almacén " + archivo);
+                }
+                indiceCliente(cliente);
+            }
+            for (int i = entrada.readInt(); i > 0; i--) {
+                String nombre = entrada.readUTF();
+                Localidad localidad = localidadesPorNombre.get(nombre);
+                if (localidad == null) {
+                    throw new IllegalStateException("No existe la localidad " + nombre + " del almacén " + archivo);
+                }
+                indiceLocalidad(localidad);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudieron leer las tablas de " + archivo, e);
+        }
+    }
+
+    private static Path archivoTablas(Path archivo) {
+        return archivo.resolveSibling(archivo.getFileName() + ".tablas");
+    }
+
+    private int indiceCliente(Cliente cliente) {
+        if (cliente == null) {
+            return -1;
+        }
+        return indiceClientes.computeIfAbsent(cliente, c -> {
+            clientes.add(c);
+            return clientes.size() - 1;
+        });
+    }
+
+    private short indiceLocalidad(Localidad localidad) {
+        if (localidad == null) {
+            return -1;
+        }
+        Integer indice = indiceLocalidades.get(localidad);
+        if (indice == null) {
+            if (tablaLocalidades.size() == Short.MAX_VALUE) {
+                throw new IllegalStateException("Demasiadas localidades en el almacén");
+            }
+            indice = tablaLocalidades.size();
+            tablaLocalidades.add(localidad);
+            indiceLocalidades.put(localidad, indice);
+        }
+        return indice.shortValue();
+    }
+
+    private byte codigoEstado(String estado) {
+        int codigo = tablaEstados.indexOf(estado);
+        if (codigo < 0) {
+            if (tablaEstados.size() == 256) {
+                throw new IllegalStateException("Demasiados estados distintos en el almacén");
+            }
+            codigo = tablaEstados.size();
+            tablaEstados.add(estado);
+        }
+        return (byte) codigo;
+    }
+
+    private char codigoTarifa(Tarifa tarifa) {
+        Integer codigo = indiceTarifas.get(tarifa);
+        if (codigo == null) {
+            if (tablaTarifas.size() == MAX_TARIFAS) {
+                throw new IllegalStateException("Demasiadas tarifas distintas en el almacén");
+            }
+            codigo = tablaTarifas.size();
+            tablaTarifas.add(tarifa);
+            indiceTarifas.put(tarifa, codigo);
+        }
+        return (char) codigo.intValue();
+    }
+
+    private Tarifa tarifa(int fila) {
+        return tablaTarifas.get(columnas.tarifa(fila));
+    }
+
+    private int buscarFila(int idTiquete) {
+        if (consecutivos) {
+            long fila = (long) idTiquete - primerId;
+            return fila >= 0 && fila < tamano ? (int) fila : -1;
+        }
+        int mascara = filasPorId.length - 1;
+        int celda = dispersar(idTiquete) & mascara;
+        while (filasPorId[celda] != 0) {
+            int fila = filasPorId[celda] - 1;
+            if (columnas.id(fila) == idTiquete) {
+                return fila;
+            }
+            celda = (celda + 1) & mascara;
+        }
+        return -1;
+    }
+
+    private void indexar(int fila) {
+        int mascara = filasPorId.length - 1;
+        int celda = dispersar(columnas.id(fila)) & mascara;
+        while (filasPorId[celda] != 0) {
+            celda = (celda + 1) & mascara;
+        }
+        filasPorId[celda] = fila + 1;
+    }
+
+    private static int dispersar(int clave) {
+        int h = clave * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private void redimensionar(int capacidad) {
+        columnas.redimensionar(capacidad, tamano);
+        if (!consecutivos) {
+            construirIndice();
+        }
+    }
+
+    /**
+     * Construye el índice id → fila con carga máxima 3/4 de la capacidad de las columnas.
+     */
+    private void construirIndice() {
+        filasPorId = new int[Integer.highestOneBit(Math.max((int) (columnas.capacidad() * 4L / 3), CAPACIDAD_MINIMA) - 1) << 1];
+        for (int fila = 0; fila < tamano; fila++) {
+            indexar(fila);
+        }
+    }
+
+    private void marcar(int fila, byte marca, boolean valor) {
+        columnas.setMarcas(fila, (byte) (valor ? columnas.marcas(fila) | marca : columnas.marcas(fila) & ~marca));
+    }
+
+    /**
+     * Tiquete que lee y escribe su fila del almacén. Hereda el id y el evento, que no cambian;
+     * los demás campos heredados no se usan.
+     */
+    private final class Vista extends TiqueteBasico {
+        private final int fila;
+
+        private Vista(int fila) {
+            super(null, columnas.id(fila), 0, 0, 0, "", null, evento, null, false);
+            this.fila = fila;
+        }
+
+        @Override
+        public double getPrecio() {
+            return tarifa(fila).precio();
+        }
+
+        @Override
+        public void setPrecio(double precio) {
+            if (precio < 0) {
+                throw new IllegalArgumentException("El precio debe ser positivo");
+            }
+            Tarifa actual = tarifa(fila);
+            columnas.setTarifa(fila, codigoTarifa(new Tarifa(precio, actual.cargoServicio(), actual.cargoEmision())));
+            version++;
+            evento.registrarCambioPrecioAlmacenado(precio - actual.precio());
+        }
+
+        @Override
+        public double getCargoServicio() {
+            return tarifa(fila).cargoServicio();
+        }
+
+        @Override
+        public void setCargoServicio(double cargoServicio) {
+            if (cargoServicio < 0) {
+                throw new IllegalArgumentException("El cargo de servicio debe ser positivo");
+            }
+            Tarifa actual = tarifa(fila);
+            columnas.setTarifa(fila, codigoTarifa(new Tarifa(actual.precio(), cargoServicio, actual.cargoEmision())));
+            evento.registrarCambioCargosAlmacenados(cargoServicio - actual.cargoServicio(), 0);
+        }
+
+        @Override
+        public double getCargoEmision() {
+            return tarifa(fila).cargoEmision();
+        }
+
+        @Override
+        public void setCargoEmision(double cargoEmision) {
+            if (cargoEmision < 0) {
+                throw new IllegalArgumentException("El cargo de emisión debe ser positivo");
+            }
+            Tarifa actual = tarifa(fila);
+            columnas.setTarifa(fila, codigoTarifa(new Tarifa(actual.precio(), actual.cargoServicio(), cargoEmision)));
+            evento.registrarCambioCargosAlmacenados(0, cargoEmision - actual.cargoEmision());
+        }
+
+        @Override
+        public String getEstado() {
+            return tablaEstados.get(columnas.estado(fila) & 0xFF);
+        }
+
+        @Override
+        public void setEstado(String estado) {
+            columnas.setEstado(fila, codigoEstado(Objects.requireNonNull(estado, "El estado es obligatorio")));
+        }
+
+        @Override
+        public boolean isImpreso() {
+            return (columnas.marcas(fila) & IMPRESO) != 0;
+        }
+
+        @Override
+        public void setImpreso(boolean impreso) {
+            if (impreso != isImpreso()) {
+                marcar(fila, IMPRESO, impreso);
+                evento.registrarImpresionAlmacenada(impreso);
+            }
+        }
+
+        @Override
+        public LocalDateTime getFechaImpresion() {
+            int segundos = columnas.fechaImpresion(fila);
+            return segundos == SIN_FECHA ? null
+                    : LocalDateTime.ofEpochSecond(BASE_FECHAS + segundos, 0, ZoneOffset.UTC);
+        }
+
+        /**
+         * @throws IllegalArgumentException si la fecha no está entre 1932 y 2068.
+         */
+        @Override
+        public void setFechaImpresion(LocalDateTime fechaImpresion) {
+            if (fechaImpresion == null) {
+                columnas.setFechaImpresion(fila, SIN_FECHA);
+                return;
+            }
+            long segundos = fechaImpresion.toEpochSecond(ZoneOffset.UTC) - BASE_FECHAS;
+            if (segundos <= SIN_FECHA || segundos > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Fecha de impresión fuera de rango: " + fechaImpresion);
+            }
+            columnas.setFechaImpresion(fila, (int) segundos);
+        }
+
+        @Override
+        public Localidad getLocalidad() {
+            short indice = columnas.localidad(fila);
+            return indice < 0 ? null : tablaLocalidades.get(indice);
+        }
+
+        @Override
+        public void setLocalidad(Localidad localidad) {
+            columnas.setLocalidad(fila, indiceLocalidad(Objects.requireNonNull(localidad, "La localidad es obligatoria")));
+            version++;
+        }
+
+        @Override
+        public Cliente getCliente() {
+            int indice = columnas.propietario(fila);
+            return indice < 0 ? null : clientes.get(indice);
+        }
+
+        @Override
+        public void setCliente(Cliente cliente) {
+            columnas.setPropietario(fila, indiceCliente(cliente));
+        }
+
+        @Override
+        public Integer getNumeroAsiento() {
+            int asiento = columnas.asiento(fila);
+            return asiento == 0 ? null : asiento;
+        }
+
+        @Override
+        public void setNumeroAsiento(Integer numeroAsiento) {
+            columnas.setAsiento(fila, numeroAsiento == null ? 0 : numeroAsiento);
+        }
+
+        @Override
+        public boolean isLocalidadNumerada() {
+            return (columnas.marcas(fila) & NUMERADA) != 0;
+        }
+
+        @Override
+        public void setLocalidadNumerada(boolean localidadNumerada) {
+            marcar(fila, NUMERADA, localidadNumerada);
+        }
+
+        @Override
+        public double calcularValorTotal() {
+            return tarifa(fila).total();
+        }
+
+        @Override
+        public boolean equals(Object otro) {
+            return otro instanceof Vista vista && vista.fila == fila && vista.almacen() == almacen();
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(almacen()) * 31 + fila;
+        }
+
+        private AlmacenTiquetes almacen() {
+            return AlmacenTiquetes.this;
+        }
+    }
+
+    private record Tarifa(double precio, double cargoServicio, double cargoEmision) {
+        private double total() {
+            return precio + cargoServicio + cargoEmision;
+        }
+    }
+}
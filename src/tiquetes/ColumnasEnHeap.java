@@ -0,0 +1,126 @@
+package tiquetes;
+
+import java.util.Arrays;
+
+/**
+ * Columnas de tiquetes en arreglos primitivos del heap, una por atributo.
+ */
+final class ColumnasEnHeap extends ColumnasTiquetes {
+
+    private int[] ids;
+    private char[] tarifas;
+    private int[] propietarios;
+    private short[] localidades;
+    private byte[] estados;
+    private byte[] marcas;
+    private int[] asientos;
+    private int[] fechasImpresion;
+
+    ColumnasEnHeap(int capacidad) {
+        ids = new int[capacidad];
+        tarifas = new char[capacidad];
+        propietarios = new int[capacidad];
+        localidades = new short[capacidad];
+        estados = new byte[capacidad];
+        marcas = new byte[capacidad];
+        asientos = new int[capacidad];
+        fechasImpresion = new int[capacidad];
+    }
+
+    @Override
+    int capacidad() {
+        return ids.length;
+    }
+
+    @Override
+    void redimensionar(int capacidad, int filas) {
+        ids = Arrays.copyOf(ids, capacidad);
+        tarifas = Arrays.copyOf(tarifas, capacidad);
+        propietarios = Arrays.copyOf(propietarios, capacidad);
+        localidades = Arrays.copyOf(localidades, capacidad);
+        estados = Arrays.copyOf(estados, capacidad);
+        marcas = Arrays.copyOf(marcas, capacidad);
+        asientos = Arrays.copyOf(asientos, capacidad);
+        fechasImpresion = Arrays.copyOf(fechasImpresion, capacidad);
+    }
+
+    @Override
+    int id(int fila) {
+        return ids[fila];
+    }
+
+    @Override
+    void setId(int fila, int id) {
+        ids[fila] = id;
+    }
+
+    @Override
+    char tarifa(int fila) {
+        return tarifas[fila];
+    }
+
+    @Override
+    void setTarifa(int fila, char tarifa) {
+        tarifas[fila] = tarifa;
+    }
+
+    @Override
+    int propietario(int fila) {
+        return propietarios[fila];
+    }
+
+    @Override
+    void setPropietario(int fila, int propietario) {
+        propietarios[fila] = propietario;
+    }
+
+    @Override
+    short localidad(int fila) {
+        return localidades[fila];
+    }
+
+    @Override
+    void setLocalidad(int fila, short localidad) {
+        localidades[fila] = localidad;
+    }
+
+    @Override
+    byte estado(int fila) {
+        return estados[fila];
+    }
+
+    @Override
+    void setEstado(int fila, byte estado) {
+        estados[fila] = estado;
+    }
+
+    @Override
+    byte marcas(int fila) {
+        return marcas[fila];
+    }
+
+    @Override
+    void setMarcas(int fila, byte marcas) {
+        this.marcas[fila] = marcas;
+    }
+
+    @Override
+    int asiento(int fila) {
+        return asientos[fila];
+    }
+
+    @Override
+    void setAsiento(int fila, int asiento) {
+        asientos[fila] = asiento;
+    }
+
+    @Override
+    int fechaImpresion(int fila) {
+        return fechasImpresion[fila];
+    }
+
+    @Override
+    void setFechaImpresion(int fila, int fecha) {
+        fechasImpresion[fila] = fecha;
+    }
+}
@@ -0,0 +1,227 @@
+package tiquetes;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Columnas de tiquetes fuera del heap: un registro de {@value #REGISTRO} bytes por fila
+ * en un {@link ByteBuffer} directo o en un archivo mapeado en memoria.
+ * <p>
+ * El recolector de basura solo ve el objeto buffer, no los registros, así que millones de
+ * tiquetes no alargan las pausas ni ocupan heap. Mapeado a un archivo, el contenido
+ * sobrevive a reinicios: el archivo empieza con una cabecera (firma, versión y número de
+ * filas válidas) que se actualiza en {@link #sincronizar(int)}. Un buffer admite hasta
+ * unos 89 millones de filas.
+ */
+final class ColumnasFueraDeHeap extends ColumnasTiquetes {
+
+    static final int REGISTRO = 24;
+    private static final int CABECERA = 16;
+    private static final int FIRMA = 0x424D5449;
+    private static final int VERSION = 1;
+
+    private static final int ID = 0;
+    private static final int PROPIETARIO = 4;
+    private static final int ASIENTO = 8;
+    private static final int FECHA = 12;
+    private static final int TARIFA = 16;
+    private static final int LOCALIDAD = 18;
+    private static final int ESTADO = 20;
+    private static final int MARCAS = 21;
+
+    /** Archivo mapeado, o {@code null} si el buffer es directo. */
+    private final Path archivo;
+    private final int inicio;
+    private ByteBuffer datos;
+    private int capacidad;
+
+    private ColumnasFueraDeHeap(Path archivo, int capacidad) {
+        this.archivo = archivo;
+        this.inicio = archivo == null ? 0 : CABECERA;
+        this.datos = reservar(capacidad);
+        this.capacidad = capacidad;
+    }
+
+    /**
+     * @return columnas en un buffer directo (no sobreviven al proceso).
+     */
+    static ColumnasFueraDeHeap enMemoria(int capacidad) {
+        return new ColumnasFueraDeHeap(null, capacidad);
+    }
+
+    /**
+     * Crea (o reemplaza) el archivo y lo mapea con espacio para {@code capacidad} filas.
+     */
+    static ColumnasFueraDeHeap crearArchivo(Path archivo, int capacidad) {
+        try {
+            // Solo se crea o trunca; el mapeo lo hace el constructor.
+            FileChannel.open(archivo, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING).close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo crear " + archivo, e);
+        }
+        ColumnasFueraDeHeap columnas = new ColumnasFueraDeHeap(archivo, capacidad);
+        columnas.datos.putInt(0, FIRMA).putInt(4, VERSION).putInt(8, 0);
+        return columnas;
+    }
+
+    /**
+     * Mapea un archivo creado con {@link #crearArchivo(Path, int)}.
+     *
+     * @throws IllegalStateException si el archivo no tiene la cabecera esperada.
+     */
+    static ColumnasFueraDeHeap abrirArchivo(Path archivo) {
+        long tamanoArchivo;
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+            tamanoArchivo = canal.size();
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo abrir " + archivo, e);
+        }
+        if (tamanoArchivo < CABECERA) {
+            throw new IllegalStateException("El archivo " + archivo + " no es un almacén de tiquetes");
+        }
+        ColumnasFueraDeHeap columnas = new ColumnasFueraDeHeap(archivo, (int) ((tamanoArchivo - CABECERA) / REGISTRO));
+        if (columnas.datos.getInt(0) != FIRMA || columnas.datos.getInt(4) != VERSION) {
+            throw new IllegalStateException("El archivo " + archivo + " no es un almacén de tiquetes");
+        }
+        return columnas;
+    }
+
+    /**
+     * @return filas válidas registradas en la cabecera del archivo en el último {@link #sincronizar(int)}.
+     */
+    int filasGuardadas() {
+        return archivo == null ? 0 : datos.getInt(8);
+    }
+
+    @Override
+    int capacidad() {
+        return capacidad;
+    }
+
+    @Override
+    void redimensionar(int nuevaCapacidad, int filas) {
+        if (archivo != null) {
+            // El archivo ya contiene las filas; basta con mapearlo más grande.
+            datos = reservar(nuevaCapacidad);
+        } else {
+            ByteBuffer nuevos = reservar(nuevaCapacidad);
+            nuevos.put(0, datos, 0, filas * REGISTRO);
+            datos = nuevos;
+        }
+        capacidad = nuevaCapacidad;
+    }
+
+    @Override
+    void sincronizar(int filas) {
+        if (archivo != null) {
+            datos.putInt(8, filas);
+            ((MappedByteBuffer) datos).force();
+        }
+    }
+
+    private ByteBuffer reservar(int filas) {
+        long bytes = inicio + (long) filas * REGISTRO;
+        if (bytes > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Demasiados tiquetes para un almacén fuera del heap: " + filas);
+        }
+        if (archivo == null) {
+            return ByteBuffer.allocateDirect((int) bytes).order(ByteOrder.LITTLE_ENDIAN);
+        }
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return canal.map(FileChannel.MapMode.READ_WRITE, 0, bytes).order(ByteOrder.LITTLE_ENDIAN);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo mapear " + archivo, e);
+        }
+    }
+
+    private int posicion(int fila, int campo) {
+        return inicio + fila * REGISTRO + campo;
+    }
+
+    @Override
+    int id(int fila) {
+        return datos.getInt(posicion(fila, ID));
+    }
+
+    @Override
+    void setId(int fila, int id) {
+        datos.putInt(posicion(fila, ID), id);
+    }
+
+    @Override
+    char tarifa(int fila) {
+        return datos.getChar(posicion(fila, TARIFA));
+    }
+
+    @Override
+    void setTarifa(int fila, char tarifa) {
+        datos.putChar(posicion(fila, TARIFA), tarifa);
+    }
+
+    @Override
+    int propietario(int fila) {
+        return datos.getInt(posicion(fila, PROPIETARIO));
+    }
+
+    @Override
+    void setPropietario(int fila, int propietario) {
+        datos.putInt(posicion(fila, PROPIETARIO), propietario);
+    }
+
+    @Override
+    short localidad(int fila) {
+        return datos.getShort(posicion(fila, LOCALIDAD));
+    }
+
+    @Override
+    void setLocalidad(int fila, short localidad) {
+        datos.putShort(posicion(fila, LOCALIDAD), localidad);
+    }
+
+    @Override
+    byte estado(int fila) {
+        return datos.get(posicion(fila, ESTADO));
+    }
+
+    @Override
+    void setEstado(int fila, byte estado) {
+        datos.put(posicion(fila, ESTADO), estado);
+    }
+
+    @Override
+    byte marcas(int fila) {
+        return datos.get(posicion(fila, MARCAS));
+    }
+
+    @Override
+    void setMarcas(int fila, byte marcas) {
+        datos.put(posicion(fila, MARCAS), marcas);
+    }
+
+    @Override
+    int asiento(int fila) {
+        return datos.getInt(posicion(fila, ASIENTO));
+    }
+
+    @Override
+    void setAsiento(int fila, int asiento) {
+        datos.putInt(posicion(fila, ASIENTO), asiento);
+    }
+
+    @Override
+    int fechaImpresion(int fila) {
+        return datos.getInt(posicion(fila, FECHA));
+    }
+
+    @Override
+    void setFechaImpresion(int fila, int fecha) {
+        datos.putInt(posicion(fila, FECHA), fecha);
+    }
+}
@@ -0,0 +1,58 @@
+package tiquetes;
+
+/**
+ * Almacenamiento de las columnas de un {@link AlmacenTiquetes}: un valor primitivo por
+ * atributo y fila. El almacén decide qué significa cada valor; las implementaciones solo
+ * los guardan, en el heap ({@link ColumnasEnHeap}) o fuera de él ({@link ColumnasFueraDeHeap}).
+ */
+abstract class ColumnasTiquetes {
+
+    /**
+     * @return número de filas que caben sin redimensionar.
+     */
+    abstract int capacidad();
+
+    /**
+     * Amplía la capacidad conservando las primeras {@code filas} filas.
+     */
+    abstract void redimensionar(int capacidad, int filas);
+
+    abstract int id(int fila);
+
+    abstract void setId(int fila, int id);
+
+    abstract char tarifa(int fila);
+
+    abstract void setTarifa(int fila, char tarifa);
+
+    abstract int propietario(int fila);
+
+    abstract void setPropietario(int fila, int propietario);
+
+    abstract short localidad(int fila);
+
+    abstract void setLocalidad(int fila, short localidad);
+
+    abstract byte estado(int fila);
+
+    abstract void setEstado(int fila, byte estado);
+
+    abstract byte marcas(int fila);
+
+    abstract void setMarcas(int fila, byte marcas);
+
+    abstract int asiento(int fila);
+
+    abstract void setAsiento(int fila, int asiento);
+
+    abstract int fechaImpresion(int fila);
+
+    abstract void setFechaImpresion(int fila, int fecha);
+
+    /**
+     * Deja constancia de que hay {@code filas} filas válidas (p. ej. en la cabecera de un archivo)
+     * y las lleva al medio de almacenamiento; por defecto no hace nada.
+     */
+    void sincronizar(int filas) {
+    }
+}
@@ -20,16 +20,17 @@ import eventos.Localidad;
  *   <li>cargo fijo de emisión</li>
  * </ul>
  * <p>
- * Proporciona utilidades comunes como el cálculo del valor total a pagar.
+ * Proporciona utilidades comunes como el cálculo del valor total a pagar. El identificador
+ * y el evento se fijan al construirlo y no cambian.
  */
 public abstract class Tiquete {
-	private int idTiquete;
+	private final int idTiquete;
     private double precio;
     private double cargoServicio;
     private double cargoEmision;
     private String estado;
     private Localidad localidad;
-    private Evento evento;
+    private final Evento evento;
     private Cliente cliente;
     private boolean impreso;
     private LocalDateTime fechaImpresion;
@@ -66,9 +67,6 @@ public abstract class Tiquete {
         return idTiquete;
     }
 
-    public void setIdTiquete(int idTiquete) {
-        this.idTiquete = idTiquete;
-    }
 
     public double getPrecio() {
         return precio;
@@ -78,29 +76,47 @@ public abstract class Tiquete {
         if (precio < 0) {
             throw new IllegalArgumentException("El precio debe ser positivo");
         }
+        double anterior = this.precio;
         this.precio = precio;
+        if (evento != null) {
+            evento.registrarCambioPrecio(this, precio - anterior);
+        }
     }
 
     public double getCargoServicio() {
         return cargoServicio;
     }
 
+    /**
+     * Cambia el cargo de servicio y lo refleja en el tablero de ganancias del evento.
+     */
     public void setCargoServicio(double cargoServicio) {
         if (cargoServicio < 0) {
             throw new IllegalArgumentException("El cargo de servicio debe ser positivo");
         }
+        double anterior = this.cargoServicio;
         this.cargoServicio = cargoServicio;
+        if (evento != null) {
+            evento.registrarCambioCargos(this, cargoServicio - anterior, 0);
+        }
     }
 
     public double getCargoEmision() {
         return cargoEmision;
     }
 
+    /**
+     * Cambia el cargo de emisión y lo refleja en el tablero de ganancias del evento.
+     */
     public void setCargoEmision(double cargoEmision) {
         if (cargoEmision < 0) {
             throw new IllegalArgumentException("El cargo de emisión debe ser positivo");
         }
+        double anterior = this.cargoEmision;
         this.cargoEmision = cargoEmision;
+        if (evento != null) {
+            evento.registrarCambioCargos(this, 0, cargoEmision - anterior);
+        }
     }
 
     public String getEstado() {
@@ -115,12 +131,24 @@ public abstract class Tiquete {
         return impreso;
     }
 
+    /**
+     * Cambia la marca de impresión y la refleja en el inventario del evento y la localidad.
+     */
     public void setImpreso(boolean impreso) {
+        if (this.impreso == impreso) {
+            return;
+        }
         this.impreso = impreso;
+        if (evento != null) {
+            evento.registrarImpresion(this, impreso);
+        }
+        if (localidad != null) {
+            localidad.registrarImpresion(this, impreso);
+        }
     }
 
     public void marcarImpreso() {
-        this.impreso = true;
+        setImpreso(true);
     }
 
     public Localidad getLocalidad() {
@@ -129,15 +157,15 @@ public abstract class Tiquete {
 
     public void setLocalidad(Localidad localidad) {
         this.localidad = Objects.requireNonNull(localidad, "La localidad es obligatoria");
+        if (evento != null) {
+            evento.registrarCambioTiquete(this);
+        }
     }
 
     public Evento getEvento() {
         return evento;
     }
 
-    public void setEvento(Evento evento) {
-        this.evento = Objects.requireNonNull(evento, "El evento es obligatorio");
-    }
 
     public Cliente getCliente() {
         return cliente;
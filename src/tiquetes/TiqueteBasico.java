@@ -44,6 +44,9 @@ public class TiqueteBasico extends Tiquete {
     }
 
     public void setNumeroAsiento(Integer numeroAsiento) {
+        if (getLocalidad() != null) {
+            getLocalidad().reubicarAsiento(this, numeroAsiento);
+        }
         this.numeroAsiento = numeroAsiento;
     }
 
@@ -57,12 +60,13 @@ public class TiqueteBasico extends Tiquete {
     /**
      * Asigna (o reasigna) el número de asiento del tiquete básico.
      * <p>
-     * Nota de dominio: la unicidad del asiento por localidad numerada debe
-     * verificarse en una capa superior antes de llamar este método.
+     * Si el tiquete ya está registrado en su localidad numerada, el mapa de asientos
+     * de la localidad se actualiza (se ocupa el nuevo asiento y se libera el anterior).
      *
      * @param numAsiento número de asiento a establecer.
+     * @throws IllegalStateException si el asiento ya está ocupado en la localidad.
      */
     public void asignarAsiento(int numAsiento) {
-        this.numeroAsiento = numAsiento;
+        setNumeroAsiento(numAsiento);
     }
 }
\ No newline at end of file
@@ -1,4 +1,11 @@
 package tiquetes;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+import eventos.Localidad;
 /**
  * Paquete de tiquetes que agrupa múltiples entradas con un precio total.
  * <p>
@@ -6,10 +13,15 @@ package tiquetes;
  * del paquete completo (véase {@code super(true)}). Las políticas sobre
  * transferencia parcial o restricciones adicionales deben evaluarse en la
  * capa de aplicación según las reglas del dominio.
+ * <p>
+ * En localidades numeradas el paquete puede reservar un bloque de asientos
+ * adyacentes para todas sus entradas con {@link #reservarAsientos(Localidad)}.
  */
 public class TiqueteMultiple extends PaqueteTiquetes {
     private int cantidadEntradas;
     private double precioTotal;
+    private final List<Integer> asientos = new ArrayList<>();
+    private Localidad localidadAsientos;
     /**
      * Crea un paquete múltiple con cantidad de entradas y precio total.
      *
@@ -62,4 +74,42 @@ public class TiqueteMultiple extends PaqueteTiquetes {
     public double calcularPrecioUnitario() {
         return precioTotal / cantidadEntradas;
     }
+
+    /**
+     * Reserva en la localidad el mejor bloque de asientos adyacentes para las
+     * {@link #getCantidadEntradas() entradas} del paquete.
+     *
+     * @param localidad localidad numerada donde reservar (obligatoria).
+     * @return asientos reservados, en orden.
+     * @throws IllegalStateException si el paquete ya tiene asientos o no hay un bloque libre.
+     */
+    public List<Integer> reservarAsientos(Localidad localidad) {
+        Objects.requireNonNull(localidad, "La localidad es obligatoria");
+        if (!asientos.isEmpty()) {
+            throw new IllegalStateException("El paquete ya tiene asientos asignados");
+        }
+        List<Integer> reservados = localidad.reservarBloque(cantidadEntradas);
+        if (reservados.isEmpty()) {
+            throw new IllegalStateException("No hay " + cantidadEntradas
+                    + " asientos contiguos disponibles en " + localidad.getNombre());
+        }
+        asientos.addAll(reservados);
+        localidadAsientos = localidad;
+        return getAsientos();
+    }
+
+    /**
+     * Devuelve a la localidad los asientos reservados por el paquete.
+     */
+    public void liberarAsientos() {
+        if (localidadAsientos != null) {
+            localidadAsientos.liberarAsientos(asientos);
+        }
+        asientos.clear();
+        localidadAsientos = null;
+    }
+
+    public List<Integer> getAsientos() {
+        return Collections.unmodifiableList(asientos);
+    }
 }
\ No newline at end of file